@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.internal.databinding.beans;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-class table of the resolved bean properties and of the method handles
+ * used to read and write them.
+ * <p>
+ * The tables are attached to the classes through {@link ClassValue}s, so they
+ * do not keep bean classes of other bundles from being unloaded. Changes made
+ * to the introspection results after a class was first used, e.g. through
+ * {@link Introspector#flushCaches()}, are not picked up.
+ * </p>
+ */
+final class BeanAccessorTable {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final ClassValue<Optional<Map<String, PropertyDescriptor>>> DESCRIPTORS = new ClassValue<>() {
+		@Override
+		protected Optional<Map<String, PropertyDescriptor>> computeValue(Class<?> type) {
+			try {
+				return Optional.of(introspect(type));
+			} catch (IntrospectionException e) {
+				return Optional.empty();
+			}
+		}
+	};
+
+	private static final ClassValue<Map<Method, Optional<MethodHandle>>> HANDLES = new ClassValue<>() {
+		@Override
+		protected Map<Method, Optional<MethodHandle>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private BeanAccessorTable() {
+	}
+
+	/**
+	 * @param beanClass the bean class or interface
+	 * @return the properties of the given class by name, or <code>null</code> if
+	 *         the class cannot be introspected
+	 */
+	static Map<String, PropertyDescriptor> getPropertyDescriptors(Class<?> beanClass) {
+		return DESCRIPTORS.get(beanClass).orElse(null);
+	}
+
+	/**
+	 * Returns a handle of type <code>(Object)Object</code> invoking the given
+	 * getter.
+	 *
+	 * @param readMethod the getter
+	 * @return the handle, or <code>null</code> if the method cannot be accessed
+	 *         through a method handle
+	 */
+	static MethodHandle getReadHandle(Method readMethod) {
+		return getHandle(readMethod, GETTER_TYPE);
+	}
+
+	/**
+	 * Returns a handle of type <code>(Object,Object)void</code> invoking the given
+	 * setter.
+	 *
+	 * @param writeMethod the setter
+	 * @return the handle, or <code>null</code> if the method cannot be accessed
+	 *         through a method handle
+	 */
+	static MethodHandle getWriteHandle(Method writeMethod) {
+		return getHandle(writeMethod, SETTER_TYPE);
+	}
+
+	private static MethodHandle getHandle(Method method, MethodType type) {
+		Map<Method, Optional<MethodHandle>> handles = HANDLES.get(method.getDeclaringClass());
+		Optional<MethodHandle> handle = handles.get(method);
+		if (handle == null) {
+			handle = unreflect(method, type);
+			handles.put(method, handle);
+		}
+		return handle.orElse(null);
+	}
+
+	private static Optional<MethodHandle> unreflect(Method method, MethodType type) {
+		try {
+			BeanPropertyHelper.setAccessible(method);
+			return Optional.of(MethodHandles.lookup().unreflect(method).asType(type));
+		} catch (IllegalAccessException | RuntimeException e) {
+			// fall back to reflection, which reports the problem on every access
+			return Optional.empty();
+		}
+	}
+
+	private static Map<String, PropertyDescriptor> introspect(Class<?> beanClass) throws IntrospectionException {
+		PropertyDescriptor[] descriptors;
+		if (!beanClass.isInterface()) {
+			descriptors = Introspector.getBeanInfo(beanClass).getPropertyDescriptors();
+		} else {
+			List<PropertyDescriptor> pds = new ArrayList<>();
+			getInterfacePropertyDescriptors(pds, beanClass);
+			descriptors = pds.toArray(new PropertyDescriptor[pds.size()]);
+		}
+		Map<String, PropertyDescriptor> result = new HashMap<>();
+		for (PropertyDescriptor descriptor : descriptors) {
+			// the first descriptor found wins, as with the former linear search
+			result.putIfAbsent(descriptor.getName(), descriptor);
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Goes recursively into the interface and gets all defined
+	 * propertyDescriptors
+	 *
+	 * @param propertyDescriptors The result list of all PropertyDescriptors the
+	 *                            given interface defines (hierarchical)
+	 * @param iface               The interface to fetch the PropertyDescriptors
+	 * @throws IntrospectionException
+	 */
+	private static void getInterfacePropertyDescriptors(List<PropertyDescriptor> propertyDescriptors,
+			Class<?> iface) throws IntrospectionException {
+		BeanInfo beanInfo = Introspector.getBeanInfo(iface);
+		Collections.addAll(propertyDescriptors, beanInfo.getPropertyDescriptors());
+		for (Class<?> subIntf : iface.getInterfaces()) {
+			getInterfacePropertyDescriptors(propertyDescriptors, subIntf);
+		}
+	}
+}
@@ -17,15 +17,12 @@
 
 package org.eclipse.core.internal.databinding.beans;
 
-import java.beans.BeanInfo;
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Map;
 
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.util.Policy;
@@ -50,8 +47,24 @@ public class BeanPropertyHelper {
 	 */
 	public static void writeProperty(Object source,
 			PropertyDescriptor propertyDescriptor, Object value) {
+		Method writeMethod = propertyDescriptor.getWriteMethod();
+		if (writeMethod != null && writeMethod.getDeclaringClass().isInstance(source)
+				&& isAssignable(writeMethod.getParameterTypes()[0], value)) {
+			MethodHandle writeHandle = BeanAccessorTable.getWriteHandle(writeMethod);
+			if (writeHandle != null) {
+				try {
+					writeHandle.invokeExact(source, value);
+				} catch (Throwable e) {
+					/*
+					 * Same as for the InvocationTargetException below, which
+					 * wraps any exception thrown by the invoked method.
+					 */
+					throw new RuntimeException(e);
+				}
+				return;
+			}
+		}
 		try {
-			Method writeMethod = propertyDescriptor.getWriteMethod();
 			if (null == writeMethod) {
 				throw new IllegalArgumentException(
 						"Missing public setter method for " //$NON-NLS-1$
@@ -86,8 +99,19 @@ public class BeanPropertyHelper {
 	 */
 	public static Object readProperty(Object source,
 			PropertyDescriptor propertyDescriptor) {
+		Method readMethod = propertyDescriptor.getReadMethod();
+		if (readMethod != null && readMethod.getDeclaringClass().isInstance(source)) {
+			MethodHandle readHandle = BeanAccessorTable.getReadHandle(readMethod);
+			if (readHandle != null) {
+				try {
+					return readHandle.invokeExact(source);
+				} catch (Throwable e) {
+					// see writeProperty
+					throw new RuntimeException(e);
+				}
+			}
+		}
 		try {
-			Method readMethod = propertyDescriptor.getReadMethod();
 			if (readMethod == null) {
 				throw new IllegalArgumentException(propertyDescriptor.getName()
 						+ " property does not have a read method."); //$NON-NLS-1$
@@ -111,6 +135,19 @@ public class BeanPropertyHelper {
 		}
 	}
 
+	/**
+	 * Whether the given value can be passed for a parameter of the given type
+	 * without any conversion beyond unboxing, which is all the method handles
+	 * of the {@link BeanAccessorTable} do. Anything else is left to the
+	 * reflective path and its error reporting.
+	 */
+	private static boolean isAssignable(Class<?> parameterType, Object value) {
+		if (!parameterType.isPrimitive()) {
+			return value == null || parameterType.isInstance(value);
+		}
+		return value != null && MethodType.methodType(parameterType).wrap().returnType() == value.getClass();
+	}
+
 	/**
 	 * Wrapper around deprecated {@link Method#isAccessible}. Using that method is
 	 * still the right thing to do, even in presence of the new methods
@@ -149,63 +186,19 @@ public class BeanPropertyHelper {
 	 */
 	public static PropertyDescriptor getPropertyDescriptor(Class<?> beanClass,
 			String propertyName) {
-		if (!beanClass.isInterface()) {
-			BeanInfo beanInfo;
-			try {
-				beanInfo = Introspector.getBeanInfo(beanClass);
-			} catch (IntrospectionException e) {
-				// cannot introspect, give up
-				return null;
-			}
-			PropertyDescriptor[] propertyDescriptors = beanInfo
-					.getPropertyDescriptors();
-			for (PropertyDescriptor descriptor : propertyDescriptors) {
-				if (descriptor.getName().equals(propertyName)) {
-					return descriptor;
-				}
-			}
-		} else {
-			try {
-				List<PropertyDescriptor> pds = new ArrayList<>();
-				getInterfacePropertyDescriptors(pds, beanClass);
-				if (pds.size() > 0) {
-					for (PropertyDescriptor descriptor : pds.toArray(new PropertyDescriptor[pds.size()])) {
-						if (descriptor.getName().equals(propertyName))
-							return descriptor;
-					}
-				}
-			} catch (IntrospectionException e) {
-				// cannot introspect, give up
-				return null;
-			}
+		Map<String, PropertyDescriptor> descriptors = BeanAccessorTable.getPropertyDescriptors(beanClass);
+		if (descriptors == null) {
+			// cannot introspect, give up
+			return null;
+		}
+		PropertyDescriptor descriptor = descriptors.get(propertyName);
+		if (descriptor != null) {
+			return descriptor;
 		}
 		throw new IllegalArgumentException(
 				"Could not find property with name " + propertyName + " in class " + beanClass); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
-	/**
-	 * Goes recursively into the interface and gets all defined
-	 * propertyDescriptors
-	 *
-	 * @param propertyDescriptors
-	 *            The result list of all PropertyDescriptors the given interface
-	 *            defines (hierarchical)
-	 * @param iface
-	 *            The interface to fetch the PropertyDescriptors
-	 * @throws IntrospectionException
-	 */
-	private static void getInterfacePropertyDescriptors(
-			List<PropertyDescriptor> propertyDescriptors, Class<?> iface)
-			throws IntrospectionException {
-		BeanInfo beanInfo = Introspector.getBeanInfo(iface);
-		PropertyDescriptor[] pds = beanInfo.getPropertyDescriptors();
-		propertyDescriptors.addAll(Arrays.asList(pds));
-		Class<?>[] subIntfs = iface.getInterfaces();
-		for (Class<?> subIntf : subIntfs) {
-			getInterfacePropertyDescriptors(propertyDescriptors, subIntf);
-		}
-	}
-
 	/**
 	 * @param observable
 	 * @param propertyName
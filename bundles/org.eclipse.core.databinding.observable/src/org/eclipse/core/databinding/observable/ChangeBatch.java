@@ -0,0 +1,355 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.map.IObservableMap;
+import org.eclipse.core.databinding.observable.map.MapChangeEvent;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+import org.eclipse.core.databinding.observable.set.IObservableSet;
+import org.eclipse.core.databinding.observable.set.SetChangeEvent;
+import org.eclipse.core.databinding.observable.set.SetDiff;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+
+/**
+ * The change events held back during {@link Realm#batch(Runnable)}, merged per
+ * observable.
+ */
+/* package */final class ChangeBatch {
+
+	/**
+	 * Number of nested {@link Realm#batch(Runnable)} calls.
+	 */
+	int depth;
+
+	private final Map<ChangeManager, Pending> pending = new IdentityHashMap<>();
+
+	private final List<Pending> order = new ArrayList<>();
+
+	/**
+	 * Holds back the given event until the batch completes.
+	 *
+	 * @param manager the change manager the event is fired through
+	 * @param event   the event
+	 * @return <code>false</code> if the event is not batched and has to be fired
+	 *         right away
+	 */
+	boolean defer(ChangeManager manager, ObservableEvent event) {
+		if (!(event instanceof ChangeEvent || event instanceof ValueChangeEvent || event instanceof ListChangeEvent
+				|| event instanceof SetChangeEvent || event instanceof MapChangeEvent)) {
+			return false;
+		}
+		Pending p = pending.get(manager);
+		if (p == null) {
+			p = new Pending(manager);
+			pending.put(manager, p);
+			order.add(p);
+		}
+		if (event instanceof ChangeEvent) {
+			if (p.change == null) {
+				p.change = event;
+			}
+		} else {
+			p.add(event, !flushing);
+		}
+		return true;
+	}
+
+	/**
+	 * Whether the held back events are being fired.
+	 */
+	boolean flushing;
+
+	/**
+	 * Fires the merged events, in the order the observables first changed.
+	 * <p>
+	 * The generic change events of all observables are fired before their
+	 * typed events, and the events fired by listeners in turn are held back for
+	 * another round. This way a dependent on several of the changed observables,
+	 * e.g. a computed value, becomes dirty only once and is recomputed only
+	 * once its listeners ask for the new state.
+	 * </p>
+	 * <p>
+	 * A listener throwing an exception does not keep the other observables
+	 * from notifying their listeners. The first exception is thrown once all
+	 * events were fired.
+	 * </p>
+	 */
+	void flush() {
+		flushing = true;
+		Throwable failure = null;
+		while (!order.isEmpty()) {
+			List<Pending> round = new ArrayList<>(order);
+			order.clear();
+			pending.clear();
+			List<ObservableEvent> merged = new ArrayList<>(round.size());
+			for (Pending p : round) {
+				ObservableEvent event = p.merge();
+				if (event == null && !p.events.isEmpty()) {
+					// the changes cancelled each other out
+					p.change = null;
+				}
+				merged.add(event);
+			}
+			for (Pending p : round) {
+				if (p.change != null) {
+					failure = dispatch(p.manager, p.change, failure);
+				}
+			}
+			for (int i = 0; i < round.size(); i++) {
+				if (merged.get(i) != null) {
+					failure = dispatch(round.get(i).manager, merged.get(i), failure);
+				}
+			}
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure != null) {
+			throw (Error) failure;
+		}
+	}
+
+	/**
+	 * Fires the given event, catching what its listeners throw.
+	 *
+	 * @return the first exception thrown while flushing, or <code>null</code>
+	 */
+	private static Throwable dispatch(ChangeManager manager, ObservableEvent event, Throwable failure) {
+		try {
+			manager.dispatchEvent(event);
+		} catch (RuntimeException | Error e) {
+			if (failure == null) {
+				return e;
+			}
+			failure.addSuppressed(e);
+		}
+		return failure;
+	}
+
+	private static final class Pending {
+
+		final ChangeManager manager;
+
+		ObservableEvent change;
+
+		final List<ObservableEvent> events = new ArrayList<>(1);
+
+		Pending(ChangeManager manager) {
+			this.manager = manager;
+		}
+
+		/**
+		 * Adds the given event. Within the batch its diff is evaluated right
+		 * away, as it would have been by the listeners, because lazy diffs may
+		 * refer to the live state of the observable, which keeps changing. Once
+		 * the batch completes, dependents fire lazy diffs describing the final
+		 * state, and evaluating them early would defeat their purpose.
+		 */
+		void add(ObservableEvent event, boolean evaluate) {
+			events.add(evaluate ? evaluate(event) : event);
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private static ObservableEvent evaluate(ObservableEvent event) {
+			if (event instanceof ValueChangeEvent) {
+				ValueDiff<?> diff = ((ValueChangeEvent<?>) event).diff;
+				return new ValueChangeEvent((IObservableValue) event.getObservable(),
+						Diffs.createValueDiff(diff.getOldValue(), diff.getNewValue()));
+			} else if (event instanceof ListChangeEvent) {
+				ListDiff<?> diff = ((ListChangeEvent<?>) event).diff;
+				return new ListChangeEvent((IObservableList) event.getObservable(),
+						Diffs.createListDiff((ListDiffEntry[]) diff.getDifferences()));
+			} else if (event instanceof SetChangeEvent) {
+				SetDiff<?> diff = ((SetChangeEvent<?>) event).diff;
+				return new SetChangeEvent((IObservableSet) event.getObservable(),
+						Diffs.createSetDiff(new LinkedHashSet<>(diff.getAdditions()),
+								new LinkedHashSet<>(diff.getRemovals())));
+			} else {
+				MapDiff<?, ?> diff = ((MapChangeEvent<?, ?>) event).diff;
+				Map<Object, Object> oldValues = new HashMap<>();
+				Map<Object, Object> newValues = new HashMap<>();
+				for (Object key : diff.getAddedKeys()) {
+					newValues.put(key, diff.getNewValue(key));
+				}
+				for (Object key : diff.getChangedKeys()) {
+					oldValues.put(key, diff.getOldValue(key));
+					newValues.put(key, diff.getNewValue(key));
+				}
+				for (Object key : diff.getRemovedKeys()) {
+					oldValues.put(key, diff.getOldValue(key));
+				}
+				return new MapChangeEvent((IObservableMap) event.getObservable(),
+						Diffs.createMapDiff(new LinkedHashSet<>(diff.getAddedKeys()),
+								new LinkedHashSet<>(diff.getRemovedKeys()), new LinkedHashSet<>(diff.getChangedKeys()),
+								oldValues, newValues));
+			}
+		}
+
+		/**
+		 * @return the single event describing all held back events, or
+		 *         <code>null</code> if there are none or they do not change
+		 *         anything in total
+		 */
+		ObservableEvent merge() {
+			if (events.isEmpty()) {
+				return null;
+			}
+			ObservableEvent first = events.get(0);
+			if (events.size() == 1) {
+				return first;
+			}
+			if (first instanceof ValueChangeEvent) {
+				return mergeValue();
+			} else if (first instanceof ListChangeEvent) {
+				return mergeList();
+			} else if (first instanceof SetChangeEvent) {
+				return mergeSet();
+			}
+			return mergeMap();
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private ObservableEvent mergeValue() {
+			ValueChangeEvent first = (ValueChangeEvent) events.get(0);
+			ValueChangeEvent last = (ValueChangeEvent) events.get(events.size() - 1);
+			Object oldValue = first.diff.getOldValue();
+			Object newValue = last.diff.getNewValue();
+			if (Objects.equals(oldValue, newValue)) {
+				return null;
+			}
+			return new ValueChangeEvent((IObservableValue) first.getObservable(),
+					Diffs.createValueDiff(oldValue, newValue));
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private ObservableEvent mergeList() {
+			// the list is in its final state, undo the diffs to get the state
+			// before the batch and compare both
+			IObservableList list = (IObservableList) events.get(0).getObservable();
+			List<Object> newList = new ArrayList<>();
+			ObservableTracker.runAndIgnore(() -> newList.addAll(list));
+			List<Object> oldList = new ArrayList<>(newList);
+			for (int i = events.size() - 1; i >= 0; i--) {
+				ListDiffEntry<?>[] entries = ((ListChangeEvent<?>) events.get(i)).diff.getDifferences();
+				for (int j = entries.length - 1; j >= 0; j--) {
+					if (entries[j].isAddition()) {
+						oldList.remove(entries[j].getPosition());
+					} else {
+						oldList.add(entries[j].getPosition(), entries[j].getElement());
+					}
+				}
+			}
+			ListDiff<Object> diff = Diffs.computeListDiff(oldList, newList);
+			if (diff.isEmpty()) {
+				return null;
+			}
+			return new ListChangeEvent(list, diff);
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private ObservableEvent mergeSet() {
+			Set<Object> additions = new LinkedHashSet<>();
+			Set<Object> removals = new LinkedHashSet<>();
+			for (ObservableEvent event : events) {
+				SetChangeEvent<?> setEvent = (SetChangeEvent<?>) event;
+				for (Object element : setEvent.diff.getRemovals()) {
+					if (!additions.remove(element)) {
+						removals.add(element);
+					}
+				}
+				for (Object element : setEvent.diff.getAdditions()) {
+					if (!removals.remove(element)) {
+						additions.add(element);
+					}
+				}
+			}
+			if (additions.isEmpty() && removals.isEmpty()) {
+				return null;
+			}
+			return new SetChangeEvent((IObservableSet) events.get(0).getObservable(),
+					Diffs.createSetDiff(additions, removals));
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private ObservableEvent mergeMap() {
+			// for every key the state before the first and after the last change
+			Map<Object, Object> oldValues = new HashMap<>();
+			Set<Object> oldKeys = new LinkedHashSet<>();
+			Map<Object, Object> newValues = new HashMap<>();
+			Set<Object> newKeys = new LinkedHashSet<>();
+			Set<Object> touched = new LinkedHashSet<>();
+			for (ObservableEvent event : events) {
+				MapDiff<?, ?> diff = ((MapChangeEvent<?, ?>) event).diff;
+				for (Object key : diff.getRemovedKeys()) {
+					if (touched.add(key)) {
+						oldKeys.add(key);
+						oldValues.put(key, diff.getOldValue(key));
+					}
+					newKeys.remove(key);
+					newValues.remove(key);
+				}
+				for (Object key : diff.getChangedKeys()) {
+					if (touched.add(key)) {
+						oldKeys.add(key);
+						oldValues.put(key, diff.getOldValue(key));
+					}
+					newKeys.add(key);
+					newValues.put(key, diff.getNewValue(key));
+				}
+				for (Object key : diff.getAddedKeys()) {
+					touched.add(key);
+					newKeys.add(key);
+					newValues.put(key, diff.getNewValue(key));
+				}
+			}
+
+			Set<Object> addedKeys = new LinkedHashSet<>();
+			Set<Object> removedKeys = new LinkedHashSet<>();
+			Set<Object> changedKeys = new LinkedHashSet<>();
+			for (Object key : touched) {
+				boolean before = oldKeys.contains(key);
+				boolean after = newKeys.contains(key);
+				if (before && after) {
+					if (!Objects.equals(oldValues.get(key), newValues.get(key))) {
+						changedKeys.add(key);
+					}
+				} else if (before) {
+					removedKeys.add(key);
+				} else if (after) {
+					addedKeys.add(key);
+				}
+			}
+			if (addedKeys.isEmpty() && removedKeys.isEmpty() && changedKeys.isEmpty()) {
+				return null;
+			}
+			return new MapChangeEvent((IObservableMap) events.get(0).getObservable(),
+					Diffs.createMapDiff(addedKeys, removedKeys, changedKeys, oldValues, newValues));
+		}
+	}
+}
@@ -15,10 +15,8 @@
  *******************************************************************************/
 package org.eclipse.core.databinding.observable;
 
-import java.util.Set;
-
 import org.eclipse.core.databinding.util.Policy;
-import org.eclipse.core.internal.databinding.identity.IdentitySet;
+import org.eclipse.core.internal.databinding.observable.DependencyCollector;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -64,20 +62,39 @@ import org.eclipse.core.runtime.Status;
 public class ObservableTracker {
 
 	/**
-	 * Threadlocal storage pointing to the current Set of IObservables, or null
-	 * if none. Note that this is actually the top of a stack. Whenever a method
-	 * changes the current value, it remembers the old value as a local variable
-	 * and restores the old value when the method exits.
+	 * The tracking state of a thread. Note that the fields are actually the top
+	 * of a stack. Whenever a method changes the current value, it remembers the
+	 * old value as a local variable and restores the old value when the method
+	 * exits.
 	 */
-	private static ThreadLocal<IChangeListener> currentChangeListener = new ThreadLocal<>();
+	private static final class Tracking {
+		IChangeListener changeListener;
+
+		IStaleListener staleListener;
 
-	private static ThreadLocal<IStaleListener> currentStaleListener = new ThreadLocal<>();
+		/**
+		 * The observables read, or <code>null</code> if none are monitored.
+		 */
+		DependencyCollector getterCalled;
 
-	private static ThreadLocal<Set<IObservable>> currentGetterCalledSet = new ThreadLocal<>();
+		/**
+		 * The observables created, or <code>null</code> if none are collected.
+		 */
+		DependencyCollector observableCreated;
 
-	private static ThreadLocal<Set<IObservable>> currentObservableCreatedSet = new ThreadLocal<>();
+		int ignoreCount;
+	}
 
-	private static ThreadLocal<Integer> currentIgnoreCount = new ThreadLocal<>();
+	private static final ThreadLocal<Tracking> tracking = ThreadLocal.withInitial(Tracking::new);
+
+	/**
+	 * Name of the system property which, when set to <code>true</code>, makes
+	 * {@link #runAndMonitor(Runnable, IChangeListener, IStaleListener)} log the
+	 * number of dependencies of every computation.
+	 */
+	private static final String TRACE_DEPENDENCIES_PROPERTY = "org.eclipse.core.databinding.observable.traceDependencies"; //$NON-NLS-1$
+
+	private static final boolean TRACE_DEPENDENCIES = Boolean.getBoolean(TRACE_DEPENDENCIES_PROPERTY);
 
 	/**
 	 * Invokes the given runnable, and returns the set of IObservables that were
@@ -97,31 +114,38 @@ public class ObservableTracker {
 	 */
 	public static IObservable[] runAndMonitor(Runnable runnable,
 			IChangeListener changeListener, IStaleListener staleListener) {
+		Tracking t = tracking.get();
 		// Remember the previous value in the listener stack
-		Set<IObservable> lastObservableSet = currentGetterCalledSet.get();
-		IChangeListener lastChangeListener = currentChangeListener.get();
-		IStaleListener lastStaleListener = currentStaleListener.get();
-		Integer lastIgnore = currentIgnoreCount.get();
+		DependencyCollector lastObservableSet = t.getterCalled;
+		IChangeListener lastChangeListener = t.changeListener;
+		IStaleListener lastStaleListener = t.staleListener;
+		int lastIgnore = t.ignoreCount;
 
-		Set<IObservable> observableSet = new IdentitySet<>();
+		DependencyCollector observableSet = DependencyCollector.acquire();
 		// Push the new listeners to the top of the stack
-		currentGetterCalledSet.set(observableSet);
-		currentChangeListener.set(changeListener);
-		currentStaleListener.set(staleListener);
-		currentIgnoreCount.set(null);
+		t.getterCalled = observableSet;
+		t.changeListener = changeListener;
+		t.staleListener = staleListener;
+		t.ignoreCount = 0;
 		try {
 			runnable.run();
 		} finally {
 			// Pop the new listener off the top of the stack (by restoring the
 			// previous listener)
-			currentGetterCalledSet.set(lastObservableSet);
-			currentChangeListener.set(lastChangeListener);
-			currentStaleListener.set(lastStaleListener);
-			checkUnmatchedIgnore(runnable);
-			currentIgnoreCount.set(lastIgnore);
+			t.getterCalled = lastObservableSet;
+			t.changeListener = lastChangeListener;
+			t.staleListener = lastStaleListener;
+			checkUnmatchedIgnore(t, runnable);
+			t.ignoreCount = lastIgnore;
 		}
 
-		return observableSet.toArray(new IObservable[observableSet.size()]);
+		IObservable[] result = observableSet.toArray();
+		observableSet.release();
+		if (TRACE_DEPENDENCIES) {
+			Policy.getLog().log(new Status(IStatus.INFO, Policy.JFACE_DATABINDING,
+					runnable + " depends on " + result.length + " observables")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return result;
 	}
 
 	/**
@@ -141,34 +165,37 @@ public class ObservableTracker {
 	 * @since 1.2
 	 */
 	public static IObservable[] runAndCollect(Runnable runnable) {
-		Set<IObservable> lastObservableCreatedSet = currentObservableCreatedSet.get();
-		Integer lastIgnore = currentIgnoreCount.get();
+		Tracking t = tracking.get();
+		DependencyCollector lastObservableCreatedSet = t.observableCreated;
+		int lastIgnore = t.ignoreCount;
 
-		Set<IObservable> observableSet = new IdentitySet<>();
+		DependencyCollector observableSet = DependencyCollector.acquire();
 		// Push the new listeners to the top of the stack
-		currentObservableCreatedSet.set(observableSet);
-		currentIgnoreCount.set(null);
+		t.observableCreated = observableSet;
+		t.ignoreCount = 0;
 		try {
 			runnable.run();
 		} finally {
 			// Pop the new listener off the top of the stack (by restoring the
 			// previous listener)
-			currentObservableCreatedSet.set(lastObservableCreatedSet);
-			checkUnmatchedIgnore(runnable);
-			currentIgnoreCount.set(lastIgnore);
+			t.observableCreated = lastObservableCreatedSet;
+			checkUnmatchedIgnore(t, runnable);
+			t.ignoreCount = lastIgnore;
 		}
 
-		return observableSet.toArray(new IObservable[observableSet.size()]);
+		IObservable[] result = observableSet.toArray();
+		observableSet.release();
+		return result;
 	}
 
-	private static void checkUnmatchedIgnore(Runnable runnable) {
-		if (isIgnore()) {
+	private static void checkUnmatchedIgnore(Tracking t, Runnable runnable) {
+		if (t.ignoreCount > 0) {
 			Policy.getLog()
 					.log(new Status(
 							IStatus.ERROR,
 							Policy.JFACE_DATABINDING,
 							"There were " //$NON-NLS-1$
-									+ currentIgnoreCount.get()
+									+ t.ignoreCount
 									+ " unmatched setIgnore(true) invocations in runnable " //$NON-NLS-1$
 									+ runnable));
 		}
@@ -193,15 +220,13 @@ public class ObservableTracker {
 	 * @since 1.3
 	 */
 	public static void setIgnore(boolean ignore) {
-		Integer lastCount = currentIgnoreCount.get();
-
-		int newCount = (lastCount == null ? 0 : lastCount.intValue())
-				+ (ignore ? 1 : -1);
+		Tracking t = tracking.get();
+		int newCount = t.ignoreCount + (ignore ? 1 : -1);
 
 		if (newCount < 0)
 			throw new IllegalStateException("Ignore count is already zero"); //$NON-NLS-1$
 
-		currentIgnoreCount.set(newCount == 0 ? null : Integer.valueOf(newCount));
+		t.ignoreCount = newCount;
 	}
 
 	/**
@@ -231,10 +256,6 @@ public class ObservableTracker {
 				+ Integer.toHexString(System.identityHashCode(observable));
 	}
 
-	private static boolean isIgnore() {
-		return currentIgnoreCount.get() != null;
-	}
-
 	/**
 	 * Notifies the ObservableTracker that an observable was read from. The
 	 * JavaDoc for methods that invoke this method should include the following
@@ -254,16 +275,17 @@ public class ObservableTracker {
 			Assert.isTrue(false, "Getter called outside realm of observable " //$NON-NLS-1$
 					+ toString(observable));
 
-		if (isIgnore())
+		Tracking t = tracking.get();
+		if (t.ignoreCount > 0)
 			return;
 
-		Set<IObservable> getterCalledSet = currentGetterCalledSet.get();
+		DependencyCollector getterCalledSet = t.getterCalled;
 		if (getterCalledSet != null && getterCalledSet.add(observable)) {
 			// If anyone is listening for observable usage...
-			IChangeListener changeListener = currentChangeListener.get();
+			IChangeListener changeListener = t.changeListener;
 			if (changeListener != null)
 				observable.addChangeListener(changeListener);
-			IStaleListener staleListener = currentStaleListener.get();
+			IStaleListener staleListener = t.staleListener;
 			if (staleListener != null)
 				observable.addStaleListener(staleListener);
 		}
@@ -277,9 +299,10 @@ public class ObservableTracker {
 	 * @since 1.2
 	 */
 	public static void observableCreated(IObservable observable) {
-		if (isIgnore())
+		Tracking t = tracking.get();
+		if (t.ignoreCount > 0)
 			return;
-		Set<IObservable> observableCreatedSet = currentObservableCreatedSet.get();
+		DependencyCollector observableCreatedSet = t.observableCreated;
 		if (observableCreatedSet != null) {
 			observableCreatedSet.add(observable);
 		}
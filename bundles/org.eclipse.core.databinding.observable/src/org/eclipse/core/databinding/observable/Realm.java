@@ -22,6 +22,7 @@ import java.util.TimerTask;
 
 import org.eclipse.core.databinding.util.Policy;
 import org.eclipse.core.internal.databinding.observable.Queue;
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
@@ -120,6 +121,12 @@ public abstract class Realm {
 
 	private Thread workerThread;
 
+	/**
+	 * The changes held back by {@link #batch(Runnable)}, or <code>null</code>
+	 * outside of a batch. Only accessed from within this realm.
+	 */
+	/* package */ChangeBatch batch;
+
 	private volatile Timer timer;
 
 	Queue workQueue = new Queue();
@@ -323,6 +330,51 @@ public abstract class Realm {
 		}
 	}
 
+	/**
+	 * Runs the given runnable as one batch of changes. The change events of all
+	 * observables of this realm that are modified by the runnable are held back
+	 * until it completes. Then every observable that changed notifies its
+	 * listeners once, with a single diff describing the net change from its
+	 * state before the batch to its final state. Observables whose changes
+	 * cancel each other out do not notify their listeners at all.
+	 * <p>
+	 * As a consequence, dependents that learn about changes through listeners,
+	 * such as computed observables, side effects and bindings, see the changes
+	 * made in the batch only after it completed, and are updated only once for
+	 * any number of changes. Staleness, disposal and value changing events are
+	 * not held back.
+	 * </p>
+	 * <p>
+	 * Batches may be nested, in which case the events are held back until the
+	 * outermost batch completes. The events are also fired if the runnable
+	 * throws an exception, which is then passed on to the caller. Changes made
+	 * by listeners while the held back events are fired are batched as well and
+	 * notified before this method returns.
+	 * </p>
+	 *
+	 * @param runnable {@link Runnable} to execute
+	 * @since 1.13
+	 */
+	public void batch(Runnable runnable) {
+		Assert.isTrue(isCurrent(), "Batch started outside of its realm"); //$NON-NLS-1$
+		ChangeBatch current = batch;
+		if (current == null) {
+			current = batch = new ChangeBatch();
+		}
+		current.depth++;
+		try {
+			runnable.run();
+		} finally {
+			if (--current.depth == 0 && !current.flushing) {
+				try {
+					current.flush();
+				} finally {
+					batch = null;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Sets the provided <code>realm</code> as the default for the duration of
 	 * {@link Runnable#run()} and resets the previous realm after completion.
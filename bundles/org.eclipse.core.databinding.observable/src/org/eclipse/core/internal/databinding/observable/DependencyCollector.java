@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.Arrays;
+
+import org.eclipse.core.databinding.observable.IChangeListener;
+import org.eclipse.core.databinding.observable.IObservable;
+
+/**
+ * A reusable set of observables, compared by identity, which remembers the
+ * order they were added in. Collectors are pooled per thread, so that tracking
+ * the dependencies of a computation does not allocate anything but the
+ * resulting array.
+ */
+public final class DependencyCollector {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Collectors that grew beyond this capacity are not returned to the pool.
+	 */
+	private static final int MAX_POOLED_CAPACITY = 1024;
+
+	private static final IObservable[] EMPTY = new IObservable[0];
+
+	private static final ThreadLocal<DependencyCollector> pool = new ThreadLocal<>();
+
+	private IObservable[] table = new IObservable[INITIAL_CAPACITY];
+
+	private IObservable[] elements = new IObservable[INITIAL_CAPACITY / 2];
+
+	private int[] slots = new int[INITIAL_CAPACITY / 2];
+
+	private int size;
+
+	private DependencyCollector next;
+
+	private DependencyCollector() {
+	}
+
+	/**
+	 * @return an empty collector, to be handed back with {@link #release()}
+	 */
+	public static DependencyCollector acquire() {
+		DependencyCollector collector = pool.get();
+		if (collector == null) {
+			return new DependencyCollector();
+		}
+		pool.set(collector.next);
+		collector.next = null;
+		return collector;
+	}
+
+	/**
+	 * Empties this collector and returns it to the pool of the current thread.
+	 * The collector must not be used afterwards.
+	 */
+	public void release() {
+		if (table.length > MAX_POOLED_CAPACITY) {
+			return;
+		}
+		clear();
+		next = pool.get();
+		pool.set(this);
+	}
+
+	/**
+	 * @param observable the observable to add
+	 * @return <code>true</code> if the observable was not contained yet
+	 */
+	public boolean add(IObservable observable) {
+		int mask = table.length - 1;
+		int slot = hash(observable) & mask;
+		IObservable current;
+		while ((current = table[slot]) != null) {
+			if (current == observable) {
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = observable;
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, size * 2);
+			slots = Arrays.copyOf(slots, size * 2);
+		}
+		elements[size] = observable;
+		slots[size] = slot;
+		size++;
+		if (size * 2 > table.length) {
+			rehash();
+		}
+		return true;
+	}
+
+	/**
+	 * @param observable the observable to look for
+	 * @return <code>true</code> if the observable was added
+	 */
+	public boolean contains(IObservable observable) {
+		int mask = table.length - 1;
+		int slot = hash(observable) & mask;
+		IObservable current;
+		while ((current = table[slot]) != null) {
+			if (current == observable) {
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of observables added
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return a new array of the observables, in the order they were added
+	 */
+	public IObservable[] toArray() {
+		if (size == 0) {
+			return EMPTY;
+		}
+		IObservable[] result = new IObservable[size];
+		System.arraycopy(elements, 0, result, 0, size);
+		return result;
+	}
+
+	/**
+	 * Removes all observables.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			table[slots[i]] = null;
+			elements[i] = null;
+		}
+		size = 0;
+	}
+
+	private void rehash() {
+		IObservable[] newTable = new IObservable[table.length * 2];
+		int mask = newTable.length - 1;
+		for (int i = 0; i < size; i++) {
+			int slot = hash(elements[i]) & mask;
+			while (newTable[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			newTable[slot] = elements[i];
+			slots[i] = slot;
+		}
+		table = newTable;
+	}
+
+	private static int hash(IObservable observable) {
+		int h = System.identityHashCode(observable);
+		// spread the bits, identity hash codes are not well distributed in the
+		// low bits on all VMs
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Moves the given change listener from the previous to the current
+	 * dependencies of a computation. The listener is only removed from the
+	 * observables that are no dependency anymore and only added to the new
+	 * ones, the others keep it.
+	 *
+	 * @param previous the observables the listener is currently registered
+	 *                 with, or <code>null</code>
+	 * @param current  the observables the listener has to be registered with
+	 * @param listener the listener
+	 */
+	public static void updateChangeListener(IObservable[] previous, IObservable[] current,
+			IChangeListener listener) {
+		if (previous == null || previous.length == 0) {
+			for (IObservable observable : current) {
+				observable.addChangeListener(listener);
+			}
+			return;
+		}
+		DependencyCollector collector = acquire();
+		try {
+			for (IObservable observable : current) {
+				collector.add(observable);
+			}
+			for (IObservable observable : previous) {
+				if (!collector.contains(observable)) {
+					observable.removeChangeListener(listener);
+				}
+			}
+			collector.clear();
+			for (IObservable observable : previous) {
+				collector.add(observable);
+			}
+			for (IObservable observable : current) {
+				if (!collector.contains(observable)) {
+					observable.addChangeListener(listener);
+				}
+			}
+		} finally {
+			collector.release();
+		}
+	}
+}
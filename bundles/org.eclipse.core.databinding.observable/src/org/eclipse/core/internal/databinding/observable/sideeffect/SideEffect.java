@@ -24,6 +24,7 @@ import org.eclipse.core.databinding.observable.IObservable;
 import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.sideeffect.ISideEffect;
+import org.eclipse.core.internal.databinding.observable.DependencyCollector;
 import org.eclipse.core.runtime.Assert;
 
 /**
@@ -89,6 +90,11 @@ public final class SideEffect implements ISideEffect {
 	 */
 	private boolean asyncScheduled;
 	private int pauseDepth;
+	/**
+	 * True while {@link #runnable} is executing. Changes of the dependencies
+	 * during that time are caused by the runnable itself and are ignored.
+	 */
+	private boolean running;
 	private Runnable runnable;
 	/**
 	 * Dependencies which we are currently listening for change events from
@@ -184,19 +190,23 @@ public final class SideEffect implements ISideEffect {
 	private void update() {
 		if (dirty && pauseDepth <= 0) {
 			dirty = false;
-			// Hold a reference to the old dependencies to prevent them from
-			// being garbage collected until we've computed the new set. In the
-			// event that a dependency is lazily created, this prevents it from
-			// being destroyed and immediately recreated.
-
-			// Stop listening for dependency changes.
-			stopListening();
+			// Keep listening to the old dependencies while computing the new
+			// set, so that only the listeners of the observables which are no
+			// dependency anymore need to be removed and only the new
+			// dependencies need a listener. This also keeps a lazily created
+			// dependency from being destroyed and immediately recreated.
 
 			// This line will do the following:
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(runnable, null, null);
+			IObservable[] newDependencies;
+			running = true;
+			try {
+				newDependencies = ObservableTracker.runAndMonitor(runnable, null, null);
+			} finally {
+				running = false;
+			}
 
 			// If the side-effect disposed itself, exit without attaching any
 			// listeners.
@@ -204,9 +214,7 @@ public final class SideEffect implements ISideEffect {
 				return;
 			}
 
-			for (IObservable next : newDependencies) {
-				next.addChangeListener(privateInterface);
-			}
+			DependencyCollector.updateChangeListener(dependencies, newDependencies, privateInterface);
 
 			dependencies = newDependencies;
 		}
@@ -337,7 +345,9 @@ public final class SideEffect implements ISideEffect {
 	private class PrivateInterface implements IChangeListener, Runnable {
 		@Override
 		public void handleChange(ChangeEvent event) {
-			markDirtyInternal();
+			if (!running) {
+				markDirtyInternal();
+			}
 		}
 
 		@Override
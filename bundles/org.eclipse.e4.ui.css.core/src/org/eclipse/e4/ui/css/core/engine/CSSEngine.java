@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.Collection;
+import java.util.List;
 import org.eclipse.e4.ui.css.core.dom.IElementProvider;
 import org.eclipse.e4.ui.css.core.dom.properties.ICSSPropertyHandler;
 import org.eclipse.e4.ui.css.core.dom.properties.converters.ICSSValueConverter;
@@ -69,6 +70,19 @@ public interface CSSEngine {
 	 */
 	StyleSheet parseStyleSheet(InputSource source) throws IOException;
 
+	/**
+	 * Returns the URIs of the style sheets whose rules were merged into the
+	 * given style sheet by <code>@import</code> rules, including nested imports,
+	 * in the order of their rules. A style sheet therefore comes after the style
+	 * sheets it imports itself.
+	 *
+	 * @param styleSheet a style sheet parsed by this engine
+	 * @return the URIs, or <code>null</code> if they are not known
+	 */
+	default List<String> getImportedURIs(StyleSheet styleSheet) {
+		return null;
+	}
+
 	/*--------------- Parse style declaration -----------------*/
 
 	/**
@@ -219,6 +233,20 @@ public interface CSSEngine {
 	 */
 	void applyStyles(Object node, boolean applyStylesToChildNodes, boolean computeDefaultStyle);
 
+	/**
+	 * Apply styles to the Object node after its CSS classes, its id, its
+	 * attributes or its pseudo classes changed. By default the node and its
+	 * child nodes are styled again, engines may skip the ones whose matching
+	 * rules cannot be affected by the changes.
+	 *
+	 * @param node
+	 * @param changes the keys of the changes, see
+	 *                {@link org.eclipse.e4.ui.css.core.impl.engine.SelectorDependencies}
+	 */
+	default void applyStylesOnChange(Object node, Collection<String> changes) {
+		applyStyles(node, true);
+	}
+
 	/*--------------- Apply style declaration -----------------*/
 
 	/**
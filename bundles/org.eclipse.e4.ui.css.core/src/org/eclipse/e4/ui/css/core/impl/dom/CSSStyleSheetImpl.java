@@ -15,6 +15,8 @@
 
 package org.eclipse.e4.ui.css.core.impl.dom;
 
+import java.util.Collections;
+import java.util.List;
 import org.eclipse.e4.ui.css.core.exceptions.DOMExceptionImpl;
 import org.w3c.dom.DOMException;
 import org.w3c.dom.Node;
@@ -30,6 +32,8 @@ public class CSSStyleSheetImpl extends AbstractCSSNode implements CSSStyleSheet
 
 	private CSSRuleList rules = null;
 
+	private List<String> importedURIs = Collections.emptyList();
+
 	public CSSStyleSheetImpl() {
 		super();
 	}
@@ -108,4 +112,19 @@ public class CSSStyleSheetImpl extends AbstractCSSNode implements CSSStyleSheet
 	public void setRuleList(CSSRuleList rules) {
 		this.rules = rules;
 	}
+
+	/**
+	 * Returns the URIs of the style sheets whose rules were merged into this
+	 * one by <code>@import</code> rules, including nested imports, in the order
+	 * of their rules.
+	 *
+	 * @return the URIs, never <code>null</code>
+	 */
+	public List<String> getImportedURIs() {
+		return importedURIs;
+	}
+
+	public void setImportedURIs(List<String> importedURIs) {
+		this.importedURIs = Collections.unmodifiableList(importedURIs);
+	}
 }
@@ -43,6 +43,7 @@ import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
 import org.eclipse.e4.ui.css.core.dom.ChildVisibilityAwareElement;
 import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
 import org.eclipse.e4.ui.css.core.dom.ExtendedDocumentCSS;
+import org.eclipse.e4.ui.css.core.dom.ExtendedDocumentCSS.StyleSheetChangeListener;
 import org.eclipse.e4.ui.css.core.dom.IElementProvider;
 import org.eclipse.e4.ui.css.core.dom.IStreamingNodeList;
 import org.eclipse.e4.ui.css.core.dom.parsers.CSSParser;
@@ -158,6 +159,16 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	private ResourceRegistryKeyFactory keyFactory;
 
+	/**
+	 * Dependencies of the selectors of the current style sheets, computed when
+	 * first needed.
+	 */
+	private SelectorDependencies selectorDependencies;
+
+	private long restyledElementCount;
+
+	private long skippedElementCount;
+
 	public AbstractCSSEngine() {
 		this(new DocumentCSSImpl());
 	}
@@ -166,6 +177,17 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		this.documentCSS = documentCSS;
 		this.viewCSS = new ViewCSSImpl(documentCSS);
 		keyFactory = new ResourceRegistryKeyFactory();
+		documentCSS.addStyleSheetChangeListener(new StyleSheetChangeListener() {
+			@Override
+			public void styleSheetAdded(StyleSheet styleSheet) {
+				selectorDependencies = null;
+			}
+
+			@Override
+			public void styleSheetRemoved(StyleSheet styleSheet) {
+				selectorDependencies = null;
+			}
+		});
 	}
 
 	/*--------------- Parse style sheet -----------------*/
@@ -194,6 +216,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		CSSRuleList rules = styleSheet.getCssRules();
 		int length = rules.getLength();
 		CSSRuleListImpl masterList = new CSSRuleListImpl();
+		List<String> importedURIs = new ArrayList<>();
 		int counter;
 		for (counter = 0; counter < length; counter++) {
 			CSSRule rule = rules.item(counter);
@@ -235,6 +258,11 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 				for (int j = 0; j < tempRules.getLength(); j++) {
 					masterList.add(tempRules.item(j));
 				}
+				// in the order of the rules, the nested imports come first
+				if (styleSheet instanceof CSSStyleSheetImpl) {
+					importedURIs.addAll(((CSSStyleSheetImpl) styleSheet).getImportedURIs());
+				}
+				importedURIs.add(url.toString());
 			}
 		}
 
@@ -246,12 +274,21 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		// final stylesheet
 		CSSStyleSheetImpl s = new CSSStyleSheetImpl();
 		s.setRuleList(masterList);
+		s.setImportedURIs(importedURIs);
 		if (parseImport == 0) {
 			documentCSS.addStyleSheet(s);
 		}
 		return s;
 	}
 
+	@Override
+	public List<String> getImportedURIs(StyleSheet styleSheet) {
+		if (styleSheet instanceof CSSStyleSheetImpl) {
+			return ((CSSStyleSheetImpl) styleSheet).getImportedURIs();
+		}
+		return null;
+	}
+
 	private void processNodeList(NodeList nodes, BiConsumer<Node, Boolean> consumer, boolean applyStylesToChildNodes) {
 		if (nodes instanceof IStreamingNodeList) {
 			((IStreamingNodeList) nodes).stream().forEach(child -> {
@@ -380,6 +417,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		if (elt == null || !isVisible(elt)) {
 			return;
 		}
+		restyledElementCount++;
 
 		/*
 		 * Compute new Style to apply.
@@ -436,14 +474,80 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 			/*
 			 * Style all children recursive.
 			 */
-			NodeList nodes = elt instanceof ChildVisibilityAwareElement
-					? ((ChildVisibilityAwareElement) elt).getVisibleChildNodes()
-							: elt.getChildNodes();
-					if (nodes != null) {
-						processNodeList(nodes, this::applyStyles, applyStylesToChildNodes);
-						onStylesAppliedToChildNodes(elt, nodes);
-					}
+			NodeList nodes = getVisibleChildNodes(elt);
+			if (nodes != null) {
+				processNodeList(nodes, this::applyStyles, applyStylesToChildNodes);
+				onStylesAppliedToChildNodes(elt, nodes);
+			}
+		}
+	}
+
+	/**
+	 * Apply styles to the element after the given changes, skipping the
+	 * element and the subtrees of its child nodes if no rule of the current
+	 * style sheets depending on the changes can match them.
+	 *
+	 * @see SelectorDependencies
+	 */
+	@Override
+	public void applyStylesOnChange(Object element, Collection<String> changes) {
+		Element elt = getElement(element);
+		if (elt == null || !isVisible(elt)) {
+			return;
+		}
+		SelectorDependencies dependencies = getSelectorDependencies();
+		if (dependencies.affectsElement(changes)) {
+			applyStyles(elt, false);
+		} else {
+			skippedElementCount++;
+		}
+		NodeList nodes = getVisibleChildNodes(elt);
+		if (nodes == null) {
+			return;
+		}
+		if (dependencies.affectsDescendants(changes)) {
+			processNodeList(nodes, this::applyStyles, true);
+			onStylesAppliedToChildNodes(elt, nodes);
+		} else {
+			skippedElementCount += nodes.getLength();
+		}
+	}
+
+	/**
+	 * Returns the dependencies of the selectors of the current style sheets.
+	 *
+	 * @return the dependencies
+	 */
+	public SelectorDependencies getSelectorDependencies() {
+		if (selectorDependencies == null) {
+			selectorDependencies = new SelectorDependencies(documentCSS);
 		}
+		return selectorDependencies;
+	}
+
+	/**
+	 * Returns the number of elements styles were applied to.
+	 *
+	 * @return the number of elements styled
+	 */
+	public long getRestyledElementCount() {
+		return restyledElementCount;
+	}
+
+	/**
+	 * Returns the number of elements {@link #applyStylesOnChange} did not
+	 * style as the changes could not affect them. For a skipped subtree only
+	 * its root is counted.
+	 *
+	 * @return the number of elements skipped
+	 */
+	public long getSkippedElementCount() {
+		return skippedElementCount;
+	}
+
+	private NodeList getVisibleChildNodes(Element elt) {
+		return elt instanceof ChildVisibilityAwareElement ? ((ChildVisibilityAwareElement) elt).getVisibleChildNodes()
+				: elt.getChildNodes();
 	}
 
 	/**
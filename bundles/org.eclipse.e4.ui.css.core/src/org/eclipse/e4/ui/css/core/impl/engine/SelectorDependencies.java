@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.w3c.css.sac.AttributeCondition;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleRule;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.css.CSSValue;
+import org.w3c.dom.css.DocumentCSS;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * The CSS classes, attributes and pseudo classes the selectors of the style
+ * sheets of a document depend on. It tells whether a change of one of them on
+ * an element can change the rules matching the element itself or the elements
+ * below it, so that only those need to be styled again.
+ * <p>
+ * A change is described by keys created with {@link #getClassKey(String)},
+ * {@link #getAttributeKey(String)}, {@link #getPseudoClassKey(String)} and
+ * {@link #ID_KEY}. Conditions of unknown dependencies make every change
+ * relevant. Conditions on a sibling of an element are not considered, as
+ * styling an element never styles its siblings.
+ * </p>
+ */
+public final class SelectorDependencies {
+
+	/**
+	 * The key of a change of the id of an element.
+	 */
+	public static final String ID_KEY = "#";
+
+	private static final String INHERIT = "inherit";
+
+	private static final int SUBJECT = 0;
+
+	private static final int ANCESTOR = 1;
+
+	private static final int SIBLING = 2;
+
+	private final Set<String> subjectKeys = new HashSet<>();
+
+	private final Set<String> ancestorKeys = new HashSet<>();
+
+	private boolean anySubjectChange;
+
+	private boolean anyAncestorChange;
+
+	private boolean inherits;
+
+	/**
+	 * Collects the dependencies of the style rules of the given document.
+	 *
+	 * @param documentCSS the document
+	 */
+	public SelectorDependencies(DocumentCSS documentCSS) {
+		StyleSheetList styleSheets = documentCSS.getStyleSheets();
+		for (int i = 0; i < styleSheets.getLength(); i++) {
+			CSSRuleList rules = ((CSSStyleSheet) styleSheets.item(i)).getCssRules();
+			for (int j = 0; j < rules.getLength(); j++) {
+				CSSRule rule = rules.item(j);
+				if (rule.getType() != CSSRule.STYLE_RULE || !(rule instanceof ExtendedCSSRule)) {
+					continue;
+				}
+				SelectorList selectors = ((ExtendedCSSRule) rule).getSelectorList();
+				for (int k = 0; k < selectors.getLength(); k++) {
+					addSelector(selectors.item(k), SUBJECT);
+				}
+				if (!inherits) {
+					inherits = hasInheritedValue(((CSSStyleRule) rule).getStyle());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the given changes of an element can change the rules
+	 * matching the element.
+	 *
+	 * @param changes the keys of the changes
+	 * @return <code>true</code> if the element has to be styled again
+	 */
+	public boolean affectsElement(Collection<String> changes) {
+		return anySubjectChange ? !changes.isEmpty() : intersects(subjectKeys, changes);
+	}
+
+	/**
+	 * Returns whether the given changes of an element can change the rules
+	 * matching the elements below it, or the values they inherit from it.
+	 *
+	 * @param changes the keys of the changes
+	 * @return <code>true</code> if the child nodes of the element have to be
+	 *         styled again
+	 */
+	public boolean affectsDescendants(Collection<String> changes) {
+		if (anyAncestorChange ? !changes.isEmpty() : intersects(ancestorKeys, changes)) {
+			return true;
+		}
+		return inherits && affectsElement(changes);
+	}
+
+	/**
+	 * @param className the name of a CSS class
+	 * @return the key of adding the class to or removing it from an element
+	 */
+	public static String getClassKey(String className) {
+		return "." + className;
+	}
+
+	/**
+	 * @param name the name of an attribute
+	 * @return the key of a change of the attribute of an element
+	 */
+	public static String getAttributeKey(String name) {
+		return "[" + name;
+	}
+
+	/**
+	 * @param name the name of a pseudo class
+	 * @return the key of an element entering or leaving the pseudo class
+	 */
+	public static String getPseudoClassKey(String name) {
+		return ":" + name;
+	}
+
+	/**
+	 * Returns the keys of changing the CSS classes of an element.
+	 *
+	 * @param oldClasses the space separated classes before, may be
+	 *                   <code>null</code>
+	 * @param newClasses the space separated classes after, may be
+	 *                   <code>null</code>
+	 * @return the keys of the classes which were added or removed, the set may
+	 *         be modified
+	 */
+	public static Set<String> getClassChanges(String oldClasses, String newClasses) {
+		Set<String> oldSet = splitClasses(oldClasses);
+		Set<String> newSet = splitClasses(newClasses);
+		Set<String> changes = new HashSet<>();
+		for (String className : oldSet) {
+			if (!newSet.contains(className)) {
+				changes.add(getClassKey(className));
+			}
+		}
+		for (String className : newSet) {
+			if (!oldSet.contains(className)) {
+				changes.add(getClassKey(className));
+			}
+		}
+		if (!changes.isEmpty()) {
+			// for selectors like [class~='name']
+			changes.add(getAttributeKey("class"));
+		}
+		return changes;
+	}
+
+	private static Set<String> splitClasses(String classes) {
+		Set<String> result = new HashSet<>();
+		if (classes != null) {
+			for (String className : classes.trim().split("\\s+")) {
+				if (!className.isEmpty()) {
+					result.add(className);
+				}
+			}
+		}
+		return result;
+	}
+
+	private void addSelector(Selector selector, int position) {
+		switch (selector.getSelectorType()) {
+		case Selector.SAC_CONDITIONAL_SELECTOR:
+			ConditionalSelector conditional = (ConditionalSelector) selector;
+			addSelector(conditional.getSimpleSelector(), position);
+			addCondition(conditional.getCondition(), position);
+			break;
+		case Selector.SAC_ELEMENT_NODE_SELECTOR:
+		case Selector.SAC_PSEUDO_ELEMENT_SELECTOR:
+		case Selector.SAC_ANY_NODE_SELECTOR:
+		case Selector.SAC_ROOT_NODE_SELECTOR:
+			// the type of an element never changes
+			break;
+		case Selector.SAC_DESCENDANT_SELECTOR:
+		case Selector.SAC_CHILD_SELECTOR:
+			DescendantSelector descendant = (DescendantSelector) selector;
+			addSelector(descendant.getAncestorSelector(), ANCESTOR);
+			addSelector(descendant.getSimpleSelector(), position);
+			break;
+		case Selector.SAC_DIRECT_ADJACENT_SELECTOR:
+			SiblingSelector sibling = (SiblingSelector) selector;
+			addSelector(sibling.getSelector(), SIBLING);
+			addSelector(sibling.getSiblingSelector(), position);
+			break;
+		default:
+			addAnyChange(position);
+		}
+	}
+
+	private void addCondition(Condition condition, int position) {
+		if (condition instanceof CSSClassConditionImpl) {
+			// class conditions report the type of the attribute condition they
+			// extend
+			addKey(getClassKey(((AttributeCondition) condition).getValue()), position);
+			return;
+		}
+		switch (condition.getConditionType()) {
+		case Condition.SAC_AND_CONDITION:
+			CombinatorCondition combinator = (CombinatorCondition) condition;
+			addCondition(combinator.getFirstCondition(), position);
+			addCondition(combinator.getSecondCondition(), position);
+			break;
+		case Condition.SAC_CLASS_CONDITION:
+			addKey(getClassKey(((AttributeCondition) condition).getValue()), position);
+			break;
+		case Condition.SAC_ID_CONDITION:
+			addKey(ID_KEY, position);
+			break;
+		case Condition.SAC_ATTRIBUTE_CONDITION:
+		case Condition.SAC_ONE_OF_ATTRIBUTE_CONDITION:
+		case Condition.SAC_BEGIN_HYPHEN_ATTRIBUTE_CONDITION:
+			String name = ((AttributeCondition) condition).getLocalName();
+			addKey("id".equals(name) ? ID_KEY : getAttributeKey(name), position);
+			break;
+		case Condition.SAC_PSEUDO_CLASS_CONDITION:
+			addKey(getPseudoClassKey(((AttributeCondition) condition).getValue()), position);
+			break;
+		default:
+			addAnyChange(position);
+		}
+	}
+
+	private void addKey(String key, int position) {
+		if (position == SUBJECT) {
+			subjectKeys.add(key);
+		} else if (position == ANCESTOR) {
+			ancestorKeys.add(key);
+		}
+	}
+
+	private void addAnyChange(int position) {
+		if (position == SUBJECT) {
+			anySubjectChange = true;
+		} else if (position == ANCESTOR) {
+			anyAncestorChange = true;
+		}
+	}
+
+	/**
+	 * Returns whether a value of the declaration takes the value of the parent
+	 * element, see {@link AbstractCSSEngine#applyCSSProperty}.
+	 */
+	private static boolean hasInheritedValue(CSSStyleDeclaration style) {
+		for (int i = 0; i < style.getLength(); i++) {
+			CSSValue value = style.getPropertyCSSValue(style.item(i));
+			if (value == null || value.getCssValueType() == CSSValue.CSS_VALUE_LIST) {
+				continue;
+			}
+			if (value.getCssValueType() == CSSValue.CSS_INHERIT) {
+				return true;
+			}
+			try {
+				if (INHERIT.equals(value.getCssText())) {
+					return true;
+				}
+			} catch (RuntimeException e) {
+				// values the model cannot print, like functions, are never
+				// inherited
+			}
+		}
+		return false;
+	}
+
+	private static boolean intersects(Set<String> keys, Collection<String> changes) {
+		for (String change : changes) {
+			if (keys.contains(change)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.swt.internal.theme;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+
+/**
+ * Persistent cache of flattened theme style sheets.
+ * <p>
+ * An entry holds the text of a style sheet with the text of every style sheet
+ * it imports in place of its <code>@import</code> rules, so the engine parses
+ * a single style sheet and resolves no imports. There is one file per style
+ * sheet URL and engine. It is only used as long as the modification times of
+ * the style sheet and of all its imports did not change. The cache lives in
+ * the bundle data area and is therefore shared by all workspaces of an
+ * installation.
+ * </p>
+ */
+final class StyleSheetCache {
+
+	private static final int VERSION = 2;
+
+	private static final String SUFFIX = ".css"; //$NON-NLS-1$
+
+	private static final byte[] IMPORT = "@import".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+
+	private static final byte[] CHARSET = "@charset".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+
+	private static final byte[] COMMENT_START = "/*".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+
+	private static final byte[] COMMENT_END = "*/".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+
+	private final File directory;
+
+	/**
+	 * @param directory the directory to keep the cache files in
+	 */
+	StyleSheetCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns the flattened text of the style sheet at the given URL.
+	 *
+	 * @param url          the URL of the style sheet
+	 * @param lastModified the current modification time of the style sheet
+	 * @param engine       the engine that parses the text
+	 * @return the flattened style sheet, or <code>null</code> if there is no
+	 *         entry or the style sheet or one of its imports changed since it
+	 *         was stored
+	 * @throws IOException if the cache could not be read
+	 */
+	byte[] load(URL url, long lastModified, CSSEngine engine) throws IOException {
+		File file = getFile(url, engine);
+		if (lastModified == 0 || !file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION || !url.toString().equals(in.readUTF())
+					|| !engine.getClass().getName().equals(in.readUTF()) || in.readLong() != lastModified) {
+				return null;
+			}
+			int imports = in.readInt();
+			for (int i = 0; i < imports; i++) {
+				URL importedURL = new URL(in.readUTF());
+				if (in.readLong() != getLastModified(importedURL)) {
+					return null;
+				}
+			}
+			byte[] content = new byte[in.readInt()];
+			in.readFully(content);
+			return content;
+		}
+	}
+
+	/**
+	 * Stores the flattened text of the style sheet at the given URL. Nothing is
+	 * stored if a modification time is unknown or the text of a style sheet
+	 * cannot be flattened.
+	 *
+	 * @param url          the URL of the style sheet
+	 * @param lastModified the modification time of the style sheet when it was
+	 *                     read
+	 * @param content      the text the style sheet was parsed from
+	 * @param importedURIs the URIs of the imported style sheets in the order of
+	 *                     their rules
+	 * @param engine       the engine that parsed the style sheet
+	 * @return whether the style sheet was stored
+	 * @throws IOException if a style sheet could not be read or the cache could
+	 *                     not be written
+	 */
+	boolean store(URL url, long lastModified, byte[] content, List<String> importedURIs, CSSEngine engine)
+			throws IOException {
+		if (lastModified == 0) {
+			return false;
+		}
+		ByteArrayOutputStream flattened = new ByteArrayOutputStream();
+		long[] importsLastModified = new long[importedURIs.size()];
+		for (int i = 0; i < importsLastModified.length; i++) {
+			URLConnection connection = new URL(importedURIs.get(i)).openConnection();
+			importsLastModified[i] = connection.getLastModified();
+			byte[] imported;
+			try (InputStream stream = connection.getInputStream()) {
+				imported = stream.readAllBytes();
+			}
+			if (importsLastModified[i] == 0 || !appendRules(imported, flattened)) {
+				return false;
+			}
+		}
+		if (!appendRules(content, flattened)) {
+			return false;
+		}
+
+		directory.mkdirs();
+		File temp = File.createTempFile("stylesheet", ".tmp", directory); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(temp)))) {
+				out.writeInt(VERSION);
+				out.writeUTF(url.toString());
+				out.writeUTF(engine.getClass().getName());
+				out.writeLong(lastModified);
+				out.writeInt(importedURIs.size());
+				for (int i = 0; i < importsLastModified.length; i++) {
+					out.writeUTF(importedURIs.get(i));
+					out.writeLong(importsLastModified[i]);
+				}
+				out.writeInt(flattened.size());
+				flattened.writeTo(out);
+			}
+			// replace the entry at once so a partially written one is never read
+			Files.move(temp.toPath(), getFile(url, engine).toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+		return true;
+	}
+
+	/**
+	 * Appends the given style sheet without its leading <code>@import</code>
+	 * rules.
+	 *
+	 * @return <code>false</code> if the style sheet is not plain ASCII, as the
+	 *         parser would detect its encoding on its own, or it has a
+	 *         <code>@charset</code> rule or an incomplete comment or import rule
+	 */
+	private static boolean appendRules(byte[] content, ByteArrayOutputStream out) {
+		for (byte b : content) {
+			if (b < 0) {
+				return false;
+			}
+		}
+		int i = 0;
+		while (i < content.length) {
+			if (Character.isWhitespace(content[i])) {
+				i++;
+				continue;
+			}
+			int end;
+			if (startsWith(content, i, COMMENT_START)) {
+				end = indexOf(content, i + COMMENT_START.length, COMMENT_END);
+				if (end >= 0) {
+					end += COMMENT_END.length - 1;
+				}
+			} else if (startsWith(content, i, IMPORT)) {
+				end = endOfStatement(content, i + IMPORT.length);
+			} else if (startsWith(content, i, CHARSET)) {
+				// only allowed at the start of a style sheet
+				return false;
+			} else {
+				break;
+			}
+			if (end < 0) {
+				return false;
+			}
+			i = end + 1;
+		}
+		out.write(content, i, content.length - i);
+		out.write('\n');
+		return true;
+	}
+
+	/**
+	 * @return the index of the <code>;</code> ending the statement starting at
+	 *         the given index, or <code>-1</code> if there is none
+	 */
+	private static int endOfStatement(byte[] content, int start) {
+		byte quote = 0;
+		for (int i = start; i < content.length; i++) {
+			byte b = content[i];
+			if (b == '\\') {
+				i++;
+			} else if (quote != 0) {
+				if (b == quote) {
+					quote = 0;
+				}
+			} else if (b == '"' || b == '\'') {
+				quote = b;
+			} else if (b == ';') {
+				return i;
+			} else if (b == '{' || b == '}') {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean startsWith(byte[] content, int start, byte[] prefix) {
+		if (start + prefix.length > content.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (Character.toLowerCase(content[start + i]) != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int indexOf(byte[] content, int start, byte[] text) {
+		for (int i = start; i + text.length <= content.length; i++) {
+			if (startsWith(content, i, text)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static long getLastModified(URL url) throws IOException {
+		URLConnection connection = url.openConnection();
+		try {
+			return connection.getLastModified();
+		} finally {
+			// reading the header may have connected, release the stream it opened
+			connection.getInputStream().close();
+		}
+	}
+
+	private File getFile(URL url, CSSEngine engine) {
+		String key = url + "\n" + engine.getClass().getName(); //$NON-NLS-1$
+		return new File(directory, toHex(digest(key.getBytes(StandardCharsets.UTF_8))) + SUFFIX);
+	}
+
+	private static byte[] digest(byte[] content) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(content); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+}
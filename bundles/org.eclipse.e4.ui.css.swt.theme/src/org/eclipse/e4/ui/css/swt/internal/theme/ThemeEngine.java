@@ -18,12 +18,14 @@
 package org.eclipse.e4.ui.css.swt.internal.theme;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -63,6 +65,7 @@ import org.osgi.service.prefs.BackingStoreException;
 import org.w3c.css.sac.InputSource;
 import org.w3c.dom.Element;
 import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.stylesheets.StyleSheet;
 
 public class ThemeEngine implements IThemeEngine {
 	private List<Theme> themes = new ArrayList<>();
@@ -81,8 +84,12 @@ public class ThemeEngine implements IThemeEngine {
 	private HashMap<String, List<String>> modifiedStylesheets = new HashMap<>();
 	private HashMap<String, List<IResourceLocator>> sourceLocators = new HashMap<>();
 
+	private StyleSheetCache styleSheetCache;
+
 	private static final String THEMEID_KEY = "themeid";
 
+	private static final String STYLESHEET_CACHE = "stylesheets";
+
 	public static final String THEME_PLUGIN_ID = "org.eclipse.e4.ui.css.swt.theme";
 
 	public static final String E4_DARK_THEME_ID = "org.eclipse.e4.ui.css.theme.e4_dark";
@@ -462,29 +469,8 @@ public class ThemeEngine implements IThemeEngine {
 				}
 			}
 			for (String stylesheet : getAllStyles(theme)) {
-				URL url;
-				InputStream stream = null;
 				try {
-					url = FileLocator.resolve(new URL(stylesheet));
-					for (CSSEngine engine : cssEngines) {
-						try {
-							stream = url.openStream();
-							InputSource source = new InputSource();
-							source.setByteStream(stream);
-							source.setURI(url.toString());
-							engine.parseStyleSheet(source);
-						} catch (IOException e) {
-							ThemeEngineManager.logError(e.getMessage(), e);
-						} finally {
-							if (stream != null) {
-								try {
-									stream.close();
-								} catch (IOException e) {
-									ThemeEngineManager.logError(e.getMessage(), e);
-								}
-							}
-						}
-					}
+					addStyleSheet(FileLocator.resolve(new URL(stylesheet)));
 				} catch (IOException e) {
 					ThemeEngineManager.logError(e.getMessage(), e);
 				}
@@ -510,6 +496,90 @@ public class ThemeEngine implements IThemeEngine {
 		}
 	}
 
+	/**
+	 * Adds the style sheet at the given URL to all CSS engines. Each engine
+	 * parses the style sheet on its own. The flattened text stored in the cache
+	 * is parsed instead as long as neither the style sheet nor one of its
+	 * imports changed.
+	 */
+	private void addStyleSheet(URL url) throws IOException {
+		if (cssEngines.isEmpty()) {
+			return;
+		}
+		URLConnection connection = url.openConnection();
+		long lastModified = connection.getLastModified();
+		byte[] content;
+		try (InputStream stream = connection.getInputStream()) {
+			content = stream.readAllBytes();
+		}
+		String uri = url.toString();
+		StyleSheetCache cache = getStyleSheetCache();
+
+		for (CSSEngine engine : cssEngines) {
+			long start = System.nanoTime();
+			byte[] flattened = null;
+			if (cache != null) {
+				try {
+					flattened = cache.load(url, lastModified, engine);
+				} catch (IOException | RuntimeException e) {
+					if (ThemeEngineManager.DEBUG_STYLESHEETS) {
+						ThemeEngineManager.trace("Unable to load " + uri + " from the cache: " + e); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				}
+			}
+			StyleSheet styleSheet;
+			try {
+				// parsing adds the style sheet to the engine
+				styleSheet = engine.parseStyleSheet(createInputSource(uri, flattened != null ? flattened : content));
+			} catch (IOException e) {
+				ThemeEngineManager.logError(e.getMessage(), e);
+				continue;
+			}
+			if (ThemeEngineManager.DEBUG_STYLESHEETS) {
+				ThemeEngineManager.trace((flattened != null ? "Parsed " + uri + " from the cache in " //$NON-NLS-1$ //$NON-NLS-2$
+						: "Parsed " + uri + " in ") //$NON-NLS-1$ //$NON-NLS-2$
+						+ String.format("%.2f ms", (System.nanoTime() - start) / 1e6)); //$NON-NLS-1$
+			}
+
+			List<String> importedURIs = engine.getImportedURIs(styleSheet);
+			if (flattened == null && cache != null && importedURIs != null) {
+				try {
+					if (!cache.store(url, lastModified, content, importedURIs, engine)
+							&& ThemeEngineManager.DEBUG_STYLESHEETS) {
+						ThemeEngineManager.trace("Unable to flatten " + uri + " for the cache"); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				} catch (IOException e) {
+					if (ThemeEngineManager.DEBUG_STYLESHEETS) {
+						ThemeEngineManager.trace("Unable to cache " + uri + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				}
+			}
+		}
+	}
+
+	private static InputSource createInputSource(String uri, byte[] content) {
+		InputSource source = new InputSource();
+		source.setByteStream(new ByteArrayInputStream(content));
+		source.setURI(uri);
+		return source;
+	}
+
+	/**
+	 * @return the cache of flattened style sheets, or <code>null</code> if the
+	 *         bundle has no data area
+	 */
+	private StyleSheetCache getStyleSheetCache() {
+		if (styleSheetCache == null) {
+			Bundle bundle = FrameworkUtil.getBundle(getClass());
+			BundleContext context = bundle == null ? null : bundle.getBundleContext();
+			File directory = context == null ? null : context.getDataFile(STYLESHEET_CACHE);
+			if (directory != null) {
+				styleSheetCache = new StyleSheetCache(directory);
+			}
+		}
+		return styleSheetCache;
+	}
+
 	/**
 	 * Broadcast theme-change event using OSGi Event Admin.
 	 */
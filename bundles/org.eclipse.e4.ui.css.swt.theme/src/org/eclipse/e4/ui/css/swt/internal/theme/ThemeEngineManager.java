@@ -22,15 +22,30 @@ import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
 import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
 import org.eclipse.e4.ui.css.swt.theme.IThemeEngine;
 import org.eclipse.e4.ui.css.swt.theme.IThemeManager;
+import org.eclipse.osgi.service.debug.DebugOptions;
+import org.eclipse.osgi.service.debug.DebugTrace;
 import org.eclipse.swt.widgets.Display;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.annotations.Component;
 
 @Component
 public class ThemeEngineManager implements IThemeManager {
 	private static final String KEY = "org.eclipse.e4.ui.css.swt.theme";
 
+	private static final String DEBUG_STYLESHEETS_OPTION = "/debug/stylesheets"; //$NON-NLS-1$
+
 	private static ILog LOG = Platform.getLog(Platform.getBundle(KEY));
 
+	/**
+	 * Whether to report the time spent parsing style sheets and loading them
+	 * from the cache.
+	 */
+	static final boolean DEBUG_STYLESHEETS = getDebugOption("/debug") && getDebugOption(DEBUG_STYLESHEETS_OPTION); //$NON-NLS-1$
+
+	private static DebugTrace debugTrace;
+
 	@Override
 	public IThemeEngine getEngineForDisplay(Display display) {
 		IThemeEngine engine = (IThemeEngine) display.getData(KEY);
@@ -57,4 +72,38 @@ public class ThemeEngineManager implements IThemeManager {
 	static void logError(String message, Throwable e) {
 		LOG.log(new Status(IStatus.ERROR, KEY, message, e));
 	}
+
+	static void trace(String message) {
+		DebugTrace trace = getDebugTrace();
+		if (trace != null) {
+			trace.trace(DEBUG_STYLESHEETS_OPTION, message);
+		}
+	}
+
+	private static synchronized DebugTrace getDebugTrace() {
+		if (debugTrace == null) {
+			Bundle bundle = Platform.getBundle(KEY);
+			BundleContext context = bundle != null ? bundle.getBundleContext() : null;
+			if (context == null) {
+				return null;
+			}
+			ServiceReference<DebugOptions> reference = context.getServiceReference(DebugOptions.class);
+			if (reference == null) {
+				return null;
+			}
+			DebugOptions options = context.getService(reference);
+			try {
+				if (options != null) {
+					debugTrace = options.newDebugTrace(KEY);
+				}
+			} finally {
+				context.ungetService(reference);
+			}
+		}
+		return debugTrace;
+	}
+
+	private static boolean getDebugOption(String option) {
+		return Platform.isRunning() && "true".equalsIgnoreCase(Platform.getDebugOption(KEY + option));
+	}
 }
\ No newline at end of file
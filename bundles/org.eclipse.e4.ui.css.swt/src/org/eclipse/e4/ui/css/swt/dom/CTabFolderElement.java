@@ -45,7 +45,25 @@ public class CTabFolderElement extends CompositeElement implements ChildVisibili
 	private SelectionListener selectionListener = new SelectionAdapter() {
 		@Override
 		public void widgetSelected(SelectionEvent e) {
-			applyStyles(getWidget(), true);
+			// the selected state of the items is a static pseudo instance, so
+			// a selection only changes which control is visible. Style the
+			// folder and its items, the control of the selected item, which
+			// is only styled while it is visible, and the top right control,
+			// which usually shows the toolbar of the selected item. Leave the
+			// other controls of the folder alone.
+			CTabFolder folder = (CTabFolder) getWidget();
+			applyStyles(folder, false);
+			for (CTabItem item : folder.getItems()) {
+				applyStyles(item, false);
+			}
+			CTabItem selection = folder.getSelection();
+			if (selection != null && selection.getControl() != null) {
+				applyStyles(selection.getControl(), true);
+			}
+			Control topRight = folder.getTopRight();
+			if (topRight != null && !topRight.isDisposed()) {
+				applyStyles(topRight, true);
+			}
 		}
 
 	};
@@ -45,6 +45,7 @@ import org.eclipse.jface.action.MenuManager;
 public class ContributionRecord {
 	public static final String FACTORY = "ContributionFactory"; //$NON-NLS-1$
 	static final String STATIC_CONTEXT = "ContributionFactoryContext"; //$NON-NLS-1$
+	private static final String MERGED_OPERANDS = "ContributionRecord.mergedOperands"; //$NON-NLS-1$
 
 	MMenu menuModel;
 	private MMenuContribution menuContribution;
@@ -93,25 +94,30 @@ public class ContributionRecord {
 	 */
 	public void updateVisibility(IEclipseContext context) {
 		ExpressionContext exprContext = new ExpressionContext(context);
-		updateIsVisible(exprContext);
-		HashSet<ContributionRecord> recentlyUpdated = new HashSet<>();
-		recentlyUpdated.add(this);
 		boolean changed = false;
-		for (MMenuElement item : generatedElements) {
-			boolean currentVisibility = computeVisibility(recentlyUpdated,
-					item, exprContext);
-			if (item.isVisible() != currentVisibility) {
-				changed = true;
-				item.setVisible(currentVisibility);
+		ContributionsAnalyzer.beginEvaluation(context);
+		try {
+			updateIsVisible(exprContext);
+			HashSet<ContributionRecord> recentlyUpdated = new HashSet<>();
+			recentlyUpdated.add(this);
+			for (MMenuElement item : generatedElements) {
+				boolean currentVisibility = computeVisibility(recentlyUpdated,
+						item, exprContext);
+				if (item.isVisible() != currentVisibility) {
+					changed = true;
+					item.setVisible(currentVisibility);
+				}
 			}
-		}
-		for (MMenuElement item : sharedElements) {
-			boolean currentVisibility = computeVisibility(recentlyUpdated,
-					item, exprContext);
-			if (item.isVisible() != currentVisibility) {
-				changed = true;
-				item.setVisible(currentVisibility);
+			for (MMenuElement item : sharedElements) {
+				boolean currentVisibility = computeVisibility(recentlyUpdated,
+						item, exprContext);
+				if (item.isVisible() != currentVisibility) {
+					changed = true;
+					item.setVisible(currentVisibility);
+				}
 			}
+		} finally {
+			ContributionsAnalyzer.endEvaluation(context);
 		}
 
 		if (changed) {
@@ -194,17 +200,42 @@ public class ContributionRecord {
 			return expressionA;
 		}
 
-		// combine the two expressions
+		// combine the two expressions into one flat disjunction, so that a
+		// menu shared by many contributions does not end up with a deeply
+		// nested expression that is rebuilt and re-evaluated level by level
+		List<Expression> existing = getMergedOperands(expressionB, coreExpressionB);
+		List<Expression> operands = new ArrayList<>(existing);
+		for (Expression operand : getMergedOperands(expressionA, coreExpressionA)) {
+			if (!operands.contains(operand)) {
+				operands.add(operand);
+			}
+		}
+		if (operands.size() == existing.size()) {
+			// already covered by the existing expression
+			return expressionB;
+		}
+
 		OrExpression expression = new OrExpression();
-		expression.add(coreExpressionA);
-		expression.add(coreExpressionB);
+		for (Expression operand : operands) {
+			expression.add(operand);
+		}
 
 		MCoreExpression exp = UiFactoryImpl.eINSTANCE.createCoreExpression();
 		exp.setCoreExpressionId("programmatic.value"); //$NON-NLS-1$
 		exp.setCoreExpression(expression);
+		exp.getTransientData().put(MERGED_OPERANDS, operands);
 		return exp;
 	}
 
+	@SuppressWarnings("unchecked")
+	private static List<Expression> getMergedOperands(MExpression expression, Expression coreExpression) {
+		Object operands = expression.getTransientData().get(MERGED_OPERANDS);
+		if (operands instanceof List<?>) {
+			return (List<Expression>) operands;
+		}
+		return Collections.singletonList(coreExpression);
+	}
+
 	public boolean mergeIntoModel() {
 		int idx = getIndex(menuModel, menuContribution.getPositionInParent());
 		if (idx == -1) {
@@ -182,25 +182,63 @@ public class MenuManagerRendererFilter implements Listener {
 			MenuManagerRenderer renderer, MenuManager menuManager,
 			final IEclipseContext evalContext, final int recurseLevel,
 			boolean updateEnablement) {
+		updateElementVisibility(menuModel, renderer, menuManager, evalContext, recurseLevel, updateEnablement, true);
+	}
+
+	/**
+	 * @param menuModel
+	 * @param renderer
+	 * @param menuManager
+	 * @param evalContext
+	 * @param recurseLevel
+	 * @param updateEnablement
+	 * @param updateVisibility <code>false</code> if the visibility of the items
+	 *                         is known to be up to date and only the enablement
+	 *                         has to be updated
+	 */
+	static void updateElementVisibility(final MMenu menuModel, MenuManagerRenderer renderer,
+			MenuManager menuManager, final IEclipseContext evalContext, final int recurseLevel,
+			boolean updateEnablement, boolean updateVisibility) {
+		if (!updateVisibility) {
+			if (updateEnablement) {
+				doUpdateElementVisibility(menuModel, renderer, menuManager, evalContext, recurseLevel, true, false);
+			}
+			return;
+		}
+		// the context does not change while the menu is updated, so every
+		// expression shared by several items only has to be evaluated once
+		ContributionsAnalyzer.beginEvaluation(evalContext);
+		try {
+			doUpdateElementVisibility(menuModel, renderer, menuManager, evalContext, recurseLevel,
+					updateEnablement, true);
+		} finally {
+			ContributionsAnalyzer.endEvaluation(evalContext);
+		}
+	}
+
+	private static void doUpdateElementVisibility(final MMenu menuModel, MenuManagerRenderer renderer,
+			MenuManager menuManager, final IEclipseContext evalContext, final int recurseLevel,
+			boolean updateEnablement, boolean updateVisibility) {
 		final ExpressionContext exprContext = new ExpressionContext(evalContext);
 		HashSet<ContributionRecord> records = new HashSet<>();
 		for (MMenuElement element : menuModel.getChildren()) {
-			ContributionRecord record = renderer.getContributionRecord(element);
-			if (record != null) {
-				if (records.add(record)) {
-					record.updateVisibility(evalContext);
+			if (updateVisibility) {
+				ContributionRecord record = renderer.getContributionRecord(element);
+				if (record != null) {
+					if (records.add(record)) {
+						record.updateVisibility(evalContext);
+					}
+				} else {
+					MenuManagerRenderer.updateVisibility(menuManager, element, exprContext);
 				}
-			} else {
-				MenuManagerRenderer.updateVisibility(menuManager, element,
-						exprContext);
 			}
-			if (recurseLevel > 0 && element.isVisible()
+			if (updateVisibility && recurseLevel > 0 && element.isVisible()
 					&& element instanceof MMenu) {
 				MMenu childMenu = (MMenu) element;
 				MenuManager childManager = renderer.getManager(childMenu);
 				if (childManager != null) {
-					updateElementVisibility(childMenu, renderer, childManager,
-							evalContext, recurseLevel - 1, false);
+					doUpdateElementVisibility(childMenu, renderer, childManager,
+							evalContext, recurseLevel - 1, false, true);
 				}
 			}
 
@@ -253,8 +253,23 @@ public class MenuManagerShowProcessor implements IMenuListener2 {
 		} else {
 			evalContext = modelService.getContainingContext(menuModel);
 		}
+		// Two submenu levels are evaluated, so that a submenu which only holds
+		// submenus is known to be empty if all of these are empty.
+		final int recurseLevel = 2;
+		MenuVisibilityStamp stamp = MenuVisibilityStamp.create(menuModel, renderer, evalContext, recurseLevel);
+		boolean unchanged = stamp != null
+				&& stamp.isUnchangedSince(menuModel.getTransientData().get(MenuVisibilityStamp.TRANSIENT_KEY));
+		if (Policy.DEBUG_MENUS && unchanged) {
+			trace("Reusing the item visibility", menuManager, menuModel); //$NON-NLS-1$
+		}
 		MenuManagerRendererFilter.updateElementVisibility(menuModel, renderer,
-				menuManager, evalContext, 2, true);
+				menuManager, evalContext, recurseLevel, true, !unchanged);
+		if (stamp != null) {
+			stamp.snapshotVisibility();
+			menuModel.getTransientData().put(MenuVisibilityStamp.TRANSIENT_KEY, stamp);
+		} else {
+			menuModel.getTransientData().remove(MenuVisibilityStamp.TRANSIENT_KEY);
+		}
 	}
 
 }
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.workbench.renderers.swt;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import org.eclipse.core.expressions.ExpressionInfo;
+import org.eclipse.e4.core.commands.ExpressionContext;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.internal.workbench.ContributionsAnalyzer;
+import org.eclipse.e4.ui.model.application.ui.MCoreExpression;
+import org.eclipse.e4.ui.model.application.ui.MExpression;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenuElement;
+
+/**
+ * Captures everything the visibility of the items of a menu, and of the items
+ * of its submenus down to a given level, is computed from: the evaluation
+ * context, the items themselves and the values of all variables their
+ * visibleWhen expressions access. When a menu is shown again and its stamp did
+ * not change, the item visibility computed the last time is still valid.
+ * <p>
+ * Expressions whose result may change without any of their variables changing,
+ * i.e. property testers, system property tests and expressions that do not
+ * report what they access, make a menu unstampable.
+ * </p>
+ */
+final class MenuVisibilityStamp {
+
+	/**
+	 * Transient data key of the stamp of the last visibility update of a menu.
+	 */
+	static final String TRANSIENT_KEY = MenuVisibilityStamp.class.getSimpleName();
+
+	private final WeakReference<IEclipseContext> context;
+
+	private final List<WeakReference<MMenuElement>> elements;
+
+	private final String[] names;
+
+	private final List<WeakReference<Object>> values;
+
+	private boolean[] visibility;
+
+	private MenuVisibilityStamp(IEclipseContext context, List<MMenuElement> elements, String[] names,
+			List<Object> values) {
+		this.context = new WeakReference<>(context);
+		this.elements = new ArrayList<>(elements.size());
+		for (MMenuElement element : elements) {
+			this.elements.add(new WeakReference<>(element));
+		}
+		this.names = names;
+		this.values = new ArrayList<>(values.size());
+		for (Object value : values) {
+			this.values.add(value == null ? null : new WeakReference<>(value));
+		}
+	}
+
+	/**
+	 * Computes the stamp of the given menu in its current state.
+	 *
+	 * @param menuModel   the menu
+	 * @param renderer    the renderer of the menu
+	 * @param evalContext  the context the menu is evaluated in
+	 * @param recurseLevel the number of submenu levels whose items are evaluated
+	 *                     with the menu
+	 * @return the stamp, or <code>null</code> if the visibility of the menu items
+	 *         has to be evaluated on every show
+	 */
+	static MenuVisibilityStamp create(MMenu menuModel, MenuManagerRenderer renderer, IEclipseContext evalContext,
+			int recurseLevel) {
+		List<MMenuElement> elements = new ArrayList<>();
+		ExpressionInfo info = new ExpressionInfo();
+		HashSet<String> identifiers = new HashSet<>();
+		if (!collect(menuModel, renderer, recurseLevel, elements, info, identifiers)) {
+			return null;
+		}
+		if (info.hasSystemPropertyAccess() || info.getAccessedPropertyNames().length > 0
+				|| info.getMisbehavingExpressionTypes() != null) {
+			return null;
+		}
+
+		ExpressionContext exprContext = new ExpressionContext(evalContext);
+		ArrayList<String> names = new ArrayList<>();
+		ArrayList<Object> values = new ArrayList<>();
+		if (info.hasDefaultVariableAccess()) {
+			names.add(""); //$NON-NLS-1$
+			values.add(exprContext.getDefaultVariable());
+		}
+		for (String name : info.getAccessedVariableNames()) {
+			names.add(name);
+			values.add(exprContext.getVariable(name));
+		}
+		for (String identifier : identifiers) {
+			names.add('#' + identifier);
+			values.add(evalContext.get(identifier));
+		}
+		return new MenuVisibilityStamp(evalContext, elements, names.toArray(new String[names.size()]), values);
+	}
+
+	private static boolean collect(MMenu menuModel, MenuManagerRenderer renderer, int recurseLevel,
+			List<MMenuElement> elements, ExpressionInfo info, HashSet<String> identifiers) {
+		HashSet<ContributionRecord> records = new HashSet<>();
+		for (MMenuElement element : menuModel.getChildren()) {
+			elements.add(element);
+			if (!collect(element.getVisibleWhen(), info)) {
+				return false;
+			}
+			String identifier = element.getPersistedState().get(MenuManagerRenderer.VISIBILITY_IDENTIFIER);
+			if (identifier != null) {
+				identifiers.add(identifier);
+			}
+			ContributionRecord record = renderer.getContributionRecord(element);
+			if (record != null) {
+				records.add(record);
+			}
+			List<ContributionRecord> shared = renderer.getList(element);
+			if (shared != null) {
+				records.addAll(shared);
+			}
+			if (recurseLevel > 0 && element instanceof MMenu) {
+				if (!collect((MMenu) element, renderer, recurseLevel - 1, elements, info, identifiers)) {
+					return false;
+				}
+			}
+		}
+		for (ContributionRecord record : records) {
+			if (!collect(record.getMenuContribution().getVisibleWhen(), info)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean collect(MExpression expression, ExpressionInfo info) {
+		if (expression == null) {
+			return true;
+		}
+		if (!(expression instanceof MCoreExpression)) {
+			// imperative expressions can depend on anything
+			return false;
+		}
+		ContributionsAnalyzer.collectInfo(info, expression);
+		return true;
+	}
+
+	/**
+	 * Remembers the visibility the items have after they were updated for this
+	 * stamp, so that changes made to it by others are noticed.
+	 */
+	void snapshotVisibility() {
+		visibility = new boolean[elements.size()];
+		for (int i = 0; i < visibility.length; i++) {
+			MMenuElement element = elements.get(i).get();
+			visibility[i] = element != null && element.isVisible();
+		}
+	}
+
+	/**
+	 * @param previous the stamp of the last update, may be <code>null</code>
+	 * @return <code>true</code> if the visibility computed for the previous stamp
+	 *         is still valid
+	 */
+	boolean isUnchangedSince(Object previous) {
+		if (!(previous instanceof MenuVisibilityStamp)) {
+			return false;
+		}
+		MenuVisibilityStamp other = (MenuVisibilityStamp) previous;
+		if (other.visibility == null || other.context.get() != context.get()
+				|| other.elements.size() != elements.size() || !Arrays.equals(other.names, names)) {
+			return false;
+		}
+		for (int i = 0; i < elements.size(); i++) {
+			MMenuElement element = elements.get(i).get();
+			if (element == null || other.elements.get(i).get() != element
+					|| other.visibility[i] != element.isVisible()) {
+				return false;
+			}
+		}
+		for (int i = 0; i < values.size(); i++) {
+			WeakReference<Object> value = values.get(i);
+			WeakReference<Object> otherValue = other.values.get(i);
+			if (value == null || otherValue == null) {
+				if (value != otherValue) {
+					return false;
+				}
+			} else {
+				Object current = value.get();
+				if (current == null || !Objects.equals(current, otherValue.get())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -459,6 +459,17 @@ public class StackRenderer extends LazyStackRenderer {
 		shouldTopRightAdjusted(event);
 	}
 
+	@Inject
+	@Optional
+	void subscribeTopicWidgetChanged(@UIEventTopic(UIEvents.UIElement.TOPIC_WIDGET) Event event) {
+		// part toolbars may be rendered after their part, e.g. when rendering in
+		// stages, and then have to be placed in the top right as well
+		if (event.getProperty(UIEvents.EventTags.ELEMENT) instanceof MToolBar
+				&& event.getProperty(UIEvents.EventTags.NEW_VALUE) != null) {
+			shouldTopRightAdjusted(event);
+		}
+	}
+
 	@Inject
 	@Optional
 	private UISynchronize synchronize;
@@ -296,6 +296,12 @@ public class E4Application implements IApplication {
 		Optional<String> presentationURI = getArgValue(IWorkbench.PRESENTATION_URI_ARG, applicationContext, false);
 		appContext.set(IWorkbench.PRESENTATION_URI_ARG, presentationURI.orElse(PartRenderingEngine.engineURI));
 
+		Boolean stagedRendering = getArgValue(PartRenderingEngine.STAGED_RENDERING, applicationContext, true)
+				.map(Boolean::parseBoolean).orElse(Boolean.FALSE);
+		appContext.set(PartRenderingEngine.STAGED_RENDERING, stagedRendering);
+		getArgValue(PartRenderingEngine.STAGED_RENDERING_SLICE, applicationContext, false)
+				.ifPresent(slice -> appContext.set(PartRenderingEngine.STAGED_RENDERING_SLICE, slice));
+
 		// Instantiate the Workbench (which is responsible for
 		// 'running' the UI (if any)...
 		return workbench = new E4Workbench(appModel, appContext);
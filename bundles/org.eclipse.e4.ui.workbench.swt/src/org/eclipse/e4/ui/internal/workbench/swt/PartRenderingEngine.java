@@ -24,9 +24,11 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -54,6 +56,8 @@ import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.core.services.statusreporter.StatusReporter;
 import org.eclipse.e4.ui.bindings.keys.KeyBindingDispatcher;
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.core.impl.engine.SelectorDependencies;
 import org.eclipse.e4.ui.css.core.util.impl.resources.OSGiResourceLocator;
 import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
 import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
@@ -75,6 +79,8 @@ import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
 import org.eclipse.e4.ui.model.application.ui.basic.MPart;
 import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimElement;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
@@ -123,6 +129,28 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 	public static final String ENABLED_THEME_KEY = "themeEnabled";
 
+	/**
+	 * Context key (Boolean) enabling the staged rendering of the initial
+	 * windows: the windows and their parts are created first, secondary elements
+	 * like trim contributions and part toolbars are created in idle slices of
+	 * the event loop once the windows have been shown.
+	 */
+	public static final String STAGED_RENDERING = "stagedRendering";
+
+	/**
+	 * Context key for the maximum time in milliseconds (Integer or String) spent
+	 * on deferred elements per idle slice when rendering in stages.
+	 */
+	public static final String STAGED_RENDERING_SLICE = "stagedRenderingSlice";
+
+	/**
+	 * Context key under which the time in milliseconds (Long) from the start of
+	 * the rendering of the application windows to their first paint is recorded.
+	 */
+	public static final String TIME_TO_FIRST_PAINT = "timeToFirstPaint";
+
+	private static final int DEFAULT_SLICE_BUDGET = 20;
+
 	private String factoryUrl;
 
 	IRendererFactory curFactory = null;
@@ -397,6 +425,15 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 	private MUIElement removeRoot = null;
 
+	/**
+	 * <code>true</code> while the initial windows are rendered in stages, in this
+	 * case secondary elements are queued in {@link #deferredElements} instead of
+	 * being created.
+	 */
+	private boolean deferSecondaryElements;
+
+	private final Set<MUIElement> deferredElements = new LinkedHashSet<>();
+
 	@Inject
 	@Optional
 	IEventBroker eventBroker;
@@ -557,6 +594,11 @@ public class PartRenderingEngine implements IPresentationEngine {
 			return null;
 		}
 
+		if (deferSecondaryElements && element.getWidget() == null && isSecondary(element)) {
+			deferredElements.add(element);
+			return null;
+		}
+
 		Object currentWidget = element.getWidget();
 		if (currentWidget != null) {
 			if (currentWidget instanceof Control) {
@@ -697,6 +739,79 @@ public class PartRenderingEngine implements IPresentationEngine {
 		return newWidget;
 	}
 
+	/**
+	 * @return <code>true</code> if the element does not contribute to the first
+	 *         paint of its window and may therefore be created later
+	 */
+	private boolean isSecondary(MUIElement element) {
+		if (element instanceof MTrimElement && ((MUIElement) element.getParent()) instanceof MTrimBar) {
+			return true;
+		}
+		return element instanceof MToolBar && ((EObject) element).eContainer() instanceof MPart;
+	}
+
+	/**
+	 * Creates deferred elements until the given time budget is used up. Visible
+	 * elements are created before hidden ones.
+	 *
+	 * @param budget the time budget in milliseconds
+	 * @return <code>true</code> if there are still elements to create
+	 */
+	private boolean createDeferredElements(long budget) {
+		long end = System.nanoTime() + budget * 1_000_000L;
+		boolean visibleOnly = true;
+		while (!deferredElements.isEmpty()) {
+			MUIElement next = null;
+			for (MUIElement element : deferredElements) {
+				if (!visibleOnly || element.isVisible()) {
+					next = element;
+					break;
+				}
+			}
+			if (next == null) {
+				visibleOnly = false;
+				continue;
+			}
+			deferredElements.remove(next);
+
+			MUIElement parent = next.getParent();
+			if (parent == null) {
+				parent = (MUIElement) ((EObject) next).eContainer();
+			}
+			// elements whose parent went away are rendered with it when it comes back
+			if (next.isToBeRendered() && next.getWidget() == null && parent != null
+					&& parent.getWidget() != null) {
+				Object widget = createGui(next);
+				if (widget instanceof Control && !((Control) widget).isDisposed()) {
+					// siblings rendered in the meantime are already in place
+					fixZOrder(next);
+					((Control) widget).requestLayout();
+				}
+			}
+			if (System.nanoTime() - end >= 0) {
+				break;
+			}
+		}
+		return !deferredElements.isEmpty();
+	}
+
+	private long getSliceBudget(IEclipseContext context) {
+		Object value = context.get(STAGED_RENDERING_SLICE);
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		if (value instanceof String) {
+			try {
+				return Long.parseLong((String) value);
+			} catch (NumberFormatException e) {
+				if (logger != null) {
+					logger.warn(NLS.bind("Invalid staged rendering slice: {0}", value)); //$NON-NLS-1$
+				}
+			}
+		}
+		return DEFAULT_SLICE_BUDGET;
+	}
+
 	private IEclipseContext getContext(MUIElement parent) {
 		if (parent instanceof MContext) {
 			return ((MContext) parent).getContext();
@@ -1078,13 +1193,34 @@ public class PartRenderingEngine implements IPresentationEngine {
 					display.addFilter(SWT.Deactivate, shellDialogListener);
 					spinOnce = false; // loop until the app closes
 					theApp = (MApplication) uiRoot;
-					// long startTime = System.currentTimeMillis();
-					for (MWindow window : theApp.getChildren()) {
-						createGui(window);
-					}
+					final long startTime = System.nanoTime();
+					Listener firstPaint = new Listener() {
+						@Override
+						public void handleEvent(org.eclipse.swt.widgets.Event event) {
+							display.removeFilter(SWT.Paint, this);
+							long time = (System.nanoTime() - startTime) / 1_000_000L;
+							runContext.set(TIME_TO_FIRST_PAINT, Long.valueOf(time));
+							if (Policy.DEBUG_RENDERER) {
+								WorkbenchSWTActivator.trace(Policy.DEBUG_RENDERER_FLAG,
+										"time to first paint: " + time + "ms", null); //$NON-NLS-1$ //$NON-NLS-2$
+							}
+						}
+					};
+					display.addFilter(SWT.Paint, firstPaint);
 
-					// long endTime = System.currentTimeMillis();
-					// System.out.println("Render: " + (endTime - startTime));
+					deferSecondaryElements = Boolean.TRUE.equals(runContext.get(STAGED_RENDERING));
+					try {
+						for (MWindow window : theApp.getChildren()) {
+							createGui(window);
+						}
+					} finally {
+						deferSecondaryElements = false;
+					}
+					if (Policy.DEBUG_RENDERER) {
+						WorkbenchSWTActivator.trace(Policy.DEBUG_RENDERER_FLAG, "initial render: " //$NON-NLS-1$
+								+ (System.nanoTime() - startTime) / 1_000_000L + "ms, deferred elements: " //$NON-NLS-1$
+								+ deferredElements.size(), null);
+					}
 					// tell the app context we are starting so the splash is
 					// torn down
 					IApplicationContext ac = appContext.get(IApplicationContext.class);
@@ -1148,6 +1284,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 					}
 				});
 				display.setRuntimeExceptionHandler(e -> handle(e, finalAdvisor));
+				long sliceBudget = getSliceBudget(runContext);
 				// Spin the event loop until someone disposes the display
 				while (((testShell != null && !testShell.isDisposed()) || (theApp != null && someAreVisible(theApp
 						.getChildren()))) && !display.isDisposed()) {
@@ -1157,6 +1294,11 @@ public class PartRenderingEngine implements IPresentationEngine {
 							if (spinOnce) {
 								return;
 							}
+							// the deferred elements of a staged rendering are
+							// created while there is nothing else to do
+							if (!deferredElements.isEmpty() && createDeferredElements(sliceBudget)) {
+								continue;
+							}
 							advisor.eventLoopIdle(display);
 						}
 					} catch (ThreadDeath th) {
@@ -1217,6 +1359,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 	public void stop() {
 		// FIXME Without this call the test-suite fails
 		cleanUp();
+		deferredElements.clear();
 		if (theApp != null) {
 			for (MWindow window : theApp.getChildren()) {
 				if (window.getWidget() != null) {
@@ -1293,14 +1436,16 @@ public class PartRenderingEngine implements IPresentationEngine {
 			appContext.set(IStylingEngine.class, new IStylingEngine() {
 				@Override
 				public void setClassname(Object widget, String classname) {
+					String oldClassname = WidgetElement.getCSSClass((Widget) widget);
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					themeEngine.applyStyles(widget, true);
+					applyStylesOnChange((Widget) widget, oldClassname, WidgetElement.getID((Widget) widget));
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
+					String oldId = WidgetElement.getID((Widget) widget);
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					applyStylesOnChange((Widget) widget, WidgetElement.getCSSClass((Widget) widget), oldId);
 				}
 
 				@Override
@@ -1315,9 +1460,11 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 				@Override
 				public void setClassnameAndId(Object widget, String classname, String id) {
+					String oldClassname = WidgetElement.getCSSClass((Widget) widget);
+					String oldId = WidgetElement.getID((Widget) widget);
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					applyStylesOnChange((Widget) widget, oldClassname, oldId);
 				}
 			});
 
@@ -1336,14 +1483,16 @@ public class PartRenderingEngine implements IPresentationEngine {
 			appContext.set(IStylingEngine.class, new IStylingEngine() {
 				@Override
 				public void setClassname(Object widget, String classname) {
+					String oldClassname = WidgetElement.getCSSClass((Widget) widget);
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					cssEngine.applyStyles(widget, true);
+					applyStylesOnChange((Widget) widget, oldClassname, WidgetElement.getID((Widget) widget));
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
+					String oldId = WidgetElement.getID((Widget) widget);
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					applyStylesOnChange((Widget) widget, WidgetElement.getCSSClass((Widget) widget), oldId);
 				}
 
 				@Override
@@ -1362,9 +1511,11 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 				@Override
 				public void setClassnameAndId(Object widget, String classname, String id) {
+					String oldClassname = WidgetElement.getCSSClass((Widget) widget);
+					String oldId = WidgetElement.getID((Widget) widget);
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					applyStylesOnChange((Widget) widget, oldClassname, oldId);
 				}
 			});
 
@@ -1396,6 +1547,27 @@ public class PartRenderingEngine implements IPresentationEngine {
 		appContext.set(CSSRenderingUtils.class, cssUtils);
 	}
 
+	/**
+	 * Styles the widget again after its CSS class or id changed. Widgets which
+	 * had neither before are styled completely, others only where rules
+	 * depending on the change can match.
+	 */
+	private static void applyStylesOnChange(Widget widget, String oldClassname, String oldId) {
+		CSSEngine engine = WidgetElement.getEngine(widget);
+		if (engine == null) {
+			return;
+		}
+		if (oldClassname == null && oldId == null) {
+			engine.applyStyles(widget, true);
+			return;
+		}
+		Set<String> changes = SelectorDependencies.getClassChanges(oldClassname, WidgetElement.getCSSClass(widget));
+		if (!Objects.equals(oldId, WidgetElement.getID(widget))) {
+			changes.add(SelectorDependencies.ID_KEY);
+		}
+		engine.applyStylesOnChange(widget, changes);
+	}
+
 	private static IThemeEngine createThemeEngine(Display display, IEclipseContext appContext) {
 		// Store the app context
 		IContributionFactory contribution = appContext.get(IContributionFactory.class);
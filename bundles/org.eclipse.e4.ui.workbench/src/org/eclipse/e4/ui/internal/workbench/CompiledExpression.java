@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import org.eclipse.core.expressions.EvaluationResult;
+import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.ExpressionInfo;
+import org.eclipse.core.expressions.ReferenceExpression;
+import org.eclipse.e4.core.commands.ExpressionContext;
+import org.eclipse.e4.ui.model.application.ui.MCoreExpression;
+
+/**
+ * The evaluation-ready form of a {@link MCoreExpression}. The core expression,
+ * its {@link ExpressionInfo} and the evaluation service link variables it
+ * depends on are resolved once and kept in the transient data of the model
+ * element. Evaluating a compiled expression has no side effects on the model.
+ */
+final class CompiledExpression {
+
+	static final String TRANSIENT_KEY = "CompiledExpression"; //$NON-NLS-1$
+
+	private static final String SERVICE_LINK_SUFFIX = ".evaluationServiceLink"; //$NON-NLS-1$
+
+	final Expression expression;
+
+	final ExpressionInfo info;
+
+	private final String[] serviceLinks;
+
+	private CompiledExpression(Expression expression) {
+		this.expression = expression;
+		this.info = expression.computeExpressionInfo();
+		String[] names = info.getAccessedPropertyNames();
+		serviceLinks = new String[names.length];
+		for (int i = 0; i < names.length; i++) {
+			serviceLinks[i] = names[i] + SERVICE_LINK_SUFFIX;
+		}
+	}
+
+	/**
+	 * Returns the compiled form of the given model expression, compiling it if
+	 * it has not been compiled yet or if its core expression was replaced since.
+	 *
+	 * @param coreExpression the model expression
+	 * @return the compiled expression, never <code>null</code>
+	 */
+	static CompiledExpression compile(MCoreExpression coreExpression) {
+		Expression ref;
+		if (coreExpression.getCoreExpression() instanceof Expression) {
+			ref = (Expression) coreExpression.getCoreExpression();
+		} else {
+			ref = new ReferenceExpression(coreExpression.getCoreExpressionId());
+			coreExpression.setCoreExpression(ref);
+		}
+		Object cached = coreExpression.getTransientData().get(TRANSIENT_KEY);
+		if (cached instanceof CompiledExpression && ((CompiledExpression) cached).expression == ref) {
+			return (CompiledExpression) cached;
+		}
+		CompiledExpression compiled = new CompiledExpression(ref);
+		coreExpression.getTransientData().put(TRANSIENT_KEY, compiled);
+		return compiled;
+	}
+
+	/**
+	 * Creates a dependency on the predefined values that can be "poked" by the
+	 * evaluation service. This has to happen on every evaluation, including the
+	 * ones answered from a cache, so that a surrounding RunAndTrack keeps
+	 * tracking them.
+	 *
+	 * @param eContext the context the expression is evaluated in
+	 */
+	void linkServiceVariables(ExpressionContext eContext) {
+		for (String link : serviceLinks) {
+			eContext.getVariable(link);
+		}
+	}
+
+	/**
+	 * @param eContext the context to evaluate in
+	 * @return <code>true</code> unless the expression evaluated to
+	 *         {@link EvaluationResult#FALSE}
+	 * @throws Exception if the evaluation failed
+	 */
+	boolean evaluate(ExpressionContext eContext) throws Exception {
+		return expression.evaluate(eContext) != EvaluationResult.FALSE;
+	}
+}
@@ -21,13 +21,13 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionInfo;
-import org.eclipse.core.expressions.ReferenceExpression;
 import org.eclipse.e4.core.commands.ExpressionContext;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
@@ -217,15 +217,7 @@ public final class ContributionsAnalyzer {
 		if (!(exp instanceof MCoreExpression)) {
 			return;
 		}
-		MCoreExpression expr = (MCoreExpression) exp;
-		Expression ref = null;
-		if (expr.getCoreExpression() instanceof Expression) {
-			ref = (Expression) expr.getCoreExpression();
-		} else {
-			ref = new ReferenceExpression(expr.getCoreExpressionId());
-			expr.setCoreExpression(ref);
-		}
-		ref.collectExpressionInfo(info);
+		info.merge(CompiledExpression.compile((MCoreExpression) exp).info);
 	}
 
 	public static boolean isVisible(MMenuContribution menuContribution, ExpressionContext eContext) {
@@ -261,32 +253,93 @@ public final class ContributionsAnalyzer {
 	}
 
 	private static boolean isCoreExpressionVisible(MCoreExpression coreExpression, final ExpressionContext eContext) {
-		final Expression ref;
-		if (coreExpression.getCoreExpression() instanceof Expression) {
-			ref = (Expression) coreExpression.getCoreExpression();
-		} else {
-			ref = new ReferenceExpression(coreExpression.getCoreExpressionId());
-			coreExpression.setCoreExpression(ref);
-		}
+		CompiledExpression compiled = CompiledExpression.compile(coreExpression);
 		// Creates dependency on a predefined value that can be "poked" by
 		// the evaluation
 		// service
-		ExpressionInfo info = ref.computeExpressionInfo();
-		String[] names = info.getAccessedPropertyNames();
-		for (String name : names) {
-			eContext.getVariable(name + ".evaluationServiceLink"); //$NON-NLS-1$
+		compiled.linkServiceVariables(eContext);
+		EvaluationScope scope = getEvaluationScope(eContext.eclipseContext);
+		if (scope != null) {
+			Boolean cached = scope.results.get(compiled.expression);
+			if (cached != null) {
+				return cached.booleanValue();
+			}
 		}
 		boolean ret = false;
 		try {
-			ret = ref.evaluate(eContext) != EvaluationResult.FALSE;
+			ret = compiled.evaluate(eContext);
 		} catch (Exception e) {
 			if (DEBUG) {
 				trace("isVisible exception", e); //$NON-NLS-1$
 			}
 		}
+		if (scope != null) {
+			scope.results.put(compiled.expression, Boolean.valueOf(ret));
+		}
 		return ret;
 	}
 
+	/**
+	 * Results of core expressions evaluated against one context while an
+	 * evaluation scope is open on it. A scope is one generation of the
+	 * context: the results are discarded when the outermost scope is closed.
+	 */
+	private static final class EvaluationScope {
+		final Thread owner = Thread.currentThread();
+		final Map<Expression, Boolean> results = new HashMap<>();
+		int depth;
+	}
+
+	private static final Map<IEclipseContext, EvaluationScope> evaluationScopes = new IdentityHashMap<>();
+
+	/**
+	 * Opens an evaluation scope on the given context. Until the matching
+	 * {@link #endEvaluation(IEclipseContext)}, every core expression evaluated
+	 * against this context by {@link #isVisible(MExpression, ExpressionContext)}
+	 * is evaluated at most once; later evaluations reuse the first result.
+	 * <p>
+	 * Callers must only open a scope around a block of work during which the
+	 * context does not change, e.g. while updating the visibility of the items
+	 * of a menu that is about to be shown. Scopes can be nested.
+	 * </p>
+	 *
+	 * @param context the context expressions are evaluated against
+	 */
+	public static void beginEvaluation(IEclipseContext context) {
+		synchronized (evaluationScopes) {
+			EvaluationScope scope = evaluationScopes.get(context);
+			if (scope == null || scope.owner != Thread.currentThread()) {
+				scope = new EvaluationScope();
+				evaluationScopes.put(context, scope);
+			}
+			scope.depth++;
+		}
+	}
+
+	/**
+	 * Closes a scope opened by {@link #beginEvaluation(IEclipseContext)}.
+	 *
+	 * @param context the context expressions are evaluated against
+	 */
+	public static void endEvaluation(IEclipseContext context) {
+		synchronized (evaluationScopes) {
+			EvaluationScope scope = evaluationScopes.get(context);
+			if (scope != null && scope.owner == Thread.currentThread() && --scope.depth <= 0) {
+				evaluationScopes.remove(context);
+			}
+		}
+	}
+
+	private static EvaluationScope getEvaluationScope(IEclipseContext context) {
+		synchronized (evaluationScopes) {
+			if (evaluationScopes.isEmpty()) {
+				return null;
+			}
+			EvaluationScope scope = evaluationScopes.get(context);
+			return scope != null && scope.owner == Thread.currentThread() ? scope : null;
+		}
+	}
+
 	private static boolean isImperativeExpressionVisible(MImperativeExpression exp, final ExpressionContext eContext) {
 		Object imperativeExpressionObject = exp.getObject();
 		if (imperativeExpressionObject == null) {
@@ -19,6 +19,10 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -32,6 +36,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -62,9 +67,11 @@ import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.ecore.util.EContentsEList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -101,6 +108,21 @@ public class ModelAssembler {
 		Set<String> containedElementIds = new LinkedHashSet<>();
 	}
 
+	private static class FragmentSource {
+		final URI uri;
+		final String bundleName;
+		final String contributorURI;
+		final boolean checkExist;
+		MModelFragments container;
+
+		FragmentSource(URI uri, String bundleName, String contributorURI, boolean checkExist) {
+			this.uri = uri;
+			this.bundleName = bundleName;
+			this.contributorURI = contributorURI;
+			this.checkExist = checkExist;
+		}
+	}
+
 	private static class FragmentWrapperElementMapping {
 		ModelFragmentWrapper wrapper;
 		List<MApplicationElement> elements;
@@ -210,6 +232,9 @@ public class ModelAssembler {
 	private static final String INITIAL = "initial"; //$NON-NLS-1$
 	private static final String NOTEXISTS = "notexists"; //$NON-NLS-1$
 
+	private static final String CACHE_LOCATION = "modelcache"; //$NON-NLS-1$
+	private static final String UI_MODEL_NS_URI = "http://www.eclipse.org/ui/2010/UIModel"; //$NON-NLS-1$
+
 	LoggerFactory factory;
 	Logger logger;
 
@@ -223,6 +248,20 @@ public class ModelAssembler {
 
 	private boolean processModelExecuted = false;
 
+	/**
+	 * Whether a fragment could not be read, validated or completely merged. The
+	 * model is not cached after such a merge, so the problems keep being reported.
+	 */
+	private boolean fragmentProblems;
+
+	/**
+	 * The directory of the model cache, or <code>null</code> for the data area of
+	 * this bundle.
+	 */
+	private File cacheLocation;
+
+	private boolean restoredFromCache;
+
 	@Activate
 	void activate(BundleContext bundleContext) {
 		this.bundleContext = bundleContext;
@@ -253,6 +292,25 @@ public class ModelAssembler {
 		this.registry.compareAndSet(registry, null);
 	}
 
+	/**
+	 * Sets the directory to keep the cache of the assembled model in. Use public
+	 * method binding instead of field binding to enable testing.
+	 *
+	 * @param location the directory, or <code>null</code> to use the data area of
+	 *                 this bundle
+	 */
+	public void setCacheLocation(File location) {
+		this.cacheLocation = location;
+	}
+
+	/**
+	 * @return <code>true</code> if the fragments of the last model processing were
+	 *         not merged but restored from the model cache
+	 */
+	public boolean isRestoredFromCache() {
+		return restoredFromCache;
+	}
+
 	@Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
 	void registerModelProcessorContribution(ServiceReference<IModelProcessorContribution> contrib) {
 		this.processorContributions.add(contrib);
@@ -341,42 +399,221 @@ public class ModelAssembler {
 	 *
 	 */
 	private void processFragments(IExtension[] extensions, boolean initial) {
-		List<ModelFragmentWrapper> wrappers = new ArrayList<>();
+		fragmentProblems = false;
+		restoredFromCache = false;
+		List<FragmentSource> sources = new ArrayList<>();
 		for (IExtension extension : extensions) {
 			IConfigurationElement[] ces = extension.getConfigurationElements();
 			for (IConfigurationElement ce : ces) {
 				if ("fragment".equals(ce.getName()) && (initial || !INITIAL.equals(ce.getAttribute("apply")))) { //$NON-NLS-1$ //$NON-NLS-2$
-					MModelFragments fragmentsContainer = getFragmentsContainer(ce.getAttribute("uri"), //$NON-NLS-1$
-							ce.getContributor().getName());
-					if (fragmentsContainer == null) {
+					String bundleName = ce.getContributor().getName();
+					URI uri = getFragmentsURI(ce.getAttribute("uri"), bundleName); //$NON-NLS-1$
+					if (uri == null) {
 						continue;
 					}
-					for (MModelFragment fragment : fragmentsContainer.getFragments()) {
-						boolean checkExist = !initial && NOTEXISTS.equals(ce.getAttribute("apply")); //$NON-NLS-1$
-						wrappers.add(new ModelFragmentWrapper(fragmentsContainer, fragment,
-								ce.getContributor().getName(), URIHelper.constructPlatformURI(ce.getContributor()),
-								checkExist)); // $NON-NLS-1$
-					}
+					boolean checkExist = !initial && NOTEXISTS.equals(ce.getAttribute("apply")); //$NON-NLS-1$
+					sources.add(new FragmentSource(uri, bundleName,
+							URIHelper.constructPlatformURI(ce.getContributor()), checkExist));
 				}
 			}
 		}
 
-		if (this.tracker != null) {
-			// this triggers initial bundle tracking in the current thread
-			// for startup reasons we do not process each fragment on initial tracking by
-			// its own, instead we will process the initially tracked bundles together once
-			// the initial tracking is done
-			this.tracker.open();
+		// the merge result of a non-persisted model only depends on the model and
+		// on the contributed fragments, so it can be reused as long as neither
+		// changed
+		ModelAssemblyCache cache = initial && !sources.isEmpty() ? getCache() : null;
+		String cacheKey = null;
+		if (cache != null) {
+			cacheKey = computeCacheKey(cache, sources);
+			if (cacheKey != null && restoreCache(cache, cacheKey)) {
+				restoredFromCache = true;
+				openTracker(true);
+				return;
+			}
+		}
 
-			// once the initial tracking is done we process the tracked bundles
-			// this is for performance optimization on initial loading to avoid multiple
-			// fragment merge operations
-			List<ModelFragmentWrapper> collect = this.tracker.getTracked().values().stream()
-					.flatMap(List::stream).map(w -> w.wrapper).collect(Collectors.toList());
-			wrappers.addAll(collect);
+		loadFragmentsContainers(sources);
+		List<ModelFragmentWrapper> wrappers = new ArrayList<>();
+		for (FragmentSource source : sources) {
+			if (source.container == null) {
+				continue;
+			}
+			for (MModelFragment fragment : source.container.getFragments()) {
+				wrappers.add(new ModelFragmentWrapper(source.container, fragment, source.bundleName,
+						source.contributorURI, source.checkExist));
+			}
 		}
 
+		wrappers.addAll(openTracker(false));
+
 		processFragmentWrappers(wrappers);
+
+		// fragments with problems are not cached, so the problems get reported on
+		// every startup
+		if (cacheKey != null && !fragmentProblems) {
+			try {
+				cache.store(application, cacheKey);
+			} catch (IOException | RuntimeException e) {
+				log(LogLevel.DEBUG, "Unable to cache the assembled model: {}", e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Opens the tracker for bundles with a Model-Fragment header.
+	 *
+	 * @param merged <code>true</code> if the fragments of the tracked bundles are
+	 *               already part of the application model
+	 * @return the fragments of the initially tracked bundles that still need to be
+	 *         merged
+	 */
+	private List<ModelFragmentWrapper> openTracker(boolean merged) {
+		if (this.tracker == null) {
+			return new ArrayList<>();
+		}
+		// this triggers initial bundle tracking in the current thread
+		// for startup reasons we do not process each fragment on initial tracking by
+		// its own, instead we will process the initially tracked bundles together once
+		// the initial tracking is done
+		this.tracker.open();
+
+		if (merged) {
+			// track the elements of the model instead of the unmerged fragment elements
+			// so the elements can be removed again together with their bundle
+			this.tracker.getTracked().values().stream().flatMap(List::stream).forEach(m -> m.elements.replaceAll(e -> {
+				MApplicationElement element = ModelUtils.findElementById(application, e.getElementId());
+				return element != null ? element : e;
+			}));
+			return new ArrayList<>();
+		}
+
+		// once the initial tracking is done we process the tracked bundles
+		// this is for performance optimization on initial loading to avoid multiple
+		// fragment merge operations
+		return this.tracker.getTracked().values().stream().flatMap(List::stream).map(w -> w.wrapper)
+				.collect(Collectors.toList());
+	}
+
+	private ModelAssemblyCache getCache() {
+		BundleContext bc = this.bundleContext;
+		File location = cacheLocation;
+		if (location == null && bc != null) {
+			location = bc.getDataFile(CACHE_LOCATION);
+		}
+		return location != null ? new ModelAssemblyCache(location) : null;
+	}
+
+	private String computeCacheKey(ModelAssemblyCache cache, List<FragmentSource> sources) {
+		Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return null;
+		}
+		Set<Bundle> bundles = new LinkedHashSet<>();
+		bundles.add(FrameworkUtil.getBundle(ModelAssembler.class));
+		bundles.add(FrameworkUtil.getBundle(MApplication.class));
+		List<URI> uris = new ArrayList<>();
+		for (FragmentSource source : sources) {
+			Bundle bundle = activator.getBundleForName(source.bundleName);
+			if (bundle == null) {
+				return null;
+			}
+			bundles.add(bundle);
+			uris.add(source.uri);
+		}
+		if (this.bundleContext != null) {
+			for (Bundle bundle : this.bundleContext.getBundles()) {
+				if ((bundle.getState() & (Bundle.STARTING | Bundle.ACTIVE | Bundle.STOPPING)) != 0
+						&& bundle.getHeaders("").get(MODEL_FRAGMENT_HEADER) != null) { //$NON-NLS-1$
+					bundles.add(bundle);
+				}
+			}
+		}
+		bundles.remove(null);
+		try {
+			return cache.computeKey(application, uris, bundles);
+		} catch (RuntimeException e) {
+			log(LogLevel.DEBUG, "Unable to compute the model cache key: {}", e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	private boolean restoreCache(ModelAssemblyCache cache, String cacheKey) {
+		try {
+			if (cache.restore(application, cacheKey)) {
+				log(LogLevel.DEBUG, "Restored the assembled model from the cache"); //$NON-NLS-1$
+				return true;
+			}
+		} catch (IOException | RuntimeException e) {
+			log(LogLevel.DEBUG, "Unable to restore the assembled model from the cache: {}", e); //$NON-NLS-1$
+		}
+		return false;
+	}
+
+	/**
+	 * Loads the fragment containers of the given sources. The resources are parsed
+	 * in parallel outside of the resource set and added to it afterwards in the
+	 * original order, so the resource set is only ever modified by the calling
+	 * thread.
+	 */
+	private void loadFragmentsContainers(List<FragmentSource> sources) {
+		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
+		ResourceSet resourceSet = applicationResource.getResourceSet();
+		if (resourceSet == null || sources.size() < 2) {
+			for (FragmentSource source : sources) {
+				source.container = getFragmentsContainer(source.uri, source.bundleName);
+			}
+			return;
+		}
+
+		// the package registry is not thread safe, make sure the model packages
+		// are resolved before the parsers look them up concurrently
+		for (String nsURI : new ArrayList<>(EPackage.Registry.INSTANCE.keySet())) {
+			if (nsURI.startsWith(UI_MODEL_NS_URI)) {
+				EPackage.Registry.INSTANCE.getEPackage(nsURI);
+			}
+		}
+
+		Map<?, ?> options = resourceSet.getLoadOptions();
+		URIConverter converter = resourceSet.getURIConverter();
+		List<CompletableFuture<Resource>> loading = new ArrayList<>(sources.size());
+		for (FragmentSource source : sources) {
+			Resource existing = resourceSet.getResource(source.uri, false);
+			if (existing != null) {
+				loading.add(CompletableFuture.completedFuture(existing));
+				continue;
+			}
+			Resource.Factory resourceFactory = resourceSet.getResourceFactoryRegistry().getFactory(source.uri);
+			loading.add(CompletableFuture.supplyAsync(() -> {
+				Resource resource = resourceFactory.createResource(source.uri);
+				try (InputStream in = converter.createInputStream(source.uri, options)) {
+					resource.load(in, options);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return resource;
+			}));
+		}
+
+		for (int i = 0; i < sources.size(); i++) {
+			FragmentSource source = sources.get(i);
+			Resource resource;
+			try {
+				resource = loading.get(i).join();
+			} catch (RuntimeException e) {
+				fragmentProblems = true;
+				log(LogLevel.WARN, "Unable to read model extension from {} of {}", source.uri, source.bundleName); //$NON-NLS-1$
+				continue;
+			}
+			if (resource.getResourceSet() == null) {
+				Resource existing = resourceSet.getResource(source.uri, false);
+				if (existing != null) {
+					resource = existing;
+				} else {
+					resourceSet.getResources().add(resource);
+				}
+			}
+			source.container = getFragmentsContainer(resource, source.bundleName);
+		}
 	}
 
 	private List<ModelFragmentWrapper> getModelFragmentWrapperFromBundle(Bundle bundle, boolean initial) {
@@ -389,6 +626,7 @@ public class ModelAssembler {
 
 			// check if the value for apply is valid
 			if (!ALWAYS.equals(apply) && !INITIAL.equals(apply) && !NOTEXISTS.equals(apply)) {
+				fragmentProblems = true;
 				log(LogLevel.WARN, "Model-Fragment header apply attribute {} is invalid, falling back to always", //$NON-NLS-1$
 						apply);
 				apply = ALWAYS;
@@ -405,6 +643,7 @@ public class ModelAssembler {
 				}
 			}
 		} else {
+			fragmentProblems = true;
 			log(LogLevel.ERROR, "Model-Fragment header value {} in bundle {} is invalid", //$NON-NLS-1$
 					fragmentHeader, bundle.getSymbolicName());
 		}
@@ -514,6 +753,7 @@ public class ModelAssembler {
 		Diagnostic validationResult = Diagnostician.INSTANCE.validate((EObject) fragment);
 		int severity = validationResult.getSeverity();
 		if (severity == Diagnostic.ERROR) {
+			fragmentProblems = true;
 			log(LogLevel.ERROR,
 					"Fragment from {} of {} could not be validated and was not merged: " //$NON-NLS-1$
 							+ fragment, contributorURI, contributorName);
@@ -533,35 +773,50 @@ public class ModelAssembler {
 	}
 
 	private MModelFragments getFragmentsContainer(String attrURI, String bundleName) {
-		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
-		ResourceSet resourceSet = applicationResource.getResourceSet();
+		URI uri = getFragmentsURI(attrURI, bundleName);
+		if (uri == null) {
+			return null;
+		}
+		return getFragmentsContainer(uri, bundleName);
+	}
+
+	private URI getFragmentsURI(String attrURI, String bundleName) {
 		if (attrURI == null) {
+			fragmentProblems = true;
 			log(LogLevel.WARN, "Unable to find location for the model extension {}", bundleName); //$NON-NLS-1$
 			return null;
 		}
 
-		URI uri;
 		try {
 			// check if the attrURI is already a platform URI
 			if (URIHelper.isPlatformURI(attrURI)) {
-				uri = URI.createURI(attrURI);
-			} else {
-				String path = bundleName + '/' + attrURI;
-				uri = URI.createPlatformPluginURI(path, false);
+				return URI.createURI(attrURI);
 			}
+			String path = bundleName + '/' + attrURI;
+			return URI.createPlatformPluginURI(path, false);
 		} catch (RuntimeException e) {
+			fragmentProblems = true;
 			log(LogLevel.WARN, "Invalid location {} of model extension {}", attrURI, bundleName, e); //$NON-NLS-1$
 			return null;
 		}
+	}
+
+	private MModelFragments getFragmentsContainer(URI uri, String bundleName) {
+		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
+		ResourceSet resourceSet = applicationResource.getResourceSet();
 
 		Resource resource;
 		try {
 			resource = resourceSet.getResource(uri, true);
 		} catch (RuntimeException e) {
+			fragmentProblems = true;
 			log(LogLevel.WARN, "Unable to read model extension from {} of {}", uri, bundleName); //$NON-NLS-1$
 			return null;
 		}
+		return getFragmentsContainer(resource, bundleName);
+	}
 
+	private MModelFragments getFragmentsContainer(Resource resource, String bundleName) {
 		EList<?> contents = resource.getContents();
 		if (contents.isEmpty()) {
 			return null;
@@ -570,6 +825,7 @@ public class ModelAssembler {
 		Object extensionRoot = contents.get(0);
 
 		if (!(extensionRoot instanceof MModelFragments)) {
+			fragmentProblems = true;
 			log(LogLevel.WARN, "Unable to create model extension {}", bundleName); //$NON-NLS-1$
 			return null;
 		}
@@ -799,6 +1055,7 @@ public class ModelAssembler {
 						el = importMaps.get((MApplicationElement) importObject);
 
 						if (el == null) {
+							fragmentProblems = true;
 							log(LogLevel.WARN, "Could not resolve import for {}", //$NON-NLS-1$
 									((MApplicationElement) importObject).getElementId());
 						}
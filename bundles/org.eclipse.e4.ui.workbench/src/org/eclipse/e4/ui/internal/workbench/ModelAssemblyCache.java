@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.osgi.framework.Bundle;
+
+/**
+ * Persistent cache of the application model as it looks after all model
+ * fragments have been merged into it.
+ * <p>
+ * The cache is keyed by a digest of the model before the merge and of every
+ * bundle and fragment file contributing to it, so an entry is only reused when
+ * the merge would produce the very same result. It lives in the bundle data
+ * area and is therefore shared by all workspaces of an installation.
+ * </p>
+ */
+final class ModelAssemblyCache {
+
+	private static final String MODEL_FILE = "merged.e4xmi"; //$NON-NLS-1$
+
+	private static final String KEY_FILE = "merged.key"; //$NON-NLS-1$
+
+	private final File modelFile;
+
+	private final File keyFile;
+
+	/**
+	 * @param location the directory to keep the cache files in
+	 */
+	ModelAssemblyCache(File location) {
+		this.modelFile = new File(location, MODEL_FILE);
+		this.keyFile = new File(location, KEY_FILE);
+	}
+
+	/**
+	 * Computes the cache key for merging the given fragment files into the
+	 * current state of the application model.
+	 *
+	 * @param application  the application model before any fragment is merged
+	 * @param fragmentURIs the fragment files that will be merged, in merge order
+	 * @param bundles      the bundles contributing fragments, in merge order
+	 * @return the key, never <code>null</code>
+	 */
+	String computeKey(MApplication application, Collection<URI> fragmentURIs, Collection<Bundle> bundles) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (Bundle bundle : bundles) {
+			update(digest, bundle.getSymbolicName());
+			update(digest, bundle.getVersion().toString());
+			update(digest, Long.toString(bundle.getLastModified()));
+		}
+		for (URI uri : fragmentURIs) {
+			update(digest, uri.toString());
+			update(digest, Long.toString(getLastModified(uri)));
+		}
+		updateModel(digest, (EObject) application);
+
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Merges the cached model into the given application model if it was stored
+	 * under the given key. The elements of the application model are kept and
+	 * only updated, so references held to them stay valid. Cached elements are
+	 * matched to them by type and element ID, the cache is therefore not used if
+	 * an element of either model has no element ID or shares it with another
+	 * element of the same type.
+	 *
+	 * @param application the application model to restore into
+	 * @param key         the key computed for the current merge
+	 * @return <code>true</code> if the cached model was restored,
+	 *         <code>false</code> if there is no usable cache entry
+	 * @throws IOException if the cache could not be read
+	 */
+	boolean restore(MApplication application, String key) throws IOException {
+		if (!keyFile.isFile() || !modelFile.isFile()
+				|| !key.equals(new String(Files.readAllBytes(keyFile.toPath()), StandardCharsets.UTF_8))) {
+			return false;
+		}
+
+		E4XMIResource cached = new E4XMIResource(URI.createFileURI(modelFile.getAbsolutePath()));
+		cached.load(null);
+		EObject target = (EObject) application;
+		if (cached.getContents().isEmpty() || cached.getContents().get(0).eClass() != target.eClass()) {
+			return false;
+		}
+		EObject source = cached.getContents().get(0);
+
+		List<EObject> cachedElements = getTree(source);
+		Map<EClass, Map<String, EObject>> cachedById = getElementsById(cachedElements);
+		Map<EClass, Map<String, EObject>> liveById = getElementsById(getTree(target));
+		if (cachedById == null || liveById == null) {
+			return false;
+		}
+		Map<Object, EObject> matches = new IdentityHashMap<>();
+		for (Entry<EClass, Map<String, EObject>> liveOfClass : liveById.entrySet()) {
+			Map<String, EObject> cachedOfClass = cachedById.getOrDefault(liveOfClass.getKey(),
+					Collections.emptyMap());
+			for (Entry<String, EObject> live : liveOfClass.getValue().entrySet()) {
+				EObject cachedElement = cachedOfClass.get(live.getKey());
+				if (cachedElement == null) {
+					// a fragment replaced the element with one of another type
+					return false;
+				}
+				matches.put(cachedElement, live.getValue());
+			}
+		}
+		if (matches.get(source) != target) {
+			return false;
+		}
+
+		// remember the IDs before the elements leave the cache resource
+		Map<EObject, String> ids = new HashMap<>();
+		for (EObject cachedElement : cachedElements) {
+			if (!matches.containsKey(cachedElement)) {
+				ids.put(cachedElement, cached.getID(cachedElement));
+			}
+		}
+
+		// compute all values before any is set, moving the new elements into the
+		// application model changes the cached tree
+		List<Runnable> updates = new ArrayList<>();
+		for (EObject cachedElement : cachedElements) {
+			EObject element = matches.getOrDefault(cachedElement, cachedElement);
+			for (EStructuralFeature feature : cachedElement.eClass().getEAllStructuralFeatures()) {
+				if (feature.isDerived() || feature.isTransient() || !feature.isChangeable()
+						|| (feature instanceof EReference && ((EReference) feature).isContainer())) {
+					continue;
+				}
+				boolean changed = element != cachedElement;
+				if (feature.isMany()) {
+					List<Object> values = new ArrayList<>();
+					for (Object value : (List<?>) cachedElement.eGet(feature)) {
+						Object match = matches.getOrDefault(value, null);
+						changed |= match != null;
+						values.add(match != null ? match : value);
+					}
+					if (changed) {
+						updates.add(() -> {
+							@SuppressWarnings("unchecked")
+							List<Object> list = (List<Object>) element.eGet(feature);
+							list.clear();
+							list.addAll(values);
+						});
+					}
+				} else {
+					boolean set = cachedElement.eIsSet(feature);
+					Object value = cachedElement.eGet(feature);
+					Object match = matches.getOrDefault(value, null);
+					if (changed || match != null) {
+						Object newValue = match != null ? match : value;
+						updates.add(() -> {
+							if (set) {
+								element.eSet(feature, newValue);
+							} else {
+								element.eUnset(feature);
+							}
+						});
+					}
+				}
+			}
+		}
+		for (Runnable update : updates) {
+			update.run();
+		}
+
+		E4XMIResource applicationResource = (E4XMIResource) target.eResource();
+		for (Entry<EObject, String> entry : ids.entrySet()) {
+			applicationResource.setID(entry.getKey(), entry.getValue());
+		}
+		return true;
+	}
+
+	private static List<EObject> getTree(EObject root) {
+		List<EObject> elements = new ArrayList<>();
+		elements.add(root);
+		for (TreeIterator<EObject> it = root.eAllContents(); it.hasNext();) {
+			elements.add(it.next());
+		}
+		return elements;
+	}
+
+	/**
+	 * @return the application elements among the given objects by type and
+	 *         element ID, or <code>null</code> if an element has no ID or shares
+	 *         it with another element of the same type
+	 */
+	private static Map<EClass, Map<String, EObject>> getElementsById(List<EObject> objects) {
+		Map<EClass, Map<String, EObject>> elements = new HashMap<>();
+		for (EObject object : objects) {
+			if (object instanceof MApplicationElement) {
+				String id = ((MApplicationElement) object).getElementId();
+				if (id == null
+						|| elements.computeIfAbsent(object.eClass(), c -> new HashMap<>()).put(id, object) != null) {
+					return null;
+				}
+			}
+		}
+		return elements;
+	}
+
+	/**
+	 * Stores a copy of the given application model under the given key.
+	 *
+	 * @param application the application model with all fragments merged
+	 * @param key         the key computed before the merge
+	 * @throws IOException if the cache could not be written
+	 */
+	void store(MApplication application, String key) throws IOException {
+		EObject source = (EObject) application;
+		E4XMIResource applicationResource = (E4XMIResource) source.eResource();
+		EcoreUtil.Copier copier = new EcoreUtil.Copier();
+		EObject copy = copier.copy(source);
+		copier.copyReferences();
+
+		E4XMIResource resource = new E4XMIResource(URI.createFileURI(modelFile.getAbsolutePath()));
+		resource.getContents().add(copy);
+		for (Entry<EObject, EObject> entry : copier.entrySet()) {
+			resource.setID(entry.getValue(), applicationResource.getID(entry.getKey()));
+		}
+
+		// drop the key first so a partially written model is never picked up
+		Files.deleteIfExists(keyFile.toPath());
+		modelFile.getParentFile().mkdirs();
+		resource.save(null);
+		Files.write(keyFile.toPath(), key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Digests the structure of the model without relying on the resource IDs,
+	 * which are generated lazily and differ from run to run.
+	 */
+	private static void updateModel(MessageDigest digest, EObject root) {
+		Map<EObject, Integer> indices = new IdentityHashMap<>();
+		List<EObject> elements = getTree(root);
+		for (EObject element : elements) {
+			indices.put(element, Integer.valueOf(indices.size()));
+		}
+
+		for (EObject element : elements) {
+			update(digest, element.eClass().getName());
+			for (EStructuralFeature feature : element.eClass().getEAllStructuralFeatures()) {
+				if (feature.isDerived() || feature.isTransient() || !element.eIsSet(feature)) {
+					continue;
+				}
+				update(digest, feature.getName());
+				Object value = element.eGet(feature, false);
+				List<?> values = feature.isMany() ? (List<?>) value : Collections.singletonList(value);
+				for (Object v : values) {
+					if (feature instanceof EAttribute) {
+						update(digest, String.valueOf(v));
+					} else {
+						Integer index = indices.get(v);
+						update(digest, index != null ? index.toString() : String.valueOf(EcoreUtil.getURI((EObject) v)));
+					}
+				}
+			}
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	/**
+	 * @return the time stamp of the bundle entry behind the given platform plug-in
+	 *         URI, so that edits to fragments of bundles running from a workspace
+	 *         are noticed, or <code>0</code> if it cannot be determined
+	 */
+	private static long getLastModified(URI uri) {
+		if (!uri.isPlatformPlugin() || uri.segmentCount() < 3 || Activator.getDefault() == null) {
+			return 0;
+		}
+		Bundle bundle = Activator.getDefault().getBundleForName(uri.segment(1));
+		if (bundle == null) {
+			return 0;
+		}
+		StringBuilder path = new StringBuilder();
+		for (int i = 2; i < uri.segmentCount(); i++) {
+			path.append('/').append(URI.decode(uri.segment(i)));
+		}
+		URL entry = bundle.getEntry(path.toString());
+		if (entry == null) {
+			return 0;
+		}
+		try {
+			URLConnection connection = entry.openConnection();
+			return connection.getLastModified();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+}
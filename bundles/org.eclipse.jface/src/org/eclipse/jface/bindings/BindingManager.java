@@ -123,6 +123,41 @@ public final class BindingManager extends HandleObjectManager implements
 		}
 	}
 
+	/**
+	 * <p>
+	 * A utility method for changing entries of a map built by
+	 * {@link #addReverseLookup(Map, Object, Object)} without modifying the
+	 * collections already stored in it. The collection at the key is replaced
+	 * by a copy with the value added or removed. If the resulting collection is
+	 * empty, then the key is removed.
+	 * </p>
+	 *
+	 * @param map
+	 *            The map to modify; must not be <code>null</code>.
+	 * @param key
+	 *            The key to look up in the map; may be <code>null</code>.
+	 * @param value
+	 *            The value to add or remove; may be <code>null</code>.
+	 * @param add
+	 *            Whether the value should be added or removed.
+	 */
+	private static void updateReverseLookup(final Map map, final Object key,
+			final Object value, final boolean add) {
+		final Collection currentValue = (Collection) map.get(key);
+		final Collection values = (currentValue == null) ? new ArrayList(1)
+				: new ArrayList(currentValue);
+		if (add) {
+			values.add(value);
+		} else {
+			values.remove(value);
+		}
+		if (values.isEmpty()) {
+			map.remove(key);
+		} else {
+			map.put(key, values);
+		}
+	}
+
 	/**
 	 * <p>
 	 * Takes a fully-specified string, and converts it into an array of
@@ -279,6 +314,58 @@ public final class BindingManager extends HandleObjectManager implements
 	 */
 	private Map prefixTable;
 
+	/**
+	 * The bindings which survive the deletion markers and match the locales,
+	 * platforms and schemes the index was built for. This is a map of triggers
+	 * (<code>TriggerSequence</code>) to the matching bindings (
+	 * <code>List</code> of <code>Binding</code>) in the order in which they
+	 * appear in <code>bindings</code>. This value is <code>null</code> if the
+	 * index has not been built since the bindings last changed.
+	 *
+	 * @see #buildBindingIndex()
+	 */
+	private Map indexedBindingsByTrigger = null;
+
+	/**
+	 * The deletion markers that were applied when building the index. This is
+	 * a map of triggers (<code>TriggerSequence</code>) to either a single
+	 * deletion marker (<code>Binding</code>) or a <code>Collection</code> of
+	 * them.
+	 */
+	private Map indexedDeletions = null;
+
+	/**
+	 * The locales for which the index was built.
+	 */
+	private String[] indexedLocales = null;
+
+	/**
+	 * The platforms for which the index was built.
+	 */
+	private String[] indexedPlatforms = null;
+
+	/**
+	 * The scheme identifiers for which the index was built.
+	 */
+	private String[] indexedSchemeIds = null;
+
+	/**
+	 * The triggers of the indexed bindings, grouped by the context in which
+	 * they are defined. This is a map of context identifiers (
+	 * <code>String</code>) to sets of triggers (<code>TriggerSequence</code>).
+	 * When a context is activated or deactivated, only these triggers need to
+	 * be resolved again.
+	 */
+	private Map indexedTriggersByContextId = null;
+
+	/**
+	 * The tree of contexts for which the current solution (i.e.,
+	 * <code>activeBindings</code>, <code>activeBindingsByParameterizedCommand</code>,
+	 * <code>prefixTable</code> and <code>currentConflicts</code>) was computed.
+	 * This value is <code>null</code> if there is no current solution.
+	 */
+	private Map solutionContextTree = null;
+
 	/**
 	 * <p>
 	 * Constructs a new instance of <code>BindingManager</code>.
@@ -337,7 +424,105 @@ public final class BindingManager extends HandleObjectManager implements
 			System.arraycopy(oldBindings, 0, bindings, 0, oldBindings.length);
 		}
 		bindings[bindingCount++] = binding;
-		clearCache();
+		if (!addToSolution(binding)) {
+			clearCache();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a binding that has just been appended to <code>bindings</code>
+	 * to the binding index and the current solution, instead of discarding
+	 * them. Bindings that are deletion markers cannot be applied this way,
+	 * because they may delete bindings that are already part of the
+	 * solution.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(p)</code>, where <code>p</code> is
+	 * the number of triggers in the trigger sequence, plus the time needed to
+	 * copy the current solution.
+	 * </p>
+	 *
+	 * @param binding
+	 *            The binding that was added; must not be <code>null</code>.
+	 * @return <code>true</code> if the binding was applied;
+	 *         <code>false</code> if the cache has to be cleared instead.
+	 */
+	private final boolean addToSolution(final Binding binding) {
+		if ((solutionContextTree == null) || (activeBindings == null)
+				|| (binding.getParameterizedCommand() == null)
+				|| !isBindingIndexValid()) {
+			return false;
+		}
+
+		// Any other cached binding set may be affected by the new binding.
+		cachedBindings.clear();
+
+		Map bindingsByTrigger = activeBindings;
+		Map triggersByCommandId = activeBindingsByParameterizedCommand;
+		Map newPrefixTable = prefixTable;
+		Map conflictsByTrigger = currentConflicts;
+		if (localeMatches(binding) && platformMatches(binding)
+				&& schemeMatches(binding) && !isDeleted(binding)) {
+			addToBindingIndex(binding);
+			if (solutionContextTree.containsKey(binding.getContextId())) {
+				if (DEBUG) {
+					Tracing.printTrace("BINDINGS", "Updating solution for " //$NON-NLS-1$ //$NON-NLS-2$
+							+ binding.getTriggerSequence());
+				}
+				bindingsByTrigger = new HashMap(activeBindings);
+				triggersByCommandId = new HashMap(
+						activeBindingsByParameterizedCommand);
+				newPrefixTable = new HashMap(prefixTable);
+				conflictsByTrigger = new HashMap(currentConflicts);
+				updateTriggers(Collections.singleton(binding
+						.getTriggerSequence()), solutionContextTree,
+						bindingsByTrigger, triggersByCommandId, newPrefixTable,
+						conflictsByTrigger);
+			}
+		}
+
+		final CachedBindingSet bindingCache = new CachedBindingSet(
+				solutionContextTree, locales, platforms, activeSchemeIds);
+		bindingCache.setBindingsByTrigger(bindingsByTrigger);
+		bindingCache.setTriggersByCommandId(triggersByCommandId);
+		bindingCache.setPrefixTable(newPrefixTable);
+		bindingCache.setConflictsByTrigger(conflictsByTrigger);
+		cachedBindings.put(bindingCache, bindingCache);
+
+		setActiveBindings(bindingsByTrigger, triggersByCommandId,
+				newPrefixTable, conflictsByTrigger);
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Adds a binding to the binding index. The binding must already have been
+	 * checked against the locale, platform, scheme and deletion markers.
+	 * </p>
+	 * <p>
+	 * This method completes in amortized <code>O(1)</code>.
+	 * </p>
+	 *
+	 * @param binding
+	 *            The binding to index; must not be <code>null</code>.
+	 */
+	private final void addToBindingIndex(final Binding binding) {
+		final TriggerSequence trigger = binding.getTriggerSequence();
+		List matches = (List) indexedBindingsByTrigger.get(trigger);
+		if (matches == null) {
+			matches = new ArrayList(1);
+			indexedBindingsByTrigger.put(trigger, matches);
+		}
+		matches.add(binding);
+
+		final String contextId = binding.getContextId();
+		Set triggers = (Set) indexedTriggersByContextId.get(contextId);
+		if (triggers == null) {
+			triggers = new HashSet();
+			indexedTriggersByContextId.put(contextId, triggers);
+		}
+		triggers.add(trigger);
 	}
 
 	/**
@@ -358,6 +543,36 @@ public final class BindingManager extends HandleObjectManager implements
 		addListenerObject(listener);
 	}
 
+	/**
+	 * <p>
+	 * Builds the index of the bindings that survive the deletion markers and
+	 * match the current locale, platform and scheme, grouped by trigger and by
+	 * context. The index does not depend on the active contexts, so it is
+	 * shared by all solutions computed for the current state.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(n)</code>, where <code>n</code> is
+	 * the number of bindings.
+	 * </p>
+	 */
+	private final void buildBindingIndex() {
+		indexedBindingsByTrigger = new HashMap();
+		indexedTriggersByContextId = new HashMap();
+		indexedDeletions = new HashMap();
+		indexedLocales = locales;
+		indexedPlatforms = platforms;
+		indexedSchemeIds = activeSchemeIds;
+
+		final Binding[] trimmedBindings = removeDeletions(bindings,
+				indexedDeletions);
+		for (final Binding binding : trimmedBindings) {
+			if (localeMatches(binding) && platformMatches(binding)
+					&& schemeMatches(binding)) {
+				addToBindingIndex(binding);
+			}
+		}
+	}
+
 	/**
 	 * <p>
 	 * Builds a prefix table look-up for a map of active bindings.
@@ -432,6 +647,9 @@ public final class BindingManager extends HandleObjectManager implements
 			Tracing.printTrace("BINDINGS", "Clearing cache"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		cachedBindings.clear();
+		indexedBindingsByTrigger = null;
+		indexedTriggersByContextId = null;
+		indexedDeletions = null;
 		clearSolution();
 	}
 
@@ -443,6 +661,7 @@ public final class BindingManager extends HandleObjectManager implements
 	 * This method completes in <code>O(1)</code>.
 	 */
 	private final void clearSolution() {
+		solutionContextTree = null;
 		setActiveBindings(null, null, null, null);
 	}
 
@@ -520,7 +739,8 @@ public final class BindingManager extends HandleObjectManager implements
 		/*
 		 * FIRST PASS: Remove all of the bindings that are marking deletions.
 		 */
-		final Binding[] trimmedBindings = removeDeletions(bindings);
+		final Binding[] trimmedBindings = removeDeletions(bindings,
+				new HashMap());
 
 		/*
 		 * SECOND PASS: Just throw in bindings that match the current state. If
@@ -530,7 +750,6 @@ public final class BindingManager extends HandleObjectManager implements
 		final int length = trimmedBindings.length;
 		for (int i = 0; i < length; i++) {
 			final Binding binding = trimmedBindings[i];
-			boolean found;
 
 			// Check the context.
 			final String contextId = binding.getContextId();
@@ -550,17 +769,7 @@ public final class BindingManager extends HandleObjectManager implements
 			}
 
 			// Check the scheme ids.
-			final String schemeId = binding.getSchemeId();
-			found = false;
-			if (activeSchemeIds != null) {
-				for (String activeSchemeId : activeSchemeIds) {
-					if (Objects.equals(schemeId, activeSchemeId)) {
-						found = true;
-						break;
-					}
-				}
-			}
-			if (!found) {
+			if (!schemeMatches(binding)) {
 				continue;
 			}
 
@@ -624,49 +833,10 @@ public final class BindingManager extends HandleObjectManager implements
 					}
 				}
 
-			} else // We are building the flat map of trigger to commands.
-			if (match instanceof Binding) {
-				final Binding binding = (Binding) match;
-				bindingsByTrigger.put(trigger, binding);
-				addReverseLookup(triggersByCommandId, binding
-						.getParameterizedCommand(), trigger);
-
-			} else if (match instanceof Collection) {
-				final Binding winner = resolveConflicts((Collection) match,
-						activeContextTree);
-				if (winner == null) {
-					// warn once ... so as not to flood the logs
-					conflictsByTrigger.put(trigger, match);
-					if (triggerConflicts.add(trigger)) {
-						final StringWriter sw = new StringWriter();
-						final BufferedWriter buffer = new BufferedWriter(sw);
-						try {
-							buffer.write("A conflict occurred for "); //$NON-NLS-1$
-							buffer.write(trigger.toString());
-							buffer.write(':');
-							Iterator i = ((Collection) match).iterator();
-							while (i.hasNext()) {
-								buffer.newLine();
-								buffer.write(i.next().toString());
-							}
-							buffer.flush();
-						} catch (IOException e) {
-							// we should not get this
-						}
-						conflicts.add(new Status(IStatus.WARNING,
-								"org.eclipse.jface", //$NON-NLS-1$
-								sw.toString()));
-					}
-					if (DEBUG) {
-						Tracing.printTrace("BINDINGS", //$NON-NLS-1$
-								"A conflict occurred for " + trigger); //$NON-NLS-1$
-						Tracing.printTrace("BINDINGS", "    " + match); //$NON-NLS-1$ //$NON-NLS-2$
-					}
-				} else {
-					bindingsByTrigger.put(trigger, winner);
-					addReverseLookup(triggersByCommandId, winner
-							.getParameterizedCommand(), trigger);
-				}
+			} else { // We are building the flat map of trigger to commands.
+				resolveTrigger(trigger, match, activeContextTree,
+						bindingsByTrigger, triggersByCommandId,
+						conflictsByTrigger, conflicts);
 			}
 		}
 		if (conflicts.getSeverity() != IStatus.OK) {
@@ -1584,6 +1754,54 @@ public final class BindingManager extends HandleObjectManager implements
 		return (String[]) strings.toArray(new String[strings.size()]);
 	}
 
+	/**
+	 * <p>
+	 * Returns whether the binding index reflects the current bindings, locale,
+	 * platform and scheme.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(1)</code>.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the index can be used.
+	 */
+	private final boolean isBindingIndexValid() {
+		return (indexedBindingsByTrigger != null) && (indexedLocales == locales)
+				&& (indexedPlatforms == platforms)
+				&& (indexedSchemeIds == activeSchemeIds);
+	}
+
+	/**
+	 * <p>
+	 * Returns whether one of the indexed deletion markers deletes the given
+	 * binding.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(d)</code>, where <code>d</code> is
+	 * the number of deletion markers for the binding's trigger.
+	 * </p>
+	 *
+	 * @param binding
+	 *            The binding to check; must not be <code>null</code>.
+	 * @return <code>true</code> if the binding is deleted.
+	 */
+	private final boolean isDeleted(final Binding binding) {
+		final Object deletion = indexedDeletions.get(binding
+				.getTriggerSequence());
+		if (deletion instanceof Binding) {
+			return ((Binding) deletion).deletes(binding);
+		}
+		if (deletion instanceof Collection) {
+			final Iterator iterator = ((Collection) deletion).iterator();
+			while (iterator.hasNext()) {
+				if (((Binding) iterator.next()).deletes(binding)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * <p>
 	 * Returns whether the given trigger sequence is a partial match for the
@@ -1692,6 +1910,34 @@ public final class BindingManager extends HandleObjectManager implements
 		return matches;
 	}
 
+	/**
+	 * <p>
+	 * Tests whether the binding belongs to one of the active schemes.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(n)</code>, where <code>n</code> is
+	 * the number of active schemes.
+	 * </p>
+	 *
+	 * @param binding
+	 *            The binding to check; must not be <code>null</code>.
+	 * @return <code>true</code> if the binding's scheme is active.
+	 */
+	private final boolean schemeMatches(final Binding binding) {
+		if (activeSchemeIds == null) {
+			return false;
+		}
+
+		final String schemeId = binding.getSchemeId();
+		for (String activeSchemeId : activeSchemeIds) {
+			if (Objects.equals(schemeId, activeSchemeId)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	/**
 	 * <p>
 	 * This recomputes the bindings based on changes to the state of the world.
@@ -1739,6 +1985,7 @@ public final class BindingManager extends HandleObjectManager implements
 			if (DEBUG) {
 				Tracing.printTrace("BINDINGS", "Cache hit"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
+			solutionContextTree = activeContextTree;
 			setActiveBindings(existingCache.getBindingsByTrigger(), existingCache.getTriggersByCommandId(),
 					existingCache.getPrefixTable(),
 					existingCache.getConflictsByTrigger());
@@ -1750,6 +1997,11 @@ public final class BindingManager extends HandleObjectManager implements
 			Tracing.printTrace("BINDINGS", "Cache miss"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 
+		// Try to derive the solution from the current one.
+		if (recomputeBindingsIncrementally(activeContextTree, existingCache)) {
+			return;
+		}
+
 		// Compute the active bindings.
 		final Map commandIdsByTrigger = new HashMap();
 		final Map triggersByParameterizedCommand = new HashMap();
@@ -1764,11 +2016,114 @@ public final class BindingManager extends HandleObjectManager implements
 		existingCache.setConflictsByTrigger(conflictsByTrigger);
 		existingCache.setPrefixTable(newPrefixTable);
 
+		solutionContextTree = activeContextTree;
 		setActiveBindings(commandIdsByTrigger, triggersByParameterizedCommand,
 				newPrefixTable,
 				conflictsByTrigger);
 	}
 
+	/**
+	 * <p>
+	 * Computes the solution for a new tree of active contexts from the current
+	 * solution. Only the triggers of bindings defined in contexts that were
+	 * activated or deactivated are resolved again; everything else is carried
+	 * over. The current solution is not modified, as it may still be held by
+	 * the cache.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(c+tp)</code>, where <code>c</code> is
+	 * the size of the current solution, <code>t</code> is the number of
+	 * affected triggers and <code>p</code> is the average number of triggers
+	 * in a trigger sequence.
+	 * </p>
+	 *
+	 * @param activeContextTree
+	 *            The new tree of active contexts; must not be
+	 *            <code>null</code>.
+	 * @param bindingCache
+	 *            The cache entry to initialize with the new solution; must not
+	 *            be <code>null</code>.
+	 * @return <code>true</code> if the solution was computed;
+	 *         <code>false</code> if there is no usable current solution or too
+	 *         many triggers are affected, and the bindings have to be computed
+	 *         from scratch.
+	 */
+	private final boolean recomputeBindingsIncrementally(
+			final Map activeContextTree, final CachedBindingSet bindingCache) {
+		if ((solutionContextTree == null) || (activeBindings == null)
+				|| (activeBindingsByParameterizedCommand == null)
+				|| (prefixTable == null) || (currentConflicts == null)) {
+			return false;
+		}
+		if (!isBindingIndexValid()) {
+			buildBindingIndex();
+		}
+
+		// Find the contexts that were activated or deactivated.
+		final Set changedContextIds = new HashSet();
+		Iterator entryItr = activeContextTree.entrySet().iterator();
+		while (entryItr.hasNext()) {
+			final Map.Entry entry = (Map.Entry) entryItr.next();
+			final Object contextId = entry.getKey();
+			if (!solutionContextTree.containsKey(contextId)
+					|| !Objects.equals(entry.getValue(),
+							solutionContextTree.get(contextId))) {
+				changedContextIds.add(contextId);
+			}
+		}
+		entryItr = solutionContextTree.keySet().iterator();
+		while (entryItr.hasNext()) {
+			final Object contextId = entryItr.next();
+			if (!activeContextTree.containsKey(contextId)) {
+				changedContextIds.add(contextId);
+			}
+		}
+
+		/*
+		 * The bindings for a trigger only depend on which of their contexts are
+		 * active, so the affected triggers are the ones with bindings in a
+		 * changed context.
+		 */
+		final Set affectedTriggers = new HashSet();
+		final Iterator contextIdItr = changedContextIds.iterator();
+		while (contextIdItr.hasNext()) {
+			final Set triggers = (Set) indexedTriggersByContextId
+					.get(contextIdItr.next());
+			if (triggers != null) {
+				affectedTriggers.addAll(triggers);
+				if (affectedTriggers.size() * 2 > indexedBindingsByTrigger
+						.size()) {
+					// Recomputing everything is cheaper.
+					return false;
+				}
+			}
+		}
+
+		if (DEBUG) {
+			Tracing.printTrace("BINDINGS", "Incremental update of " //$NON-NLS-1$ //$NON-NLS-2$
+					+ affectedTriggers.size() + " triggers for " //$NON-NLS-1$
+					+ changedContextIds.size() + " changed contexts"); //$NON-NLS-1$
+		}
+
+		final Map bindingsByTrigger = new HashMap(activeBindings);
+		final Map triggersByCommandId = new HashMap(
+				activeBindingsByParameterizedCommand);
+		final Map newPrefixTable = new HashMap(prefixTable);
+		final Map conflictsByTrigger = new HashMap(currentConflicts);
+		updateTriggers(affectedTriggers, activeContextTree, bindingsByTrigger,
+				triggersByCommandId, newPrefixTable, conflictsByTrigger);
+
+		bindingCache.setBindingsByTrigger(bindingsByTrigger);
+		bindingCache.setTriggersByCommandId(triggersByCommandId);
+		bindingCache.setConflictsByTrigger(conflictsByTrigger);
+		bindingCache.setPrefixTable(newPrefixTable);
+
+		solutionContextTree = activeContextTree;
+		setActiveBindings(bindingsByTrigger, triggersByCommandId,
+				newPrefixTable, conflictsByTrigger);
+		return true;
+	}
+
 	/**
 	 * <p>
 	 * Remove the specific binding by identity. Does nothing if the binding is
@@ -1896,12 +2251,18 @@ public final class BindingManager extends HandleObjectManager implements
 	 *            The bindings from which the deleted items should be removed.
 	 *            This array should not be <code>null</code>, but may be
 	 *            empty.
+	 * @param deletions
+	 *            The empty map that is filled with triggers (
+	 *            <code>TriggerSequence</code>) to the deletion markers (
+	 *            <code>Binding</code> or <code>Collection</code> of
+	 *            <code>Binding</code>) that were applied; must not be
+	 *            <code>null</code>.
 	 * @return The array of bindings with the deletions removed; never
 	 *         <code>null</code>, but may be empty. Contains only instances
 	 *         of <code>Binding</code>.
 	 */
-	private final Binding[] removeDeletions(final Binding[] bindings) {
-		final Map deletions = new HashMap();
+	private final Binding[] removeDeletions(final Binding[] bindings,
+			final Map deletions) {
 		final Binding[] bindingsCopy = new Binding[bindingCount];
 		System.arraycopy(bindings, 0, bindingsCopy, 0, bindingCount);
 		int deletedCount = 0;
@@ -2104,6 +2465,87 @@ public final class BindingManager extends HandleObjectManager implements
 		return bestMatch;
 	}
 
+	/**
+	 * <p>
+	 * Inserts the binding that wins for a single trigger into the flat map of
+	 * triggers to bindings. If the matching bindings conflict and the conflict
+	 * cannot be resolved, then the conflict is recorded instead.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(n)</code>, where <code>n</code> is
+	 * the number of bindings matching the trigger.
+	 * </p>
+	 *
+	 * @param trigger
+	 *            The trigger being resolved; must not be <code>null</code>.
+	 * @param match
+	 *            Either a single <code>Binding</code> or a
+	 *            <code>Collection</code> of bindings for the trigger; must not
+	 *            be <code>null</code>.
+	 * @param activeContextTree
+	 *            The tree of active contexts; must not be <code>null</code>.
+	 * @param bindingsByTrigger
+	 *            The map of triggers to bindings to fill in; must not be
+	 *            <code>null</code>.
+	 * @param triggersByCommandId
+	 *            The map of commands to triggers to fill in; may be
+	 *            <code>null</code>.
+	 * @param conflictsByTrigger
+	 *            The map of triggers to conflicting bindings to fill in; must
+	 *            not be <code>null</code>.
+	 * @param conflicts
+	 *            The status collecting conflicts that have to be logged; must
+	 *            not be <code>null</code>.
+	 */
+	private final void resolveTrigger(final TriggerSequence trigger,
+			final Object match, final Map activeContextTree,
+			final Map bindingsByTrigger, final Map triggersByCommandId,
+			final Map conflictsByTrigger, final MultiStatus conflicts) {
+		if (match instanceof Binding) {
+			final Binding binding = (Binding) match;
+			bindingsByTrigger.put(trigger, binding);
+			addReverseLookup(triggersByCommandId, binding
+					.getParameterizedCommand(), trigger);
+
+		} else if (match instanceof Collection) {
+			final Binding winner = resolveConflicts((Collection) match,
+					activeContextTree);
+			if (winner == null) {
+				// warn once ... so as not to flood the logs
+				conflictsByTrigger.put(trigger, match);
+				if (triggerConflicts.add(trigger)) {
+					final StringWriter sw = new StringWriter();
+					final BufferedWriter buffer = new BufferedWriter(sw);
+					try {
+						buffer.write("A conflict occurred for "); //$NON-NLS-1$
+						buffer.write(trigger.toString());
+						buffer.write(':');
+						Iterator i = ((Collection) match).iterator();
+						while (i.hasNext()) {
+							buffer.newLine();
+							buffer.write(i.next().toString());
+						}
+						buffer.flush();
+					} catch (IOException e) {
+						// we should not get this
+					}
+					conflicts.add(new Status(IStatus.WARNING,
+							"org.eclipse.jface", //$NON-NLS-1$
+							sw.toString()));
+				}
+				if (DEBUG) {
+					Tracing.printTrace("BINDINGS", //$NON-NLS-1$
+							"A conflict occurred for " + trigger); //$NON-NLS-1$
+					Tracing.printTrace("BINDINGS", "    " + match); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			} else {
+				bindingsByTrigger.put(trigger, winner);
+				addReverseLookup(triggersByCommandId, winner
+						.getParameterizedCommand(), trigger);
+			}
+		}
+	}
+
 	/**
 	 * <p>
 	 * Notifies this manager that a scheme has changed. This method is intended
@@ -2146,6 +2588,224 @@ public final class BindingManager extends HandleObjectManager implements
 		}
 	}
 
+	/**
+	 * <p>
+	 * Resolves the given triggers again against the binding index and the
+	 * given tree of active contexts, and updates a copy of a solution
+	 * accordingly. The collections and completion maps stored in the given
+	 * maps are never modified; they are replaced by modified copies, so the
+	 * maps may be shallow copies of a cached solution.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(tp)</code>, where <code>t</code> is
+	 * the number of triggers and <code>p</code> is the average number of
+	 * triggers in a trigger sequence.
+	 * </p>
+	 *
+	 * @param triggers
+	 *            The triggers (<code>TriggerSequence</code>) to resolve; must
+	 *            not be <code>null</code>.
+	 * @param activeContextTree
+	 *            The tree of active contexts; must not be <code>null</code>.
+	 * @param bindingsByTrigger
+	 *            The map of triggers to bindings to update; must not be
+	 *            <code>null</code>.
+	 * @param triggersByCommandId
+	 *            The map of commands to triggers to update; must not be
+	 *            <code>null</code>.
+	 * @param prefixTable
+	 *            The prefix table to update; must not be <code>null</code>.
+	 * @param conflictsByTrigger
+	 *            The map of triggers to conflicting bindings to update; must
+	 *            not be <code>null</code>.
+	 */
+	private final void updateTriggers(final Collection triggers,
+			final Map activeContextTree, final Map bindingsByTrigger,
+			final Map triggersByCommandId, final Map prefixTable,
+			final Map conflictsByTrigger) {
+		final MultiStatus conflicts = new MultiStatus("org.eclipse.jface", 0, //$NON-NLS-1$
+				"Keybinding conflicts occurred.  They may interfere with normal accelerator operation.", //$NON-NLS-1$
+				null);
+		final Set copiedPrefixes = new HashSet();
+		final Map addedTriggersByCommandId = new HashMap();
+
+		final Iterator triggerItr = triggers.iterator();
+		while (triggerItr.hasNext()) {
+			final TriggerSequence trigger = (TriggerSequence) triggerItr.next();
+
+			// Take out the previous solution for this trigger.
+			conflictsByTrigger.remove(trigger);
+			final Binding previous = (Binding) bindingsByTrigger.remove(trigger);
+			if (previous != null) {
+				updateReverseLookup(triggersByCommandId, previous
+						.getParameterizedCommand(), trigger, false);
+				removeFromPrefixTable(prefixTable, trigger, bindingsByTrigger,
+						copiedPrefixes);
+			}
+
+			// Collect the bindings that are active in the new context tree.
+			Object match = null;
+			final List matches = (List) indexedBindingsByTrigger.get(trigger);
+			if (matches != null) {
+				final Iterator matchItr = matches.iterator();
+				while (matchItr.hasNext()) {
+					final Binding binding = (Binding) matchItr.next();
+					if (!activeContextTree.containsKey(binding.getContextId())) {
+						continue;
+					}
+					if (match == null) {
+						match = binding;
+					} else if (match instanceof Binding) {
+						final Collection collection = new ArrayList();
+						collection.add(match);
+						collection.add(binding);
+						match = collection;
+					} else {
+						((Collection) match).add(binding);
+					}
+				}
+			}
+			if (match == null) {
+				continue;
+			}
+
+			resolveTrigger(trigger, match, activeContextTree,
+					bindingsByTrigger, addedTriggersByCommandId,
+					conflictsByTrigger, conflicts);
+			final Binding winner = (Binding) bindingsByTrigger.get(trigger);
+			if (winner != null) {
+				addToPrefixTable(prefixTable, trigger, winner, copiedPrefixes);
+			}
+		}
+
+		final Iterator addedItr = addedTriggersByCommandId.entrySet()
+				.iterator();
+		while (addedItr.hasNext()) {
+			final Map.Entry entry = (Map.Entry) addedItr.next();
+			final Iterator addedTriggerItr = ((Collection) entry.getValue())
+					.iterator();
+			while (addedTriggerItr.hasNext()) {
+				updateReverseLookup(triggersByCommandId, entry.getKey(),
+						addedTriggerItr.next(), true);
+			}
+		}
+
+		if (conflicts.getSeverity() != IStatus.OK) {
+			Policy.getLog().log(conflicts);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Returns the map of completions for a prefix that may be modified. The
+	 * first time a prefix is touched, its completions are copied, so the map
+	 * shared with a cached prefix table stays untouched.
+	 * </p>
+	 *
+	 * @param prefixTable
+	 *            The prefix table; must not be <code>null</code>.
+	 * @param prefix
+	 *            The prefix; must not be <code>null</code>.
+	 * @param copiedPrefixes
+	 *            The prefixes whose completions have already been copied; must
+	 *            not be <code>null</code>.
+	 * @return The modifiable completions; never <code>null</code>.
+	 */
+	private static final Map getCompletionsForUpdate(final Map prefixTable,
+			final TriggerSequence prefix, final Set copiedPrefixes) {
+		final Object value = prefixTable.get(prefix);
+		if ((value instanceof Map) && copiedPrefixes.contains(prefix)) {
+			return (Map) value;
+		}
+		final Map completions = (value instanceof Map) ? new HashMap(
+				(Map) value) : new HashMap();
+		prefixTable.put(prefix, completions);
+		copiedPrefixes.add(prefix);
+		return completions;
+	}
+
+	/**
+	 * <p>
+	 * Adds an active binding to a prefix table, the same way
+	 * {@link #buildPrefixTable(Map)} does.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(p)</code>, where <code>p</code> is
+	 * the number of triggers in the trigger sequence.
+	 * </p>
+	 *
+	 * @param prefixTable
+	 *            The prefix table to update; must not be <code>null</code>.
+	 * @param triggerSequence
+	 *            The trigger of the binding; must not be <code>null</code>.
+	 * @param binding
+	 *            The active binding; must not be <code>null</code>.
+	 * @param copiedPrefixes
+	 *            The prefixes whose completions have already been copied; must
+	 *            not be <code>null</code>.
+	 */
+	private static final void addToPrefixTable(final Map prefixTable,
+			final TriggerSequence triggerSequence, final Binding binding,
+			final Set copiedPrefixes) {
+		// Add the perfect match.
+		if (!prefixTable.containsKey(triggerSequence)) {
+			prefixTable.put(triggerSequence, null);
+		}
+
+		final TriggerSequence[] prefixes = triggerSequence.getPrefixes();
+		for (final TriggerSequence prefix : prefixes) {
+			getCompletionsForUpdate(prefixTable, prefix, copiedPrefixes).put(
+					triggerSequence, binding);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Removes a binding that is no longer active from a prefix table.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(p)</code>, where <code>p</code> is
+	 * the number of triggers in the trigger sequence.
+	 * </p>
+	 *
+	 * @param prefixTable
+	 *            The prefix table to update; must not be <code>null</code>.
+	 * @param triggerSequence
+	 *            The trigger of the binding; must not be <code>null</code>.
+	 * @param activeBindings
+	 *            The active bindings, no longer containing the trigger; must
+	 *            not be <code>null</code>.
+	 * @param copiedPrefixes
+	 *            The prefixes whose completions have already been copied; must
+	 *            not be <code>null</code>.
+	 */
+	private static final void removeFromPrefixTable(final Map prefixTable,
+			final TriggerSequence triggerSequence, final Map activeBindings,
+			final Set copiedPrefixes) {
+		// Remove the perfect match, unless it is also a prefix.
+		if (!(prefixTable.get(triggerSequence) instanceof Map)) {
+			prefixTable.remove(triggerSequence);
+		}
+
+		final TriggerSequence[] prefixes = triggerSequence.getPrefixes();
+		for (final TriggerSequence prefix : prefixes) {
+			if (!(prefixTable.get(prefix) instanceof Map)) {
+				continue;
+			}
+			final Map completions = getCompletionsForUpdate(prefixTable,
+					prefix, copiedPrefixes);
+			completions.remove(triggerSequence);
+			if (completions.isEmpty()) {
+				if (activeBindings.containsKey(prefix)) {
+					prefixTable.put(prefix, null);
+				} else {
+					prefixTable.remove(prefix);
+				}
+				copiedPrefixes.remove(prefix);
+			}
+		}
+	}
+
 	/**
 	 * Sets the active bindings and the prefix table. This ensures that the two
 	 * values change at the same time, and that any listeners are notified
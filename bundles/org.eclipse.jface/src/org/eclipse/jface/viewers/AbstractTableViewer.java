@@ -615,7 +615,11 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		applyEditorValue();
 		if (element == null || equals(element, getRoot())) {
 			if (virtualManager == null) {
-				internalRefreshAll(updateLabels);
+				if (isIncrementalRefresh()) {
+					internalIncrementalRefreshAll(updateLabels);
+				} else {
+					internalRefreshAll(updateLabels);
+				}
 			} else {
 				internalVirtualRefreshAll();
 			}
@@ -727,6 +731,54 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Refresh all of the elements of the table, only removing the items of
+	 * elements that are gone or moved and creating items for new or moved
+	 * elements. The labels of retained items are updated if updateLabels is
+	 * true or if their element was replaced by an equal one.
+	 *
+	 * @param updateLabels
+	 *
+	 * @see StructuredViewer#setIncrementalRefresh(boolean)
+	 */
+	private void internalIncrementalRefreshAll(boolean updateLabels) {
+		Object[] children = getSortedChildren(getRoot());
+		Item[] items = doGetItems();
+		Object[] oldElements = new Object[items.length];
+		for (int i = 0; i < items.length; i++) {
+			oldElements[i] = items[i].getData();
+		}
+		ElementDiff diff = new ElementDiff(getComparer(), oldElements, children);
+
+		if (diff.removed > 0) {
+			int[] indices = new int[diff.removed];
+			int count = 0;
+			for (int i = 0; i < items.length; i++) {
+				if (!diff.kept[i]) {
+					disassociate(items[i]);
+					indices[count++] = i;
+				}
+			}
+			doRemove(indices);
+			// Workaround for 1GDGN4Q: ITPUI:WIN2000 - TableViewer icons get
+			// scrunched
+			if (doGetItemCount() == 0) {
+				doRemoveAll();
+			}
+		}
+
+		// the retained items are in the order of their new elements, new
+		// items are inserted in between
+		for (int i = 0; i < children.length; ++i) {
+			int oldIndex = diff.retained[i];
+			if (oldIndex == -1) {
+				createItem(children[i], i);
+			} else if (updateLabels || items[oldIndex].getData() != children[i]) {
+				updateItem(items[oldIndex], children[i]);
+			}
+		}
+	}
+
 	/**
 	 * Removes the given elements from this table viewer.
 	 *
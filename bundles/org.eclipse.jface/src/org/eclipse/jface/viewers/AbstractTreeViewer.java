@@ -2694,7 +2694,26 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 
 		Item[] items = getChildren(widget);
+		if (isIncrementalRefresh()) {
+			updateChildrenIncrementally(widget, items, elementChildren, updateLabels);
+		} else {
+			updateChildrenByPosition(widget, items, elementChildren, updateLabels);
+		}
+
+		// WORKAROUND
+		if (widget == tree && oldCnt == 0 && getItemCount(tree) != 0) {
+			// System.out.println("WORKAROUND setRedraw");
+			tree.setRedraw(false);
+			tree.setRedraw(true);
+		}
+	}
 
+	/**
+	 * Updates the given items to correspond to the given child elements,
+	 * assigning the elements to the existing items by position.
+	 */
+	private void updateChildrenByPosition(Widget widget, Item[] items, Object[] elementChildren,
+			boolean updateLabels) {
 		// save the expanded elements
 		CustomHashtable expanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY); // assume
 																					// num
@@ -2832,12 +2851,86 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 				}
 			}
 		}
+	}
 
-		// WORKAROUND
-		if (widget == tree && oldCnt == 0 && getItemCount(tree) != 0) {
-			// System.out.println("WORKAROUND setRedraw");
-			tree.setRedraw(false);
-			tree.setRedraw(true);
+	/**
+	 * Updates the given items to correspond to the given child elements,
+	 * retaining the items of the elements that are still present in the same
+	 * relative order.
+	 *
+	 * @see StructuredViewer#setIncrementalRefresh(boolean)
+	 */
+	private void updateChildrenIncrementally(Widget widget, Item[] items, Object[] elementChildren,
+			boolean updateLabels) {
+		Object[] oldElements = new Object[items.length];
+		for (int i = 0; i < items.length; i++) {
+			oldElements[i] = items[i].getData();
+		}
+		ElementDiff diff = new ElementDiff(getComparer(), oldElements, elementChildren);
+
+		// remember the expanded state of the elements whose items get disposed
+		// because they moved
+		CustomHashtable expanded = null;
+		boolean hasDummy = false;
+		for (int i = 0; i < items.length; i++) {
+			if (diff.kept[i]) {
+				continue;
+			}
+			Object data = items[i].getData();
+			if (data == null) {
+				// dispose the dummy node only after the real children were
+				// created, so that an expanded parent does not collapse
+				hasDummy = true;
+				continue;
+			}
+			if (getExpanded(items[i])) {
+				if (expanded == null) {
+					expanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+				}
+				expanded.put(data, data);
+			}
+			disassociate(items[i]);
+			items[i].dispose();
+		}
+
+		for (int i = 0; i < elementChildren.length; ++i) {
+			Object newElement = elementChildren[i];
+			int oldIndex = diff.retained[i];
+			if (oldIndex == -1) {
+				createTreeItem(widget, newElement, i);
+				continue;
+			}
+			Item item = items[oldIndex];
+			Object oldElement = item.getData();
+			if (oldElement != newElement) {
+				// an equal element, which may still have a different label or
+				// children; keep the mappings of the child items
+				unmapElement(oldElement, item);
+				item.setData(newElement);
+				mapElement(newElement, item);
+			}
+			updatePlus(item, newElement);
+			if (updateLabels || oldElement != newElement) {
+				updateItem(item, newElement);
+			}
+		}
+		if (hasDummy) {
+			for (Item item : items) {
+				if (!item.isDisposed() && item.getData() == null) {
+					item.dispose();
+				}
+			}
+		}
+
+		// Restore expanded state for items that changed position, after
+		// updatePlus was called in createTreeItem.
+		if (expanded != null) {
+			items = getChildren(widget);
+			for (int i = 0; i < elementChildren.length; ++i) {
+				if (diff.retained[i] == -1 && expanded.containsKey(elementChildren[i])) {
+					setExpanded(items[i], true);
+				}
+			}
 		}
 	}
 
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+/**
+ * The difference between the elements currently shown in a list of items and
+ * the elements to be shown, as used by incremental refreshes.
+ * <p>
+ * Elements are matched using the element comparer of the viewer. The items of
+ * the largest set of matched elements whose relative order did not change are
+ * retained. All other items have to be removed, and items for the elements
+ * without a retained item have to be created at their new positions.
+ * </p>
+ *
+ * @see StructuredViewer#setIncrementalRefresh(boolean)
+ * @since 3.29
+ */
+/* package */final class ElementDiff {
+
+	/**
+	 * For every new element the index of the old item to be retained for it,
+	 * or -1 if an item has to be created.
+	 */
+	final int[] retained;
+
+	/**
+	 * For every old item whether it is retained.
+	 */
+	final boolean[] kept;
+
+	/**
+	 * Number of old items that are not retained.
+	 */
+	final int removed;
+
+	/**
+	 * Computes the difference between the given elements.
+	 *
+	 * @param comparer    the comparer, or <code>null</code> to use
+	 *                    {@link Object#equals(Object)}
+	 * @param oldElements the elements of the existing items, which may contain
+	 *                    <code>null</code> for items that do not show an
+	 *                    element
+	 * @param newElements the elements to be shown
+	 */
+	ElementDiff(IElementComparer comparer, Object[] oldElements, Object[] newElements) {
+		retained = new int[newElements.length];
+		kept = new boolean[oldElements.length];
+
+		CustomHashtable oldIndices = new CustomHashtable(oldElements.length * 2 + 1, comparer);
+		for (int i = oldElements.length; --i >= 0;) {
+			// the first of several equal elements wins
+			if (oldElements[i] != null) {
+				oldIndices.put(oldElements[i], Integer.valueOf(i));
+			}
+		}
+
+		// match the new elements, each old item is used at most once
+		int matches = 0;
+		for (int i = 0; i < newElements.length; i++) {
+			Integer oldIndex = (Integer) oldIndices.remove(newElements[i]);
+			retained[i] = oldIndex == null ? -1 : oldIndex.intValue();
+			if (oldIndex != null) {
+				matches++;
+			}
+		}
+
+		// of the matched elements, keep the longest run whose old indices are
+		// increasing, everything else moved
+		int[] sequence = new int[matches];
+		int[] positions = new int[matches];
+		matches = 0;
+		for (int i = 0; i < newElements.length; i++) {
+			if (retained[i] != -1) {
+				sequence[matches] = retained[i];
+				positions[matches++] = i;
+			}
+		}
+		boolean[] inRun = longestIncreasingRun(sequence);
+		int keptCount = 0;
+		for (int i = 0; i < matches; i++) {
+			if (inRun[i]) {
+				kept[sequence[i]] = true;
+				keptCount++;
+			} else {
+				retained[positions[i]] = -1;
+			}
+		}
+		removed = oldElements.length - keptCount;
+	}
+
+	/**
+	 * Returns which entries of the given sequence of distinct values belong to
+	 * a longest strictly increasing subsequence, in O(n log n).
+	 */
+	private static boolean[] longestIncreasingRun(int[] sequence) {
+		int n = sequence.length;
+		boolean[] result = new boolean[n];
+		if (n == 0) {
+			return result;
+		}
+		// tails[k] is the index of the smallest last value of a run of length k+1
+		int[] tails = new int[n];
+		int[] previous = new int[n];
+		int length = 0;
+		for (int i = 0; i < n; i++) {
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (sequence[tails[middle]] < sequence[i]) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			previous[i] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = i;
+			if (low == length) {
+				length++;
+			}
+		}
+		for (int i = tails[length - 1]; i != -1; i = previous[i]) {
+			result[i] = true;
+		}
+		return result;
+	}
+}
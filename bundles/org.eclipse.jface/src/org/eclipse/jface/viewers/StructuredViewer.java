@@ -112,6 +112,36 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	private boolean restoreSelection;
 
+	/**
+	 * Indicates whether refreshes only apply the differences between the old
+	 * and the new children to the items.
+	 *
+	 * @see #setIncrementalRefresh(boolean)
+	 */
+	private boolean incrementalRefresh;
+
+	/**
+	 * Minimum number of elements for which thread-safe filters and comparators
+	 * with sort keys are run in parallel.
+	 */
+	static final int PARALLEL_THRESHOLD = 1000;
+
+	/**
+	 * Indicates whether thread-safe filters and comparators with sort keys may
+	 * process large sets of children in parallel.
+	 *
+	 * @see #setParallelFilterAndSort(boolean)
+	 */
+	private boolean parallelFilterAndSort;
+
+	/**
+	 * Incremented whenever the labels of all elements may have changed, which
+	 * invalidates cached sort keys.
+	 *
+	 * @see ViewerComparator#setSortKeyCaching(boolean)
+	 */
+	private int labelGeneration;
+
 	/**
 	 * List of double-click state listeners (element type:
 	 * <code>IDoubleClickListener</code>).
@@ -1155,6 +1185,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		if (elements != null) {
 			update(elements, null);
 		} else {
+			labelsChanged();
 			super.handleLabelProviderChanged(event);
 		}
 	}
@@ -1400,8 +1431,9 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		} finally {
 			inChange = false;
 
-			// restore selection
-			if (restoreSelection) {
+			// restore selection, unless the items of the selected elements
+			// were retained by an incremental refresh
+			if (restoreSelection && !(incrementalRefresh && !reveal && getSelection().equals(oldSelection))) {
 				setSelectionToWidget(oldSelection, reveal);
 			}
 
@@ -1456,6 +1488,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 *            the element
 	 */
 	public void refresh(final Object element) {
+		labelsChanged();
 		preservingSelection(() -> internalRefresh(element));
 	}
 
@@ -1479,6 +1512,9 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * @since 2.0
 	 */
 	public void refresh(final Object element, final boolean updateLabels) {
+		if (updateLabels) {
+			labelsChanged();
+		}
 		preservingSelection(() -> internalRefresh(element, updateLabels));
 	}
 
@@ -1768,6 +1804,116 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		}
 	}
 
+	/**
+	 * Configures whether refreshing this viewer only applies the differences
+	 * between the previous and the new children of an element to the existing
+	 * items.
+	 * <p>
+	 * By default a refresh assigns the new children to the existing items by
+	 * position, so that inserting, removing or moving a single element changes
+	 * the element, and with it the labels, of every item after it. In
+	 * incremental mode the old and the new children are matched using the
+	 * element comparer (see {@link #setComparer(IElementComparer)}). The items
+	 * of the elements that are still present in the same relative order are
+	 * retained together with their selection and expansion state, the items of
+	 * removed elements are removed, and items are only created for added and
+	 * moved elements. When refreshing without updating labels (see
+	 * {@link #refresh(boolean)}), only the labels of new elements and of
+	 * elements replaced by an equal instance are updated.
+	 * </p>
+	 * <p>
+	 * Incremental refreshes are supported by {@link AbstractTableViewer} without
+	 * {@link SWT#VIRTUAL} and by {@link AbstractTreeViewer}; other viewers ignore
+	 * this setting.
+	 * </p>
+	 *
+	 * @param enable <code>true</code> to only apply the differences,
+	 *               <code>false</code> to reassign the items by position
+	 * @since 3.29
+	 */
+	public void setIncrementalRefresh(boolean enable) {
+		this.incrementalRefresh = enable;
+	}
+
+	/**
+	 * Returns whether refreshing this viewer only applies the differences
+	 * between the previous and the new children to the existing items.
+	 *
+	 * @return <code>true</code> if refreshes are incremental
+	 * @see #setIncrementalRefresh(boolean)
+	 * @since 3.29
+	 */
+	public boolean isIncrementalRefresh() {
+		return incrementalRefresh;
+	}
+
+	/**
+	 * Configures whether this viewer may filter and sort large sets of children
+	 * in parallel.
+	 * <p>
+	 * When enabled, filters that declare themselves thread-safe (see
+	 * {@link ViewerFilter#isThreadSafe()}) are evaluated for many elements at
+	 * once on the threads of the common fork-join pool, and comparators that
+	 * declare cacheable sort keys (see
+	 * {@link ViewerComparator#isSortKeyCacheable()}) obtain the sort key of
+	 * every element once and sort the keys in parallel. Other filters and
+	 * comparators are applied in the calling thread as before. The children
+	 * are completely filtered and sorted before any item is updated.
+	 * </p>
+	 *
+	 * @param enable <code>true</code> to filter and sort in parallel where
+	 *               possible, <code>false</code> to do all work in the calling
+	 *               thread
+	 * @since 3.29
+	 */
+	public void setParallelFilterAndSort(boolean enable) {
+		this.parallelFilterAndSort = enable;
+	}
+
+	/**
+	 * Returns whether this viewer may filter and sort large sets of children in
+	 * parallel.
+	 *
+	 * @return <code>true</code> if filtering and sorting may run in parallel
+	 * @see #setParallelFilterAndSort(boolean)
+	 * @since 3.29
+	 */
+	public boolean isParallelFilterAndSort() {
+		return parallelFilterAndSort;
+	}
+
+	/**
+	 * Returns whether the given number of elements should be filtered or
+	 * sorted in parallel for the given viewer.
+	 *
+	 * @param viewer the viewer, may be <code>null</code>
+	 * @param size   the number of elements
+	 * @return <code>true</code> if the viewer enables parallel processing and
+	 *         there are enough elements to make it worthwhile
+	 */
+	static boolean isParallel(Viewer viewer, int size) {
+		return size >= PARALLEL_THRESHOLD && viewer instanceof StructuredViewer
+				&& ((StructuredViewer) viewer).parallelFilterAndSort;
+	}
+
+	/**
+	 * Returns a number which changes whenever the labels of all elements of
+	 * this viewer may have changed, e.g. because the label provider changed.
+	 *
+	 * @return the current label generation
+	 */
+	int getLabelGeneration() {
+		return labelGeneration;
+	}
+
+	/**
+	 * Notes that the labels of all elements may have changed, e.g. because they
+	 * are updated by a refresh.
+	 */
+	void labelsChanged() {
+		labelGeneration++;
+	}
+
 	/**
 	 * Sets the comparer to use for comparing elements, or <code>null</code>
 	 * to use the default <code>equals</code> and <code>hashCode</code>
@@ -2024,6 +2170,9 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	public void update(Object element, String[] properties) {
 		Assert.isNotNull(element);
+		if (sorter != null) {
+			sorter.forgetSortKey(this, element);
+		}
 		Widget[] items = findItems(element);
 
 		boolean mayExitEarly = !refreshOccurred;
@@ -2150,6 +2299,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		} else {
 			colorAndFontCollector = new ColorAndFontCollector();
 		}
+		labelsChanged();
 		super.setLabelProvider(labelProvider);
 
 	}
@@ -2265,6 +2415,9 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	@Override
 	protected void handleDispose(DisposeEvent event) {
 		super.handleDispose(event);
+		if (sorter != null) {
+			sorter.forgetSortKeys(this);
+		}
 		sorter = null;
 		comparer = null;
 		if (filters != null)
@@ -369,6 +369,9 @@ public class TableViewer extends AbstractTableViewer {
 			cancelEditing();
 		}
 
+		if (updateLabels) {
+			labelsChanged();
+		}
 		preservingSelection(() -> internalRefresh(element, updateLabels), reveal);
 	}
 
@@ -503,6 +503,49 @@ public class TreeViewer extends AbstractTreeViewer {
 		}
 	}
 
+	/**
+	 * For a TreeViewer with a tree with the VIRTUAL style bit set, clear the
+	 * given parent's child at the given index. The child is requested again
+	 * from the ILazyTreeContentProvider the next time it becomes visible. If
+	 * the given parent is this viewer's input or an empty tree path, this will
+	 * clear the root element at the given index.
+	 *
+	 * @param parentElementOrTreePath
+	 *            the parent of the element that should be cleared, or the tree
+	 *            path to that parent
+	 * @param index
+	 *            the index in the parent's children
+	 *
+	 * @see #replace(Object, int, Object)
+	 *
+	 * @since 3.29
+	 */
+	public void clear(Object parentElementOrTreePath, int index) {
+		if (checkBusy())
+			return;
+		if (internalIsInputOrEmptyPath(parentElementOrTreePath)) {
+			if (index < tree.getItemCount()) {
+				TreeItem item = tree.getItem(index);
+				if (item.getData() != null) {
+					disassociate(item);
+				}
+				tree.clear(index, true);
+			}
+			return;
+		}
+		Widget[] parentItems = internalFindItems(parentElementOrTreePath);
+		for (Widget widget : parentItems) {
+			TreeItem parentItem = (TreeItem) widget;
+			if (index < parentItem.getItemCount()) {
+				TreeItem item = parentItem.getItem(index);
+				if (item.getData() != null) {
+					disassociate(item);
+				}
+				parentItem.clear(index, true);
+			}
+		}
+	}
+
 	/**
 	 * Fix for bug 185673: If the currently replaced item was selected, add it
 	 * to the selection that is being restored. Only do this if its getData() is
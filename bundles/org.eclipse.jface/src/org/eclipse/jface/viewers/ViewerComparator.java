@@ -16,8 +16,13 @@
 
 package org.eclipse.jface.viewers;
 
+import java.lang.ref.WeakReference;
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -53,6 +58,14 @@ public class ViewerComparator {
 	 */
 	private Comparator<? super String> comparator;
 
+	/**
+	 * The sort keys kept across sorts, or <code>null</code> if sort keys are not
+	 * cached.
+	 *
+	 * @see #setSortKeyCaching(boolean)
+	 */
+	private SortKeyCache sortKeyCache;
+
 	/**
 	 * Creates a new {@link ViewerComparator}, which uses the default comparator
 	 * to sort strings.
@@ -186,13 +199,42 @@ public class ViewerComparator {
 		return false;
 	}
 
+	/**
+	 * Returns whether the order established by
+	 * {@link #compare(Viewer, Object, Object)} only depends on the category and
+	 * the label of the elements, with the labels compared by the comparator
+	 * returned by {@link #getComparator()}. If so, {@link #sort(Viewer, Object[])}
+	 * obtains the category and the label of every element only once, as its
+	 * sort key, and sorts the keys instead of comparing the elements. If the
+	 * comparator is a {@link Collator}, the labels are compared by their
+	 * {@link CollationKey}s, which are also computed once per element.
+	 * <p>
+	 * A comparator other than a {@link Collator} must be thread-safe, as
+	 * viewers may sort the keys in parallel (see
+	 * {@link StructuredViewer#setParallelFilterAndSort(boolean)}).
+	 * </p>
+	 * <p>
+	 * The default implementation of this method returns <code>false</code>.
+	 * Subclasses which do not override <code>compare</code> may return
+	 * <code>true</code>.
+	 * </p>
+	 *
+	 * @return <code>true</code> if elements may be sorted by their sort keys
+	 * @since 3.29
+	 */
+	public boolean isSortKeyCacheable() {
+		return false;
+	}
+
 	/**
 	 * Sorts the given elements in-place, modifying the given array.
 	 * <p>
 	 * The default implementation of this method uses the
 	 * {@link java.util.Arrays#sort(Object[], Comparator)} algorithm on the
 	 * given array, calling {@link #compare(Viewer, Object, Object)} to compare
-	 * elements.
+	 * elements. If this comparator has {@link #isSortKeyCacheable() cacheable
+	 * sort keys}, the sort keys are computed once per element and sorted
+	 * instead, in parallel for large arrays if the viewer sorts in parallel.
 	 * </p>
 	 * <p>
 	 * Subclasses may reimplement this method to provide a more optimized implementation.
@@ -202,6 +244,10 @@ public class ViewerComparator {
 	 * @param elements the elements to sort
 	 */
 	public void sort(final Viewer viewer, Object[] elements) {
+		if (isSortKeyCacheable()) {
+			sortBySortKeys(viewer, elements, StructuredViewer.isParallel(viewer, elements.length));
+			return;
+		}
 		try {
 			Arrays.sort(elements, (a, b) -> ViewerComparator.this.compare(viewer, a, b));
 		} catch (IllegalArgumentException e) {
@@ -228,4 +274,225 @@ public class ViewerComparator {
 			throw e;
 		}
 	}
+
+	/**
+	 * Configures whether the sort keys of elements are kept across sorts, so
+	 * that refreshing a viewer does not obtain the labels and collation keys
+	 * of unchanged elements again. Has no effect unless
+	 * {@link #isSortKeyCacheable()} returns <code>true</code>.
+	 * <p>
+	 * The keys are cached by element identity. They are discarded when the
+	 * label provider of the viewer changes or reports a change, when the viewer
+	 * is refreshed with updated labels (see
+	 * {@link StructuredViewer#refresh(Object, boolean)}) or disposed, and for a
+	 * single element when the viewer is asked to update it (see
+	 * {@link StructuredViewer#update(Object, String[])}). Labels or categories
+	 * that change without notifying the viewer are therefore not picked up. The
+	 * keys of elements that are no longer sorted are eventually dropped.
+	 * </p>
+	 *
+	 * @param enable <code>true</code> to cache sort keys, <code>false</code> to
+	 *               compute them for every sort and discard the cached keys
+	 * @since 3.29
+	 */
+	public void setSortKeyCaching(boolean enable) {
+		if (enable) {
+			if (sortKeyCache == null) {
+				sortKeyCache = new SortKeyCache();
+			}
+		} else {
+			sortKeyCache = null;
+		}
+	}
+
+	/**
+	 * Returns whether the sort keys of elements are kept across sorts.
+	 *
+	 * @return <code>true</code> if sort keys are cached
+	 * @see #setSortKeyCaching(boolean)
+	 * @since 3.29
+	 */
+	public boolean isSortKeyCaching() {
+		return sortKeyCache != null;
+	}
+
+	/**
+	 * Discards the cached sort key of the given element, if any.
+	 *
+	 * @param viewer  the viewer whose element changed
+	 * @param element the element
+	 */
+	void forgetSortKey(StructuredViewer viewer, Object element) {
+		SortKeyCache cache = sortKeyCache;
+		if (cache != null && cache.viewer.get() == viewer) {
+			cache.remove(element);
+		}
+	}
+
+	/**
+	 * Discards the cached sort keys of the given viewer, if any.
+	 *
+	 * @param viewer the viewer which is disposed
+	 */
+	void forgetSortKeys(StructuredViewer viewer) {
+		SortKeyCache cache = sortKeyCache;
+		if (cache != null && cache.viewer.get() == viewer) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Sorts the given elements by their categories and labels, comparing the
+	 * collation keys of the labels if the comparator is a {@link Collator}.
+	 * The categories and labels are obtained in the calling thread, since they
+	 * usually come from the model and the label provider. Computing the
+	 * collation keys and sorting may happen in parallel.
+	 */
+	private void sortBySortKeys(Viewer viewer, Object[] elements, boolean parallel) {
+		SortKeyCache cache = sortKeyCache;
+		if (cache != null) {
+			if (viewer instanceof StructuredViewer) {
+				cache.prepare((StructuredViewer) viewer, elements.length);
+			} else {
+				cache = null;
+			}
+		}
+
+		SortKey[] keys = new SortKey[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			Object element = elements[i];
+			SortKey key = cache == null ? null : cache.get(element);
+			if (key == null) {
+				key = new SortKey(element, category(element), getLabel(viewer, element));
+				if (cache != null) {
+					cache.put(element, key);
+				}
+			}
+			keys[i] = key;
+		}
+
+		Comparator<SortKey> keyComparator;
+		Comparator<? super String> labelComparator = getComparator();
+		if (labelComparator instanceof Collator) {
+			Collator collator = (Collator) labelComparator;
+			if (parallel) {
+				// collators are not thread-safe, every thread uses its own copy
+				ThreadLocal<Collator> collators = ThreadLocal.withInitial(() -> (Collator) collator.clone());
+				Arrays.stream(keys).parallel().filter(key -> key.collationKey == null)
+						.forEach(key -> key.collationKey = collators.get().getCollationKey(key.label));
+			} else {
+				for (SortKey key : keys) {
+					if (key.collationKey == null) {
+						key.collationKey = collator.getCollationKey(key.label);
+					}
+				}
+			}
+			keyComparator = (k1, k2) -> k1.category != k2.category ? k1.category - k2.category
+					: k1.collationKey.compareTo(k2.collationKey);
+		} else {
+			keyComparator = (k1, k2) -> k1.category != k2.category ? k1.category - k2.category
+					: labelComparator.compare(k1.label, k2.label);
+		}
+
+		// both sorts are stable, so equal elements keep their order
+		if (parallel) {
+			Arrays.parallelSort(keys, keyComparator);
+		} else {
+			Arrays.sort(keys, keyComparator);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			elements[i] = keys[i].element;
+		}
+	}
+
+	/**
+	 * The values an element is sorted by.
+	 */
+	private static final class SortKey {
+		final Object element;
+		final int category;
+		final String label;
+		CollationKey collationKey;
+
+		SortKey(Object element, int category, String label) {
+			this.element = element;
+			this.category = category;
+			this.label = label;
+		}
+	}
+
+	/**
+	 * The sort keys of the elements of one viewer, valid as long as the label
+	 * generation of the viewer does not change.
+	 * <p>
+	 * The keys are kept in two generations, so that the keys of elements which
+	 * are no longer sorted are dropped without tracking when elements go away:
+	 * keys used since the last rotation are in <code>current</code>, the others
+	 * in <code>previous</code>. Once <code>current</code> grew well beyond the
+	 * largest set of elements sorted at once, it replaces
+	 * <code>previous</code>.
+	 * </p>
+	 */
+	private static final class SortKeyCache {
+
+		private static final int MIN_CAPACITY = 1024;
+
+		/**
+		 * The viewer the keys were obtained for, weakly referenced as the
+		 * comparator may outlive it.
+		 */
+		WeakReference<StructuredViewer> viewer = new WeakReference<>(null);
+
+		private int generation;
+
+		private Map<Object, SortKey> current = new IdentityHashMap<>();
+
+		private Map<Object, SortKey> previous = new IdentityHashMap<>();
+
+		private int largestSort;
+
+		/**
+		 * Discards all keys if they were obtained for another viewer or before
+		 * the labels of the viewer changed.
+		 */
+		void prepare(StructuredViewer sortedViewer, int size) {
+			int currentGeneration = sortedViewer.getLabelGeneration();
+			if (viewer.get() != sortedViewer || generation != currentGeneration) {
+				viewer = new WeakReference<>(sortedViewer);
+				generation = currentGeneration;
+				clear();
+			}
+			largestSort = Math.max(largestSort, size);
+			if (current.size() > Math.max(MIN_CAPACITY, 2 * largestSort)) {
+				previous = current;
+				current = new IdentityHashMap<>();
+			}
+		}
+
+		SortKey get(Object element) {
+			SortKey key = current.get(element);
+			if (key == null) {
+				key = previous.remove(element);
+				if (key != null) {
+					current.put(element, key);
+				}
+			}
+			return key;
+		}
+
+		void put(Object element, SortKey key) {
+			current.put(element, key);
+		}
+
+		void remove(Object element) {
+			current.remove(element);
+			previous.remove(element);
+		}
+
+		void clear() {
+			current.clear();
+			previous.clear();
+			largestSort = 0;
+		}
+	}
 }
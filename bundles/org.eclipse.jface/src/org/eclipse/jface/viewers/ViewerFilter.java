@@ -15,6 +15,7 @@
 package org.eclipse.jface.viewers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * A viewer filter is used by a structured viewer to extract a subset of
@@ -40,7 +41,10 @@ public abstract class ViewerFilter {
 	 * <p>
 	 * The default implementation of this method calls <code>select</code> on
 	 * each element in the array, and returns only those elements for which
-	 * <code>select</code> returns <code>true</code>.
+	 * <code>select</code> returns <code>true</code>. If this filter is
+	 * {@link #isThreadSafe() thread-safe} and the viewer filters in parallel
+	 * (see {@link StructuredViewer#setParallelFilterAndSort(boolean)}), large
+	 * arrays are split among several threads calling <code>select</code>.
 	 * </p>
 	 *
 	 * @param viewer
@@ -56,6 +60,9 @@ public abstract class ViewerFilter {
 		if (size == 0) {
 			return elements;
 		}
+		if (isThreadSafe() && StructuredViewer.isParallel(viewer, size)) {
+			return Arrays.stream(elements).parallel().filter(element -> select(viewer, parent, element)).toArray();
+		}
 		ArrayList<Object> out = new ArrayList<>(size);
 		for (int i = 0; i < size; ++i) {
 			Object element = elements[i];
@@ -107,6 +114,25 @@ public abstract class ViewerFilter {
 		return false;
 	}
 
+	/**
+	 * Returns whether {@link #select(Viewer, Object, Object)} may be called
+	 * concurrently from threads other than the UI thread. This requires that
+	 * the decision only depends on state which is not modified while the
+	 * viewer filters, and that neither widgets nor label providers are
+	 * accessed.
+	 * <p>
+	 * The default implementation of this method returns <code>false</code>.
+	 * Subclasses may reimplement.
+	 * </p>
+	 *
+	 * @return <code>true</code> if this filter may select elements in parallel
+	 * @see StructuredViewer#setParallelFilterAndSort(boolean)
+	 * @since 3.29
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * Returns whether the given element makes it through this filter.
 	 *
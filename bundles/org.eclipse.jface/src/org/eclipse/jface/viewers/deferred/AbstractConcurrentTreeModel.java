@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import org.eclipse.core.runtime.ListenerList;
+
+/**
+ * Abstract base class for all IConcurrentTreeModel implementations. Clients
+ * should subclass this class instead of implementing IConcurrentTreeModel
+ * directly.
+ *
+ * @since 3.29
+ */
+public abstract class AbstractConcurrentTreeModel implements IConcurrentTreeModel {
+
+	private ListenerList<IConcurrentTreeModelListener> listeners = new ListenerList<>();
+
+	@Override
+	public void addListener(IConcurrentTreeModelListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Fires an add notification to all listeners
+	 *
+	 * @param parent the parent of the added objects
+	 * @param added  objects added to the parent
+	 */
+	protected final void fireAdd(Object parent, Object[] added) {
+		for (IConcurrentTreeModelListener next : listeners) {
+			next.add(parent, added);
+		}
+	}
+
+	/**
+	 * Fires a remove notification to all listeners
+	 *
+	 * @param parent  the parent of the removed objects
+	 * @param removed objects removed from the parent
+	 */
+	protected final void fireRemove(Object parent, Object[] removed) {
+		for (IConcurrentTreeModelListener next : listeners) {
+			next.remove(parent, removed);
+		}
+	}
+
+	/**
+	 * Fires an update notification to all listeners
+	 *
+	 * @param parent  the parent of the changed objects
+	 * @param updated objects that have changed
+	 */
+	protected final void fireUpdate(Object parent, Object[] updated) {
+		for (IConcurrentTreeModelListener next : listeners) {
+			next.update(parent, updated);
+		}
+	}
+
+	/**
+	 * Fires a set notification to all listeners
+	 *
+	 * @param parent      the parent of the objects
+	 * @param newContents new children of the parent
+	 */
+	protected final void fireSetContents(Object parent, Object[] newContents) {
+		for (IConcurrentTreeModelListener next : listeners) {
+			next.setContents(parent, newContents);
+		}
+	}
+
+	/**
+	 * Returns the array of listeners for this model
+	 *
+	 * @return the array of listeners for this model
+	 */
+	protected final IConcurrentTreeModelListener[] getListeners() {
+		Object[] l = listeners.getListeners();
+		IConcurrentTreeModelListener[] result = new IConcurrentTreeModelListener[l.length];
+
+		for (int i = 0; i < l.length; i++) {
+			result[i] = (IConcurrentTreeModelListener) l[i];
+		}
+
+		return result;
+	}
+
+	@Override
+	public void removeListener(IConcurrentTreeModelListener listener) {
+		listeners.remove(listener);
+	}
+}
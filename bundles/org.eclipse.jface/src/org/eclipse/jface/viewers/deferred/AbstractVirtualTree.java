@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import org.eclipse.swt.widgets.Control;
+
+/**
+ * Wrapper for a virtual-tree-like widget. Contains all methods needed for lazy
+ * updates of the children of its nodes. This is the tree counterpart of
+ * <code>AbstractVirtualTable</code>, every node of the tree behaves like a
+ * virtual table of its children.
+ *
+ * @since 3.29
+ */
+abstract class AbstractVirtualTree {
+	/**
+	 * Tells the receiver that the child at the given index of the given parent
+	 * has changed. The receiver should request information for this child the
+	 * next time it becomes visible.
+	 *
+	 * @param parent the parent node, or the input for the top-level items
+	 * @param index  index of the child to clear
+	 */
+	public abstract void clear(Object parent, int index);
+
+	/**
+	 * Notifies the receiver that the given element is now located at the given
+	 * index of the given parent.
+	 *
+	 * @param parent    the parent node, or the input for the top-level items
+	 * @param element   object located at the index
+	 * @param itemIndex index of the child
+	 */
+	public abstract void replace(Object parent, Object element, int itemIndex);
+
+	/**
+	 * Sets the number of children of the given parent
+	 *
+	 * @param parent the parent node, or the input for the top-level items
+	 * @param total  new number of children
+	 */
+	public abstract void setChildCount(Object parent, int total);
+
+	/**
+	 * Returns the number of items that fit into the visible area of the tree.
+	 *
+	 * @return the number of items currently visible in the tree
+	 */
+	public abstract int getVisibleItemCount();
+
+	/**
+	 * Returns the SWT control that this API is wrappering.
+	 *
+	 * @return Control.
+	 */
+	public abstract Control getControl();
+}
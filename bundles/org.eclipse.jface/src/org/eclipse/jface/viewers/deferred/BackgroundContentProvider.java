@@ -63,11 +63,22 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 	 */
 	private static final String SORTING = JFaceResources.getString("Sorting"); //$NON-NLS-1$
 
+	/**
+	 * Number of unsorted elements from which on the sort collection is
+	 * partitioned in parallel when parallel sorting is enabled.
+	 */
+	private static final int PARALLEL_THRESHOLD = 8192;
+
 	/**
 	 * Table limit. -1 if unlimited
 	 */
 	private int limit = -1;
 
+	/**
+	 * True iff the comparisons of large sorts are spread over several threads
+	 */
+	private volatile boolean parallelSorting;
+
 	/**
 	 * Model that is currently providing input to this content provider.
 	 */
@@ -185,7 +196,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 		// Create a LazySortedCollection
 		Comparator order = sortOrder;
 		IFilter f = filter;
-		LazySortedCollection collection = new LazySortedCollection(order);
+		LazySortedCollection collection = createCollection(order);
 
 		// Fill it in with all existing known objects
 		Object[] knownObjects = updator.getKnownObjects();
@@ -207,7 +218,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 				dirty = true;
 				order = sortOrder;
 				// Copy all elements from the old collection to the new one
-				LazySortedCollection newCollection = new LazySortedCollection(order);
+				LazySortedCollection newCollection = createCollection(order);
 
 				Object[] items = collection.getItems(false);
 				for (int j = 0; j < items.length && order == sortOrder; j++) {
@@ -224,6 +235,12 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 				continue;
 			}
 
+			// If parallel sorting has been switched on or off
+			if ((collection.getParallelThreshold() != -1) != parallelSorting) {
+				collection.setParallelThreshold(parallelSorting ? PARALLEL_THRESHOLD : -1);
+				continue;
+			}
+
 			// If the filter has changed
 			if (f != filter) {
 				dirty = true;
@@ -351,6 +368,14 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 		mon.done();
 	}
 
+	private LazySortedCollection createCollection(Comparator order) {
+		LazySortedCollection collection = new LazySortedCollection(order);
+		if (parallelSorting) {
+			collection.setParallelThreshold(PARALLEL_THRESHOLD);
+		}
+		return collection;
+	}
+
 	/**
 	 * @param collection
 	 * @param toAdd
@@ -391,6 +416,19 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 		refresh();
 	}
 
+	/**
+	 * Enables or disables parallel sorting. If enabled, the comparisons needed
+	 * to sort a large number of elements are spread over several threads, which
+	 * requires a thread-safe sort order.
+	 *
+	 * @param parallel true iff large sorts should use several threads
+	 */
+	public void setParallelSorting(boolean parallel) {
+		this.parallelSorting = parallel;
+		sortMon.cancel();
+		makeDirty();
+	}
+
 	/**
 	 * Sets the maximum table size. Based on the current sort order,
 	 * the table will be truncated if it grows beyond this size.
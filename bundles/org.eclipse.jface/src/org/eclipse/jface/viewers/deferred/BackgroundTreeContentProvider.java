@@ -0,0 +1,586 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.viewers.AcceptAllFilter;
+import org.eclipse.jface.viewers.IFilter;
+import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
+
+/**
+ * Contains the algorithm for performing background sorting and filtering in a
+ * virtual tree. This is the real implementation for
+ * <code>DeferredTreeContentProvider</code>, and the tree counterpart of
+ * <code>BackgroundContentProvider</code>.
+ *
+ * <p>
+ * Information flow is like this:
+ * </p>
+ * <ol>
+ * <li>IConcurrentTreeModel sends unordered children of the requested parents
+ * to BackgroundTreeContentProvider (in any thread)</li>
+ * <li>BackgroundTreeContentProvider sorts and filters the children of every
+ * parent separately, and sends the child counts and the element/index pairs of
+ * the visible children to ConcurrentTreeUpdator (in a background thread)</li>
+ * <li>ConcurrentTreeUpdator batches the updates and sends them to an
+ * AbstractVirtualTree (in the UI thread)</li>
+ * </ol>
+ *
+ * <p>
+ * The children of a parent are only requested from the model once the parent
+ * is the input of the tree or one of the visible children of another parent.
+ * Every parent has its own <code>LazySortedCollection</code>, so only the
+ * visible range of each expanded parent gets sorted, and a change to one
+ * parent does not cause the others to be sorted again.
+ * </p>
+ *
+ * @since 3.29
+ */
+/* package */ final class BackgroundTreeContentProvider {
+
+	/**
+	 * Sorting message string
+	 */
+	private static final String SORTING = JFaceResources.getString("Sorting"); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of children per parent. -1 if unlimited
+	 */
+	private volatile int limit = -1;
+
+	/**
+	 * Model that is currently providing input to this content provider.
+	 */
+	private IConcurrentTreeModel model;
+
+	/**
+	 * Current sort order
+	 */
+	private volatile Comparator sortOrder;
+
+	/**
+	 * Current filter
+	 */
+	private volatile IFilter filter = AcceptAllFilter.getInstance();
+
+	/**
+	 * Parents whose children have been requested from the model. Must
+	 * synchronize on the map when accessing.
+	 */
+	private final Map<Object, Node> nodes = new HashMap<>();
+
+	/**
+	 * Parents with pending changes or a new visible range, in the order they
+	 * became dirty. Must synchronize on lock when accessing.
+	 */
+	private final Set<Node> dirtyNodes = new LinkedHashSet<>();
+
+	/**
+	 * Listener that gets callbacks from the model
+	 */
+	private IConcurrentTreeModelListener listener = new IConcurrentTreeModelListener() {
+
+		@Override
+		public void add(Object parent, Object[] added) {
+			enqueue(parent, ChangeQueue.ADD, added);
+		}
+
+		@Override
+		public void remove(Object parent, Object[] removed) {
+			enqueue(parent, ChangeQueue.REMOVE, removed);
+		}
+
+		@Override
+		public void setContents(Object parent, Object[] newContents) {
+			enqueue(parent, ChangeQueue.SET, newContents);
+		}
+
+		@Override
+		public void update(Object parent, Object[] changed) {
+			enqueue(parent, ChangeQueue.UPDATE, changed);
+		}
+
+	};
+
+	/**
+	 * Object that posts updates to the UI thread.
+	 */
+	private ConcurrentTreeUpdator updator;
+
+	/**
+	 * The children of a single parent. All fields but the change queue and the
+	 * progress reporter may only be accessed in the sort thread.
+	 */
+	private static final class Node {
+		final Object parent;
+
+		final ChangeQueue changeQueue = new ChangeQueue();
+
+		volatile FastProgressReporter sortMon = new FastProgressReporter();
+
+		LazySortedCollection collection;
+
+		Comparator order;
+
+		IFilter filter;
+
+		int prevSize = -1;
+
+		Range sortedRange;
+
+		Node(Object parent) {
+			this.parent = parent;
+		}
+	}
+
+	/**
+	 * Creates a new background content provider
+	 *
+	 * @param tree      tree that will receive updates
+	 * @param model     data source
+	 * @param sortOrder initial sort order
+	 */
+	public BackgroundTreeContentProvider(AbstractVirtualTree tree, IConcurrentTreeModel model,
+			Comparator sortOrder) {
+
+		updator = new ConcurrentTreeUpdator(tree);
+		this.model = model;
+		this.sortOrder = sortOrder;
+		model.addListener(listener);
+	}
+
+	/**
+	 * Cleans up this content provider, detaches listeners, frees up memory, etc.
+	 * Must be the last public method called on this object.
+	 */
+	public void dispose() {
+		synchronized (lock) {
+			dirtyNodes.clear();
+		}
+		synchronized (nodes) {
+			for (Node node : nodes.values()) {
+				node.sortMon.cancel();
+			}
+		}
+		updator.dispose();
+		model.removeListener(listener);
+	}
+
+	/**
+	 * Force a refresh. Asks the model to re-send the children of all known
+	 * parents.
+	 */
+	public void refresh() {
+		if (updator.isDisposed()) {
+			return;
+		}
+		Object[] parents;
+		synchronized (nodes) {
+			parents = nodes.keySet().toArray();
+		}
+		for (Object parent : parents) {
+			model.requestUpdate(parent, listener);
+		}
+	}
+
+	/**
+	 * Makes sure the children of the given parent are known, and requests them
+	 * from the model otherwise. May be called in any thread.
+	 *
+	 * @param parent the parent element
+	 */
+	public void requestChildren(Object parent) {
+		if (updator.isDisposed()) {
+			return;
+		}
+		Node node;
+		synchronized (nodes) {
+			if (nodes.containsKey(parent)) {
+				return;
+			}
+			node = new Node(parent);
+			nodes.put(parent, node);
+		}
+		model.requestUpdate(parent, listener);
+		makeDirty(node);
+	}
+
+	/**
+	 * Called in the UI thread when the tree needs the child count of the given
+	 * element.
+	 *
+	 * @param element           the element
+	 * @param currentChildCount the child count shown by the tree
+	 */
+	public void checkChildCount(Object element, int currentChildCount) {
+		if (!updator.checkChildCount(element, currentChildCount)) {
+			requestChildren(element);
+		}
+	}
+
+	/**
+	 * Checks if currently visible range of the given parent has changed, and
+	 * triggers a resort if necessary. Must be called in the UI thread, typically
+	 * within a SWT.SetData callback.
+	 *
+	 * @param parent       the parent element
+	 * @param includeIndex the index that should be included in the visible
+	 *                     range.
+	 */
+	public void checkVisibleRange(Object parent, int includeIndex) {
+		if (updator.checkVisibleRange(parent, includeIndex)) {
+			Node node;
+			synchronized (nodes) {
+				node = nodes.get(parent);
+			}
+			if (node != null) {
+				makeDirty(node);
+			}
+		}
+	}
+
+	/**
+	 * Called in the UI thread when the given parent has been collapsed.
+	 *
+	 * @param parent the parent element
+	 */
+	public void collapse(Object parent) {
+		updator.collapse(parent);
+	}
+
+	/**
+	 * Sets the sort order for this content provider
+	 *
+	 * @param sorter sort order
+	 */
+	public void setSortOrder(Comparator sorter) {
+		Assert.isNotNull(sorter);
+		this.sortOrder = sorter;
+		makeAllDirty();
+	}
+
+	/**
+	 * Sets the filter for this content provider
+	 *
+	 * @param toSet filter to set
+	 */
+	public void setFilter(IFilter toSet) {
+		Assert.isNotNull(toSet);
+		this.filter = toSet;
+		makeAllDirty();
+		// elements which have been filtered out before may pass the new filter
+		refresh();
+	}
+
+	/**
+	 * Sets the maximum number of children per parent. Based on the current
+	 * sort order, the children will be truncated if they grow beyond this size.
+	 *
+	 * @param limit maximum number of children to show per parent or -1 if
+	 *              unbounded
+	 */
+	public void setLimit(int limit) {
+		this.limit = limit;
+		refresh();
+	}
+
+	/**
+	 * Returns the maximum number of children per parent or -1 if unbounded
+	 *
+	 * @return the maximum number of children per parent or -1 if unbounded
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	private void enqueue(Object parent, int type, Object[] elements) {
+		Node node;
+		synchronized (nodes) {
+			node = nodes.get(parent);
+		}
+		// Changes to children nobody asked for yet are not of interest
+		if (node != null) {
+			node.changeQueue.enqueue(type, elements);
+			makeDirty(node);
+		}
+	}
+
+	private void makeAllDirty() {
+		Node[] all;
+		synchronized (nodes) {
+			all = nodes.values().toArray(new Node[nodes.size()]);
+		}
+		for (Node node : all) {
+			makeDirty(node);
+		}
+	}
+
+	/**
+	 * Called from the sort thread. Processes the pending changes of the given
+	 * parent, sorts its visible range and sends it to the updator.
+	 *
+	 * @param node the parent to process
+	 * @return <code>false</code> if the sort was interrupted and the parent has
+	 *         to be processed again
+	 */
+	private boolean doSort(Node node) {
+		Comparator order = sortOrder;
+		IFilter f = filter;
+
+		// If the sort order has changed, build a new LazySortedCollection with
+		// the new comparator
+		if (node.collection == null) {
+			node.collection = new LazySortedCollection(order);
+			node.order = order;
+			node.filter = f;
+		} else if (node.order != order) {
+			LazySortedCollection newCollection = new LazySortedCollection(order);
+			newCollection.addAll(node.collection.getItems(false));
+			node.collection = newCollection;
+			node.order = order;
+			node.sortedRange = null;
+		}
+		LazySortedCollection collection = node.collection;
+
+		// If the filter has changed, remove any items that don't pass the new
+		// filter
+		if (node.filter != f) {
+			node.filter = f;
+			Object[] items = collection.getItems(false);
+			for (Object toTest : items) {
+				if (!f.select(toTest)) {
+					collection.remove(toTest);
+				}
+			}
+			node.sortedRange = null;
+		}
+
+		// Process pending changes
+		while (!node.changeQueue.isEmpty()) {
+			ChangeQueue.Change next = node.changeQueue.dequeue();
+			node.sortedRange = null;
+
+			switch (next.getType()) {
+			case ChangeQueue.ADD: {
+				filteredAdd(collection, next.getElements(), f);
+				break;
+			}
+			case ChangeQueue.REMOVE: {
+				Object[] toRemove = next.getElements();
+
+				for (Object item : toRemove) {
+					if (collection.contains(item)) {
+						updator.clear(node.parent, item);
+						forget(item);
+					}
+				}
+				collection.removeAll(toRemove);
+
+				break;
+			}
+			case ChangeQueue.UPDATE: {
+				Object[] items = next.getElements();
+
+				for (Object item : items) {
+					if (collection.contains(item)) {
+						collection.remove(item);
+						collection.add(item);
+						updator.clear(node.parent, item);
+					}
+				}
+
+				break;
+			}
+			case ChangeQueue.SET: {
+				Object[] items = next.getElements();
+				Set<Object> retained = new HashSet<>(Arrays.asList(items));
+				for (Object item : collection.getItems(false)) {
+					if (!retained.contains(item)) {
+						forget(item);
+					}
+				}
+				collection.clear();
+				filteredAdd(collection, items, f);
+
+				break;
+			}
+			}
+		}
+
+		int totalElements = collection.size();
+		int max = limit;
+		if (max != -1 && totalElements > max) {
+			totalElements = max;
+		}
+
+		if (totalElements != node.prevSize) {
+			node.prevSize = totalElements;
+			// Send the child count to the updator ASAP -- the user may want to
+			// scroll to a different section of the tree
+			updator.setTotalItems(node.parent, totalElements);
+		}
+
+		Range updateRange = updator.getVisibleRange(node.parent);
+		Range sorted = node.sortedRange;
+		if (sorted != null && sorted.start == updateRange.start && sorted.length == updateRange.length) {
+			return true;
+		}
+
+		try {
+			FastProgressReporter sortMon = new FastProgressReporter();
+			node.sortMon = sortMon;
+			if (max != -1) {
+				collection.retainFirst(max, sortMon);
+			}
+
+			int sortStart = updateRange.start;
+			int sortLength = Math.min(updateRange.length, totalElements - sortStart);
+			sortLength = Math.max(sortLength, 0);
+
+			Object[] objectsOfInterest = new Object[sortLength];
+
+			collection.getRange(objectsOfInterest, sortStart, true, sortMon);
+
+			// Send the new children to the tree, and find out whether they have
+			// children themselves
+			for (int i = 0; i < sortLength; i++) {
+				Object object = objectsOfInterest[i];
+				updator.replace(node.parent, object, sortStart + i);
+				requestChildren(object);
+			}
+		} catch (InterruptedException e) {
+			return false;
+		}
+
+		node.sortedRange = updateRange;
+		return true;
+	}
+
+	/**
+	 * Discards the children of the given element and of all its descendants.
+	 * Called from the sort thread.
+	 *
+	 * @param element an element which has been removed from the model
+	 */
+	private void forget(Object element) {
+		Node node;
+		synchronized (nodes) {
+			node = nodes.remove(element);
+		}
+		if (node == null) {
+			return;
+		}
+		synchronized (lock) {
+			dirtyNodes.remove(node);
+		}
+		node.sortMon.cancel();
+		updator.forget(element);
+		if (node.collection != null) {
+			for (Object child : node.collection.getItems(false)) {
+				forget(child);
+			}
+		}
+	}
+
+	/**
+	 * @param collection
+	 * @param toAdd
+	 */
+	private static void filteredAdd(LazySortedCollection collection, Object[] toAdd, IFilter filter) {
+		if (filter != AcceptAllFilter.getInstance()) {
+			for (Object object : toAdd) {
+				if (filter.select(object)) {
+					collection.add(object);
+				}
+			}
+		} else {
+			collection.addAll(toAdd);
+		}
+	}
+
+	/**
+	 * This lock protects dirtyNodes and the boolean variable sortThreadStarted.
+	 */
+	private Object lock = new Object();
+
+	/**
+	 * true if the sort thread is running
+	 */
+	private boolean sortThreadStarted = false;
+
+	private final class SortThread extends Thread {
+		private SortThread(String name) {
+			super(name);
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				Node next;
+				synchronized (lock) {
+					Iterator<Node> iter = dirtyNodes.iterator();
+					if (!iter.hasNext() || updator.isDisposed()) {
+						sortThreadStarted = false;
+						return;
+					}
+					next = iter.next();
+					iter.remove();
+				}
+				boolean done = true;
+				try {
+					// this is the main work
+					done = doSort(next);
+				} catch (Exception ex) {
+					// ignore
+				}
+				if (!done) {
+					// sort the other parents before coming back to this one
+					synchronized (lock) {
+						dirtyNodes.add(next);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Must be called whenever the children of the given parent or their visible
+	 * range change. Dirties the parent and triggers a sort if necessary.
+	 *
+	 * @param node the parent node
+	 */
+	private void makeDirty(Node node) {
+		synchronized (lock) {
+			node.sortMon.cancel();
+			dirtyNodes.add(node);
+			if (!sortThreadStarted) {
+				sortThreadStarted = true;
+				Thread sortThread = new SortThread(SORTING);
+				sortThread.setDaemon(true);
+				sortThread.setPriority(Thread.NORM_PRIORITY - 1);
+				sortThread.start();
+			}
+		}
+	}
+}
@@ -0,0 +1,498 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
+
+/**
+ * Allows a virtual tree to be accessed from a background thread. This is the
+ * tree counterpart of <code>ConcurrentTableUpdator</code>: every node of the
+ * tree is handled like a virtual table of its children. As updates arrive from
+ * the background thread, it batches and schedules updates to the real tree in
+ * the UI thread, and only the visible range of each node is sent to the tree.
+ *
+ * @since 3.29
+ */
+/* package */ final class ConcurrentTreeUpdator {
+
+	private static final Range EMPTY_RANGE = new Range(0, 0);
+
+	// Minimum length for the pendingClears stacks
+	private static final int MIN_FLUSHLENGTH = 16;
+
+	/**
+	 * Wrapper for the real tree. May only be accessed in the UI thread.
+	 */
+	private AbstractVirtualTree tree;
+
+	/**
+	 * Nodes by parent element. Must synchronize on this when accessing.
+	 */
+	private Map<Object, Node> nodes = new HashMap<>();
+
+	/**
+	 * Nodes with changes that have not been sent to the tree yet. Must
+	 * synchronize on this when accessing.
+	 */
+	private Set<Node> dirtyNodes = new LinkedHashSet<>();
+
+	/**
+	 * True iff a UI update has been scheduled
+	 */
+	private volatile boolean updateScheduled;
+
+	/**
+	 * True iff this object has been disposed
+	 */
+	private volatile boolean disposed = false;
+
+	/**
+	 * The children of a single parent, comparable to the state kept by a
+	 * <code>ConcurrentTableUpdator</code> for the rows of a table.
+	 */
+	private static final class Node {
+		final Object parent;
+
+		/**
+		 * All known children that have been sent here from the background
+		 * thread, by index.
+		 */
+		Object[] knownObjects = new Object[0];
+
+		/**
+		 * Map of children to indices (inverse of the knownObjects array)
+		 */
+		IntHashMap knownIndices = new IntHashMap();
+
+		/**
+		 * The children that have been sent to the tree. Elements are null if
+		 * they either haven't been sent yet or have been scheduled for clear.
+		 */
+		Object[] sentObjects = new Object[0];
+
+		/**
+		 * The child count sent to the tree, -1 if none was sent
+		 */
+		int sentCount = -1;
+
+		/**
+		 * Indices of children scheduled to be cleared. Only the first lastClear
+		 * elements are used.
+		 */
+		int[] pendingClears = new int[MIN_FLUSHLENGTH];
+
+		int lastClear = 0;
+
+		/**
+		 * Range of children the tree asked for most recently
+		 */
+		volatile Range range = EMPTY_RANGE;
+
+		/**
+		 * The range at the time of the last update of the tree
+		 */
+		Range sentRange = EMPTY_RANGE;
+
+		Node(Object parent) {
+			this.parent = parent;
+		}
+	}
+
+	/**
+	 * Runnable that can be posted with an asyncExec to schedule an update to
+	 * the real tree.
+	 */
+	Runnable uiRunnable = () -> {
+		updateScheduled = false;
+		if (!tree.getControl().isDisposed()) {
+			updateTree();
+		}
+	};
+
+	/**
+	 * Creates a new tree updator
+	 *
+	 * @param tree real tree to update
+	 */
+	public ConcurrentTreeUpdator(AbstractVirtualTree tree) {
+		this.tree = tree;
+	}
+
+	/**
+	 * Cleans up the updator object (but not the tree itself).
+	 */
+	public void dispose() {
+		disposed = true;
+	}
+
+	/**
+	 * True iff this object has been disposed.
+	 *
+	 * @return true iff dispose() has been called
+	 */
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	/**
+	 * Returns the range of children of the given parent that is currently
+	 * visible, or an empty range if the parent is collapsed or unknown.
+	 *
+	 * @param parent the parent element
+	 * @return the visible range
+	 */
+	public Range getVisibleRange(Object parent) {
+		Node node;
+		synchronized (this) {
+			node = nodes.get(parent);
+		}
+		return node == null ? EMPTY_RANGE : node.range;
+	}
+
+	/**
+	 * Marks the given child of the given parent as dirty. Will cause it to be
+	 * cleared in the tree.
+	 *
+	 * @param parent  the parent element
+	 * @param toFlush the child
+	 */
+	public void clear(Object parent, Object toFlush) {
+		synchronized (this) {
+			Node node = nodes.get(parent);
+			if (node == null) {
+				return;
+			}
+			int currentIdx = node.knownIndices.get(toFlush, -1);
+
+			// If we've never heard of this object, bail out.
+			if (currentIdx == -1) {
+				return;
+			}
+
+			pushClear(node, currentIdx);
+			scheduleUIUpdate(node);
+		}
+	}
+
+	/**
+	 * Sets the number of children of the given parent. Called from a background
+	 * thread.
+	 *
+	 * @param parent   the parent element
+	 * @param newTotal number of children
+	 */
+	public void setTotalItems(Object parent, int newTotal) {
+		synchronized (this) {
+			Node node = nodes.get(parent);
+			if (node == null) {
+				node = new Node(parent);
+				nodes.put(parent, node);
+			}
+			Object[] knownObjects = node.knownObjects;
+			if (newTotal != knownObjects.length || node.sentCount == -1) {
+				if (newTotal < knownObjects.length) {
+					// Flush any objects that are being removed as a result of the resize
+					for (int i = newTotal; i < knownObjects.length; i++) {
+						Object toFlush = knownObjects[i];
+
+						if (toFlush != null) {
+							node.knownIndices.remove(toFlush);
+						}
+					}
+				}
+
+				int minSize = Math.min(knownObjects.length, newTotal);
+
+				Object[] newKnownObjects = new Object[newTotal];
+				System.arraycopy(knownObjects, 0, newKnownObjects, 0, minSize);
+				node.knownObjects = newKnownObjects;
+
+				scheduleUIUpdate(node);
+			}
+		}
+	}
+
+	/**
+	 * Sets the child at the given index of the given parent. May be called from
+	 * a background thread. Schedules a UI update if necessary.
+	 *
+	 * @param parent the parent element
+	 * @param value  new child at the given index
+	 * @param idx    index of the child
+	 */
+	public void replace(Object parent, Object value, int idx) {
+		// Keep the synchronized block as small as possible, since the UI may
+		// be waiting on it.
+		synchronized (this) {
+			Node node = nodes.get(parent);
+			if (node == null || idx >= node.knownObjects.length) {
+				return;
+			}
+			Object oldObject = node.knownObjects[idx];
+
+			if (oldObject != value) {
+				if (oldObject != null) {
+					node.knownIndices.remove(oldObject);
+				}
+
+				node.knownObjects[idx] = value;
+
+				if (value != null) {
+					int oldIndex = node.knownIndices.get(value, -1);
+					if (oldIndex != -1) {
+						node.knownObjects[oldIndex] = null;
+						pushClear(node, oldIndex);
+					}
+
+					node.knownIndices.put(value, idx);
+				}
+
+				pushClear(node, idx);
+
+				scheduleUIUpdate(node);
+			}
+		}
+	}
+
+	/**
+	 * Discards everything known about the children of the given parent, e.g.
+	 * because the parent was removed.
+	 *
+	 * @param parent the parent element
+	 */
+	public void forget(Object parent) {
+		synchronized (this) {
+			Node node = nodes.remove(parent);
+			if (node != null) {
+				dirtyNodes.remove(node);
+			}
+		}
+	}
+
+	/**
+	 * Pushes an index onto the clear stack of the given node
+	 *
+	 * @param node    the parent node
+	 * @param toClear index to clear
+	 */
+	private static void pushClear(Node node, int toClear) {
+
+		// If beyond the end of the sent children
+		if (toClear >= node.sentObjects.length) {
+			return;
+		}
+
+		// If already flushed or never sent
+		if (node.sentObjects[toClear] == null) {
+			return;
+		}
+
+		// Mark as flushed
+		node.sentObjects[toClear] = null;
+
+		if (node.lastClear >= node.pendingClears.length) {
+			int[] newPendingClears = new int[node.lastClear * 2];
+			System.arraycopy(node.pendingClears, 0, newPendingClears, 0, node.lastClear);
+			node.pendingClears = newPendingClears;
+		}
+
+		node.pendingClears[node.lastClear++] = toClear;
+	}
+
+	/**
+	 * Schedules a UI update for the given node.
+	 */
+	private void scheduleUIUpdate(Node node) {
+		synchronized (this) {
+			dirtyNodes.add(node);
+			if (!updateScheduled) {
+				updateScheduled = true;
+				if (!tree.getControl().isDisposed()) {
+					tree.getControl().getDisplay().asyncExec(uiRunnable);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Called in the UI thread when the tree asks for the child count of the
+	 * given parent. Sends the child count if it is known.
+	 *
+	 * @param parent            the parent element
+	 * @param currentChildCount the child count shown by the tree
+	 * @return <code>true</code> if the child count of the parent is known
+	 */
+	public boolean checkChildCount(Object parent, int currentChildCount) {
+		synchronized (this) {
+			Node node = nodes.get(parent);
+			if (node == null || node.sentCount == -1) {
+				return false;
+			}
+			if (node.knownObjects.length != currentChildCount) {
+				sendChildCount(node);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Called in the UI thread by a SetData callback. Extends the visible range
+	 * of the given parent to the given index and sends the child at this index
+	 * if it is already known.
+	 *
+	 * @param parent       the parent element
+	 * @param includeIndex the index that should be included in the visible
+	 *                     range.
+	 * @return <code>true</code> if the visible range has changed and the
+	 *         children in the new range need to be sorted
+	 */
+	public boolean checkVisibleRange(Object parent, int includeIndex) {
+		synchronized (this) {
+			Node node = nodes.get(parent);
+			if (node == null) {
+				return false;
+			}
+			if (includeIndex < node.knownObjects.length && includeIndex < node.sentObjects.length) {
+				Object obj = node.knownObjects[includeIndex];
+				if (obj != null && obj != node.sentObjects[includeIndex]) {
+					sendChild(node, obj, includeIndex);
+				}
+			}
+
+			Range r = node.range;
+			if (includeIndex >= r.start && includeIndex < r.start + r.length) {
+				return false;
+			}
+			int visible = Math.max(tree.getVisibleItemCount(), 1);
+			int start;
+			if (r.length > 0 && includeIndex < r.start) {
+				// scrolling up
+				start = Math.max(includeIndex - visible + 1, 0);
+			} else {
+				start = includeIndex;
+			}
+			node.range = new Range(start, visible);
+			return true;
+		}
+	}
+
+	/**
+	 * Called in the UI thread when the given parent is collapsed. Its children
+	 * are not considered visible anymore.
+	 *
+	 * @param parent the parent element
+	 */
+	public void collapse(Object parent) {
+		synchronized (this) {
+			Node node = nodes.get(parent);
+			if (node != null) {
+				node.range = EMPTY_RANGE;
+			}
+		}
+	}
+
+	/**
+	 * Updates the tree. Sends the child counts, any unsent children in the
+	 * visible ranges, and clears any previously-visible children that have not
+	 * yet been sent to the tree. Must be called from the UI thread.
+	 */
+	private void updateTree() {
+		synchronized (this) {
+			for (Iterator<Node> iter = dirtyNodes.iterator(); iter.hasNext();) {
+				Node node = iter.next();
+				iter.remove();
+				updateNode(node);
+			}
+		}
+	}
+
+	private void updateNode(Node node) {
+		Object[] knownObjects = node.knownObjects;
+		if (node.sentCount != knownObjects.length) {
+			sendChildCount(node);
+		}
+
+		// Compute the currently visible range
+		Range r = node.range;
+		int start = Math.min(r.start, knownObjects.length);
+		int length = Math.min(r.length, knownObjects.length - start);
+
+		Range oldRange = node.sentRange;
+		node.sentRange = new Range(start, length);
+
+		// Re-clear any children in the old range that were never filled in
+		for (int idx = 0; idx < oldRange.length; idx++) {
+			int row = idx + oldRange.start;
+
+			if (row < knownObjects.length && (row < start || row >= start + length)
+					&& node.sentObjects[row] == null) {
+				tree.clear(node.parent, row);
+			}
+		}
+
+		// Process any pending clears
+		if (node.lastClear > 0) {
+			for (int i = 0; i < node.lastClear; i++) {
+				int row = node.pendingClears[i];
+
+				if (row < knownObjects.length) {
+					tree.clear(node.parent, row);
+				}
+			}
+
+			if (node.pendingClears.length > MIN_FLUSHLENGTH) {
+				node.pendingClears = new int[MIN_FLUSHLENGTH];
+			}
+			node.lastClear = 0;
+		}
+
+		// Send any unsent children in the visible range
+		for (int idx = 0; idx < length; idx++) {
+			int row = idx + start;
+
+			Object obj = knownObjects[row];
+			if (obj != null && obj != node.sentObjects[row]) {
+				sendChild(node, obj, row);
+			}
+		}
+	}
+
+	private void sendChildCount(Node node) {
+		int total = node.knownObjects.length;
+		if (node.sentObjects.length != total) {
+			Object[] newSentObjects = new Object[total];
+			System.arraycopy(node.sentObjects, 0, newSentObjects, 0, Math.min(total, node.sentObjects.length));
+			node.sentObjects = newSentObjects;
+		}
+		node.sentCount = total;
+		tree.setChildCount(node.parent, total);
+	}
+
+	private void sendChild(Node node, Object child, int index) {
+		tree.replace(node.parent, child, index);
+		node.sentObjects[index] = child;
+
+		// A new tree item does not know its child count yet
+		Node childNode = nodes.get(child);
+		if (childNode != null && childNode.sentCount != -1) {
+			sendChildCount(childNode);
+		}
+	}
+}
@@ -45,6 +45,7 @@ import org.eclipse.swt.widgets.Table;
 public class DeferredContentProvider implements ILazyContentProvider {
 
 	private int limit = -1;
+	private boolean parallelSorting;
 	private BackgroundContentProvider provider;
 	private Comparator sortOrder;
 	private IFilter filter = AcceptAllFilter.getInstance();
@@ -136,6 +137,9 @@ public class DeferredContentProvider implements ILazyContentProvider {
 
 		newProvider.setLimit(limit);
 		newProvider.setFilter(filter);
+		if (parallelSorting) {
+			newProvider.setParallelSorting(true);
+		}
 	}
 
 	/**
@@ -167,6 +171,33 @@ public class DeferredContentProvider implements ILazyContentProvider {
 		}
 	}
 
+	/**
+	 * Enables or disables parallel sorting. If enabled, sorting a large number of
+	 * elements, e.g. after the sort order has changed, compares them on several
+	 * threads of the common fork-join pool, so that the visible rows are sorted
+	 * sooner. The sort order must be thread-safe to use this. Disabled by
+	 * default.
+	 *
+	 * @param parallel <code>true</code> to sort large tables in parallel
+	 * @since 3.29
+	 */
+	public void setParallelSorting(boolean parallel) {
+		this.parallelSorting = parallel;
+		if (provider != null) {
+			provider.setParallelSorting(parallel);
+		}
+	}
+
+	/**
+	 * Returns whether large tables are sorted in parallel.
+	 *
+	 * @return <code>true</code> if parallel sorting is enabled
+	 * @since 3.29
+	 */
+	public boolean isParallelSorting() {
+		return parallelSorting;
+	}
+
 	/**
 	 * Sets the maximum number of rows in the table. If the model contains more
 	 * than this number of elements, only the top elements will be shown based on
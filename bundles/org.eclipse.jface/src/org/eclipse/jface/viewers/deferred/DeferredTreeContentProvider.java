@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.Comparator;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.jface.viewers.AcceptAllFilter;
+import org.eclipse.jface.viewers.IFilter;
+import org.eclipse.jface.viewers.ILazyTreeContentProvider;
+import org.eclipse.jface.viewers.ITreeViewerListener;
+import org.eclipse.jface.viewers.TreeExpansionEvent;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Tree;
+
+/**
+ * Content provider that performs sorting and filtering in a background thread.
+ * Requires a <code>TreeViewer</code> created with the <code>SWT.VIRTUAL</code>
+ * flag and an <code>IConcurrentTreeModel</code> as input.
+ * <p>
+ * This is the tree counterpart of <code>DeferredContentProvider</code>. The
+ * children of every expanded element are sorted and filtered separately, and
+ * only the visible children of each expanded element are sent to the tree.
+ * </p>
+ * <p>
+ * The sorter and filter must be set directly on the content provider. Any
+ * sorter or filter on the TreeViewer will be ignored.
+ * </p>
+ *
+ * @since 3.29
+ */
+public class DeferredTreeContentProvider implements ILazyTreeContentProvider {
+
+	private int limit = -1;
+	private BackgroundTreeContentProvider provider;
+	private Comparator sortOrder;
+	private IFilter filter = AcceptAllFilter.getInstance();
+	private IConcurrentTreeModel model;
+	private TreeViewer viewer;
+
+	private final ITreeViewerListener collapseListener = new ITreeViewerListener() {
+		@Override
+		public void treeCollapsed(TreeExpansionEvent event) {
+			if (provider != null) {
+				provider.collapse(event.getElement());
+			}
+		}
+
+		@Override
+		public void treeExpanded(TreeExpansionEvent event) {
+		}
+	};
+
+	private static final class TreeViewerAdapter extends AbstractVirtualTree {
+
+		private TreeViewer viewer;
+
+		/**
+		 * @param viewer
+		 */
+		public TreeViewerAdapter(TreeViewer viewer) {
+			this.viewer = viewer;
+		}
+
+		@Override
+		public void clear(Object parent, int index) {
+			viewer.clear(parent, index);
+		}
+
+		@Override
+		public void replace(Object parent, Object element, int itemIndex) {
+			viewer.replace(parent, itemIndex, element);
+		}
+
+		@Override
+		public void setChildCount(Object parent, int total) {
+			viewer.setChildCount(parent, total);
+		}
+
+		@Override
+		public int getVisibleItemCount() {
+			Tree tree = viewer.getTree();
+			Rectangle rect = tree.getClientArea();
+			int itemHeight = tree.getItemHeight();
+			int headerHeight = tree.getHeaderHeight();
+			return (rect.height - headerHeight + itemHeight - 1) / (itemHeight + tree.getGridLineWidth());
+		}
+
+		@Override
+		public Control getControl() {
+			return viewer.getControl();
+		}
+
+	}
+
+	/**
+	 * Create a DeferredTreeContentProvider with the given sort order.
+	 *
+	 * @param sortOrder a comparator that sorts the children of every element.
+	 */
+	public DeferredTreeContentProvider(Comparator sortOrder) {
+		this.sortOrder = sortOrder;
+	}
+
+	@Override
+	public void dispose() {
+		setProvider(null);
+		setViewer(null);
+	}
+
+	@Override
+	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+		if (newInput == null) {
+			setProvider(null);
+			model = null;
+			return;
+		}
+
+		Assert.isTrue(newInput instanceof IConcurrentTreeModel);
+		Assert.isTrue(viewer instanceof TreeViewer);
+		model = (IConcurrentTreeModel) newInput;
+		setViewer((TreeViewer) viewer);
+
+		BackgroundTreeContentProvider newProvider = new BackgroundTreeContentProvider(
+				new TreeViewerAdapter((TreeViewer) viewer), model, sortOrder);
+
+		setProvider(newProvider);
+
+		newProvider.setLimit(limit);
+		newProvider.setFilter(filter);
+	}
+
+	/**
+	 * Sets the sort order for this content provider. This sort order takes
+	 * priority over anything that was supplied to the <code>TreeViewer</code>.
+	 *
+	 * @param sortOrder new sort order. The comparator must be able to support
+	 *                  being used in a background thread.
+	 */
+	public void setSortOrder(Comparator sortOrder) {
+		Assert.isNotNull(sortOrder);
+		this.sortOrder = sortOrder;
+		if (provider != null) {
+			provider.setSortOrder(sortOrder);
+		}
+	}
+
+	/**
+	 * Sets the filter for this content provider. This filter takes priority over
+	 * anything that was supplied to the <code>TreeViewer</code>. The filter
+	 * must be capable of being used in a background thread. Elements which do
+	 * not pass the filter are hidden together with their children.
+	 *
+	 * @param toSet filter to set
+	 */
+	public void setFilter(IFilter toSet) {
+		this.filter = toSet;
+		if (provider != null) {
+			provider.setFilter(toSet);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of children per element. If an element has more
+	 * children than this number, only the top children will be shown based on
+	 * the current sort order.
+	 *
+	 * @param limit maximum number of children to show or -1 if unbounded
+	 */
+	public void setLimit(int limit) {
+		this.limit = limit;
+		if (provider != null) {
+			provider.setLimit(limit);
+		}
+	}
+
+	/**
+	 * Returns the current maximum number of children per element or -1 if
+	 * unbounded
+	 *
+	 * @return the current maximum number of children per element or -1 if
+	 *         unbounded
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	@Override
+	public void updateElement(Object parent, int index) {
+		if (provider != null) {
+			provider.checkVisibleRange(parent, index);
+		}
+	}
+
+	@Override
+	public void updateChildCount(Object element, int currentChildCount) {
+		if (provider != null) {
+			provider.checkChildCount(element, currentChildCount);
+		}
+	}
+
+	@Override
+	public Object getParent(Object element) {
+		if (model == null) {
+			return null;
+		}
+		return model.getParent(element);
+	}
+
+	private void setProvider(BackgroundTreeContentProvider newProvider) {
+		if (provider != null) {
+			provider.dispose();
+		}
+
+		provider = newProvider;
+	}
+
+	private void setViewer(TreeViewer newViewer) {
+		if (viewer == newViewer) {
+			return;
+		}
+		if (viewer != null) {
+			viewer.removeTreeListener(collapseListener);
+		}
+		viewer = newViewer;
+		if (viewer != null) {
+			viewer.addTreeListener(collapseListener);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+/**
+ * Interface for a tree of unordered elements that can fire change
+ * notifications. Like <code>IConcurrentModel</code>, the model returns its
+ * contents asynchronously, but one parent at a time: listeners request the
+ * children of the parents they are interested in and the model fires back
+ * information about them at its earliest convenience.
+ * <p>
+ * The top-level elements are the children of the model itself, so a viewer
+ * whose input is the model requests them like the children of any other
+ * element.
+ * </p>
+ * <p>
+ * The model is allowed to send back notifications to its listeners in any
+ * thread, and the listeners must not assume that the notifications will arrive
+ * in the UI thread.
+ * </p>
+ *
+ * <p>
+ * Not intended to be implemented by clients. Clients should subclass
+ * <code>AbstractConcurrentTreeModel</code> instead.
+ * </p>
+ *
+ * @since 3.29
+ * @noimplement This interface is not intended to be implemented by clients.
+ */
+public interface IConcurrentTreeModel {
+	/**
+	 * Requests that the receiver call the given listener's
+	 * setContents(parent, ...) method with the children of the given parent at
+	 * its earliest convenience. The receiver is allowed to compute the children
+	 * asynchronously. If the result is too large to return in one batch, it can
+	 * call setContents with an empty array followed by a sequence of adds.
+	 * <p>
+	 * From then on, the receiver notifies the listener about any changes to the
+	 * children of the given parent until the listener is removed.
+	 * </p>
+	 *
+	 * @param parent   the model itself or an element of the model
+	 * @param listener listener whose setContents method should be called. The
+	 *                 listener must have been previously registered with
+	 *                 addListener.
+	 */
+	public void requestUpdate(Object parent, IConcurrentTreeModelListener listener);
+
+	/**
+	 * Adds a listener to this model. Unlike <code>IConcurrentModel</code>, the
+	 * receiver does not send its contents to a new listener, since a tree can be
+	 * arbitrarily large. The listener asks for the children it is interested in
+	 * through {@link #requestUpdate(Object, IConcurrentTreeModelListener)}.
+	 *
+	 * <p>
+	 * Has no effect if an identical listener is already registered.
+	 * </p>
+	 *
+	 * @param listener listener to add
+	 */
+	public void addListener(IConcurrentTreeModelListener listener);
+
+	/**
+	 * Removes a listener from this model. The receiver will stop sending
+	 * notifications to the given listener as soon as possible (although some
+	 * additional notifications may still arrive if the receiver was in the
+	 * process of sending notifications in another thread). Any pending updates
+	 * for this listener will be cancelled.
+	 * <p>
+	 * Has no effect if the given listener is not known to this model.
+	 * </p>
+	 *
+	 * @param listener listener to remove
+	 */
+	public void removeListener(IConcurrentTreeModelListener listener);
+
+	/**
+	 * Returns the parent of the given element. May be called in any thread.
+	 *
+	 * @param element an element of the model
+	 * @return the parent of the element, the model itself for a top-level
+	 *         element, or <code>null</code> if the parent is not known
+	 */
+	public Object getParent(Object element);
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+/**
+ * Interface for objects that can listen to changes in an
+ * <code>IConcurrentTreeModel</code>. Elements in an
+ * <code>IConcurrentTreeModel</code> are unordered within their parent.
+ *
+ * @since 3.29
+ */
+public interface IConcurrentTreeModelListener {
+
+	/**
+	 * Called when elements are added to the given parent.
+	 *
+	 * @param parent the parent of the added elements
+	 * @param added  elements added to the parent
+	 */
+	public void add(Object parent, Object[] added);
+
+	/**
+	 * Called when elements are removed from the given parent.
+	 *
+	 * @param parent  the parent of the removed elements
+	 * @param removed elements removed from the parent
+	 */
+	public void remove(Object parent, Object[] removed);
+
+	/**
+	 * Called when children of the given parent have changed.
+	 *
+	 * @param parent  the parent of the changed elements
+	 * @param changed elements that have changed
+	 */
+	public void update(Object parent, Object[] changed);
+
+	/**
+	 * Notifies the receiver about the complete set of children of the given
+	 * parent. This is usually called in response to
+	 * {@link IConcurrentTreeModel#requestUpdate(Object, IConcurrentTreeModelListener)}.
+	 *
+	 * @param parent      the parent of the elements
+	 * @param newContents contents of the parent
+	 */
+	public void setContents(Object parent, Object[] newContents);
+}
@@ -16,6 +16,8 @@ package org.eclipse.jface.viewers.deferred;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.core.runtime.Assert;
 
@@ -59,6 +61,12 @@ public class LazySortedCollection {
 	private Comparator comparator;
 	private static int counter = 0;
 
+	/**
+	 * Minimum number of unsorted children of a subtree that are compared with
+	 * its value in parallel. -1 if all comparisons happen in the calling thread.
+	 */
+	private int parallelThreshold = -1;
+
 	/**
 	 * Disables randomization and enables additional runtime error checking.
 	 * Severely degrades performance if set to true. Intended for use in test
@@ -378,6 +386,10 @@ public class LazySortedCollection {
 			}
 		}
 
+		if (parallelThreshold != -1 && getSubtreeSize(nextUnsorted[subTree]) >= parallelThreshold) {
+			return partitionInParallel(subTree, mon);
+		}
+
 		for (int idx = nextUnsorted[subTree]; idx != -1;) {
 			idx = partition(subTree, idx);
 			nextUnsorted[subTree] = idx;
@@ -396,6 +408,94 @@ public class LazySortedCollection {
 		return subTree;
 	}
 
+	/**
+	 * Partitions the given subtree like {@link #partition(int, FastProgressReporter)},
+	 * but compares all unsorted children with the value of the subtree in
+	 * parallel before moving them into the left or right subtrees in the calling
+	 * thread. The tree is not modified if the operation is cancelled.
+	 *
+	 * @param subTree subtree with at least one unsorted child, which is not
+	 *                scheduled for lazy removal
+	 * @return the subTree
+	 */
+	private final int partitionInParallel(int subTree, FastProgressReporter mon) throws InterruptedException {
+		int[] unsorted = new int[getSubtreeSize(nextUnsorted[subTree])];
+		int count = 0;
+		for (int idx = nextUnsorted[subTree]; idx != -1; idx = nextUnsorted[idx]) {
+			unsorted[count++] = idx;
+		}
+
+		boolean[] less = new boolean[count];
+		ForkJoinPool.commonPool().invoke(new CompareTask(contents[subTree], unsorted, less, 0, count, mon));
+		if (mon.isCanceled()) {
+			throw new InterruptedException();
+		}
+
+		for (int i = 0; i < count; i++) {
+			int toMove = unsorted[i];
+			if (less[i]) {
+				int nextLeft = addUnsorted(leftSubTree[subTree], toMove);
+				leftSubTree[subTree] = nextLeft;
+				parentTree[nextLeft] = subTree;
+			} else {
+				int nextRight = addUnsorted(rightSubTree[subTree], toMove);
+				rightSubTree[subTree] = nextRight;
+				parentTree[nextRight] = subTree;
+			}
+		}
+
+		// At this point, there are no remaining unsorted nodes in this subtree
+		nextUnsorted[subTree] = -1;
+
+		return subTree;
+	}
+
+	/**
+	 * Compares a range of nodes with a pivot value, splitting the range among
+	 * the threads of the fork-join pool. Only reads the contents of the
+	 * collection.
+	 */
+	private final class CompareTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Number of comparisons done by a single task
+		 */
+		private static final int CHUNK_SIZE = 1024;
+
+		private final Object pivot;
+		private final int[] nodes;
+		private final boolean[] less;
+		private final int start;
+		private final int end;
+		private final transient FastProgressReporter mon;
+
+		CompareTask(Object pivot, int[] nodes, boolean[] less, int start, int end, FastProgressReporter mon) {
+			this.pivot = pivot;
+			this.nodes = nodes;
+			this.less = less;
+			this.start = start;
+			this.end = end;
+			this.mon = mon;
+		}
+
+		@Override
+		protected void compute() {
+			if (mon.isCanceled()) {
+				return;
+			}
+			if (end - start > CHUNK_SIZE) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new CompareTask(pivot, nodes, less, start, middle, mon),
+						new CompareTask(pivot, nodes, less, middle, end, mon));
+				return;
+			}
+			for (int i = start; i < end; i++) {
+				less[i] = comparator.compare(contents[nodes[i]], pivot) < 0;
+			}
+		}
+	}
+
 	private final int getSubtreeSize(int subTree) {
 		if (subTree == -1) {
 			return 0;
@@ -417,6 +517,38 @@ public class LazySortedCollection {
 		}
 	}
 
+	/**
+	 * Sets the number of unsorted elements from which on a subtree is
+	 * partitioned in parallel. Partitioning a subtree compares all of its
+	 * unsorted elements with the value of the subtree; for large subtrees these
+	 * comparisons are spread over the common fork-join pool. Since only the
+	 * subtrees covering a requested range are partitioned, the elements in that
+	 * range are still the first to be sorted.
+	 * <p>
+	 * The comparator must be thread-safe if parallel partitioning is enabled.
+	 * </p>
+	 *
+	 * @param threshold minimum number of unsorted elements of a subtree to be
+	 *                  compared in parallel, or -1 to do all comparisons in the
+	 *                  calling thread
+	 * @since 3.29
+	 */
+	public void setParallelThreshold(int threshold) {
+		Assert.isTrue(threshold == -1 || threshold > 0);
+		this.parallelThreshold = threshold;
+	}
+
+	/**
+	 * Returns the number of unsorted elements from which on a subtree is
+	 * partitioned in parallel.
+	 *
+	 * @return the threshold, or -1 if partitioning happens in the calling thread
+	 * @since 3.29
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
 	/**
 	 * Adjusts the capacity of the array.
 	 *
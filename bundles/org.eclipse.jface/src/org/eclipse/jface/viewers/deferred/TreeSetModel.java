@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Trivial implementation of an <code>IConcurrentTreeModel</code>. Implements an
+ * unordered set of children for every parent and fires off change
+ * notifications whenever children are added or removed. The model may be
+ * modified in any thread, notifications are sent synchronously in the
+ * modifying thread.
+ *
+ * @since 3.29
+ */
+public class TreeSetModel extends AbstractConcurrentTreeModel {
+
+	private static final Object[] EMPTY = new Object[0];
+
+	/**
+	 * Children by parent
+	 */
+	private final Map<Object, Set<Object>> children = new HashMap<>();
+
+	/**
+	 * Parent by child
+	 */
+	private final Map<Object, Object> parents = new HashMap<>();
+
+	/**
+	 * Return the children of the given parent.
+	 *
+	 * @param parent the model itself or an element of the model
+	 * @return the array of children
+	 */
+	public synchronized Object[] getChildren(Object parent) {
+		Set<Object> set = children.get(parent);
+		return set == null ? EMPTY : set.toArray();
+	}
+
+	@Override
+	public synchronized Object getParent(Object element) {
+		return parents.get(element);
+	}
+
+	/**
+	 * Sets the children of the given parent to the given array of elements.
+	 * Elements which are removed from the parent keep their own children.
+	 *
+	 * @param parent      the model itself or an element of the model
+	 * @param newContents new children of the parent
+	 */
+	public void set(Object parent, Object[] newContents) {
+		Assert.isNotNull(parent);
+		Assert.isNotNull(newContents);
+		synchronized (this) {
+			Set<Object> set = children.computeIfAbsent(parent, p -> new LinkedHashSet<>());
+			for (Object child : set) {
+				parents.remove(child);
+			}
+			set.clear();
+			set.addAll(Arrays.asList(newContents));
+			for (Object child : newContents) {
+				parents.put(child, parent);
+			}
+		}
+		fireSetContents(parent, newContents);
+	}
+
+	/**
+	 * Adds the given elements to the children of the given parent. Duplicate
+	 * elements are ignored.
+	 *
+	 * @param parent the model itself or an element of the model
+	 * @param toAdd  elements to add
+	 */
+	public void addAll(Object parent, Object[] toAdd) {
+		Assert.isNotNull(parent);
+		Assert.isNotNull(toAdd);
+		synchronized (this) {
+			children.computeIfAbsent(parent, p -> new LinkedHashSet<>()).addAll(Arrays.asList(toAdd));
+			for (Object child : toAdd) {
+				parents.put(child, parent);
+			}
+		}
+		fireAdd(parent, toAdd);
+	}
+
+	/**
+	 * Removes all of the given elements from the children of the given parent.
+	 *
+	 * @param parent   the model itself or an element of the model
+	 * @param toRemove elements to remove
+	 */
+	public void removeAll(Object parent, Object[] toRemove) {
+		Assert.isNotNull(parent);
+		Assert.isNotNull(toRemove);
+		synchronized (this) {
+			Set<Object> set = children.get(parent);
+			if (set != null) {
+				for (Object child : toRemove) {
+					if (set.remove(child)) {
+						parents.remove(child);
+					}
+				}
+			}
+		}
+		fireRemove(parent, toRemove);
+	}
+
+	/**
+	 * Fires a change notification for all elements in the given array
+	 *
+	 * @param parent  the parent of the changed elements
+	 * @param changed array of elements that have changed
+	 */
+	public void changeAll(Object parent, Object[] changed) {
+		Assert.isNotNull(parent);
+		Assert.isNotNull(changed);
+		fireUpdate(parent, changed);
+	}
+
+	@Override
+	public void requestUpdate(Object parent, IConcurrentTreeModelListener listener) {
+		Assert.isNotNull(listener);
+		listener.setContents(parent, getChildren(parent));
+	}
+}
@@ -22,7 +22,6 @@ import java.math.BigDecimal;
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -77,6 +76,7 @@ import org.eclipse.ui.internal.ide.IDEWorkbenchMessages;
 import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
 import org.eclipse.ui.internal.ide.StatusUtil;
 import org.eclipse.ui.internal.ide.dialogs.IDEResourceInfoUtils;
+import org.eclipse.ui.internal.wizards.datatransfer.LocalFileCopier;
 import org.eclipse.ui.statushandlers.StatusManager;
 import org.eclipse.ui.wizards.datatransfer.FileStoreStructureProvider;
 import org.eclipse.ui.wizards.datatransfer.ImportOperation;
@@ -1374,9 +1374,52 @@ public class CopyFilesAndFoldersOperation {
 			}
 		};
 
+		// Files and folders of the local file system whose names are free in the
+		// target are copied in parallel, the others go through the import
+		// operation that asks whether to overwrite existing resources.
+		List<IFileStore> importStores = new ArrayList<>(stores.length);
+		LocalFileCopier copier = createLinks || createVirtualFoldersAndLinks ? null
+				: LocalFileCopier.create(target);
+		for (IFileStore store : stores) {
+			if (copier == null || !copier.add(store)) {
+				importStores.add(store);
+			}
+		}
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 2);
+		if (!importStores.isEmpty() && !performFileImport(importStores, target, query, subMonitor.split(1))) {
+			return;
+		}
+		if (copier != null && !copier.isEmpty()) {
+			IStatus status;
+			try {
+				status = copier.copy(subMonitor.split(1));
+			} catch (OperationCanceledException e) {
+				return;
+			} catch (CoreException e) {
+				displayError(e.getStatus());
+				return;
+			}
+			if (!status.isOK()) {
+				if (errorStatus == null) {
+					errorStatus = new MultiStatus(PlatformUI.PLUGIN_ID,
+							IStatus.ERROR, getProblemsMessage(), null);
+				}
+				errorStatus.merge(status);
+			}
+		}
+	}
+
+	/**
+	 * Imports the given stores into the provided container with an import
+	 * operation.
+	 *
+	 * @return <code>false</code> if the import was canceled or failed
+	 */
+	private boolean performFileImport(List<IFileStore> stores, IContainer target,
+			IOverwriteQuery query, IProgressMonitor monitor) {
 		ImportOperation op = new ImportOperation(target.getFullPath(),
-				stores[0].getParent(), FileStoreStructureProvider.INSTANCE,
-				query, Arrays.asList(stores));
+				stores.get(0).getParent(), FileStoreStructureProvider.INSTANCE,
+				query, stores);
 		op.setContext(messageShell);
 		op.setCreateContainerStructure(false);
 		op.setVirtualFolders(createVirtualFoldersAndLinks);
@@ -1385,7 +1428,7 @@ public class CopyFilesAndFoldersOperation {
 		try {
 			op.run(monitor);
 		} catch (InterruptedException e) {
-			return;
+			return false;
 		} catch (InvocationTargetException e) {
 			if (e.getTargetException() instanceof CoreException) {
 				displayError(((CoreException) e.getTargetException())
@@ -1393,7 +1436,7 @@ public class CopyFilesAndFoldersOperation {
 			} else {
 				display(e);
 			}
-			return;
+			return false;
 		}
 		// Special case since ImportOperation doesn't throw a CoreException on
 		// failure.
@@ -1405,6 +1448,7 @@ public class CopyFilesAndFoldersOperation {
 			}
 			errorStatus.merge(status);
 		}
+		return true;
 	}
 
 	/**
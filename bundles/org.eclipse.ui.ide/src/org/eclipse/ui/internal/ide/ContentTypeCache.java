@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.ide;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.content.IContentDescription;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeManager;
+import org.eclipse.core.runtime.content.IContentTypeManager.ContentTypeChangeEvent;
+import org.eclipse.core.runtime.content.IContentTypeManager.IContentTypeChangeListener;
+import org.eclipse.core.runtime.content.IContentTypeMatcher;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Remembers the content types of files, so that their contents need not be read
+ * again as long as they do not change.
+ * <p>
+ * The content types are kept by file path together with the modification stamp
+ * of the file and the content types its project associates with its name, so
+ * that project specific content type settings are respected. They can be saved to a file and are read back the first time a
+ * content type is asked for. Saved content types are ignored if the content
+ * types known to the platform have changed since.
+ * </p>
+ */
+public class ContentTypeCache implements IContentTypeChangeListener {
+
+	/**
+	 * The maximum number of files whose content types are kept.
+	 */
+	static final int MAX_ENTRIES = 20000;
+
+	private static final int VERSION = 2;
+
+	private static final class CacheEntry {
+		final long modificationStamp;
+
+		/**
+		 * See {@link ContentTypeCache#computeNameStamp(IFile)}.
+		 */
+		final int nameStamp;
+
+		/**
+		 * The content type id, or <code>null</code> if the file has no content
+		 * type.
+		 */
+		final String contentTypeId;
+
+		CacheEntry(long modificationStamp, int nameStamp, String contentTypeId) {
+			this.modificationStamp = modificationStamp;
+			this.nameStamp = nameStamp;
+			this.contentTypeId = contentTypeId;
+		}
+	}
+
+	private final IContentTypeManager contentTypeManager;
+
+	private final File file;
+
+	// least recently used first
+	private final Map<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<String, CacheEntry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private boolean loaded;
+
+	private boolean dirty;
+
+	private int generation;
+
+	/**
+	 * Creates a new cache and starts listening to content type changes.
+	 *
+	 * @param contentTypeManager the content type manager
+	 * @param file               the file to save the cache to, or
+	 *                           <code>null</code> if the cache should not be
+	 *                           saved
+	 */
+	public ContentTypeCache(IContentTypeManager contentTypeManager, File file) {
+		this.contentTypeManager = contentTypeManager;
+		this.file = file;
+		contentTypeManager.addContentTypeChangeListener(this);
+	}
+
+	/**
+	 * Returns the content type of the given file. Reads the contents of the file
+	 * only if its content type is not known yet or the file was changed since.
+	 *
+	 * @param resource the file
+	 * @return the content type, or <code>null</code> if the file has none or it
+	 *         can't be determined
+	 */
+	public IContentType getContentType(IFile resource) {
+		String path = resource.getFullPath().toString();
+		long modificationStamp = resource.getModificationStamp();
+		int nameStamp;
+		try {
+			nameStamp = computeNameStamp(resource);
+		} catch (CoreException e) {
+			// the project is not accessible, neither is the file
+			return null;
+		}
+		CacheEntry entry;
+		int entryGeneration;
+		synchronized (this) {
+			load();
+			entry = entries.get(path);
+			entryGeneration = generation;
+		}
+		if (entry != null && entry.modificationStamp == modificationStamp && entry.nameStamp == nameStamp) {
+			if (entry.contentTypeId == null) {
+				return null;
+			}
+			IContentType contentType = contentTypeManager.getContentType(entry.contentTypeId);
+			if (contentType != null) {
+				return contentType;
+			}
+		}
+
+		IContentDescription contentDescription;
+		try {
+			Job.getJobManager().beginRule(resource, null);
+			contentDescription = resource.getContentDescription();
+		} catch (CoreException e) {
+			// don't remember anything, the file may not be in sync
+			return null;
+		} finally {
+			Job.getJobManager().endRule(resource);
+		}
+		IContentType contentType = contentDescription == null ? null : contentDescription.getContentType();
+		if (modificationStamp != IResource.NULL_STAMP) {
+			synchronized (this) {
+				if (entryGeneration != generation) {
+					// the content types changed while the file was read
+					return contentType;
+				}
+				entries.put(path, new CacheEntry(modificationStamp, nameStamp,
+						contentType == null ? null : contentType.getId()));
+				dirty = true;
+			}
+		}
+		return contentType;
+	}
+
+	/**
+	 * Forgets all content types.
+	 */
+	public synchronized void clear() {
+		loaded = true;
+		generation++;
+		dirty |= !entries.isEmpty();
+		entries.clear();
+	}
+
+	@Override
+	public void contentTypeChanged(ContentTypeChangeEvent event) {
+		clear();
+	}
+
+	/**
+	 * Saves the content types if they changed and stops listening to content type
+	 * changes.
+	 */
+	public void dispose() {
+		contentTypeManager.removeContentTypeChangeListener(this);
+		save();
+	}
+
+	/**
+	 * Saves the content types if they changed since they were loaded.
+	 */
+	public synchronized void save() {
+		if (file == null || !dirty) {
+			return;
+		}
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(VERSION);
+			out.writeLong(computeContentTypesStamp());
+			out.writeInt(entries.size());
+			for (Entry<String, CacheEntry> entry : entries.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeLong(entry.getValue().modificationStamp);
+				out.writeInt(entry.getValue().nameStamp);
+				String contentTypeId = entry.getValue().contentTypeId;
+				out.writeUTF(contentTypeId == null ? "" : contentTypeId); //$NON-NLS-1$
+			}
+			dirty = false;
+		} catch (IOException e) {
+			IDEWorkbenchPlugin.log("Could not save the content types of files", //$NON-NLS-1$
+					new Status(IStatus.WARNING, IDEWorkbenchPlugin.IDE_WORKBENCH, e.getMessage(), e));
+		}
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (file == null || !file.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION || in.readLong() != computeContentTypesStamp()) {
+				// the content types may be found differently now
+				dirty = true;
+				return;
+			}
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				String path = in.readUTF();
+				long modificationStamp = in.readLong();
+				int nameStamp = in.readInt();
+				String contentTypeId = in.readUTF();
+				entries.put(path,
+						new CacheEntry(modificationStamp, nameStamp, contentTypeId.isEmpty() ? null : contentTypeId));
+			}
+		} catch (IOException e) {
+			// start over, the file is rewritten on the next save
+			entries.clear();
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Returns a value that changes when the content types the project of the
+	 * given file associates with the name of the file change. Unlike global
+	 * changes, changes to the content type settings of a project are not
+	 * reported to content type change listeners.
+	 */
+	private static int computeNameStamp(IFile resource) throws CoreException {
+		int stamp = 1;
+		IContentTypeMatcher matcher = resource.getProject().getContentTypeMatcher();
+		for (IContentType contentType : matcher.findContentTypesFor(resource.getName())) {
+			stamp = 31 * stamp + contentType.getId().hashCode();
+		}
+		return stamp;
+	}
+
+	/**
+	 * Returns a value that changes when content types are added or removed or
+	 * their file associations change.
+	 */
+	private long computeContentTypesStamp() {
+		long stamp = 0;
+		for (IContentType contentType : contentTypeManager.getAllContentTypes()) {
+			int hash = contentType.getId().hashCode();
+			IContentType baseType = contentType.getBaseType();
+			if (baseType != null) {
+				hash = 31 * hash + baseType.getId().hashCode();
+			}
+			for (String fileSpec : contentType.getFileSpecs(IContentType.FILE_NAME_SPEC)) {
+				hash = 31 * hash + fileSpec.hashCode();
+			}
+			for (String fileSpec : contentType.getFileSpecs(IContentType.FILE_EXTENSION_SPEC)) {
+				hash = 31 * hash + fileSpec.hashCode();
+			}
+			// the order of the content types may vary
+			stamp += hash;
+		}
+		return stamp;
+	}
+}
@@ -13,11 +13,12 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.ide;
 
+import java.io.File;
+
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.content.IContentDescription;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.content.IContentType;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.jface.viewers.ILabelProviderListener;
@@ -41,6 +42,10 @@ public class ContentTypeDecorator implements ILightweightLabelDecorator {
 
 	private boolean fHasEditorAssociationOverrides;
 
+	private static final String CONTENT_TYPE_CACHE_FILE = "contentTypes.cache"; //$NON-NLS-1$
+
+	private ContentTypeCache fContentTypeCache;
+
 	@Override
 	public void decorate(Object element, IDecoration decoration) {
 		if (!(element instanceof IFile))
@@ -57,24 +62,11 @@ public class ContentTypeDecorator implements ILightweightLabelDecorator {
 			if (d != null)
 				image = d.getImageDescriptor();
 		} else {
-			IContentDescription contentDescription= null;
-			try {
-				Job.getJobManager().beginRule(file, null);
-				contentDescription= file.getContentDescription();
-			} catch (CoreException e) {
-				// We already have some kind of icon for this file so it's OK to not
-				// find a better icon.
-			} finally {
-				Job.getJobManager().endRule(file);
-			}
-
-			if (contentDescription != null) {
-				IContentType contentType = contentDescription.getContentType();
-				if (contentType != null) {
-					IEditorRegistry editorRegistry = workbench.getEditorRegistry();
-					if (editorRegistry != null) { // on shutdown there is no registry anymore (bug 574657)
-						image = editorRegistry.getImageDescriptor(file.getName(), contentType);
-					}
+			IContentType contentType = getContentTypeCache().getContentType(file);
+			if (contentType != null) {
+				IEditorRegistry editorRegistry = workbench.getEditorRegistry();
+				if (editorRegistry != null) { // on shutdown there is no registry anymore (bug 574657)
+					image = editorRegistry.getImageDescriptor(file.getName(), contentType);
 				}
 			}
 		}
@@ -97,6 +89,14 @@ public class ContentTypeDecorator implements ILightweightLabelDecorator {
 
 	@Override
 	public void dispose() {
+		ContentTypeCache cache;
+		synchronized (this) {
+			cache = fContentTypeCache;
+			fContentTypeCache = null;
+		}
+		if (cache != null) {
+			cache.dispose();
+		}
 	}
 
 	@Override
@@ -108,6 +108,20 @@ public class ContentTypeDecorator implements ILightweightLabelDecorator {
 	public void removeListener(ILabelProviderListener listener) {
 	}
 
+	private synchronized ContentTypeCache getContentTypeCache() {
+		if (fContentTypeCache == null) {
+			File file;
+			try {
+				file = IDEWorkbenchPlugin.getDefault().getStateLocation().append(CONTENT_TYPE_CACHE_FILE).toFile();
+			} catch (IllegalStateException e) {
+				// no instance location, don't save the content types
+				file = null;
+			}
+			fContentTypeCache = new ContentTypeCache(Platform.getContentTypeManager(), file);
+		}
+		return fContentTypeCache;
+	}
+
 	private boolean hasEditorAssociationOverrides() {
 		if (!fHasEditorAssociationOverridesComputed) {
 			fHasEditorAssociationOverrides = EditorAssociationOverrideDescriptor.getContributedEditorAssociationOverrides().length > 0;
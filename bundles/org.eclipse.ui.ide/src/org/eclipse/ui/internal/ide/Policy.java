@@ -15,7 +15,12 @@ package org.eclipse.ui.internal.ide;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.osgi.service.debug.DebugOptions;
+import org.eclipse.osgi.service.debug.DebugTrace;
 import org.eclipse.ui.statushandlers.StatusManager;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
 
 /**
  * Policy is the class for the debug arguments in the ide.
@@ -47,12 +52,26 @@ public class Policy {
 	 */
 	public static boolean DEBUG_CORE_EXCEPTIONS = DEFAULT;
 
+	/**
+	 * Option for reporting the time spent in project configurators by the smart
+	 * import.
+	 */
+	public static boolean DEBUG_SMART_IMPORT = DEFAULT;
+
+	/**
+	 * The debug option for {@link #DEBUG_SMART_IMPORT}.
+	 */
+	public static final String SMART_IMPORT_OPTION = "/debug/smartImport"; //$NON-NLS-1$
+
+	private static DebugTrace debugTrace;
+
 	static {
 		if (getDebugOption("/debug")) { //$NON-NLS-1$
 			DEBUG_OPEN_ERROR_DIALOG = getDebugOption("/debug/internalerror/openDialog"); //$NON-NLS-1$
 			DEBUG_GC = getDebugOption("/debug/gc"); //$NON-NLS-1$
 			DEBUG_UNDOMONITOR = getDebugOption("/debug/undomonitor"); //$NON-NLS-1$
 			DEBUG_CORE_EXCEPTIONS = getDebugOption("/debug/coreExceptions"); //$NON-NLS-1$
+			DEBUG_SMART_IMPORT = getDebugOption(SMART_IMPORT_OPTION);
 		}
 	}
 
@@ -60,6 +79,37 @@ public class Policy {
 		return "true".equalsIgnoreCase(Platform.getDebugOption(IDEWorkbenchPlugin.IDE_WORKBENCH + option)); //$NON-NLS-1$
 	}
 
+	/**
+	 * Writes the given message to the trace of this bundle.
+	 *
+	 * @param option  the debug option the message belongs to, e.g.
+	 *                {@link #SMART_IMPORT_OPTION}
+	 * @param message the message
+	 */
+	public static void trace(String option, String message) {
+		DebugTrace trace = getDebugTrace();
+		if (trace != null) {
+			trace.trace(option, message);
+		}
+	}
+
+	private static synchronized DebugTrace getDebugTrace() {
+		if (debugTrace == null) {
+			Bundle bundle = Platform.getBundle(IDEWorkbenchPlugin.IDE_WORKBENCH);
+			BundleContext context = bundle != null ? bundle.getBundleContext() : null;
+			if (context == null) {
+				return null;
+			}
+			ServiceReference<DebugOptions> reference = context.getServiceReference(DebugOptions.class);
+			DebugOptions options = reference != null ? context.getService(reference) : null;
+			if (options == null) {
+				return null;
+			}
+			debugTrace = options.newDebugTrace(IDEWorkbenchPlugin.IDE_WORKBENCH);
+		}
+		return debugTrace;
+	}
+
 	/**
 	 * Handle the core exception.
 	 *
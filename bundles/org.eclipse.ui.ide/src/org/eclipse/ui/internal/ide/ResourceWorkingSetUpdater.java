@@ -15,8 +15,12 @@ package org.eclipse.ui.internal.ide;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -37,70 +41,90 @@ public class ResourceWorkingSetUpdater implements IWorkingSetUpdater,
 		IResourceChangeListener {
 
 	/**
-	 * Utility class used to help process incoming resource deltas.
+	 * Utility class used to help process incoming resource deltas. It collects
+	 * the resources of a delta which affect working sets, so that the delta is
+	 * traversed once no matter how many working sets there are.
 	 */
-	private static class WorkingSetDelta {
-		private IWorkingSet fWorkingSet;
+	private static class ResourceDeltaIndex {
+		private Map<IResource, IResource> fReplaced = new HashMap<>();
 
-		private List<IAdaptable> fElements;
-
-		private boolean fChanged;
+		private Set<IResource> fRemoved = new HashSet<>();
 
 		/**
 		 * Create a new instance of this class.
 		 *
-		 * @param workingSet
-		 *            the working set to track.
+		 * @param delta
+		 *            the delta to index
 		 */
-		public WorkingSetDelta(IWorkingSet workingSet) {
-			fWorkingSet = workingSet;
-			fElements = new ArrayList<>(Arrays.asList(workingSet.getElements()));
+		public ResourceDeltaIndex(IResourceDelta delta) {
+			processResourceDelta(delta);
+		}
+
+		private void processResourceDelta(IResourceDelta delta) {
+			IResource resource = delta.getResource();
+			int kind = delta.getKind();
+			int flags = delta.getFlags();
+			if (projectGotClosedOrOpened(resource, kind, flags)) {
+				fReplaced.put(resource, resource);
+				// Don't dive into closed or opened projects
+				return;
+			}
+			if (kind == IResourceDelta.REMOVED) {
+				if ((flags & IResourceDelta.MOVED_TO) != 0) {
+					fReplaced.put(resource, ResourcesPlugin.getWorkspace().getRoot()
+							.findMember(delta.getMovedToPath()));
+				} else {
+					fRemoved.add(resource);
+				}
+			}
+			for (IResourceDelta child : delta.getAffectedChildren()) {
+				processResourceDelta(child);
+			}
 		}
 
-		/**
-		 * Returns the index of this element in the list of known elements.
-		 *
-		 * @param element
-		 *            the element to search for
-		 * @return the index, or -1 if unknown.
-		 */
-		public int indexOf(Object element) {
-			return fElements.indexOf(element);
+		private boolean projectGotClosedOrOpened(IResource resource, int kind,
+				int flags) {
+			return resource.getType() == IResource.PROJECT
+					&& kind == IResourceDelta.CHANGED
+					&& (flags & IResourceDelta.OPEN) != 0;
 		}
 
 		/**
-		 * Add a new element to the list of known elements.
+		 * Returns whether the delta may affect any working set.
 		 *
-		 * @param index
-		 *            the index at which to place the element
-		 * @param element
-		 *            the element to set
+		 * @return <code>false</code> if no working set needs to be updated
 		 */
-		public void set(int index, IAdaptable element) {
-			fElements.set(index, element);
-			fChanged = true;
+		public boolean isEmpty() {
+			return fReplaced.isEmpty() && fRemoved.isEmpty();
 		}
 
 		/**
-		 * Remove an element from the list of known elements.
+		 * Update the working set if the delta affects its elements.
 		 *
-		 * @param index
-		 *            the index of the element to remove
+		 * @param workingSet
+		 *            the working set to update
 		 */
-		public void remove(int index) {
-			if (fElements.remove(index) != null) {
-				fChanged = true;
+		public void process(IWorkingSet workingSet) {
+			IAdaptable[] elements = workingSet.getElements();
+			List<IAdaptable> result = new ArrayList<>(elements.length);
+			boolean changed = false;
+			for (IAdaptable element : elements) {
+				if (element instanceof IResource) {
+					if (fRemoved.contains(element)) {
+						changed = true;
+						continue;
+					}
+					if (fReplaced.containsKey(element)) {
+						result.add(fReplaced.get(element));
+						changed = true;
+						continue;
+					}
+				}
+				result.add(element);
 			}
-		}
-
-		/**
-		 * Process the changes to this delta and update the working set if
-		 * necessary.
-		 */
-		public void process() {
-			if (fChanged) {
-				fWorkingSet.setElements(fElements
-						.toArray(new IAdaptable[fElements.size()]));
+			if (changed) {
+				workingSet.setElements(result
+						.toArray(new IAdaptable[result.size()]));
 			}
 		}
 	}
@@ -155,55 +179,18 @@ public class ResourceWorkingSetUpdater implements IWorkingSetUpdater,
 		if (delta == null) {
 			return;
 		}
+		ResourceDeltaIndex index = new ResourceDeltaIndex(delta);
+		if (index.isEmpty()) {
+			return;
+		}
 		IWorkingSet[] workingSets;
 		synchronized (fWorkingSets) {
 			workingSets = fWorkingSets
 					.toArray(new IWorkingSet[fWorkingSets.size()]);
 		}
 		for (IWorkingSet workingSet : workingSets) {
-			WorkingSetDelta workingSetDelta = new WorkingSetDelta(workingSet);
-			processResourceDelta(workingSetDelta, delta);
-			workingSetDelta.process();
-		}
-	}
-
-	private void processResourceDelta(WorkingSetDelta result,
-			IResourceDelta delta) {
-		IResource resource = delta.getResource();
-		int type = resource.getType();
-		int index = result.indexOf(resource);
-		int kind = delta.getKind();
-		int flags = delta.getFlags();
-		if (kind == IResourceDelta.CHANGED && type == IResource.PROJECT
-				&& index != -1) {
-			if ((flags & IResourceDelta.OPEN) != 0) {
-				result.set(index, resource);
-			}
-		}
-		if (index != -1 && kind == IResourceDelta.REMOVED) {
-			if ((flags & IResourceDelta.MOVED_TO) != 0) {
-				result.set(index, ResourcesPlugin.getWorkspace().getRoot()
-						.findMember(delta.getMovedToPath()));
-			} else {
-				result.remove(index);
-			}
+			index.process(workingSet);
 		}
-
-		// Don't dive into closed or opened projects
-		if (projectGotClosedOrOpened(resource, kind, flags)) {
-			return;
-		}
-
-		for (IResourceDelta child : delta.getAffectedChildren()) {
-			processResourceDelta(result, child);
-		}
-	}
-
-	private boolean projectGotClosedOrOpened(IResource resource, int kind,
-			int flags) {
-		return resource.getType() == IResource.PROJECT
-				&& kind == IResourceDelta.CHANGED
-				&& (flags & IResourceDelta.OPEN) != 0;
 	}
 
 	private void checkElementExistence(IWorkingSet workingSet) {
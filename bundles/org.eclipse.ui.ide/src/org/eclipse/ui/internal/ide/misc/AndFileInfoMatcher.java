@@ -17,17 +17,23 @@ package org.eclipse.ui.internal.ide.misc;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.filtermatchers.AbstractFileInfoMatcher;
-import org.eclipse.core.resources.filtermatchers.CompoundFileInfoMatcher;
 import org.eclipse.core.runtime.CoreException;
 
 /**
  * A Resource Filter Type Factory for supporting the AND logical preposition
  */
-public class AndFileInfoMatcher extends CompoundFileInfoMatcher {
+public class AndFileInfoMatcher extends LogicalFileInfoMatcher {
+
+	/**
+	 * Creates the matcher.
+	 */
+	public AndFileInfoMatcher() {
+		super(false);
+	}
 
 	@Override
 	public boolean matches(IContainer parent, IFileInfo fileInfo) throws CoreException {
-		for (AbstractFileInfoMatcher matcher : matchers) {
+		for (AbstractFileInfoMatcher matcher : getPrepared().matchers) {
 			if (!matcher.matches(parent, fileInfo))
 				return false;
 		}
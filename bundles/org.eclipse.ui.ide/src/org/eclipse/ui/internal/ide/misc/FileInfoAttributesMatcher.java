@@ -20,9 +20,7 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Calendar;
 import java.util.Date;
-import java.util.GregorianCalendar;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -37,7 +35,6 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.text.StringMatcher;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
 
@@ -217,63 +214,114 @@ public class FileInfoAttributesMatcher extends AbstractFileInfoMatcher {
 			type = getTypeForKey(argument.key, argument.operator);
 			if (type.equals(String.class)) {
 				if (argument.regularExpression == false)
-					stringMatcher = new StringMatcher(argument.pattern, argument.caseSensitive == false, false);
+					stringPattern = StringPattern.compile(argument.pattern, argument.caseSensitive == false);
 				else
 					regExPattern = Pattern.compile(argument.pattern, argument.caseSensitive ? 0:Pattern.CASE_INSENSITIVE);
 			}
+			if (type.equals(Integer.class)) {
+				try {
+					amount = Integer.parseInt(argument.pattern);
+				} catch (NumberFormatException e) {
+					amount = 0;
+				}
+			}
+			if (type.equals(Date.class))
+				amount = Long.parseLong(argument.pattern);
+			if (type.equals(Boolean.class))
+				flag = Boolean.parseBoolean(argument.pattern);
+
+			if (argument.key.equals(KEY_NAME))
+				key = NAME;
+			else if (argument.key.equals(KEY_PROPJECT_RELATIVE_PATH))
+				key = PROJECT_RELATIVE_PATH;
+			else if (argument.key.equals(KEY_LOCATION))
+				key = LOCATION;
+			else if (argument.key.equals(KEY_LAST_MODIFIED))
+				key = LAST_MODIFIED;
+			else if (argument.key.equals(KEY_CREATED))
+				key = CREATED;
+			else if (argument.key.equals(KEY_LENGTH))
+				key = LENGTH;
+			else if (argument.key.equals(KEY_IS_READONLY))
+				key = IS_READONLY;
+			else if (argument.key.equals(KEY_IS_SYMLINK))
+				key = IS_SYMLINK;
+			else
+				key = UNKNOWN;
 		}
 
+		private static final int UNKNOWN = 0;
+		private static final int NAME = 1;
+		private static final int PROJECT_RELATIVE_PATH = 2;
+		private static final int LOCATION = 3;
+		private static final int LAST_MODIFIED = 4;
+		private static final int CREATED = 5;
+		private static final int LENGTH = 6;
+		private static final int IS_READONLY = 7;
+		private static final int IS_SYMLINK = 8;
 
 		Argument argument;
 		Class<?> type;
-		StringMatcher stringMatcher = null;
+		int key;
+		StringPattern stringPattern = null;
 		Pattern regExPattern = null;
+		long amount;
+		boolean flag;
+
+		/**
+		 * Returns how expensive matching is: names are cheapest, then paths, then
+		 * attributes which have to be read from the file system.
+		 */
+		int getCost() {
+			switch (key) {
+			case NAME:
+				return FileInfoMatchers.COST_NAME;
+			case PROJECT_RELATIVE_PATH:
+			case LOCATION:
+				return FileInfoMatchers.COST_PATH;
+			case UNKNOWN:
+				return FileInfoMatchers.COST_NAME;
+			default:
+				return FileInfoMatchers.COST_FILE_SYSTEM;
+			}
+		}
 
 		public boolean match(IContainer parent, IFileInfo fileInfo) {
 			if (type.equals(String.class)) {
 				String value = ""; //$NON-NLS-1$
-				if (argument.key.equals(KEY_NAME))
+				if (key == NAME)
 					value = fileInfo.getName();
-				if (argument.key.equals(KEY_PROPJECT_RELATIVE_PATH))
+				if (key == PROJECT_RELATIVE_PATH)
 					value = parent.getProjectRelativePath().append(fileInfo.getName()).toPortableString();
-				if (argument.key.equals(KEY_LOCATION))
+				if (key == LOCATION)
 					value = parent.getLocation().append(fileInfo.getName()).toOSString();
 
-				if (stringMatcher != null)
-					return stringMatcher.match(value);
+				if (stringPattern != null)
+					return stringPattern.match(value);
 				if (regExPattern != null) {
 					Matcher m = regExPattern.matcher(value);
 					return m.matches();
 				}
 			}
 			if (type.equals(Integer.class)) {
-				int amount;
-				try {
-					amount = Integer.parseInt(argument.pattern);
-				} catch (NumberFormatException e) {
-					amount = 0;
-				}
-				if (argument.key.equals(KEY_LAST_MODIFIED) || argument.key.equals(KEY_CREATED)) {
+				if (key == LAST_MODIFIED || key == CREATED) {
 					// OPERATOR_WITHIN
 					long time = 0;
-					if (argument.key.equals(KEY_LAST_MODIFIED)) {
+					if (key == LAST_MODIFIED) {
 						IFileInfo info = fetchInfo(parent, fileInfo);
 						if (!info.exists())
 							return false;
 						time = info.getLastModified();
 					}
-					if (argument.key.equals(KEY_CREATED)) {
+					if (key == CREATED) {
 						if (!fSupportsCreatedKey)
 							return false;
 						time = getFileCreationTime(parent.getLocation().append(fileInfo.getName()).toOSString());
 					}
-					GregorianCalendar gc = new GregorianCalendar();
-					gc.add(Calendar.SECOND,-amount);
-					Date when = gc.getTime();
-					Date then = new Date(time);
-					return then.after(when);
+					long when = System.currentTimeMillis() - amount * 1000;
+					return time > when;
 				}
-				if (argument.key.equals(KEY_LENGTH)) {
+				if (key == LENGTH) {
 					IFileInfo info = fetchInfo(parent, fileInfo);
 					if (!info.exists())
 						return false;
@@ -286,43 +334,39 @@ public class FileInfoAttributesMatcher extends AbstractFileInfoMatcher {
 				}
 			}
 			if (type.equals(Date.class)) {
-				long parameter = Long.parseLong(argument.pattern);
-				if (argument.key.equals(KEY_LAST_MODIFIED) || argument.key.equals(KEY_CREATED)) {
+				if (key == LAST_MODIFIED || key == CREATED) {
 					long time = 0;
-					if (argument.key.equals(KEY_LAST_MODIFIED)) {
+					if (key == LAST_MODIFIED) {
 						IFileInfo info = fetchInfo(parent, fileInfo);
 						if (!info.exists())
 							return false;
 						time = info.getLastModified();
 					}
-					if (argument.key.equals(KEY_CREATED)) {
+					if (key == CREATED) {
 						if (!fSupportsCreatedKey)
 							return false;
 						time = getFileCreationTime(parent.getLocation().append(fileInfo.getName()).toOSString());
 					}
-					Date when = new Date(parameter);
-					Date then = new Date(time);
 					if (argument.operator.equals(OPERATOR_EQUALS))
-						return roundToOneDay(time) == roundToOneDay(parameter);
+						return roundToOneDay(time) == roundToOneDay(amount);
 					if (argument.operator.equals(OPERATOR_BEFORE))
-						return then.before(when);
+						return time < amount;
 					if (argument.operator.equals(OPERATOR_AFTER))
-						return then.after(when);
+						return time > amount;
 				}
 			}
 			if (type.equals(Boolean.class)) {
-				boolean parameter = Boolean.parseBoolean(argument.pattern);
-				if (argument.key.equals(KEY_IS_READONLY)) {
+				if (key == IS_READONLY) {
 					IFileInfo info = fetchInfo(parent, fileInfo);
 					if (!info.exists())
 						return false;
-					return info.getAttribute(EFS.ATTRIBUTE_READ_ONLY) == parameter;
+					return info.getAttribute(EFS.ATTRIBUTE_READ_ONLY) == flag;
 				}
-				if (argument.key.equals(KEY_IS_SYMLINK)) {
+				if (key == IS_SYMLINK) {
 					IFileInfo info = fetchInfo(parent, fileInfo);
 					if (!info.exists())
 						return false;
-					return info.getAttribute(EFS.ATTRIBUTE_SYMLINK) == parameter;
+					return info.getAttribute(EFS.ATTRIBUTE_SYMLINK) == flag;
 				}
 			}
 			return false;
@@ -367,4 +411,36 @@ public class FileInfoAttributesMatcher extends AbstractFileInfoMatcher {
 		}
 		return false;
 	}
+
+	/**
+	 * Returns the only file name this matcher matches.
+	 *
+	 * @return the file name, or <code>null</code> if this matcher does not match
+	 *         a single file name only
+	 */
+	String getFileName() {
+		if (matcher == null || matcher.key != MatcherCache.NAME || matcher.stringPattern == null)
+			return null;
+		return matcher.stringPattern.getLiteral();
+	}
+
+	/**
+	 * Returns whether the file name returned by {@link #getFileName()} is matched
+	 * ignoring case.
+	 *
+	 * @return whether case is ignored
+	 */
+	boolean isFileNameCaseInsensitive() {
+		return matcher != null && matcher.stringPattern != null && matcher.stringPattern.isIgnoreCase();
+	}
+
+	/**
+	 * Returns how expensive matching is, one of the costs in
+	 * {@link FileInfoMatchers}.
+	 *
+	 * @return the cost
+	 */
+	int getCost() {
+		return matcher == null ? FileInfoMatchers.COST_NAME : matcher.getCost();
+	}
 }
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.ide.misc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.resources.filtermatchers.AbstractFileInfoMatcher;
+
+/**
+ * Prepares the matchers of compound file info matchers, so that the cheap ones
+ * are asked first and file names are looked up in sets instead of being matched
+ * one by one.
+ */
+final class FileInfoMatchers {
+
+	/**
+	 * The cost of matching the file name only.
+	 */
+	static final int COST_NAME = 0;
+
+	/**
+	 * The cost of matching a path computed from the parent.
+	 */
+	static final int COST_PATH = 1;
+
+	/**
+	 * The cost of a matcher that is not known.
+	 */
+	static final int COST_UNKNOWN = 2;
+
+	/**
+	 * The cost of reading attributes from the file system.
+	 */
+	static final int COST_FILE_SYSTEM = 3;
+
+	/**
+	 * The file names matched exactly.
+	 */
+	private final Set<String> fileNames = new HashSet<>();
+
+	/**
+	 * The file names matched ignoring case, with their case folded.
+	 */
+	private final Set<String> foldedFileNames = new HashSet<>();
+
+	/**
+	 * The matchers which are not covered by the file names, cheapest first.
+	 */
+	final AbstractFileInfoMatcher[] matchers;
+
+	/**
+	 * The highest cost of all matchers.
+	 */
+	final int cost;
+
+	/**
+	 * @param matchers       the matchers
+	 * @param mergeFileNames whether to look up the file names of the matchers
+	 *                       which only match a single file name in sets, only
+	 *                       possible if any matching matcher is enough
+	 */
+	FileInfoMatchers(AbstractFileInfoMatcher[] matchers, boolean mergeFileNames) {
+		List<AbstractFileInfoMatcher> remaining = new ArrayList<>(matchers.length);
+		int maxCost = COST_NAME;
+		for (AbstractFileInfoMatcher matcher : matchers) {
+			maxCost = Math.max(maxCost, getCost(matcher));
+			String fileName = mergeFileNames && matcher instanceof FileInfoAttributesMatcher
+					? ((FileInfoAttributesMatcher) matcher).getFileName()
+					: null;
+			if (fileName == null) {
+				remaining.add(matcher);
+			} else if (((FileInfoAttributesMatcher) matcher).isFileNameCaseInsensitive()) {
+				foldedFileNames.add(StringPattern.foldCase(fileName));
+			} else {
+				fileNames.add(fileName);
+			}
+		}
+		// the sort is stable, so matchers of the same cost keep their order
+		remaining.sort(Comparator.comparingInt(FileInfoMatchers::getCost));
+		this.matchers = remaining.toArray(new AbstractFileInfoMatcher[remaining.size()]);
+		this.cost = maxCost;
+	}
+
+	/**
+	 * Returns whether the name of the file is one of the merged file names.
+	 *
+	 * @param fileInfo the file
+	 * @return whether the file name was found
+	 */
+	boolean matchesFileName(IFileInfo fileInfo) {
+		if (fileNames.isEmpty() && foldedFileNames.isEmpty()) {
+			return false;
+		}
+		String name = fileInfo.getName();
+		return fileNames.contains(name)
+				|| (!foldedFileNames.isEmpty() && foldedFileNames.contains(StringPattern.foldCase(name)));
+	}
+
+	/**
+	 * Returns how expensive it is to ask the given matcher.
+	 *
+	 * @param matcher the matcher
+	 * @return the cost
+	 */
+	static int getCost(AbstractFileInfoMatcher matcher) {
+		if (matcher instanceof FileInfoAttributesMatcher) {
+			return ((FileInfoAttributesMatcher) matcher).getCost();
+		}
+		if (matcher instanceof StringFileInfoMatcher) {
+			return COST_NAME;
+		}
+		if (matcher instanceof LogicalFileInfoMatcher) {
+			return ((LogicalFileInfoMatcher) matcher).getCost();
+		}
+		return COST_UNKNOWN;
+	}
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.ide.misc;
+
+import org.eclipse.core.resources.filtermatchers.CompoundFileInfoMatcher;
+
+/**
+ * A compound file info matcher which combines its matchers with a logical
+ * operator and asks them in the order prepared by {@link FileInfoMatchers}.
+ */
+abstract class LogicalFileInfoMatcher extends CompoundFileInfoMatcher {
+
+	private final boolean mergeFileNames;
+
+	private volatile FileInfoMatchers prepared;
+
+	/**
+	 * @param mergeFileNames whether any matching matcher is enough, see
+	 *                       {@link FileInfoMatchers}
+	 */
+	LogicalFileInfoMatcher(boolean mergeFileNames) {
+		this.mergeFileNames = mergeFileNames;
+	}
+
+	/**
+	 * @return the prepared matchers, created when first needed
+	 */
+	FileInfoMatchers getPrepared() {
+		FileInfoMatchers result = prepared;
+		if (result == null) {
+			result = new FileInfoMatchers(matchers, mergeFileNames);
+			prepared = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns how expensive matching is, one of the costs in
+	 * {@link FileInfoMatchers}.
+	 *
+	 * @return the cost
+	 */
+	int getCost() {
+		return getPrepared().cost;
+	}
+}
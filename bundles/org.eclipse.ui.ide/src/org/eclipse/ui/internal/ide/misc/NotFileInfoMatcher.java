@@ -17,17 +17,26 @@ package org.eclipse.ui.internal.ide.misc;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.filtermatchers.AbstractFileInfoMatcher;
-import org.eclipse.core.resources.filtermatchers.CompoundFileInfoMatcher;
 import org.eclipse.core.runtime.CoreException;
 
 /**
  * A Resource Filter Type Factory for supporting the NOT logical preposition
  */
-public class NotFileInfoMatcher extends CompoundFileInfoMatcher  {
+public class NotFileInfoMatcher extends LogicalFileInfoMatcher  {
+
+	/**
+	 * Creates the matcher.
+	 */
+	public NotFileInfoMatcher() {
+		super(true);
+	}
 
 	@Override
 	public boolean matches(IContainer parent, IFileInfo fileInfo) throws CoreException {
-		for (AbstractFileInfoMatcher matcher : matchers) {
+		FileInfoMatchers preparedMatchers = getPrepared();
+		if (preparedMatchers.matchesFileName(fileInfo))
+			return false;
+		for (AbstractFileInfoMatcher matcher : preparedMatchers.matchers) {
 			if (matcher.matches(parent, fileInfo))
 				return false;
 		}
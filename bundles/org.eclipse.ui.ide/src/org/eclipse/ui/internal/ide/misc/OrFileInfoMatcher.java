@@ -17,18 +17,27 @@ package org.eclipse.ui.internal.ide.misc;
 import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.filtermatchers.AbstractFileInfoMatcher;
-import org.eclipse.core.resources.filtermatchers.CompoundFileInfoMatcher;
 import org.eclipse.core.runtime.CoreException;
 
 /**
  * A Resource Filter Type Factory for supporting the OR logical preposition
  */
-public class OrFileInfoMatcher extends CompoundFileInfoMatcher {
+public class OrFileInfoMatcher extends LogicalFileInfoMatcher {
+
+	/**
+	 * Creates the matcher.
+	 */
+	public OrFileInfoMatcher() {
+		super(true);
+	}
 
 	@Override
 	public boolean matches(IContainer parent, IFileInfo fileInfo) throws CoreException {
 		if (matchers.length > 0) {
-			for (AbstractFileInfoMatcher matcher : matchers) {
+			FileInfoMatchers preparedMatchers = getPrepared();
+			if (preparedMatchers.matchesFileName(fileInfo))
+				return true;
+			for (AbstractFileInfoMatcher matcher : preparedMatchers.matchers) {
 				if (matcher.matches(parent, fileInfo))
 					return true;
 			}
@@ -18,7 +18,6 @@ import org.eclipse.core.filesystem.IFileInfo;
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.filtermatchers.AbstractFileInfoMatcher;
-import org.eclipse.core.text.StringMatcher;
 
 /**
  * A file info filter that uses a simple string matcher to match on file name.
@@ -29,7 +28,7 @@ public class StringFileInfoMatcher extends AbstractFileInfoMatcher {
 	 */
 	public static String ID = "org.eclipse.ui.ide.patternFilterMatcher"; //$NON-NLS-1$
 
-	StringMatcher matcher = null;
+	StringPattern matcher = null;
 	/**
 	 * Creates a new factory for this filter type.
 	 */
@@ -39,7 +38,7 @@ public class StringFileInfoMatcher extends AbstractFileInfoMatcher {
 	@Override
 	public void initialize(IProject project, Object arguments) {
 		if ((arguments instanceof String) && ((String) arguments).length() > 0)
-			matcher = new StringMatcher((String) arguments, true, false);
+			matcher = StringPattern.compile((String) arguments, true);
 	}
 
 	@Override
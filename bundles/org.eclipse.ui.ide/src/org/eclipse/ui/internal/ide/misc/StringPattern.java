@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.ide.misc;
+
+import org.eclipse.core.text.StringMatcher;
+
+/**
+ * Matches strings like a {@link StringMatcher}, but compares them directly if
+ * the pattern is a literal, or a literal preceded and/or followed by a
+ * <code>*</code> wildcard.
+ */
+public final class StringPattern {
+
+	private static final int ANY = 0;
+
+	private static final int LITERAL = 1;
+
+	private static final int PREFIX = 2;
+
+	private static final int SUFFIX = 3;
+
+	private static final int INFIX = 4;
+
+	private static final int OTHER = 5;
+
+	private final int kind;
+
+	private final String text;
+
+	private final boolean ignoreCase;
+
+	private final StringMatcher matcher;
+
+	private StringPattern(int kind, String text, boolean ignoreCase) {
+		this.kind = kind;
+		this.text = text;
+		this.ignoreCase = ignoreCase;
+		this.matcher = kind == OTHER ? new StringMatcher(text, ignoreCase, false) : null;
+	}
+
+	/**
+	 * Creates a pattern.
+	 *
+	 * @param pattern    the pattern, with <code>*</code> and <code>?</code>
+	 *                   wildcards
+	 * @param ignoreCase whether case is ignored
+	 * @return the pattern
+	 */
+	public static StringPattern compile(String pattern, boolean ignoreCase) {
+		// leave escapes and single character wildcards to the string matcher
+		if (pattern.isEmpty() || pattern.indexOf('\\') != -1 || pattern.indexOf('?') != -1) {
+			return new StringPattern(OTHER, pattern, ignoreCase);
+		}
+		boolean leading = pattern.startsWith("*"); //$NON-NLS-1$
+		boolean trailing = pattern.length() > 1 && pattern.endsWith("*"); //$NON-NLS-1$
+		String literal = pattern.substring(leading ? 1 : 0, pattern.length() - (trailing ? 1 : 0));
+		if (literal.indexOf('*') != -1) {
+			if (literal.chars().allMatch(c -> c == '*')) {
+				return new StringPattern(ANY, literal, ignoreCase);
+			}
+			return new StringPattern(OTHER, pattern, ignoreCase);
+		}
+		if (literal.isEmpty()) {
+			return new StringPattern(ANY, literal, ignoreCase);
+		}
+		int kind = leading ? (trailing ? INFIX : SUFFIX) : (trailing ? PREFIX : LITERAL);
+		return new StringPattern(kind, literal, ignoreCase);
+	}
+
+	/**
+	 * Returns whether the whole string matches the pattern.
+	 *
+	 * @param value the string
+	 * @return whether it matches
+	 */
+	public boolean match(String value) {
+		switch (kind) {
+		case ANY:
+			return true;
+		case LITERAL:
+			return ignoreCase ? value.equalsIgnoreCase(text) : value.equals(text);
+		case PREFIX:
+			return value.regionMatches(ignoreCase, 0, text, 0, text.length());
+		case SUFFIX:
+			return value.regionMatches(ignoreCase, value.length() - text.length(), text, 0, text.length());
+		case INFIX:
+			if (!ignoreCase) {
+				return value.contains(text);
+			}
+			for (int i = 0, last = value.length() - text.length(); i <= last; i++) {
+				if (value.regionMatches(true, i, text, 0, text.length())) {
+					return true;
+				}
+			}
+			return false;
+		default:
+			return matcher.match(value);
+		}
+	}
+
+	/**
+	 * Returns the string which is the only one to match this pattern.
+	 *
+	 * @return the string, or <code>null</code> if the pattern has wildcards
+	 */
+	public String getLiteral() {
+		return kind == LITERAL ? text : null;
+	}
+
+	/**
+	 * Returns whether the pattern ignores case.
+	 *
+	 * @return whether case is ignored
+	 */
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	/**
+	 * Returns a string that is equal for all strings which are equal ignoring
+	 * case, in the sense of {@link String#equalsIgnoreCase(String)}.
+	 *
+	 * @param value the string
+	 * @return the string with its case folded
+	 */
+	public static String foldCase(String value) {
+		StringBuilder result = new StringBuilder(value.length());
+		value.codePoints().forEach(c -> result.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+		return result.toString();
+	}
+}
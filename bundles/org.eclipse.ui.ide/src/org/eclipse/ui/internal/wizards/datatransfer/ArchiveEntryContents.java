@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.wizards.datatransfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * The contents of a small file, read into memory ahead of the thread writing
+ * the archive. The memory is taken from a budget shared by all files read
+ * ahead and returned to it by {@link #close()}. Files that are larger or do
+ * not fit into the remaining budget are not read ahead, their entries are
+ * streamed into the archive when they are written.
+ * <p>
+ * Reading is independent of the archive, so that the contents of several files
+ * can be read by different threads while the archive is written by one.
+ * </p>
+ */
+public final class ArchiveEntryContents implements Closeable {
+
+	/**
+	 * Files longer than this are not read ahead.
+	 */
+	static final int MAX_LENGTH = 1024 * 1024;
+
+	private final byte[] data;
+
+	private final long crc;
+
+	private Semaphore budget;
+
+	private final int permits;
+
+	private ArchiveEntryContents(byte[] data, long crc, Semaphore budget, int permits) {
+		this.data = data;
+		this.crc = crc;
+		this.budget = budget;
+		this.permits = permits;
+	}
+
+	/**
+	 * Reads the contents of the given file if it is small enough and fits into
+	 * the budget.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @param checksum
+	 *            whether to compute the CRC-32 of the contents
+	 * @param budget
+	 *            the number of bytes that may still be read ahead
+	 * @return the contents, which have to be closed, or <code>null</code> if
+	 *         the file is not read ahead
+	 * @throws IOException
+	 * @throws CoreException
+	 */
+	static ArchiveEntryContents read(IFile file, boolean checksum, Semaphore budget)
+			throws IOException, CoreException {
+		URI location = file.getLocationURI();
+		if (location == null) {
+			return null;
+		}
+		long length = EFS.getStore(location).fetchInfo().getLength();
+		if (length > MAX_LENGTH || !budget.tryAcquire((int) length)) {
+			return null;
+		}
+		int permits = (int) length;
+		boolean success = false;
+		try (InputStream contentStream = file.getContents(false)) {
+			byte[] data = contentStream.readNBytes(permits + 1);
+			if (data.length > permits) {
+				// the file grew since its length was read
+				return null;
+			}
+			long crc = 0;
+			if (checksum) {
+				CRC32 checksumCalculator = new CRC32();
+				checksumCalculator.update(data);
+				crc = checksumCalculator.getValue();
+			}
+			success = true;
+			return new ArchiveEntryContents(data, crc, budget, permits);
+		} finally {
+			if (!success) {
+				budget.release(permits);
+			}
+		}
+	}
+
+	/**
+	 * @return the length of the contents
+	 */
+	long getSize() {
+		return data.length;
+	}
+
+	/**
+	 * @return the CRC-32 of the contents, if it was computed
+	 */
+	long getCrc() {
+		return crc;
+	}
+
+	/**
+	 * Writes the contents to the given stream.
+	 *
+	 * @param target
+	 * @throws IOException
+	 */
+	void writeTo(OutputStream target) throws IOException {
+		target.write(data);
+	}
+
+	/**
+	 * Returns the memory of the contents to the budget.
+	 */
+	@Override
+	public void close() {
+		if (budget != null) {
+			budget.release(permits);
+			budget = null;
+		}
+	}
+}
@@ -15,9 +15,17 @@ package org.eclipse.ui.internal.wizards.datatransfer;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -36,12 +44,90 @@ import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
 /**
  *	Operation for exporting a resource and its children to a new .zip or
  *  .tar.gz file.
+ *  <p>
+ *  The contents of small files are read into memory by a pool of threads ahead
+ *  of the thread writing the archive, up to a total number of bytes. The
+ *  archive is written in the order the resources are visited, streaming
+ *  the contents of the files that were not read ahead.
+ *  </p>
  *
  *  @since 3.1
  */
 public class ArchiveFileExportOperation implements IRunnableWithProgress {
+	/**
+	 * A file or an empty folder to be written to the archive.
+	 */
+	private static final class PendingEntry {
+		final IResource resource;
+
+		final String destinationName;
+
+		final Future<ArchiveEntryContents> contents;
+
+		PendingEntry(IResource resource, String destinationName, Future<ArchiveEntryContents> contents) {
+			this.resource = resource;
+			this.destinationName = destinationName;
+			this.contents = contents;
+		}
+
+		ArchiveEntryContents getContents() throws IOException, CoreException, InterruptedException {
+			if (contents == null) {
+				return null;
+			}
+			try {
+				return contents.get();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				if (cause instanceof CoreException) {
+					throw (CoreException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IOException(cause);
+			}
+		}
+	}
+
+	/**
+	 * How long to wait for the files being read when the export ends, in
+	 * seconds.
+	 */
+	private static final int READERS_TIMEOUT = 10;
+
+	/**
+	 * How many bytes may be read ahead of the entry being written.
+	 */
+	private static final int READ_AHEAD_BYTES = 16 * 1024 * 1024;
+
 	private IFileExporter exporter;
 
+	private ExecutorService readers;
+
+	/**
+	 * Set once the export ends, so that readers still running release the
+	 * contents they read instead of handing them on.
+	 */
+	private volatile boolean discarded;
+
+	/**
+	 * Number of files queued ahead of the one being written.
+	 */
+	private int readAhead;
+
+	/**
+	 * The number of bytes that may still be read ahead.
+	 */
+	private Semaphore readAheadBudget;
+
+	private final Deque<PendingEntry> pending = new ArrayDeque<>();
+
 	private String destinationFilename;
 
 	private IProgressMonitor monitor;
@@ -195,16 +281,15 @@ public class ArchiveFileExportOperation implements IRunnableWithProgress {
 
 		if (exportResource.getType() == IResource.FILE) {
 			String destinationName = createDestinationName(leadupDepth, exportResource);
-			monitor.subTask(destinationName);
-
-			try {
-				exporter.write((IFile) exportResource, destinationName);
-			} catch (IOException | CoreException e) {
-				addError(NLS.bind(DataTransferMessages.DataTransfer_errorExporting, exportResource.getFullPath().makeRelative(), e.getMessage()), e);
+			IFile file = (IFile) exportResource;
+			Future<ArchiveEntryContents> contents = null;
+			if (readers != null) {
+				contents = readers.submit(() -> read(file));
+			}
+			pending.add(new PendingEntry(file, destinationName, contents));
+			if (pending.size() > readAhead) {
+				writePending();
 			}
-
-			monitor.worked(1);
-			ModalContext.checkCanceled(monitor);
 		} else {
 			IResource[] children = null;
 
@@ -217,11 +302,7 @@ public class ArchiveFileExportOperation implements IRunnableWithProgress {
 
 			if (children.length == 0) { // create an entry for empty containers, see bug 278402
 				String destinationName = createDestinationName(leadupDepth, exportResource);
-				try {
-					exporter.write((IContainer) exportResource, destinationName + IPath.SEPARATOR);
-				} catch (IOException e) {
-					addError(NLS.bind(DataTransferMessages.DataTransfer_errorExporting, exportResource.getFullPath().makeRelative(), e.getMessage()), e);
-				}
+				pending.add(new PendingEntry(exportResource, destinationName + IPath.SEPARATOR, null));
 			}
 
 			for (IResource child : children) {
@@ -231,6 +312,82 @@ public class ArchiveFileExportOperation implements IRunnableWithProgress {
 		}
 	}
 
+	/**
+	 * Write the oldest pending entry to the archive, waiting for its contents
+	 * to be read if necessary.
+	 */
+	private void writePending() throws InterruptedException {
+		PendingEntry entry = pending.remove();
+		IResource exportResource = entry.resource;
+		if (exportResource.getType() != IResource.FILE) {
+			try {
+				exporter.write((IContainer) exportResource, entry.destinationName);
+			} catch (IOException e) {
+				addError(NLS.bind(DataTransferMessages.DataTransfer_errorExporting, exportResource.getFullPath().makeRelative(), e.getMessage()), e);
+			}
+			return;
+		}
+
+		monitor.subTask(entry.destinationName);
+		try (ArchiveEntryContents contents = entry.getContents()) {
+			exporter.write((IFile) exportResource, entry.destinationName, contents);
+		} catch (IOException | CoreException e) {
+			addError(NLS.bind(DataTransferMessages.DataTransfer_errorExporting, exportResource.getFullPath().makeRelative(), e.getMessage()), e);
+		}
+
+		monitor.worked(1);
+		ModalContext.checkCanceled(monitor);
+	}
+
+	/**
+	 * Read the contents of the given file on a reader thread.
+	 */
+	private ArchiveEntryContents read(IFile file) throws IOException, CoreException {
+		ArchiveEntryContents contents = exporter.read(file, readAheadBudget);
+		if (discarded && contents != null) {
+			// nobody will write or release them
+			contents.close();
+			return null;
+		}
+		return contents;
+	}
+
+	/**
+	 * Stop reading ahead and release the contents read for entries that were
+	 * not written. Readers that do not stop in time are left to release what
+	 * they read when they finish.
+	 */
+	private void discardPending() {
+		discarded = true;
+		if (readers != null) {
+			readers.shutdownNow();
+			try {
+				if (!readers.awaitTermination(READERS_TIMEOUT, TimeUnit.SECONDS)) {
+					String message = NLS.bind("Archive export did not wait longer than {0} seconds for files being read", //$NON-NLS-1$
+							READERS_TIMEOUT);
+					IDEWorkbenchPlugin.getDefault().getLog()
+							.log(new Status(IStatus.WARNING, IDEWorkbenchPlugin.IDE_WORKBENCH, message));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			readers = null;
+		}
+		for (PendingEntry entry : pending) {
+			if (entry.contents != null && entry.contents.isDone() && !entry.contents.isCancelled()) {
+				try {
+					ArchiveEntryContents contents = entry.contents.get();
+					if (contents != null) {
+						contents.close();
+					}
+				} catch (ExecutionException | InterruptedException e) {
+					// nothing to release
+				}
+			}
+		}
+		pending.clear();
+	}
+
 	/**
 	 *	Export the resources contained in the previously-defined
 	 *	resourcesToExport collection
@@ -325,12 +482,24 @@ public class ArchiveFileExportOperation implements IRunnableWithProgress {
 				// Should not happen
 			}
 			monitor.beginTask(DataTransferMessages.DataTransfer_exportingTitle, totalWork);
+			int threads = Runtime.getRuntime().availableProcessors();
+			readAhead = 4 * threads;
+			readAheadBudget = new Semaphore(READ_AHEAD_BYTES);
+			discarded = false;
+			readers = Executors.newFixedThreadPool(threads, runnable -> {
+				Thread thread = new Thread(runnable, "Archive Export Reader"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
 			if (resourcesToExport == null) {
 				exportResource(resource);
 			} else {
 				// ie.- a list of specific resources to export was specified
 				exportSpecifiedResources();
 			}
+			while (!pending.isEmpty()) {
+				writePending();
+			}
 
 			try {
 				exporter.finished();
@@ -340,6 +509,7 @@ public class ArchiveFileExportOperation implements IRunnableWithProgress {
 						NLS.bind(DataTransferMessages.ZipExport_cannotClose, e.getMessage()));
 			}
 		} finally {
+			discardPending();
 			monitor.done();
 		}
 	}
@@ -48,6 +48,9 @@ public class DataTransferMessages extends NLS {
 	public static String ImportOperation_targetSameAsSourceError;
 	public static String ImportPage_filterSelections;
 	public static String ImportOperation_cannotReadError;
+	public static String ImportOperation_incompleteCopyDeleted;
+	public static String ImportOperation_truncatedCopyDeleted;
+	public static String ImportOperation_recursiveLinkSkipped;
 
 	public static String FileImport_selectSource;
 	public static String FileImport_selectSourceTitle;
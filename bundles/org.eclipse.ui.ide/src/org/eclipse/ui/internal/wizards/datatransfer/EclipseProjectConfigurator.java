@@ -14,7 +14,6 @@
 package org.eclipse.ui.internal.wizards.datatransfer;
 
 import java.io.File;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -44,9 +43,7 @@ public class EclipseProjectConfigurator implements ProjectConfigurator {
 	@Override
 	public Set<File> findConfigurableLocations(File root, IProgressMonitor monitor) {
 		Set<File> projectFiles = new LinkedHashSet<>();
-		Set<String> visitedDirectories = new HashSet<>();
-		WizardProjectsImportPage.collectProjectFilesFromDirectory(projectFiles, root, visitedDirectories, true,
-				monitor);
+		WizardProjectsImportPage.collectProjectFilesFromDirectory(projectFiles, root, true, monitor);
 		Set<File> res = new LinkedHashSet<>();
 		for (File projectFile : projectFiles) {
 			res.add(projectFile.getParentFile());
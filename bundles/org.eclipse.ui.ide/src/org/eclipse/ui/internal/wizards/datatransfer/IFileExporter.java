@@ -14,6 +14,7 @@
 package org.eclipse.ui.internal.wizards.datatransfer;
 
 import java.io.IOException;
+import java.util.concurrent.Semaphore;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
@@ -56,4 +57,40 @@ public interface IFileExporter {
 	public void write(IFile resource, String destinationPath)
 		throws IOException, CoreException;
 
+	/**
+	 * Read the contents of the passed resource ahead, to be written later by
+	 * {@link #write(IFile, String, ArchiveEntryContents)}. Unlike the other
+	 * methods this may be called by several threads at once, while the archive
+	 * is written.
+	 *
+	 * @param resource
+	 * @param budget
+	 *            the number of bytes that may still be read ahead
+	 * @return the contents, or <code>null</code> if the resource is not read
+	 *         ahead
+	 * @throws IOException
+	 * @throws CoreException
+	 */
+	public default ArchiveEntryContents read(IFile resource, Semaphore budget) throws IOException, CoreException {
+		return null;
+	}
+
+	/**
+	 * Write the passed resource to the current archive, using the contents
+	 * returned by {@link #read(IFile, Semaphore)}. The caller closes the
+	 * contents.
+	 *
+	 * @param resource
+	 * @param destinationPath
+	 * @param contents
+	 *            the contents read before, or <code>null</code> to read them
+	 *            now
+	 * @throws IOException
+	 * @throws CoreException
+	 */
+	public default void write(IFile resource, String destinationPath, ArchiveEntryContents contents)
+			throws IOException, CoreException {
+		write(resource, destinationPath);
+	}
+
 }
@@ -0,0 +1,480 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.wizards.datatransfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.filesystem.IFileStore;
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.PlatformUI;
+
+/**
+ * Copies files and folders of the local file system into a workspace container
+ * without going through the workspace for every single file.
+ * <p>
+ * Only sources whose name is not taken in the destination, neither in the
+ * workspace nor on disk, are accepted, so nothing is ever overwritten and there
+ * is nothing to ask the user about. The accepted sources are first scanned in
+ * parallel, then the folders are created, then the contents of the files are
+ * copied concurrently through file channels, together with their attributes
+ * and time stamps. Finally the copied resources are refreshed. All of this
+ * happens in a single workspace operation holding the rules to create the
+ * copied resources, so that nobody changes them in the workspace meanwhile.
+ * Folders linking to a folder they are contained in are skipped.
+ * </p>
+ * <p>
+ * The progress monitor is only used by the thread calling
+ * {@link #copy(IProgressMonitor)}.
+ * </p>
+ */
+public final class LocalFileCopier {
+
+	private static final long PROGRESS_INTERVAL = 100;
+
+	private final IContainer destination;
+
+	private final File destinationDirectory;
+
+	private final List<Entry> roots = new ArrayList<>();
+
+	private final Set<String> names = new HashSet<>();
+
+	private final Queue<Entry> directories = new ConcurrentLinkedQueue<>();
+
+	private final Queue<Entry> files = new ConcurrentLinkedQueue<>();
+
+	private final Queue<IStatus> errors = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean canceled;
+
+	private static final class Entry {
+		final IFileStore source;
+
+		final IFileInfo info;
+
+		final File target;
+
+		Entry(IFileStore source, IFileInfo info, File target) {
+			this.source = source;
+			this.info = info;
+			this.target = target;
+		}
+	}
+
+	private LocalFileCopier(IContainer destination, File destinationDirectory) {
+		this.destination = destination;
+		this.destinationDirectory = destinationDirectory;
+	}
+
+	/**
+	 * Returns a copier into the given container.
+	 *
+	 * @param destination
+	 *            the container to copy to
+	 * @return the copier, or <code>null</code> if the container is not stored
+	 *         in the local file system
+	 */
+	public static LocalFileCopier create(IContainer destination) {
+		if (destination.getType() == IResource.ROOT || destination.isVirtual()) {
+			return null;
+		}
+		IPath location = destination.getLocation();
+		if (location == null) {
+			return null;
+		}
+		File directory = location.toFile();
+		return directory.isDirectory() ? new LocalFileCopier(destination, directory) : null;
+	}
+
+	/**
+	 * Adds the given file or folder to the ones to copy, if it is in the local
+	 * file system and its name is free in the destination.
+	 *
+	 * @param source
+	 *            the file or folder
+	 * @return <code>true</code> if the source will be copied,
+	 *         <code>false</code> if it has to be copied some other way
+	 */
+	public boolean add(IFileStore source) {
+		if (!EFS.SCHEME_FILE.equals(source.getFileSystem().getScheme())) {
+			return false;
+		}
+		String name = source.getName();
+		// names differing in case only may denote the same file
+		if (name.isEmpty() || names.contains(name.toLowerCase(Locale.ROOT))
+				|| destination.findMember(new Path(name)) != null) {
+			return false;
+		}
+		File target = new File(destinationDirectory, name);
+		if (Files.exists(target.toPath(), LinkOption.NOFOLLOW_LINKS)) {
+			// out of sync or hidden by a resource filter
+			return false;
+		}
+		IFileInfo info = source.fetchInfo();
+		if (!info.exists()) {
+			return false;
+		}
+		names.add(name.toLowerCase(Locale.ROOT));
+		roots.add(new Entry(source, info, target));
+		return true;
+	}
+
+	/**
+	 * Returns whether there is anything to copy.
+	 *
+	 * @return <code>true</code> if no source was added
+	 */
+	public boolean isEmpty() {
+		return roots.isEmpty();
+	}
+
+	/**
+	 * Copies the sources which were added. The copied resources are refreshed
+	 * even if the copy was canceled or failed. Files whose copy was canceled
+	 * before it was complete are deleted and reported in the status.
+	 *
+	 * @param monitor
+	 *            the monitor to report to and to check for cancellation, the
+	 *            copy returns early if it is canceled
+	 * @return the status of the copy, with a child for each file that could not
+	 *         be copied
+	 * @throws CoreException
+	 *             if the copied resources could not be refreshed
+	 */
+	public IStatus copy(IProgressMonitor monitor) throws CoreException {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		workspace.run(this::copyAndRefresh, getRule(workspace), IWorkspace.AVOID_UPDATE, monitor);
+		MultiStatus status = new MultiStatus(PlatformUI.PLUGIN_ID, IStatus.OK,
+				DataTransferMessages.ImportOperation_importProblems, null);
+		errors.forEach(status::add);
+		return status;
+	}
+
+	private void copyAndRefresh(IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, DataTransferMessages.DataTransfer_importTask, 100);
+		ForkJoinPool pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+		try {
+			scan(pool, subMonitor.split(10));
+			createDirectories(subMonitor.split(5));
+			copyFiles(pool, subMonitor.split(70));
+		} catch (OperationCanceledException e) {
+			// the files left incomplete are reported by their copies
+		} finally {
+			canceled = true;
+			shutdown(pool);
+			// refresh what was copied so far, even if the copy was canceled
+			refresh(subMonitor.isCanceled() ? null : subMonitor.setWorkRemaining(15).newChild(15));
+		}
+	}
+
+	private void scan(ForkJoinPool pool, SubMonitor monitor) {
+		List<ForkJoinTask<Void>> tasks = new ArrayList<>();
+		for (Entry root : roots) {
+			if (root.info.isDirectory()) {
+				directories.add(root);
+				tasks.add(pool.submit(new DirectoryTask(root, null)));
+			} else {
+				files.add(root);
+			}
+		}
+		for (ForkJoinTask<Void> task : tasks) {
+			await(task, monitor);
+		}
+	}
+
+	private void createDirectories(SubMonitor monitor) {
+		// parents have shorter paths than their children
+		List<Entry> sorted = new ArrayList<>(directories);
+		sorted.sort(Comparator.comparingInt(entry -> entry.target.getPath().length()));
+		monitor.setWorkRemaining(sorted.size());
+		Set<File> failed = new HashSet<>();
+		for (Entry directory : sorted) {
+			checkCanceled(monitor);
+			if (failed.contains(directory.target.getParentFile())) {
+				failed.add(directory.target);
+				continue;
+			}
+			try {
+				Files.createDirectory(directory.target.toPath());
+			} catch (IOException e) {
+				failed.add(directory.target);
+				errors.add(createError(directory.source, e));
+			}
+			monitor.worked(1);
+		}
+		if (!failed.isEmpty()) {
+			files.removeIf(file -> failed.contains(file.target.getParentFile()));
+		}
+	}
+
+	private void copyFiles(ForkJoinPool pool, SubMonitor monitor) {
+		monitor.setWorkRemaining(files.size());
+		List<Future<?>> copies = new ArrayList<>(files.size());
+		for (Entry file : files) {
+			copies.add(pool.submit(() -> copyFile(file)));
+		}
+		for (Future<?> copy : copies) {
+			checkCanceled(monitor);
+			await(copy, monitor);
+			monitor.worked(1);
+		}
+	}
+
+	/**
+	 * Stops the pool and waits for the copies still running, so that no file
+	 * is written after the refresh.
+	 */
+	private static void shutdown(ForkJoinPool pool) {
+		pool.shutdownNow();
+		try {
+			pool.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void copyFile(Entry file) {
+		if (canceled) {
+			return;
+		}
+		if (!file.info.exists()) {
+			// a broken link
+			errors.add(new Status(IStatus.ERROR, PlatformUI.PLUGIN_ID,
+					NLS.bind(DataTransferMessages.ImportOperation_openStreamError, file.source)));
+			return;
+		}
+		boolean created = false;
+		boolean complete = false;
+		try (FileChannel in = FileChannel.open(file.source.toLocalFile(EFS.NONE, null).toPath(),
+				StandardOpenOption.READ)) {
+			try (FileChannel out = FileChannel.open(file.target.toPath(), StandardOpenOption.CREATE_NEW,
+					StandardOpenOption.WRITE)) {
+				created = true;
+				long size = in.size();
+				long position = 0;
+				while (position < size && !canceled) {
+					long transferred = in.transferTo(position, size - position, out);
+					if (transferred <= 0) {
+						// the file was truncated while it was copied
+						break;
+					}
+					position += transferred;
+				}
+				complete = position == size;
+				if (!complete && !canceled) {
+					errors.add(new Status(IStatus.ERROR, PlatformUI.PLUGIN_ID,
+							NLS.bind(DataTransferMessages.ImportOperation_truncatedCopyDeleted, file.source)));
+				}
+			}
+		} catch (IOException | CoreException e) {
+			// a copy interrupted by the cancellation is reported below
+			if (!canceled) {
+				errors.add(createError(file.source, e));
+			}
+		}
+		if (!complete) {
+			if (created) {
+				// do not leave a truncated file to be refreshed into the workspace
+				try {
+					Files.deleteIfExists(file.target.toPath());
+				} catch (IOException e) {
+					errors.add(createError(file.source, e));
+				}
+				if (canceled) {
+					errors.add(new Status(IStatus.ERROR, PlatformUI.PLUGIN_ID,
+							NLS.bind(DataTransferMessages.ImportOperation_incompleteCopyDeleted, file.source)));
+				}
+			}
+			return;
+		}
+		try {
+			EFS.getLocalFileSystem().fromLocalFile(file.target).putInfo(file.info,
+					EFS.SET_ATTRIBUTES | EFS.SET_LAST_MODIFIED, null);
+		} catch (CoreException e) {
+			errors.add(e.getStatus());
+		}
+	}
+
+	/**
+	 * Returns the rule to create and refresh the copied resources.
+	 */
+	private ISchedulingRule getRule(IWorkspace workspace) {
+		IResourceRuleFactory ruleFactory = workspace.getRuleFactory();
+		ISchedulingRule rule = null;
+		for (IResource resource : getRootResources()) {
+			rule = MultiRule.combine(rule, ruleFactory.createRule(resource));
+			rule = MultiRule.combine(rule, ruleFactory.refreshRule(resource));
+		}
+		return rule;
+	}
+
+	private List<IResource> getRootResources() {
+		List<IResource> resources = new ArrayList<>(roots.size());
+		for (Entry root : roots) {
+			IPath path = new Path(root.source.getName());
+			resources.add(root.info.isDirectory() ? destination.getFolder(path) : destination.getFile(path));
+		}
+		return resources;
+	}
+
+	private void refresh(IProgressMonitor monitor) throws CoreException {
+		List<IResource> resources = getRootResources();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, resources.size());
+		for (IResource resource : resources) {
+			resource.refreshLocal(IResource.DEPTH_INFINITE, subMonitor.split(1));
+		}
+	}
+
+	private void await(Future<?> task, IProgressMonitor monitor) {
+		while (true) {
+			try {
+				task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+				return;
+			} catch (TimeoutException e) {
+				checkCanceled(monitor);
+			} catch (InterruptedException e) {
+				canceled = true;
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				errors.add(new Status(IStatus.ERROR, PlatformUI.PLUGIN_ID, e.getCause().getMessage(), e.getCause()));
+				return;
+			}
+		}
+	}
+
+	private void checkCanceled(IProgressMonitor monitor) {
+		if (monitor.isCanceled()) {
+			canceled = true;
+			throw new OperationCanceledException();
+		}
+	}
+
+	private static IStatus createError(IFileStore source, Exception e) {
+		String message = e instanceof AccessDeniedException
+				? NLS.bind(DataTransferMessages.ImportOperation_cannotReadError, source)
+				: NLS.bind(DataTransferMessages.ImportOperation_coreImportError, source, e.getMessage());
+		return new Status(IStatus.ERROR, PlatformUI.PLUGIN_ID, message, e);
+	}
+
+	private final class DirectoryTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Entry directory;
+
+		private final DirectoryTask parent;
+
+		/**
+		 * The directory with all links resolved, to recognize links to the
+		 * directories being scanned.
+		 */
+		private File canonicalDirectory;
+
+		DirectoryTask(Entry directory, DirectoryTask parent) {
+			this.directory = directory;
+			this.parent = parent;
+		}
+
+		@Override
+		protected void compute() {
+			if (canceled) {
+				return;
+			}
+			try {
+				File source = directory.source.toLocalFile(EFS.NONE, null);
+				canonicalDirectory = source != null ? source.getCanonicalFile() : null;
+			} catch (CoreException | IOException e) {
+				canonicalDirectory = null;
+			}
+			if (isRecursiveLink()) {
+				directories.remove(directory);
+				errors.add(new Status(IStatus.WARNING, PlatformUI.PLUGIN_ID,
+						NLS.bind(DataTransferMessages.ImportOperation_recursiveLinkSkipped, directory.source)));
+				return;
+			}
+			IFileInfo[] children;
+			try {
+				children = directory.source.childInfos(EFS.NONE, null);
+			} catch (CoreException e) {
+				errors.add(e.getStatus());
+				return;
+			}
+			Collection<DirectoryTask> subtasks = new ArrayList<>();
+			for (IFileInfo child : children) {
+				Entry entry = new Entry(directory.source.getChild(child.getName()), child,
+						new File(directory.target, child.getName()));
+				if (child.isDirectory()) {
+					directories.add(entry);
+					subtasks.add(new DirectoryTask(entry, this));
+				} else {
+					files.add(entry);
+				}
+			}
+			invokeAll(subtasks);
+		}
+
+		private boolean isRecursiveLink() {
+			if (canonicalDirectory == null || !directory.info.getAttribute(EFS.ATTRIBUTE_SYMLINK)) {
+				return false;
+			}
+			for (DirectoryTask ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+				if (canonicalDirectory.equals(ancestor.canonicalDirectory)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -15,9 +15,9 @@ package org.eclipse.ui.internal.wizards.datatransfer;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.expressions.ElementHandler;
 import org.eclipse.core.expressions.EvaluationContext;
@@ -48,11 +48,13 @@ public class ProjectConfiguratorExtensionManager {
 
 	private IConfigurationElement[] extensions;
 	private ExpressionConverter expressionConverter;
-	private Map<IConfigurationElement, ProjectConfigurator> configuratorsByExtension = new HashMap<>();
+	private Map<IConfigurationElement, ProjectConfigurator> configuratorsByExtension = new ConcurrentHashMap<>();
+	private Map<IConfigurationElement, Expression> expressionsByActiveWhen = new ConcurrentHashMap<>();
 
 	/**
 	 * Each instance of this class will have it's own internal registry, that will load (maximum) once each extension class,
 	 * depending on whether the extension has been active for one case handled by this Manager.
+	 * The manager can be used by several threads at once.
 	 */
 	public ProjectConfiguratorExtensionManager() {
 		this.extensions = Platform.getExtensionRegistry().getConfigurationElementsFor(EXTENSION_POINT_ID);
@@ -100,7 +102,7 @@ public class ProjectConfiguratorExtensionManager {
 					IConfigurationElement[] activeWhenChildren = activeWhen.getChildren();
 					if (activeWhenChildren.length == 1) {
 						try {
-							Expression expression = this.expressionConverter.perform(activeWhen.getChildren()[0]);
+							Expression expression = getExpression(activeWhen);
 							IEvaluationContext context = new EvaluationContext(null, container);
 							addIt = expression.evaluate(context).equals(EvaluationResult.TRUE);
 						} catch (CoreException ex) {
@@ -152,18 +154,33 @@ public class ProjectConfiguratorExtensionManager {
 		return this.getAllActiveProjectConfiguratorsUntyped(folder);
 	}
 
+	private Expression getExpression(IConfigurationElement activeWhen) throws CoreException {
+		Expression expression = this.expressionsByActiveWhen.get(activeWhen);
+		if (expression == null) {
+			expression = this.expressionConverter.perform(activeWhen.getChildren()[0]);
+			this.expressionsByActiveWhen.put(activeWhen, expression);
+		}
+		return expression;
+	}
+
 	private ProjectConfigurator getConfigurator(IConfigurationElement extension) {
-		if (!this.configuratorsByExtension.containsKey(extension)) {
-			try {
-				ProjectConfigurator configurator = (ProjectConfigurator) extension.createExecutableExtension("class"); //$NON-NLS-1$
-				this.configuratorsByExtension.put(extension, configurator);
-				return configurator;
-			} catch (CoreException ex) {
-				IDEWorkbenchPlugin.log(ex.getMessage(), ex);
-				return null;
+		ProjectConfigurator configurator = this.configuratorsByExtension.get(extension);
+		if (configurator != null) {
+			return configurator;
+		}
+		synchronized (this.configuratorsByExtension) {
+			configurator = this.configuratorsByExtension.get(extension);
+			if (configurator == null) {
+				try {
+					configurator = (ProjectConfigurator) extension.createExecutableExtension("class"); //$NON-NLS-1$
+					this.configuratorsByExtension.put(extension, configurator);
+				} catch (CoreException ex) {
+					IDEWorkbenchPlugin.log(ex.getMessage(), ex);
+					return null;
+				}
 			}
+			return configurator;
 		}
-		return this.configuratorsByExtension.get(extension);
 	}
 
 	/**
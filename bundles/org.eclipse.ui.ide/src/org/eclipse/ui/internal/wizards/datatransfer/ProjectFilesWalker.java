@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.wizards.datatransfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
+
+/**
+ * Searches a directory tree for project description files. Subtrees are
+ * searched in parallel, directories are recognized by the key of their file
+ * attributes so that symbolic links never lead into a directory twice, and
+ * directories that cannot contain projects to import are not searched at all.
+ * <p>
+ * The progress monitor is only used by the thread calling
+ * {@link #walk(File, Collection, IProgressMonitor)}, the listener is notified
+ * in the threads doing the search as soon as a description file was found.
+ * </p>
+ */
+final class ProjectFilesWalker {
+
+	/**
+	 * Directories which are never searched, as they hold metadata or
+	 * downloaded dependencies.
+	 */
+	private static final Set<String> IGNORED_DIRECTORIES = Set.of(WizardProjectsImportPage.METADATA_FOLDER,
+			".git", ".hg", ".svn", "node_modules"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	/**
+	 * Directories which are not searched if they are in a project, as they are
+	 * the usual output folders and only contain copies of the sources.
+	 */
+	private static final Set<String> OUTPUT_DIRECTORIES = Set.of("bin", "target"); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final long PROGRESS_INTERVAL = 100;
+
+	private final boolean nestedProjects;
+
+	private final Consumer<File> listener;
+
+	private final Set<Object> visited = ConcurrentHashMap.newKeySet();
+
+	private final Queue<File> found = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean canceled;
+
+	private volatile Path current;
+
+	/**
+	 * @param nestedProjects
+	 *            whether to look for projects inside of projects
+	 * @param listener
+	 *            notified of every project description file found, from the
+	 *            searching threads, or <code>null</code>
+	 */
+	ProjectFilesWalker(boolean nestedProjects, Consumer<File> listener) {
+		this.nestedProjects = nestedProjects;
+		this.listener = listener;
+	}
+
+	/**
+	 * Searches the given directory and adds the project description files
+	 * found to files, ordered by their path.
+	 *
+	 * @param directory
+	 *            the directory to search
+	 * @param files
+	 *            the collection to add the files to
+	 * @param monitor
+	 *            the monitor to report to and to check for cancellation
+	 * @return <code>true</code> if the search was completed,
+	 *         <code>false</code> if it was canceled or the directory could not
+	 *         be read
+	 */
+	boolean walk(File directory, Collection<File> files, IProgressMonitor monitor) {
+		Path root = directory.toPath();
+		BasicFileAttributes attributes = readAttributes(root);
+		if (attributes == null || !attributes.isDirectory() || !Files.isReadable(root)) {
+			return false;
+		}
+		visited.add(getKey(root, attributes));
+
+		ForkJoinPool pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+		try {
+			ForkJoinTask<Void> task = pool.submit(new DirectoryTask(root));
+			while (true) {
+				try {
+					task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+					break;
+				} catch (TimeoutException e) {
+					if (monitor.isCanceled()) {
+						canceled = true;
+					}
+					Path path = current;
+					if (path != null) {
+						monitor.subTask(NLS.bind(DataTransferMessages.WizardProjectsImportPage_CheckingMessage,
+								path.toString()));
+					}
+				} catch (InterruptedException e) {
+					canceled = true;
+					Thread.currentThread().interrupt();
+					return false;
+				} catch (ExecutionException e) {
+					IDEWorkbenchPlugin.log(e.getMessage(), e.getCause());
+					return false;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		if (canceled || monitor.isCanceled()) {
+			return false;
+		}
+
+		List<File> result = new ArrayList<>(found);
+		result.sort(null);
+		files.addAll(result);
+		return true;
+	}
+
+	private static BasicFileAttributes readAttributes(Path path) {
+		try {
+			return Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (IOException e) {
+			// broken link or no access, treat like a missing file
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the key identifying the given directory. File systems without
+	 * file keys fall back to the real path.
+	 */
+	private static Object getKey(Path directory, BasicFileAttributes attributes) {
+		Object key = attributes.fileKey();
+		if (key != null) {
+			return key;
+		}
+		try {
+			return directory.toRealPath();
+		} catch (IOException e) {
+			return directory.toAbsolutePath().normalize();
+		}
+	}
+
+	private final class DirectoryTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path directory;
+
+		DirectoryTask(Path directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		protected void compute() {
+			if (canceled) {
+				return;
+			}
+			current = directory;
+			List<Path> directories = new ArrayList<>();
+			List<BasicFileAttributes> directoryAttributes = new ArrayList<>();
+			boolean isProject = false;
+			try (DirectoryStream<Path> contents = Files.newDirectoryStream(directory)) {
+				for (Path child : contents) {
+					BasicFileAttributes attributes = readAttributes(child);
+					if (attributes == null) {
+						continue;
+					}
+					String name = child.getFileName().toString();
+					if (attributes.isDirectory()) {
+						if (!IGNORED_DIRECTORIES.contains(name)) {
+							directories.add(child);
+							directoryAttributes.add(attributes);
+						}
+					} else if (name.equals(IProjectDescription.DESCRIPTION_FILE_NAME)
+							&& attributes.isRegularFile()) {
+						isProject = true;
+					}
+				}
+			} catch (IOException | SecurityException e) {
+				// not readable, like File.listFiles() returning null
+				return;
+			}
+
+			if (isProject) {
+				File file = directory.resolve(IProjectDescription.DESCRIPTION_FILE_NAME).toFile();
+				found.add(file);
+				if (listener != null) {
+					listener.accept(file);
+				}
+				if (!nestedProjects) {
+					// don't search sub-directories since we can't have nested
+					// projects
+					return;
+				}
+			}
+
+			List<DirectoryTask> tasks = new ArrayList<>(directories.size());
+			for (int i = 0; i < directories.size(); i++) {
+				Path child = directories.get(i);
+				if (isProject && OUTPUT_DIRECTORIES.contains(child.getFileName().toString())) {
+					continue;
+				}
+				if (visited.add(getKey(child, directoryAttributes.get(i)))) {
+					tasks.add(new DirectoryTask(child));
+				}
+			}
+			invokeAll(tasks);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.wizards.datatransfer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Finds the projects of the workspace by location without asking every project
+ * for its location.
+ * <p>
+ * Locations are compared as {@link File}s, so case is ignored where the file
+ * system ignores it. The index follows the projects added, moved or removed
+ * while it is started, and looks for projects it has not been notified of yet
+ * when a location is not found.
+ * </p>
+ */
+final class ProjectLocationIndex {
+
+	private final IWorkspaceRoot root;
+
+	private final ConcurrentSkipListMap<File, IProject> projectsByLocation = new ConcurrentSkipListMap<>();
+
+	private final Map<IProject, File> locationsByProject = new ConcurrentHashMap<>();
+
+	private final IResourceChangeListener listener = this::resourceChanged;
+
+	/**
+	 * @param root the workspace root whose projects are indexed
+	 */
+	ProjectLocationIndex(IWorkspaceRoot root) {
+		this.root = root;
+	}
+
+	/**
+	 * Indexes the projects of the workspace, and follows their changes until
+	 * {@link #stop()}.
+	 */
+	void start() {
+		root.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		synchronize();
+	}
+
+	/**
+	 * Stops following the changes of the projects and forgets them.
+	 */
+	void stop() {
+		root.getWorkspace().removeResourceChangeListener(listener);
+		synchronized (this) {
+			projectsByLocation.clear();
+			locationsByProject.clear();
+		}
+	}
+
+	/**
+	 * Returns the project at the given location, looking at the workspace
+	 * projects again if none is indexed there.
+	 *
+	 * @param directory the location
+	 * @return the project, or <code>null</code> if there is none
+	 */
+	IProject getProject(File directory) {
+		File location = directory.getAbsoluteFile();
+		IProject project = getIndexedProject(location);
+		if (project == null) {
+			synchronize();
+			project = getIndexedProject(location);
+		}
+		return project;
+	}
+
+	/**
+	 * Returns the project indexed at the given location. Only projects the index
+	 * has been notified of, or has been given with {@link #add(IProject)}, are
+	 * found.
+	 *
+	 * @param directory the location
+	 * @return the project, or <code>null</code> if there is none
+	 */
+	IProject getIndexedProject(File directory) {
+		File location = directory.getAbsoluteFile();
+		IProject project = projectsByLocation.get(location);
+		if (project == null) {
+			return null;
+		}
+		if (!project.exists() || !location.equals(toFile(project))) {
+			// changed before we were told
+			add(project);
+			project = projectsByLocation.get(location);
+		}
+		return project;
+	}
+
+	/**
+	 * Returns the projects located below the given location, not including a
+	 * project at the location itself.
+	 *
+	 * @param location the location
+	 * @return the nested projects
+	 */
+	List<IProject> getNestedProjects(IPath location) {
+		synchronize();
+		File from = location.toFile().getAbsoluteFile();
+		File to = new File(from.getPath() + (char) (File.separatorChar + 1));
+		List<IProject> res = new ArrayList<>();
+		// the range also holds siblings sharing the name as prefix
+		for (IProject project : projectsByLocation.subMap(from, false, to, false).values()) {
+			IPath projectLocation = project.getLocation();
+			if (projectLocation != null && !location.equals(projectLocation)
+					&& location.isPrefixOf(projectLocation)) {
+				res.add(project);
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Indexes the given project at its current location.
+	 *
+	 * @param project the project
+	 */
+	synchronized void add(IProject project) {
+		File location = project.exists() ? toFile(project) : null;
+		File previous = location != null ? locationsByProject.put(project, location)
+				: locationsByProject.remove(project);
+		if (previous != null && !previous.equals(location)) {
+			projectsByLocation.remove(previous, project);
+		}
+		if (location != null) {
+			projectsByLocation.put(location, project);
+		}
+	}
+
+	/**
+	 * Forgets the given project.
+	 *
+	 * @param project the project
+	 */
+	synchronized void remove(IProject project) {
+		File previous = locationsByProject.remove(project);
+		if (previous != null) {
+			projectsByLocation.remove(previous, project);
+		}
+	}
+
+	/**
+	 * Indexes the projects of the workspace which are not indexed yet, and
+	 * forgets the deleted ones.
+	 */
+	private synchronized void synchronize() {
+		IProject[] projects = root.getProjects();
+		for (IProject project : projects) {
+			if (!locationsByProject.containsKey(project)) {
+				add(project);
+			}
+		}
+		if (locationsByProject.size() > projects.length) {
+			for (IProject project : new ArrayList<>(locationsByProject.keySet())) {
+				if (!project.exists()) {
+					remove(project);
+				}
+			}
+		}
+	}
+
+	private void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+			if (!(projectDelta.getResource() instanceof IProject)) {
+				continue;
+			}
+			IProject project = (IProject) projectDelta.getResource();
+			switch (projectDelta.getKind()) {
+			case IResourceDelta.REMOVED:
+				remove(project);
+				break;
+			case IResourceDelta.ADDED:
+				add(project);
+				break;
+			default:
+				if ((projectDelta.getFlags() & (IResourceDelta.DESCRIPTION | IResourceDelta.OPEN)) != 0) {
+					add(project);
+				}
+				break;
+			}
+		}
+	}
+
+	private static File toFile(IProject project) {
+		File file = SmartImportWizard.toFile(project);
+		return file != null ? file.getAbsoluteFile() : null;
+	}
+}
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,6 +28,14 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFolder;
@@ -41,6 +50,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
@@ -52,6 +63,7 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IWorkingSet;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
+import org.eclipse.ui.internal.ide.Policy;
 import org.eclipse.ui.wizards.datatransfer.ProjectConfigurator;
 
 /**
@@ -60,6 +72,12 @@ import org.eclipse.ui.wizards.datatransfer.ProjectConfigurator;
  * according to the metadata it could find. The behavior is extensible, and
  * contributors can add a {@link ProjectConfigurator} strategy via extension
  * point to add support for more project kinds.
+ * <p>
+ * Nested projects are searched by a pool of threads that steal the folders to
+ * crawl from each other, see {@link #setCrawlerParallelism(int)}. The time
+ * spent in each {@link ProjectConfigurator} is recorded, see
+ * {@link #getConfiguratorTimes()}.
+ * </p>
  *
  * @since 3.12
  *
@@ -91,7 +109,23 @@ public class SmartImportJob extends Job {
 	private Map<IProject, List<ProjectConfigurator>> report;
 	private Map<IPath, Exception> errors;
 
-	private JobGroup crawlerJobGroup;
+	/**
+	 * How often the job checks for cancellation and shows the folder being
+	 * crawled, in milliseconds.
+	 */
+	private static final long PROGRESS_INTERVAL = 100;
+
+	private int crawlerParallelism = Runtime.getRuntime().availableProcessors();
+	private ForkJoinPool crawlerPool;
+	private volatile IContainer currentlyCrawled;
+
+	/**
+	 * The projects of the workspace by location, so that projects need not be
+	 * searched one by one. Started while the job runs.
+	 */
+	private final ProjectLocationIndex projectIndex;
+
+	private final Map<ProjectConfigurator, LongAdder> configuratorTimes = new ConcurrentHashMap<>();
 
 	/**
 	 * Builds a new instance of the job
@@ -109,13 +143,13 @@ public class SmartImportJob extends Job {
 	public SmartImportJob(File rootDirectory, Set<IWorkingSet> workingSets, boolean configureProjects, boolean recuriveChildrenDetection) {
 		super(rootDirectory.getAbsolutePath());
 		this.workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+		this.projectIndex = new ProjectLocationIndex(this.workspaceRoot);
 		this.rootDirectory = rootDirectory;
 		setWorkingSets(workingSets);
 		this.configureProjects = configureProjects;
 		this.deepChildrenDetection = recuriveChildrenDetection;
 		this.report = Collections.synchronizedMap(new HashMap<IProject, List<ProjectConfigurator>>());
 		this.errors = Collections.synchronizedMap(new HashMap<IPath, Exception>());
-		this.crawlerJobGroup = new JobGroup(DataTransferMessages.SmartImportJob_detectAndConfigureProjects, 0, 1);
 	}
 
 	/**
@@ -171,12 +205,27 @@ public class SmartImportJob extends Job {
 		this.listener = listener;
 	}
 
+	/**
+	 * Sets how many threads search for nested projects at most. Defaults to the
+	 * number of available processors.
+	 *
+	 * @param parallelism the number of threads, at least 1
+	 */
+	public void setCrawlerParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism); //$NON-NLS-1$
+		}
+		this.crawlerParallelism = parallelism;
+	}
+
 	@Override
 	public IStatus run(IProgressMonitor monitor) {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		boolean isAutoBuilding = false;
 		try {
-			IWorkspace workspace = ResourcesPlugin.getWorkspace();
+			projectIndex.start();
 			IWorkspaceDescription description = workspace.getDescription();
-			boolean isAutoBuilding = workspace.isAutoBuilding();
+			isAutoBuilding = workspace.isAutoBuilding();
 			if (isAutoBuilding) {
 				description.setAutoBuilding(false);
 				workspace.setDescription(description);
@@ -199,24 +248,29 @@ public class SmartImportJob extends Job {
 				SortedMap<File, IProject> leafToRootProjects = new TreeMap<>(Collections.reverseOrder(rootToLeafComparator));
 				final Set<IProject> alreadyConfiguredProjects = new HashSet<>();
 				loopMonitor.worked(1);
-				for (final File directoryToImport : directories) {
-					final boolean alreadyAnEclipseProject = new File(directoryToImport, IProjectDescription.DESCRIPTION_FILE_NAME).isFile();
-					try {
-						IProject newProject = toExistingOrNewProject(directoryToImport, loopMonitor.split(1),
-								IResource.BACKGROUND_REFRESH);
-						if (alreadyAnEclipseProject) {
-							alreadyConfiguredProjects.add(newProject);
-						}
-						leafToRootProjects.put(directoryToImport, newProject);
-						loopMonitor.worked(1);
-					} catch (CouldNotImportProjectException ex) {
-						Path path = new Path(directoryToImport.getAbsolutePath());
-						if (listener != null) {
-							listener.errorHappened(path, ex);
+				// create all projects in one workspace operation, so that they are
+				// announced to resource listeners once
+				workspace.run(createMonitor -> {
+					for (final File directoryToImport : directories) {
+						final boolean alreadyAnEclipseProject = new File(directoryToImport,
+								IProjectDescription.DESCRIPTION_FILE_NAME).isFile();
+						try {
+							IProject newProject = toExistingOrNewProject(directoryToImport, loopMonitor.split(1),
+									IResource.BACKGROUND_REFRESH);
+							if (alreadyAnEclipseProject) {
+								alreadyConfiguredProjects.add(newProject);
+							}
+							leafToRootProjects.put(directoryToImport, newProject);
+							loopMonitor.worked(1);
+						} catch (CouldNotImportProjectException ex) {
+							Path path = new Path(directoryToImport.getAbsolutePath());
+							if (listener != null) {
+								listener.errorHappened(path, ex);
+							}
+							this.errors.put(path, ex);
 						}
-						this.errors.put(path, ex);
 					}
-				}
+				}, workspaceRoot, IWorkspace.AVOID_UPDATE, null);
 				if (configureProjects) {
 					JobGroup multiDirectoriesJobGroup = new JobGroup(
 							DataTransferMessages.SmartImportJob_configuringSelectedDirectories, 20, 1);
@@ -262,6 +316,7 @@ public class SmartImportJob extends Job {
 										DataTransferMessages.SmartImportJob_discardRootProject_description));
 						if (this.discardRootProject) {
 							this.rootProject.delete(false, true, subMonitor);
+							projectIndex.remove(this.rootProject);
 							if (isRootANewProject) {
 								rootProjectFile.delete();
 							}
@@ -281,15 +336,44 @@ public class SmartImportJob extends Job {
 			}
 
 			if (isAutoBuilding) {
+				isAutoBuilding = false;
 				description.setAutoBuilding(true);
 				workspace.setDescription(description);
 			}
+		} catch (OperationCanceledException ex) {
+			return Status.CANCEL_STATUS;
 		} catch (Exception ex) {
 			return new Status(IStatus.ERROR, IDEWorkbenchPlugin.IDE_WORKBENCH, ex.getMessage(), ex);
+		} finally {
+			synchronized (this) {
+				if (crawlerPool != null) {
+					crawlerPool.shutdownNow();
+					crawlerPool = null;
+				}
+			}
+			projectIndex.stop();
+			if (isAutoBuilding) {
+				// not restored as the import failed
+				try {
+					IWorkspaceDescription description = workspace.getDescription();
+					description.setAutoBuilding(true);
+					workspace.setDescription(description);
+				} catch (CoreException e) {
+					IDEWorkbenchPlugin.log(e.getMessage(), e);
+				}
+			}
+			if (Policy.DEBUG_SMART_IMPORT) {
+				printConfiguratorTimes();
+			}
 		}
 		return Status.OK_STATUS;
 	}
 
+	private void printConfiguratorTimes() {
+		getConfiguratorTimes().forEach((label, millis) -> Policy.trace(Policy.SMART_IMPORT_OPTION,
+				rootDirectory + ": " + label + " took " + millis + "ms")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
 	protected boolean rootProjectWorthBeingRemoved() {
 		if (this.report.size() == 1) {
 			return false;
@@ -307,50 +391,83 @@ public class SmartImportJob extends Job {
 	}
 
 
-	private final class CrawlFolderJob extends Job {
+	/**
+	 * Searches a folder for nested projects. The tasks of the sub folders are
+	 * forked, so that idle threads of the pool steal them.
+	 */
+	private final class CrawlFolderTask extends RecursiveTask<Set<IProject>> {
+		private static final long serialVersionUID = 1L;
+
 		private final IFolder childFolder;
-		private final Set<IProject> res;
+		private final IProgressMonitor cancelMonitor;
 
-		private CrawlFolderJob(String name, IFolder childFolder, Set<IProject> res) {
-			super(name);
+		private CrawlFolderTask(IFolder childFolder, IProgressMonitor cancelMonitor) {
 			this.childFolder = childFolder;
-			this.res = res;
+			this.cancelMonitor = cancelMonitor;
 		}
 
 		@Override
-		public IStatus run(IProgressMonitor progressMonitor) {
-			SubMonitor subMonitor = null;
-			if (progressMonitor instanceof SubMonitor) {
-				subMonitor = (SubMonitor) progressMonitor;
-			} else {
-				subMonitor = SubMonitor.convert(progressMonitor);
-			}
+		protected Set<IProject> compute() {
+			currentlyCrawled = childFolder;
 			try {
-				Set<IProject> projectFromCurrentContainer = importProjectAndChildrenRecursively(childFolder, false,
-						subMonitor);
-				res.addAll(projectFromCurrentContainer);
-				return Status.OK_STATUS;
+				return importProjectAndChildrenRecursively(childFolder, false, cancelMonitor);
+			} catch (OperationCanceledException ex) {
+				return Collections.emptySet();
 			} catch (Exception ex) {
-				return new Status(IStatus.ERROR, IDEWorkbenchPlugin.IDE_WORKBENCH, ex.getMessage(), ex);
+				IPath location = childFolder.getLocation();
+				errors.put(location, ex);
+				if (listener != null) {
+					listener.errorHappened(location, ex);
+				}
+				return Collections.emptySet();
 			}
 		}
 	}
 
+	/**
+	 * Only forwards cancellation, as progress of the crawling threads cannot be
+	 * reported to the job.
+	 */
+	private static final class CancelMonitor extends NullProgressMonitor {
+		private final IProgressMonitor monitor;
+
+		private CancelMonitor(IProgressMonitor monitor) {
+			this.monitor = monitor;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return monitor.isCanceled();
+		}
+	}
+
+	private synchronized ForkJoinPool getCrawlerPool() {
+		if (crawlerPool == null) {
+			crawlerPool = new ForkJoinPool(crawlerParallelism);
+		}
+		return crawlerPool;
+	}
+
 	private Set<IProject> searchAndImportChildrenProjectsRecursively(final IContainer parentContainer,
 			Set<IPath> directoriesToExclude, final IProgressMonitor progressMonitor) throws Exception {
-		SubMonitor subMonitor = SubMonitor.convert(progressMonitor, parentContainer.members().length);
+		SubMonitor subMonitor = SubMonitor.convert(progressMonitor, 1);
 		IPath parentLocation = parentContainer.getLocation();
 		if (parentLocation == null) {
 			return Collections.emptySet();
 		}
-		for (IProject processedProjects : Collections.synchronizedSet(this.report.keySet())) {
-			if (parentLocation.equals(processedProjects.getLocation())) {
-				return Collections.emptySet();
-			}
+		// the processed projects are all indexed, as the job imported them. Only
+		// skip folders imported as a project of their own, not the project whose
+		// children are searched
+		IProject processedProject = projectIndex.getIndexedProject(parentLocation.toFile());
+		if (processedProject != null && !processedProject.equals(parentContainer)
+				&& parentLocation.equals(processedProject.getLocation())
+				&& this.report.containsKey(processedProject)) {
+			return Collections.emptySet();
 		}
 		parentContainer.refreshLocal(IResource.DEPTH_ONE, progressMonitor); // make sure we know all children
-		Set<IFolder> childrenToProcess = new HashSet<>();
-		final Set<IProject> res = Collections.synchronizedSet(new HashSet<IProject>());
+		List<CrawlFolderTask> tasks = new ArrayList<>();
+		IProgressMonitor cancelMonitor = progressMonitor instanceof CancelMonitor ? progressMonitor
+				: new CancelMonitor(progressMonitor);
 		for (IResource childResource : parentContainer.members()) {
 			if (childResource.getType() == IResource.FOLDER && !childResource.isDerived()) {
 				IPath location = childResource.getLocation();
@@ -366,28 +483,47 @@ public class SmartImportJob extends Job {
 					}
 				}
 				if (!excluded) {
-					childrenToProcess.add((IFolder)childResource);
+					tasks.add(new CrawlFolderTask((IFolder) childResource, cancelMonitor));
 				}
 			}
 		}
+		if (tasks.isEmpty()) {
+			return Collections.emptySet();
+		}
 
-		Set<CrawlFolderJob> jobs = new HashSet<>();
-		for (final IFolder childFolder : childrenToProcess) {
-			CrawlFolderJob crawlerJob = new CrawlFolderJob(
-					NLS.bind(DataTransferMessages.SmartImportJob_crawling,
-							SmartImportWizard.toAbsolutePath(childFolder)),
-					childFolder, res);
-			if (crawlerJobGroup.getMaxThreads() == 0 || crawlerJobGroup.getActiveJobs().size() < crawlerJobGroup.getMaxThreads()) {
-				crawlerJob.setJobGroup(crawlerJobGroup);
-				jobs.add(crawlerJob);
-				crawlerJob.schedule();
-			} else {
-				crawlerJob.run(subMonitor);
-				subMonitor.worked(1);
+		ForkJoinPool pool = getCrawlerPool();
+		if (ForkJoinTask.getPool() == pool) {
+			// already crawling, let idle threads steal the sub folders
+			ForkJoinTask.invokeAll(tasks);
+		} else {
+			ForkJoinTask<?> crawl = pool.submit(() -> ForkJoinTask.invokeAll(tasks));
+			while (true) {
+				try {
+					crawl.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+					break;
+				} catch (TimeoutException e) {
+					IContainer crawled = currentlyCrawled;
+					if (crawled != null) {
+						subMonitor.subTask(NLS.bind(DataTransferMessages.SmartImportJob_crawling,
+								SmartImportWizard.toAbsolutePath(crawled)));
+					}
+					if (progressMonitor.isCanceled()) {
+						crawl.cancel(true);
+						throw new OperationCanceledException();
+					}
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					throw cause instanceof Exception ? (Exception) cause : e;
+				}
 			}
+			subMonitor.worked(1);
+		}
+		if (progressMonitor.isCanceled()) {
+			throw new OperationCanceledException();
 		}
-		for (CrawlFolderJob job : jobs) {
-			job.join(0, subMonitor.split(1));
+		Set<IProject> res = new HashSet<>();
+		for (CrawlFolderTask task : tasks) {
+			res.addAll(task.join());
 		}
 		subMonitor.done();
 		return res;
@@ -416,15 +552,15 @@ public class SmartImportJob extends Job {
 		container.refreshLocal(IResource.DEPTH_INFINITE, progressMonitor);
 		if (!forceFullProjectCheck) {
 			EclipseProjectConfigurator eclipseProjectConfigurator = new EclipseProjectConfigurator();
+			long start = System.nanoTime();
 			if (eclipseProjectConfigurator.shouldBeAnEclipseProject(container, subMonitor.split(1))) {
 				isAlreadyAnEclipseProject = true;
 			}
+			recordTime(eclipseProjectConfigurator, start);
 		}
 
-		if (this.configurationManager == null) {
-			this.configurationManager = new ProjectConfiguratorExtensionManager();
-		}
-		Collection<ProjectConfigurator> activeConfigurators = this.configurationManager.getAllActiveProjectConfigurators(container);
+		Collection<ProjectConfigurator> activeConfigurators = getConfigurationManager()
+				.getAllActiveProjectConfigurators(container);
 		Set<ProjectConfigurator> potentialSecondaryConfigurators = new HashSet<>();
 		IProject project = null;
 		for (ProjectConfigurator configurator : activeConfigurators) {
@@ -432,7 +568,10 @@ public class SmartImportJob extends Job {
 			if (configurator instanceof EclipseProjectConfigurator && forceFullProjectCheck) {
 				continue;
 			}
-			if (configurator.shouldBeAnEclipseProject(container, subMonitor.split(1))) {
+			long start = System.nanoTime();
+			boolean shouldBeAnEclipseProject = configurator.shouldBeAnEclipseProject(container, subMonitor.split(1));
+			recordTime(configurator, start);
+			if (shouldBeAnEclipseProject) {
 				mainProjectConfigurators.add(configurator);
 				if (project == null) {
 					// Create project
@@ -458,6 +597,7 @@ public class SmartImportJob extends Job {
 		}
 		for (ProjectConfigurator configurator : mainProjectConfigurators) {
 			IProgressMonitor childMonitor = subMonitor.split(1);
+			long start = System.nanoTime();
 			if (configurator instanceof EclipseProjectConfigurator || !isAlreadyAnEclipseProject || this.reconfigureEclipseProjects) {
 				configurator.configure(project, excludedPaths, childMonitor);
 				this.report.get(project).add(configurator);
@@ -466,6 +606,7 @@ public class SmartImportJob extends Job {
 				}
 			}
 			excludedPaths.addAll(toPathSet(configurator.getFoldersToIgnore(project, subMonitor.split(20))));
+			recordTime(configurator, start);
 		}
 
 		if (deepChildrenDetection) {
@@ -474,15 +615,16 @@ public class SmartImportJob extends Job {
 			projectFromCurrentContainer.addAll(allNestedProjects);
 		}
 		// exclude all known children projects
-		for (IProject other : container.getWorkspace().getRoot().getProjects()) {
+		for (IProject other : projectIndex.getNestedProjects(containerLocation)) {
 			IPath otherLocation = other.getLocation();
-			if (otherLocation != null && !containerLocation.equals(otherLocation)
-					&& containerLocation.isPrefixOf(otherLocation)) {
+			if (otherLocation != null) {
 				excludedPaths.add(otherLocation);
 			}
 		}
 
-		if (mainProjectConfigurators.isEmpty() && (!isAlreadyAnEclipseProject || forceFullProjectCheck)) {
+		// crawled folders which no configurator recognizes are not made projects
+		if (mainProjectConfigurators.isEmpty() && (!isAlreadyAnEclipseProject || forceFullProjectCheck)
+				&& (forceFullProjectCheck || container.getType() == IResource.PROJECT)) {
 			// Apply secondary configurators
 			if (project == null) {
 				// Create project
@@ -503,6 +645,7 @@ public class SmartImportJob extends Job {
 			progressMonitor.setTaskName(
 					NLS.bind(DataTransferMessages.SmartImportJob_continuingConfiguration, project.getName()));
 			for (ProjectConfigurator additionalConfigurator : potentialSecondaryConfigurators) {
+				long start = System.nanoTime();
 				if (additionalConfigurator.canConfigure(project, excludedPaths, subMonitor.split(1))) {
 					additionalConfigurator.configure(project, excludedPaths, subMonitor.split(1));
 					this.report.get(project).add(additionalConfigurator);
@@ -512,6 +655,7 @@ public class SmartImportJob extends Job {
 					excludedPaths
 							.addAll(toPathSet(additionalConfigurator.getFoldersToIgnore(project, subMonitor.split(1))));
 				}
+				recordTime(additionalConfigurator, start);
 			}
 		}
 		if (project != null) {
@@ -522,6 +666,17 @@ public class SmartImportJob extends Job {
 		return projectFromCurrentContainer;
 	}
 
+	private synchronized ProjectConfiguratorExtensionManager getConfigurationManager() {
+		if (this.configurationManager == null) {
+			this.configurationManager = new ProjectConfiguratorExtensionManager();
+		}
+		return this.configurationManager;
+	}
+
+	private void recordTime(ProjectConfigurator configurator, long start) {
+		configuratorTimes.computeIfAbsent(configurator, c -> new LongAdder()).add(System.nanoTime() - start);
+	}
+
 	private Set<IPath> toPathSet(Set<? extends IContainer> resources) {
 		if (resources == null || resources.isEmpty()) {
 			return Collections.emptySet();
@@ -547,20 +702,30 @@ public class SmartImportJob extends Job {
 		try {
 			SubMonitor subMonitor = SubMonitor.convert(progressMonitor, NLS.bind(
 					DataTransferMessages.SmartImportJob_importingProjectIntoWorkspace, directory.getAbsolutePath()), 2);
-			IProject project = projectAlreadyExistsInWorkspace(directory);
-			if (project == null) {
-				project = createOrImportProject(directory, subMonitor.split(1));
-			}
-			subMonitor.setWorkRemaining(1);
-
-			project.open(refreshMode, subMonitor.split(1));
-			if (!this.report.containsKey(project)) {
-				this.report.put(project, new ArrayList<>());
+			IProject[] project = new IProject[1];
+			Exception[] failure = new Exception[1];
+			// create and open the project in one workspace operation, which also
+			// keeps crawling threads from choosing the same project name
+			ResourcesPlugin.getWorkspace().run(createMonitor -> {
+				try {
+					project[0] = projectAlreadyExistsInWorkspace(directory);
+					if (project[0] == null) {
+						project[0] = createOrImportProject(directory, subMonitor.split(1));
+					}
+					subMonitor.setWorkRemaining(1);
+					project[0].open(refreshMode, subMonitor.split(1));
+				} catch (Exception ex) {
+					failure[0] = ex;
+				}
+			}, workspaceRoot, IWorkspace.AVOID_UPDATE, null);
+			if (failure[0] != null) {
+				throw failure[0];
 			}
+			this.report.putIfAbsent(project[0], Collections.synchronizedList(new ArrayList<>()));
 			if (this.listener != null) {
-				this.listener.projectCreated(project);
+				this.listener.projectCreated(project[0]);
 			}
-			return project;
+			return project[0];
 		} catch (Exception ex) {
 			throw new CouldNotImportProjectException(directory, ex);
 		}
@@ -568,16 +733,7 @@ public class SmartImportJob extends Job {
 
 
 	private IProject projectAlreadyExistsInWorkspace(File directory) {
-		for (IProject project : workspaceRoot.getProjects()) {
-			File file = SmartImportWizard.toFile(project);
-			if (file == null) {
-				continue;
-			}
-			if (file.getAbsoluteFile().equals(directory.getAbsoluteFile())) {
-				return project;
-			}
-		}
-		return null;
+		return projectIndex.getProject(directory);
 	}
 
 	private IProject createOrImportProject(File directory, IProgressMonitor progressMonitor) throws Exception {
@@ -602,6 +758,7 @@ public class SmartImportJob extends Job {
 		desc.setLocation(new Path(directory.getAbsolutePath()));
 		IProject res = this.workspaceRoot.getProject(desc.getName());
 		res.create(desc, progressMonitor);
+		projectIndex.add(res);
 		PlatformUI.getWorkbench().getWorkingSetManager().addToWorkingSets(res, this.workingSets);
 		return res;
 	}
@@ -654,6 +811,25 @@ public class SmartImportJob extends Job {
 		return this.errors;
 	}
 
+	/**
+	 * Returns how long the project configurators took to detect and configure
+	 * projects so far, including the detection of
+	 * {@link #getImportProposals(IProgressMonitor)}.
+	 *
+	 * @return the milliseconds spent by configurator label, the slowest
+	 *         configurator first
+	 */
+	public Map<String, Long> getConfiguratorTimes() {
+		Map<String, Long> nanosByLabel = new HashMap<>();
+		configuratorTimes.forEach((configurator, nanos) -> {
+			nanosByLabel.merge(ProjectConfiguratorExtensionManager.getLabel(configurator), nanos.sum(), Long::sum);
+		});
+		Map<String, Long> res = new LinkedHashMap<>();
+		nanosByLabel.entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.forEach(entry -> res.put(entry.getKey(), TimeUnit.NANOSECONDS.toMillis(entry.getValue())));
+		return res;
+	}
+
 	/**
 	 *
 	 * @param monitor
@@ -667,16 +843,15 @@ public class SmartImportJob extends Job {
 		}
 		if (this.importProposals == null) {
 			Map<File, List<ProjectConfigurator>> res = new HashMap<>();
-			if (this.configurationManager == null) {
-				this.configurationManager = new ProjectConfiguratorExtensionManager();
-			}
-			List<ProjectConfigurator> activeConfigurators = configurationManager
+			List<ProjectConfigurator> activeConfigurators = getConfigurationManager()
 					.getAllActiveProjectConfigurators(this.rootDirectory);
 			SubMonitor loopMonitor = SubMonitor.convert(monitor, activeConfigurators.size());
 			for (ProjectConfigurator configurator : activeConfigurators) {
+				long start = System.nanoTime();
 				Set<File> supportedDirectories = configurator.findConfigurableLocations(
 						SmartImportJob.this.rootDirectory,
 						loopMonitor.split(1));
+				recordTime(configurator, start);
 				if (supportedDirectories != null) {
 					for (File supportedDirectory : supportedDirectories) {
 						if (supportedDirectory.isDirectory()) {
@@ -15,11 +15,23 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.wizards.datatransfer;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.zip.GZIPInputStream;
 
 
@@ -27,17 +39,64 @@ import java.util.zip.GZIPInputStream;
  * Reads a .tar or .tar.gz archive file, providing an index enumeration
  * and allows for accessing an InputStream for arbitrary files in the
  * archive.
+ * <p>
+ * The entries are indexed in a single pass the first time they are asked
+ * for, and the index is remembered together with the size and time stamp of
+ * the archive for the next time it is opened. The contents of entries of
+ * uncompressed archives are read directly at their position in the file.
+ * Compressed archives are read in a single stream as long as the entries are
+ * asked for in the order of the archive; once an entry is asked for that was
+ * already passed, the archive is uncompressed to a temporary file and read
+ * like an uncompressed one.
+ * </p>
  *
  * @since 3.1
  */
 public class TarFile {
+	/**
+	 * The number of archives whose index is remembered.
+	 */
+	private static final int INDEX_CACHE_SIZE = 4;
+
+	private static final Map<String, SoftReference<TarIndex>> indexCache = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SoftReference<TarIndex>> eldest) {
+			return size() > INDEX_CACHE_SIZE;
+		}
+	};
+
+	private static final class TarIndex {
+		final long length;
+		final long lastModified;
+		final List<TarEntry> entries;
+
+		TarIndex(long length, long lastModified, List<TarEntry> entries) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.entries = entries;
+		}
+	}
+
 	private File file;
+	private boolean compressed;
+	private long length;
+	private long lastModified;
+	private List<TarEntry> entries;
 	private TarInputStream entryEnumerationStream;
-	private TarEntry curEntry;
 	private TarInputStream entryStream;
 
 	private InputStream internalEntryStream;
 
+	/**
+	 * The uncompressed archive, if the archive is compressed and its entries
+	 * were not read in order.
+	 */
+	private File uncompressedFile;
+
+	private FileChannel channel;
+
 	/**
 	 * Create a new TarFile for the given file.
 	 *
@@ -47,24 +106,84 @@ public class TarFile {
 	 */
 	public TarFile(File file) throws TarException, IOException {
 		this.file = file;
+		length = file.length();
+		lastModified = file.lastModified();
 
+		InputStream in = open();
+		try {
+			entryEnumerationStream = new TarInputStream(in);
+		} catch (TarException | IOException ex) {
+			in.close();
+			throw ex;
+		}
+		entries = getCachedEntries();
+		if (entries != null) {
+			entryEnumerationStream.close();
+			entryEnumerationStream = null;
+		}
+	}
+
+	/**
+	 * Opens a stream on the file, uncompressing it if it is compressed.
+	 */
+	private InputStream open() throws IOException {
 		InputStream in = new FileInputStream(file);
 		// First, check if it's a GZIPInputStream.
 		try {
 			in = new GZIPInputStream(in);
+			compressed = true;
 		} catch(IOException e) {
 			//If it is not compressed we close
 			//the old one and recreate
 			in.close();
 			in = new FileInputStream(file);
 		}
+		return in;
+	}
+
+	private List<TarEntry> getCachedEntries() {
+		synchronized (indexCache) {
+			SoftReference<TarIndex> reference = indexCache.get(file.getAbsolutePath());
+			TarIndex index = reference == null ? null : reference.get();
+			if (index != null && index.length == length && index.lastModified == lastModified) {
+				return index.entries;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Reads all entries of the archive, unless they are known already.
+	 */
+	private synchronized List<TarEntry> getEntries() {
+		if (entries != null) {
+			return entries;
+		}
+		List<TarEntry> result = new ArrayList<>();
+		boolean complete = true;
 		try {
-			entryEnumerationStream = new TarInputStream(in);
-		} catch (TarException | IOException ex) {
-			in.close();
-			throw ex;
+			for (TarEntry entry = entryEnumerationStream.getNextEntry(); entry != null; entry = entryEnumerationStream
+					.getNextEntry()) {
+				result.add(entry);
+			}
+		} catch (TarException | IOException e) {
+			// list the entries up to the broken one, like before
+			complete = false;
+		}
+		try {
+			entryEnumerationStream.close();
+		} catch (IOException e) {
+			// the entries were read
 		}
-		curEntry = entryEnumerationStream.getNextEntry();
+		entryEnumerationStream = null;
+		entries = Collections.unmodifiableList(result);
+		if (complete) {
+			synchronized (indexCache) {
+				indexCache.put(file.getAbsolutePath(),
+						new SoftReference<>(new TarIndex(length, lastModified, entries)));
+			}
+		}
+		return entries;
 	}
 
 	/**
@@ -72,11 +191,17 @@ public class TarFile {
 	 *
 	 * @throws IOException if the file cannot be successfully closed
 	 */
-	public void close() throws IOException {
+	public synchronized void close() throws IOException {
 		if (entryEnumerationStream != null)
 			entryEnumerationStream.close();
 		if (internalEntryStream != null)
 			internalEntryStream.close();
+		if (channel != null)
+			channel.close();
+		if (uncompressedFile != null) {
+			Files.deleteIfExists(uncompressedFile.toPath());
+			uncompressedFile = null;
+		}
 	}
 
 	/**
@@ -96,23 +221,7 @@ public class TarFile {
 	 * @return enumeration of all files in the archive
 	 */
 	public Enumeration entries() {
-		return new Enumeration() {
-			@Override
-			public boolean hasMoreElements() {
-				return (curEntry != null);
-			}
-
-			@Override
-			public Object nextElement() {
-				TarEntry oldEntry = curEntry;
-				try {
-					curEntry = entryEnumerationStream.getNextEntry();
-				} catch(TarException | IOException e) {
-					curEntry = null;
-				}
-				return oldEntry;
-			}
-		};
+		return Collections.enumeration(getEntries());
 	}
 
 	/**
@@ -123,31 +232,52 @@ public class TarFile {
 	 * @throws TarException
 	 * @throws IOException
 	 */
-	public InputStream getInputStream(TarEntry entry) throws TarException, IOException {
-		if(entryStream == null || !entryStream.skipToEntry(entry)) {
-			if (internalEntryStream != null) {
-				internalEntryStream.close();
-			}
-			internalEntryStream = new FileInputStream(file);
-			// First, check if it's a GZIPInputStream.
-			try {
-				internalEntryStream = new GZIPInputStream(internalEntryStream);
-			} catch(IOException e) {
-				//If it is not compressed we close
-				//the old one and recreate
-				internalEntryStream.close();
-				internalEntryStream = new FileInputStream(file);
-			}
-			entryStream = new TarInputStream(internalEntryStream, entry) {
-				@Override
-				public void close() {
-					// Ignore close() since we want to reuse the stream.
-				}
-			};
+	public synchronized InputStream getInputStream(TarEntry entry) throws TarException, IOException {
+		if (entry.filepos < 0) {
+			throw new TarException(DataTransferMessages.TarImport_invalid_tar_format);
 		}
+		if (channel == null && !compressed) {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		}
+		if (channel != null) {
+			// skip the header
+			return new EntryInputStream(channel, entry.filepos + 512, entry.getSize());
+		}
+
+		if (entryStream != null && entryStream.skipToEntry(entry)) {
+			return entryStream;
+		}
+		if (entryStream != null) {
+			// the entry was passed already
+			uncompress();
+			return getInputStream(entry);
+		}
+		internalEntryStream = open();
+		entryStream = new TarInputStream(internalEntryStream, entry) {
+			@Override
+			public void close() {
+				// Ignore close() since we want to reuse the stream.
+			}
+		};
 		return entryStream;
 	}
 
+	/**
+	 * Uncompresses the archive to a temporary file and reads the entries from
+	 * there from now on.
+	 */
+	private void uncompress() throws IOException {
+		internalEntryStream.close();
+		internalEntryStream = null;
+		entryStream = null;
+		uncompressedFile = File.createTempFile("archive", ".tar"); //$NON-NLS-1$ //$NON-NLS-2$
+		uncompressedFile.deleteOnExit();
+		try (InputStream in = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			Files.copy(in, uncompressedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		channel = FileChannel.open(uncompressedFile.toPath(), StandardOpenOption.READ);
+	}
+
 	/**
 	 * Returns the path name of the file this archive represents.
 	 *
@@ -161,4 +291,61 @@ public class TarFile {
 	protected void finalize() throws Throwable {
 		close();
 	}
+
+	/**
+	 * Reads the contents of an entry at its position in the archive. Positioned
+	 * reads don't change the position of the channel, so any number of entries
+	 * can be read at the same time.
+	 */
+	private static final class EntryInputStream extends InputStream {
+		private final FileChannel channel;
+		private long position;
+		private long remaining;
+
+		EntryInputStream(FileChannel channel, long position, long size) {
+			this.channel = channel;
+			this.position = position;
+			this.remaining = size;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] data = new byte[1];
+			int size = read(data, 0, 1);
+			if (size < 0) {
+				return size;
+			}
+			return data[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			if (len == 0) {
+				return 0;
+			}
+			int size = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), position);
+			if (size < 0) {
+				throw new IOException("early end of stream"); //$NON-NLS-1$
+			}
+			position += size;
+			remaining -= size;
+			return size;
+		}
+
+		@Override
+		public long skip(long n) {
+			long skipped = Math.max(0, Math.min(n, remaining));
+			position += skipped;
+			remaining -= skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return (int) Math.min(remaining, Integer.MAX_VALUE);
+		}
+	}
 }
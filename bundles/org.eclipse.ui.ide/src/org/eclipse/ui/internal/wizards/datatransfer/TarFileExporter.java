@@ -19,6 +19,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.concurrent.Semaphore;
 import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.core.filesystem.EFS;
@@ -138,6 +139,24 @@ public class TarFileExporter implements IFileExporter {
 	@Override
 	public void write(IFile resource, String destinationPath)
 			throws IOException, CoreException {
+		write(resource, destinationPath, null);
+	}
+
+	/**
+	 * Reads the contents of the passed resource. Compression of .tar.gz files
+	 * applies to the whole archive and is done while writing.
+	 */
+	@Override
+	public ArchiveEntryContents read(IFile resource, Semaphore budget) throws IOException, CoreException {
+		if (!resolveLinks && resource.isLinked(IResource.DEPTH_INFINITE)) {
+			return null;
+		}
+		return ArchiveEntryContents.read(resource, false, budget);
+	}
+
+	@Override
+	public void write(IFile resource, String destinationPath, ArchiveEntryContents contents)
+			throws IOException, CoreException {
 		if (!resolveLinks && resource.isLinked(IResource.DEPTH_INFINITE)) {
 			return;
 		}
@@ -152,6 +171,13 @@ public class TarFileExporter implements IFileExporter {
 		if (attributes != null && attributes.isReadOnly()) {
 			newEntry.setMode(newEntry.getMode() & ~0222);
 		}
-		write(newEntry, resource);
+		if (contents == null) {
+			write(newEntry, resource);
+		} else {
+			newEntry.setSize(contents.getSize());
+			outputStream.putNextEntry(newEntry);
+			contents.writeTo(outputStream);
+			outputStream.closeEntry();
+		}
 	}
 }
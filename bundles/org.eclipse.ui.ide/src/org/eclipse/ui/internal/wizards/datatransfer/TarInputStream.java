@@ -27,10 +27,10 @@ import java.nio.charset.StandardCharsets;
  */
 public class TarInputStream extends FilterInputStream
 {
-	private int nextEntry = 0;
-	private int nextEOF = 0;
-	private int filepos = 0;
-	private int bytesread = 0;
+	private long nextEntry = 0;
+	private long nextEOF = 0;
+	private long filepos = 0;
+	private long bytesread = 0;
 	private TarEntry firstEntry = null;
 	private String longLinkName = null;
 
@@ -87,7 +87,7 @@ public class TarInputStream extends FilterInputStream
 	 * @throws IOException
 	 */
 	boolean skipToEntry(TarEntry entry) throws TarException, IOException {
-		int bytestoskip = entry.filepos - bytesread;
+		long bytestoskip = entry.filepos - bytesread;
 		if(bytestoskip < 0) {
 			return false;
 		}
@@ -264,9 +264,9 @@ public class TarInputStream extends FilterInputStream
 		if(size.charAt(0) != '0') {
 			size.insert(0, '0');
 		}
-		int fileSize;
+		long fileSize;
 		try {
-			fileSize = Integer.decode(size.toString()).intValue();
+			fileSize = Long.decode(size.toString()).longValue();
 		} catch(NumberFormatException nfe) {
 			throw new TarException(DataTransferMessages.TarImport_invalid_tar_format, nfe);
 		}
@@ -323,9 +323,12 @@ public class TarInputStream extends FilterInputStream
 			return -1;
 		}
 		if(len > nextEOF) {
-			len = nextEOF;
+			len = (int) nextEOF;
 		}
 		int size = super.read(b, off, len);
+		if(size < 0) {
+			return size;
+		}
 		nextEntry -= size;
 		nextEOF -= size;
 		bytesread += size;
@@ -36,10 +36,14 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
@@ -84,6 +88,7 @@ import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.DirectoryDialog;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.Group;
@@ -394,6 +399,12 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 	 */
 	private boolean isUpdatingProjectsList;
 
+	/**
+	 * The stream showing the results of the running directory search, or
+	 * <code>null</code>. Only accessed in the UI thread.
+	 */
+	private ProjectRecordStream activeStream;
+
 	/**
 	 * Creates a new project creation wizard page.
 	 *
@@ -898,6 +909,13 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 		// We can't access the radio button from the inner class so get the
 		// status beforehand
 		final boolean dirSelected = this.projectFromDirectoryRadio.getSelection();
+		final ProjectRecordStream stream = new ProjectRecordStream();
+		if (dirSelected && directory.isDirectory()) {
+			// projects found are added while searching, start from an empty list
+			selectedProjects = new ProjectRecord[0];
+			projectsList.refresh(true);
+			activeStream = stream;
+		}
 		try {
 			getContainer().run(true, true, monitor -> {
 
@@ -963,9 +981,16 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 
 				else if (dirSelected && directory.isDirectory()) {
 
+					// the records are created by the searching threads and
+					// shown while the search is still going on
+					Map<File, ProjectRecord> records = new ConcurrentHashMap<>();
 					Collection<File> files = new ArrayList<>();
 					if (!collectProjectFilesFromDirectory(files, directory,
-							null, nestedProjects, monitor)) {
+							nestedProjects, file -> {
+								ProjectRecord record = new ProjectRecord(file);
+								records.put(file, record);
+								stream.add(record);
+							}, monitor)) {
 						return;
 					}
 					Iterator<File> filesIterator3 = files.iterator();
@@ -976,7 +1001,7 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 							.subTask(DataTransferMessages.WizardProjectsImportPage_ProcessingMessage);
 					while (filesIterator3.hasNext()) {
 						File file = filesIterator3.next();
-						selectedProjects[index3] = new ProjectRecord(file);
+						selectedProjects[index3] = records.get(file);
 						index3++;
 					}
 				} else {
@@ -988,12 +1013,53 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 			IDEWorkbenchPlugin.log(e.getMessage(), e);
 		} catch (InterruptedException e) {
 			// Nothing to do if the user interrupts.
+		} finally {
+			activeStream = null;
 		}
 
 		lastPath = path;
 		updateProjectsStatus();
 	}
 
+	/**
+	 * Shows the records of the projects found by a running directory search
+	 * in the projects list. The records are handed over by the searching
+	 * threads and added to the list in batches by the UI thread.
+	 */
+	private final class ProjectRecordStream implements Runnable {
+
+		private final Display display = getShell().getDisplay();
+
+		private final Queue<ProjectRecord> pending = new ConcurrentLinkedQueue<>();
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		void add(ProjectRecord record) {
+			pending.add(record);
+			if (scheduled.compareAndSet(false, true)) {
+				display.asyncExec(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			scheduled.set(false);
+			if (activeStream != this || projectsList.getControl().isDisposed()) {
+				// the search is over, the complete list has been shown
+				return;
+			}
+			List<ProjectRecord> batch = new ArrayList<>();
+			ProjectRecord record;
+			while ((record = pending.poll()) != null) {
+				updateConflicts(record);
+				batch.add(record);
+			}
+			if (!batch.isEmpty()) {
+				projectsList.add(projectsList.getInput(), batch.toArray());
+			}
+		}
+	}
+
 	private void updateProjectsStatus() {
 		projectsList.refresh(true);
 		ProjectRecord[] projects = getProjectRecords();
@@ -1072,75 +1138,46 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 
 	/**
 	 * Collect the list of .project files that are under directory into files.
+	 * The directory is searched in parallel, the files are added ordered by
+	 * their path.
 	 *
 	 * @param files
 	 * @param directory
-	 * @param directoriesVisited
-	 *            Set of canonical paths of directories, used as recursion guard
 	 * @param nestedProjects
 	 *            whether to look for nested projects
 	 * @param monitor
 	 *            The monitor to report to
 	 * @return boolean <code>true</code> if the operation was completed.
+	 * @see ProjectFilesWalker
 	 */
 	static boolean collectProjectFilesFromDirectory(Collection<File> files, File directory,
-			Set<String> directoriesVisited, boolean nestedProjects, IProgressMonitor monitor) {
+			boolean nestedProjects, IProgressMonitor monitor) {
+		return collectProjectFilesFromDirectory(files, directory, nestedProjects, null, monitor);
+	}
 
+	/**
+	 * Collect the list of .project files that are under directory into files.
+	 *
+	 * @param files
+	 * @param directory
+	 * @param nestedProjects
+	 *            whether to look for nested projects
+	 * @param listener
+	 *            notified of every .project file as soon as it is found, from
+	 *            the threads doing the search, or <code>null</code>
+	 * @param monitor
+	 *            The monitor to report to
+	 * @return boolean <code>true</code> if the operation was completed.
+	 */
+	static boolean collectProjectFilesFromDirectory(Collection<File> files, File directory,
+			boolean nestedProjects, Consumer<File> listener, IProgressMonitor monitor) {
 		if (monitor.isCanceled()) {
 			return false;
 		}
 		monitor.subTask(NLS.bind(
 				DataTransferMessages.WizardProjectsImportPage_CheckingMessage,
 				directory.getPath()));
-		File[] contents = directory.listFiles();
-		if (contents == null) {
-			return false;
-		}
-
-		// Initialize recursion guard for recursive symbolic links
-		if (directoriesVisited == null) {
-			directoriesVisited = new HashSet<>();
-			try {
-				directoriesVisited.add(directory.getCanonicalPath());
-			} catch (IOException exception) {
-				StatusManager.getManager().handle(StatusUtil.newError(exception));
-			}
-		}
-
-		// first look for project description files
-		final String dotProject = IProjectDescription.DESCRIPTION_FILE_NAME;
-		List<File> directories = new ArrayList<>();
-		for (File file : contents) {
-			if(file.isDirectory()){
-				directories.add(file);
-			} else if (file.getName().equals(dotProject) && file.isFile()) {
-				files.add(file);
-				if (!nestedProjects) {
-					// don't search sub-directories since we can't have nested
-					// projects
-					return true;
-				}
-			}
-		}
-		// no project description found or search for nested projects enabled,
-		// so recurse into sub-directories
-		for (File dir : directories) {
-			if (!dir.getName().equals(METADATA_FOLDER)) {
-				try {
-					String canonicalPath = dir.getCanonicalPath();
-					if (!directoriesVisited.add(canonicalPath)) {
-						// already been here --> do not recurse
-						continue;
-					}
-				} catch (IOException exception) {
-					StatusManager.getManager().handle(StatusUtil.newError(exception));
-
-				}
-				collectProjectFilesFromDirectory(files, dir,
-						directoriesVisited, nestedProjects, monitor);
-			}
-		}
-		return true;
+		return new ProjectFilesWalker(nestedProjects, listener).walk(directory, files, monitor);
 	}
 
 	/**
@@ -1505,15 +1542,19 @@ public class WizardProjectsImportPage extends WizardDataTransferPage {
 	public ProjectRecord[] getProjectRecords() {
 		List<ProjectRecord> projectRecords = new ArrayList<>();
 		for (ProjectRecord selectedProject : selectedProjects) {
-			String projectName = selectedProject.getProjectName();
-			selectedProject.hasConflicts = (isProjectInWorkspacePath(projectName)
-					&& (copyFiles || selectedProject.projectArchiveFile != null)) || isProjectInWorkspace(projectName);
+			updateConflicts(selectedProject);
 			projectRecords.add(selectedProject);
 		}
 		return projectRecords
 				.toArray(new ProjectRecord[projectRecords.size()]);
 	}
 
+	private void updateConflicts(ProjectRecord record) {
+		String projectName = record.getProjectName();
+		record.hasConflicts = (isProjectInWorkspacePath(projectName)
+				&& (copyFiles || record.projectArchiveFile != null)) || isProjectInWorkspace(projectName);
+	}
+
 	/**
 	 * Determine if there is a directory with the project name in the workspace path.
 	 *
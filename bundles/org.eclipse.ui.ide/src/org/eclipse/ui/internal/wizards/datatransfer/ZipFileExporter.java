@@ -16,6 +16,7 @@ package org.eclipse.ui.internal.wizards.datatransfer;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.Semaphore;
 import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -28,6 +29,11 @@ import org.eclipse.core.runtime.CoreException;
 
 /**
  *	Exports resources to a .zip file
+ *	<p>
+ *	The contents of small files may be read ahead by {@link #read(IFile, Semaphore)},
+ *	together with their checksum if the entries are stored. They are always
+ *	compressed by the {@link ZipOutputStream} while the entry is written.
+ *	</p>
  */
 public class ZipFileExporter implements IFileExporter {
 	private ZipOutputStream outputStream;
@@ -133,10 +139,44 @@ public class ZipFileExporter implements IFileExporter {
 	@Override
 	public void write(IFile resource, String destinationPath)
 			throws IOException, CoreException {
+		write(resource, destinationPath, null);
+	}
+
+	/**
+	 * Reads the contents of the passed resource, computing the checksum needed
+	 * for stored entries.
+	 */
+	@Override
+	public ArchiveEntryContents read(IFile resource, Semaphore budget) throws IOException, CoreException {
+		if (!resolveLinks && resource.isLinked(IResource.DEPTH_INFINITE)) {
+			return null;
+		}
+		return ArchiveEntryContents.read(resource, !useCompression, budget);
+	}
+
+	@Override
+	public void write(IFile resource, String destinationPath, ArchiveEntryContents contents)
+			throws IOException, CoreException {
 		if (!resolveLinks && resource.isLinked(IResource.DEPTH_INFINITE)) {
 			return;
 		}
 		ZipEntry newEntry = new ZipEntry(destinationPath);
-		write(newEntry, resource);
+		if (contents == null) {
+			write(newEntry, resource);
+			return;
+		}
+
+		if (!useCompression) {
+			newEntry.setMethod(ZipEntry.STORED);
+			newEntry.setSize(contents.getSize());
+			newEntry.setCrc(contents.getCrc());
+		}
+		long localTimeStamp = resource.getLocalTimeStamp();
+		if (localTimeStamp != IResource.NULL_STAMP)
+			newEntry.setTime(localTimeStamp);
+
+		outputStream.putNextEntry(newEntry);
+		contents.writeTo(outputStream);
+		outputStream.closeEntry();
 	}
 }
@@ -110,6 +110,19 @@ public class FilteredTree extends Composite {
 	 */
 	private Job refreshJob;
 
+	/**
+	 * The job used to match the elements of the tree in the background if the
+	 * pattern filter is thread-safe.
+	 */
+	private Job matchJob;
+
+	/**
+	 * The filter text and tree input the match job uses.
+	 */
+	private volatile String matchText;
+
+	private volatile Object matchInput;
+
 	/**
 	 * The parent composite of the filtered tree.
 	 *
@@ -400,7 +413,12 @@ public class FilteredTree extends Composite {
 		treeViewer = doCreateTreeViewer(parent, style);
 		GridData data = new GridData(SWT.FILL, SWT.FILL, true, true);
 		treeViewer.getControl().setLayoutData(data);
-		treeViewer.getControl().addDisposeListener(e -> refreshJob.cancel());
+		treeViewer.getControl().addDisposeListener(e -> {
+			refreshJob.cancel();
+			if (matchJob != null) {
+				matchJob.cancel();
+			}
+		});
 		if (treeViewer instanceof NotifyingTreeViewer) {
 			patternFilter.setUseCache(true);
 		}
@@ -448,6 +466,32 @@ public class FilteredTree extends Composite {
 	private void createRefreshJob() {
 		refreshJob = doCreateRefreshJob();
 		refreshJob.setSystem(true);
+		matchJob = createMatchJob();
+	}
+
+	/**
+	 * Creates the job which matches the elements of the tree against the filter
+	 * text in the background and then schedules the refresh job. The refresh job
+	 * finds the results when it sets the pattern, so it only has to update the
+	 * tree.
+	 *
+	 * @return a job that can be scheduled to match the elements of the tree
+	 */
+	private Job createMatchJob() {
+		Job job = new Job(WorkbenchMessages.FilteredTree_MatchJobName) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				String text = matchText;
+				if (!patternFilter.prepareMatches(treeViewer, matchInput, text, monitor) || monitor.isCanceled()
+						|| !text.equals(matchText)) {
+					return Status.CANCEL_STATUS;
+				}
+				refreshJob.schedule();
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		return job;
 	}
 
 	/**
@@ -753,7 +797,16 @@ public class FilteredTree extends Composite {
 		previousFilterText = getFilterString();
 		// cancel currently running job first, to prevent unnecessary redraw
 		refreshJob.cancel();
-		refreshJob.schedule(getRefreshJobDelay());
+		matchJob.cancel();
+		String text = getFilterString();
+		if (text != null && !text.equals(initialText) && patternFilter.isThreadSafe()) {
+			// match in the background, the refresh job then only updates the tree
+			matchText = text;
+			matchInput = treeViewer.getInput();
+			matchJob.schedule(getRefreshJobDelay());
+		} else {
+			refreshJob.schedule(getRefreshJobDelay());
+		}
 	}
 
 	/**
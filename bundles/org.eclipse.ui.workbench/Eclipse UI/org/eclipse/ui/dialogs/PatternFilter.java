@@ -15,8 +15,12 @@
  *******************************************************************************/
 package org.eclipse.ui.dialogs;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ContentViewer;
 import org.eclipse.jface.viewers.ILabelProvider;
@@ -31,20 +35,46 @@ import org.eclipse.ui.internal.misc.TextMatcher;
  * of the tree to do pattern matching on its children. This causes the entire
  * tree structure to be realized. Note that the label provider must implement
  * ILabelProvider.
+ * <p>
+ * If the filter is {@link #isThreadSafe() thread-safe}, a
+ * <code>FilteredTree</code> matches the elements in a background job and only
+ * refreshes the tree in the UI thread. This requires that the content provider
+ * of the tree and everything used to match an element may be called from
+ * another thread. The default implementation of
+ * {@link #isLeafMatch(Viewer, Object)} uses the label provider of the viewer, so
+ * subclasses should only declare themselves thread-safe if the label provider
+ * can be used in the background, or if they match another text.
+ * </p>
  *
  * @see org.eclipse.ui.dialogs.FilteredTree
  * @since 3.2
  */
 public class PatternFilter extends ViewerFilter {
 	/*
-	 * Cache of filtered elements in the tree
+	 * Key of the cached results for a null parent, which concurrent maps do not
+	 * accept
 	 */
-	private Map cache = new HashMap();
+	private static final Object NULL_PARENT = new Object();
 
 	/*
-	 * Maps parent elements to TRUE or FALSE
+	 * The matcher and the cached results of the current pattern
 	 */
-	private Map foundAnyCache = new HashMap();
+	private volatile Matching matching = new Matching(null, false, null, 0);
+
+	/*
+	 * Matching prepared in a background thread, installed by setPattern
+	 */
+	private volatile Matching preparedMatching;
+
+	/*
+	 * Matching used by the thread which prepares it
+	 */
+	private final ThreadLocal<Matching> threadMatching = new ThreadLocal<>();
+
+	/*
+	 * Incremented whenever the tree content changes
+	 */
+	private volatile int generation;
 
 	private boolean useCache = false;
 
@@ -54,41 +84,110 @@ public class PatternFilter extends ViewerFilter {
 	 */
 	private boolean includeLeadingWildcard = false;
 
+	private boolean useEarlyReturnIfMatcherIsNull = true;
+
+	private static Object[] EMPTY = new Object[0];
+
 	/**
-	 * The string pattern matcher used for this pattern filter.
+	 * The pattern string, the string pattern matcher and the cached results of
+	 * matching it.
 	 */
-	private TextMatcher matcher;
+	private static final class Matching {
 
-	private boolean useEarlyReturnIfMatcherIsNull = true;
+		final String patternString;
 
-	private static Object[] EMPTY = new Object[0];
+		final boolean leadingWildcard;
+
+		final TextMatcher matcher;
+
+		final int generation;
+
+		/*
+		 * Cache of filtered elements in the tree
+		 */
+		final Map<Object, Object[]> cache = new ConcurrentHashMap<>();
+
+		/*
+		 * Maps parent elements to TRUE or FALSE
+		 */
+		final Map<Object, Boolean> foundAnyCache = new ConcurrentHashMap<>();
+
+		/*
+		 * The caches of a pattern this pattern refines, or null. Elements which
+		 * did not match that pattern cannot match this one.
+		 */
+		Map<Object, Object[]> narrowedCache;
+
+		Map<Object, Boolean> narrowedFoundAnyCache;
+
+		Matching(String patternString, boolean leadingWildcard, TextMatcher matcher, int generation) {
+			this.patternString = patternString;
+			this.leadingWildcard = leadingWildcard;
+			this.matcher = matcher;
+			this.generation = generation;
+		}
+	}
 
 	@Override
 	public Object[] filter(Viewer viewer, Object parent, Object[] elements) {
+		Matching current = getMatching();
 		// we don't want to optimize if we've extended the filter ... this
 		// needs to be addressed in 3.4
 		// https://bugs.eclipse.org/bugs/show_bug.cgi?id=186404
-		if (matcher == null && useEarlyReturnIfMatcherIsNull) {
+		if (current.matcher == null && useEarlyReturnIfMatcherIsNull) {
 			return elements;
 		}
 
 		if (!useCache) {
-			return super.filter(viewer, parent, elements);
+			return filterElements(viewer, parent, elements);
 		}
 
-		Object[] filtered = (Object[]) cache.get(parent);
+		Object key = getKey(parent);
+		Object[] filtered = current.cache.get(key);
 		if (filtered == null) {
-			Boolean foundAny = (Boolean) foundAnyCache.get(parent);
+			Boolean foundAny = current.foundAnyCache.get(key);
 			if (foundAny != null && !foundAny.booleanValue()) {
 				filtered = EMPTY;
+			} else if (current.narrowedCache != null) {
+				filtered = filterElements(viewer, parent, narrowElements(current, key, elements));
 			} else {
-				filtered = super.filter(viewer, parent, elements);
+				filtered = filterElements(viewer, parent, elements);
 			}
-			cache.put(parent, filtered);
+			current.cache.put(key, filtered);
 		}
 		return filtered;
 	}
 
+	/**
+	 * Returns the elements which passed the filter for the refined pattern, if
+	 * known.
+	 */
+	private static Object[] narrowElements(Matching current, Object key, Object[] elements) {
+		Boolean foundAny = current.narrowedFoundAnyCache.get(key);
+		if (foundAny != null && !foundAny.booleanValue()) {
+			return EMPTY;
+		}
+		Object[] narrowed = current.narrowedCache.get(key);
+		return narrowed != null ? narrowed : elements;
+	}
+
+	/**
+	 * Filters the elements in a thread which prepares a matching sequentially, as
+	 * the prepared matching is not visible to other threads.
+	 */
+	private Object[] filterElements(Viewer viewer, Object parent, Object[] elements) {
+		if (threadMatching.get() == null) {
+			return super.filter(viewer, parent, elements);
+		}
+		List<Object> out = new ArrayList<>(elements.length);
+		for (Object element : elements) {
+			if (select(viewer, parent, element)) {
+				out.add(element);
+			}
+		}
+		return out.toArray();
+	}
+
 	/**
 	 * Returns true if any of the elements makes it through the filter. This method
 	 * uses caching if enabled; the computation is done in computeAnyVisible.
@@ -99,7 +198,8 @@ public class PatternFilter extends ViewerFilter {
 	 * @return true if any of the elements makes it through the filter.
 	 */
 	private boolean isAnyVisible(Viewer viewer, Object parent, Object[] elements) {
-		if (matcher == null) {
+		Matching current = getMatching();
+		if (current.matcher == null) {
 			return true;
 		}
 
@@ -107,14 +207,16 @@ public class PatternFilter extends ViewerFilter {
 			return computeAnyVisible(viewer, elements);
 		}
 
-		Object[] filtered = (Object[]) cache.get(parent);
+		Object key = getKey(parent);
+		Object[] filtered = current.cache.get(key);
 		if (filtered != null) {
 			return filtered.length > 0;
 		}
-		Boolean foundAny = (Boolean) foundAnyCache.get(parent);
+		Boolean foundAny = current.foundAnyCache.get(key);
 		if (foundAny == null) {
-			foundAny = computeAnyVisible(viewer, elements) ? Boolean.TRUE : Boolean.FALSE;
-			foundAnyCache.put(parent, foundAny);
+			Object[] candidates = current.narrowedCache != null ? narrowElements(current, key, elements) : elements;
+			foundAny = computeAnyVisible(viewer, candidates) ? Boolean.TRUE : Boolean.FALSE;
+			current.foundAnyCache.put(key, foundAny);
 		}
 		return foundAny.booleanValue();
 	}
@@ -135,6 +237,18 @@ public class PatternFilter extends ViewerFilter {
 		return elementFound;
 	}
 
+	private static Object getKey(Object parent) {
+		return parent != null ? parent : NULL_PARENT;
+	}
+
+	/**
+	 * Returns the matching prepared by the calling thread, or the current one.
+	 */
+	private Matching getMatching() {
+		Matching prepared = threadMatching.get();
+		return prepared != null ? prepared : matching;
+	}
+
 	@Override
 	public final boolean select(Viewer viewer, Object parentElement, Object element) {
 		return isElementVisible(viewer, element);
@@ -160,23 +274,129 @@ public class PatternFilter extends ViewerFilter {
 		// 3.3 - https://bugs.eclipse.org/bugs/show_bug.cgi?id=186404
 		if ("org.eclipse.ui.keys.optimization.true".equals(patternString)) { //$NON-NLS-1$
 			useEarlyReturnIfMatcherIsNull = true;
+			// the filter changed, so the results of the pattern may have changed
+			clearCaches();
 			return;
 		} else if ("org.eclipse.ui.keys.optimization.false".equals(patternString)) { //$NON-NLS-1$
 			useEarlyReturnIfMatcherIsNull = false;
+			clearCaches();
 			return;
 		}
-		clearCaches();
-		if (patternString == null || patternString.isEmpty()) {
-			matcher = null;
+		Matching prepared = preparedMatching;
+		preparedMatching = null;
+		if (prepared != null && prepared.generation == generation
+				&& Objects.equals(prepared.patternString, emptyToNull(patternString))
+				&& prepared.leadingWildcard == includeLeadingWildcard) {
+			matching = prepared;
 		} else {
-			String pattern = patternString;
-			if (!patternString.endsWith(" ")) //$NON-NLS-1$
-				pattern += "*"; //$NON-NLS-1$
-			if (includeLeadingWildcard) {
-				pattern = "*" + pattern; //$NON-NLS-1$
+			matching = createMatching(patternString);
+		}
+	}
+
+	/**
+	 * Creates the matching of the given pattern string. If the caches are used,
+	 * the filter is {@link #isMonotonic() monotonic} and the pattern refines the
+	 * current one, the results of the current pattern narrow the elements to
+	 * check.
+	 */
+	private Matching createMatching(String patternString) {
+		String string = emptyToNull(patternString);
+		if (string == null) {
+			return new Matching(null, includeLeadingWildcard, null, generation);
+		}
+		String pattern = string;
+		if (!string.endsWith(" ")) //$NON-NLS-1$
+			pattern += "*"; //$NON-NLS-1$
+		if (includeLeadingWildcard) {
+			pattern = "*" + pattern; //$NON-NLS-1$
+		}
+		Matching created = new Matching(string, includeLeadingWildcard, new TextMatcher(pattern, true, false),
+				generation);
+		Matching current = matching;
+		if (useCache && isMonotonic() && current.generation == generation
+				&& current.leadingWildcard == includeLeadingWildcard && refines(current.patternString, string)) {
+			created.narrowedCache = current.cache;
+			created.narrowedFoundAnyCache = current.foundAnyCache;
+		}
+		return created;
+	}
+
+	private static String emptyToNull(String patternString) {
+		return patternString == null || patternString.isEmpty() ? null : patternString;
+	}
+
+	/**
+	 * Returns whether every text matching the new pattern also matches the old
+	 * pattern. This holds if the new pattern only appends characters other than
+	 * whitespace, as both patterns then end with a wildcard and split into the
+	 * same number of words.
+	 */
+	private static boolean refines(String oldPattern, String newPattern) {
+		if (oldPattern == null || newPattern.length() <= oldPattern.length() || !newPattern.startsWith(oldPattern)) {
+			return false;
+		}
+		char last = oldPattern.charAt(oldPattern.length() - 1);
+		if (Character.isWhitespace(last) || last == '\\') {
+			return false;
+		}
+		for (int i = oldPattern.length(); i < newPattern.length(); i++) {
+			if (Character.isWhitespace(newPattern.charAt(i))) {
+				return false;
 			}
-			matcher = new TextMatcher(pattern, true, false);
 		}
+		return true;
+	}
+
+	/**
+	 * Computes which elements of the given viewer match the given pattern string
+	 * in the calling thread, which need not be the UI thread. A following call of
+	 * {@link #setPattern(String)} with the same pattern string uses the results
+	 * unless the tree content changed in between. This is only done if the caches
+	 * are used, the filter is thread-safe and the viewer has a tree content
+	 * provider.
+	 *
+	 * @param viewer        the viewer
+	 * @param input         the input of the viewer
+	 * @param patternString the pattern string
+	 * @param monitor       the monitor to check for cancellation
+	 * @return <code>false</code> if the computation was canceled
+	 */
+	/* package */ boolean prepareMatches(AbstractTreeViewer viewer, Object input, String patternString,
+			IProgressMonitor monitor) {
+		if (!useCache || !isThreadSafe() || !(viewer.getContentProvider() instanceof ITreeContentProvider)) {
+			return true;
+		}
+		ITreeContentProvider contentProvider = (ITreeContentProvider) viewer.getContentProvider();
+		Matching prepared = createMatching(patternString);
+		if (prepared.matcher == null) {
+			return true;
+		}
+		threadMatching.set(prepared);
+		try {
+			if (!prepareChildren(viewer, contentProvider, input, contentProvider.getElements(input), monitor)) {
+				return false;
+			}
+		} finally {
+			threadMatching.remove();
+		}
+		preparedMatching = prepared;
+		return true;
+	}
+
+	private boolean prepareChildren(AbstractTreeViewer viewer, ITreeContentProvider contentProvider, Object parent,
+			Object[] children, IProgressMonitor monitor) {
+		if (children == null || children.length == 0) {
+			return true;
+		}
+		for (Object child : filter(viewer, parent, children)) {
+			if (monitor.isCanceled()) {
+				return false;
+			}
+			if (!prepareChildren(viewer, contentProvider, child, contentProvider.getChildren(child), monitor)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -184,8 +404,10 @@ public class PatternFilter extends ViewerFilter {
 	 * whenever the tree content changes.
 	 */
 	/* package */ void clearCaches() {
-		cache.clear();
-		foundAnyCache.clear();
+		generation++;
+		Matching current = matching;
+		matching = new Matching(current.patternString, current.leadingWildcard, current.matcher, generation);
+		preparedMatching = null;
 	}
 
 	/**
@@ -196,6 +418,7 @@ public class PatternFilter extends ViewerFilter {
 	 * @return whether the string matches the pattern
 	 */
 	private boolean match(String string) {
+		TextMatcher matcher = getMatching().matcher;
 		if (matcher == null) {
 			return true;
 		}
@@ -254,6 +477,30 @@ public class PatternFilter extends ViewerFilter {
 		return false;
 	}
 
+	/**
+	 * Returns whether an element which does not match a pattern never matches a
+	 * refinement of that pattern, that is a pattern which only appends
+	 * characters other than whitespace. If so, the elements which did not match
+	 * the previous pattern are not checked again when the pattern is refined.
+	 * <p>
+	 * This holds if elements are only matched by passing their texts to
+	 * {@link #wordMatches(String)}. It does not hold if a subclass selects
+	 * elements for other reasons, or if its texts may change while the pattern
+	 * is typed.
+	 * </p>
+	 * <p>
+	 * The default implementation returns <code>false</code>. Subclasses may
+	 * override.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the elements matching a refined pattern are
+	 *         always among the elements matching the previous pattern
+	 * @since 3.128
+	 */
+	protected boolean isMonotonic() {
+		return false;
+	}
+
 	/**
 	 * Check if the current (leaf) element is a match with the filter text. The
 	 * default behavior checks that the label of the element is a match.
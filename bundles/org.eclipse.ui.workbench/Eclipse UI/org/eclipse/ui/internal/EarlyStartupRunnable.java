@@ -23,6 +23,7 @@ import org.eclipse.jface.util.SafeRunnable;
 import org.eclipse.ui.IStartup;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.misc.UIStats;
+import org.eclipse.ui.internal.registry.IWorkbenchRegistryConstants;
 
 /**
  * A utility class used to call #earlyStartup on the proper instance for a given
@@ -57,6 +58,27 @@ public class EarlyStartupRunnable extends SafeRunnable {
 		}
 	}
 
+	/**
+	 * Returns whether the startup classes of the given extension may run at the
+	 * same time as other early startup code.
+	 *
+	 * @param extension must not be null
+	 * @return <code>true</code> if every startup element of the extension sets
+	 *         the parallel attribute
+	 */
+	public static boolean isParallel(IExtension extension) {
+		boolean parallel = false;
+		for (IConfigurationElement element : extension.getConfigurationElements()) {
+			if (element.getName().equals(IWorkbenchConstants.TAG_STARTUP)) {
+				if (!Boolean.parseBoolean(element.getAttribute(IWorkbenchRegistryConstants.ATT_PARALLEL))) {
+					return false;
+				}
+				parallel = true;
+			}
+		}
+		return parallel;
+	}
+
 	private void missingStartupElementMessage(String message) {
 		IStatus status = new Status(IStatus.ERROR, PlatformUI.PLUGIN_ID, 0, message, null);
 		WorkbenchPlugin.log(status);
@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.core.runtime.jobs.JobGroup;
+
+/**
+ * Runs the early startup code of plug-ins and measures how long it takes.
+ * <p>
+ * Tasks run one after another in the thread calling
+ * {@link #run(IProgressMonitor)}, in the order they were added. Parallel tasks
+ * run in jobs instead, at most {@link #MAX_PARALLEL_JOBS} at the same time. A
+ * task only starts when the tasks it depends on are done. Deferred tasks only
+ * start when all other tasks are done, unless another task depends on them. If
+ * dependencies form a cycle, the task that comes first does not wait for the
+ * others.
+ * </p>
+ */
+public class EarlyStartupScheduler {
+
+	/**
+	 * The maximum number of parallel tasks running at the same time.
+	 */
+	public static final int MAX_PARALLEL_JOBS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * The early startup code of a plug-in.
+	 */
+	public final class Task {
+
+		private final String name;
+
+		private final Runnable runnable;
+
+		private final boolean parallel;
+
+		private final boolean deferred;
+
+		/**
+		 * Whether the task waits for all tasks that are not deferred, which is
+		 * the case for deferred tasks no other task depends on.
+		 */
+		private boolean late;
+
+		private boolean scheduled;
+
+		private final Set<Task> dependencies = new LinkedHashSet<>();
+
+		private final List<Task> dependents = new ArrayList<>();
+
+		private int pendingDependencies;
+
+		Task(String name, Runnable runnable, boolean parallel, boolean deferred) {
+			this.name = name;
+			this.runnable = runnable;
+			this.parallel = parallel;
+			this.deferred = deferred;
+		}
+
+		/**
+		 * Makes this task wait for the given task.
+		 *
+		 * @param dependency a task of the same scheduler
+		 */
+		public void addDependency(Task dependency) {
+			if (dependency != this && dependency.getScheduler() == EarlyStartupScheduler.this) {
+				dependencies.add(dependency);
+			}
+		}
+
+		private EarlyStartupScheduler getScheduler() {
+			return EarlyStartupScheduler.this;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	private final Object family;
+
+	private final long budget;
+
+	private final BooleanSupplier running;
+
+	private final LongSupplier clock;
+
+	private final List<Task> tasks = new ArrayList<>();
+
+	private List<Task> ordered;
+
+	private final Map<String, Long> times = new LinkedHashMap<>();
+
+	private final Set<String> overBudget = new LinkedHashSet<>();
+
+	private int unfinishedTasks;
+
+	private int unfinishedEarlyTasks;
+
+	private boolean canceled;
+
+	/**
+	 * @param family  the family of the jobs running parallel tasks
+	 * @param budget  the time in milliseconds after which a task is over budget,
+	 *                or 0 for no budget
+	 * @param running tells whether the tasks which have not started yet should
+	 *                still run
+	 */
+	public EarlyStartupScheduler(Object family, long budget, BooleanSupplier running) {
+		this(family, budget, running, System::nanoTime);
+	}
+
+	/**
+	 * @param family  the family of the jobs running parallel tasks
+	 * @param budget  the time in milliseconds after which a task is over budget,
+	 *                or 0 for no budget
+	 * @param running tells whether the tasks which have not started yet should
+	 *                still run
+	 * @param clock   the time in nanoseconds the tasks are measured with
+	 */
+	public EarlyStartupScheduler(Object family, long budget, BooleanSupplier running, LongSupplier clock) {
+		this.family = family;
+		this.budget = budget;
+		this.running = running;
+		this.clock = clock;
+	}
+
+	/**
+	 * Adds a task.
+	 *
+	 * @param name     the name of the task, usually the plug-in id
+	 * @param runnable the code to run, must not throw exceptions
+	 * @param parallel whether the task may run at the same time as others
+	 * @param deferred whether the task should start when all others are done
+	 * @return the task
+	 */
+	public Task addTask(String name, Runnable runnable, boolean parallel, boolean deferred) {
+		Task task = new Task(name, runnable, parallel, deferred);
+		tasks.add(task);
+		return task;
+	}
+
+	/**
+	 * Runs all tasks and waits until they are done.
+	 *
+	 * @param monitor the progress monitor, may be <code>null</code>
+	 * @return {@link Status#CANCEL_STATUS} if the tasks were canceled
+	 */
+	public IStatus run(IProgressMonitor monitor) {
+		List<Task> ordered = order();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, WorkbenchMessages.Workbench_startingPlugins,
+				ordered.size());
+		JobGroup group = new JobGroup("Early startup", MAX_PARALLEL_JOBS, 0); //$NON-NLS-1$
+		synchronized (this) {
+			this.ordered = ordered;
+			unfinishedTasks = ordered.size();
+			unfinishedEarlyTasks = (int) ordered.stream().filter(task -> !task.late).count();
+			for (Task task : ordered) {
+				scheduleIfReady(task, group);
+			}
+		}
+		for (Task task : ordered) {
+			if (task.parallel) {
+				subMonitor.worked(1);
+				continue;
+			}
+			if (!awaitDependencies(task, subMonitor)) {
+				return cancel(group);
+			}
+			subMonitor.setTaskName(task.name);
+			runTask(task);
+			finished(task, group);
+			subMonitor.worked(1);
+		}
+		synchronized (this) {
+			while (unfinishedTasks > 0) {
+				if (isCanceled(subMonitor)) {
+					return cancel(group);
+				}
+				waitForTasks();
+			}
+		}
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Returns how long the tasks took in milliseconds, in the order they
+	 * completed. The times of tasks with the same name are added up.
+	 *
+	 * @return the times by task name
+	 */
+	public synchronized Map<String, Long> getTimes() {
+		return new LinkedHashMap<>(times);
+	}
+
+	/**
+	 * Returns the names of the tasks which took longer than the budget.
+	 *
+	 * @return the task names, empty if there is no budget
+	 */
+	public synchronized Set<String> getTasksOverBudget() {
+		return new LinkedHashSet<>(overBudget);
+	}
+
+	/**
+	 * Orders the tasks so that every task comes after its dependencies and the
+	 * late tasks come last, then counts the dependencies each task waits for.
+	 */
+	private List<Task> order() {
+		List<Task> ordered = new ArrayList<>(tasks.size());
+		Set<Task> visited = new HashSet<>();
+		for (Task task : tasks) {
+			if (!task.deferred) {
+				visit(task, visited, ordered);
+			}
+		}
+		int early = ordered.size();
+		for (Task task : tasks) {
+			visit(task, visited, ordered);
+		}
+		for (Task task : ordered.subList(early, ordered.size())) {
+			task.late = true;
+		}
+		Map<Task, Integer> positions = new HashMap<>();
+		for (Task task : ordered) {
+			positions.put(task, Integer.valueOf(positions.size()));
+		}
+		for (Task task : ordered) {
+			int position = positions.get(task).intValue();
+			for (Task dependency : task.dependencies) {
+				if (positions.get(dependency).intValue() < position) {
+					task.pendingDependencies++;
+					dependency.dependents.add(task);
+				}
+			}
+		}
+		return ordered;
+	}
+
+	private static void visit(Task task, Set<Task> visited, List<Task> ordered) {
+		if (visited.add(task)) {
+			for (Task dependency : task.dependencies) {
+				visit(dependency, visited, ordered);
+			}
+			ordered.add(task);
+		}
+	}
+
+	private synchronized boolean awaitDependencies(Task task, IProgressMonitor monitor) {
+		while (task.pendingDependencies > 0 || (task.late && unfinishedEarlyTasks > 0)) {
+			if (isCanceled(monitor)) {
+				return false;
+			}
+			waitForTasks();
+		}
+		return !isCanceled(monitor);
+	}
+
+	private void waitForTasks() {
+		try {
+			// wake up now and then to check for cancellation
+			wait(100);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private boolean isCanceled(IProgressMonitor monitor) {
+		return monitor.isCanceled() || !running.getAsBoolean() || Thread.currentThread().isInterrupted();
+	}
+
+	private IStatus cancel(JobGroup group) {
+		synchronized (this) {
+			canceled = true;
+		}
+		group.cancel();
+		return Status.CANCEL_STATUS;
+	}
+
+	/**
+	 * Schedules the given task if it is parallel and is not waiting for other
+	 * tasks.
+	 */
+	private void scheduleIfReady(Task task, JobGroup group) {
+		if (task.parallel && !task.scheduled && !canceled && task.pendingDependencies == 0
+				&& (!task.late || unfinishedEarlyTasks == 0)) {
+			task.scheduled = true;
+			schedule(task, group);
+		}
+	}
+
+	private void schedule(Task task, JobGroup group) {
+		Job job = new Job(task.name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				if (monitor.isCanceled() || !running.getAsBoolean()) {
+					return Status.CANCEL_STATUS;
+				}
+				runTask(task);
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object jobFamily) {
+				return family.equals(jobFamily);
+			}
+		};
+		job.setSystem(true);
+		job.setJobGroup(group);
+		if (task.late) {
+			job.setPriority(Job.DECORATE);
+		}
+		// also called if the job is canceled before it runs
+		job.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				finished(task, group);
+			}
+		});
+		job.schedule();
+	}
+
+	private void runTask(Task task) {
+		long start = clock.getAsLong();
+		try {
+			task.runnable.run();
+		} finally {
+			long time = (clock.getAsLong() - start) / 1000000;
+			synchronized (this) {
+				times.merge(task.name, Long.valueOf(time), Long::sum);
+				if (budget > 0 && time > budget) {
+					overBudget.add(task.name);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts the parallel tasks that waited for the given task only, or for the
+	 * last task that is not late, and wakes up the thread running the other
+	 * tasks.
+	 */
+	private synchronized void finished(Task task, JobGroup group) {
+		unfinishedTasks--;
+		for (Task dependent : task.dependents) {
+			dependent.pendingDependencies--;
+			scheduleIfReady(dependent, group);
+		}
+		if (!task.late && --unfinishedEarlyTasks == 0) {
+			for (Task late : ordered) {
+				if (late.late) {
+					scheduleIfReady(late, group);
+				}
+			}
+		}
+		notifyAll();
+	}
+}
@@ -93,6 +93,14 @@ public interface IPreferenceConstants {
 	// Separator for PLUGINS_NOT_ACTIVATED_ON_STARTUP
 	char SEPARATOR = ';';
 
+	// (int) If > 0, the early startup extensions of a plug-in taking longer
+	// than this many milliseconds run after the others on the next start.
+	String EARLY_STARTUP_BUDGET = "EARLY_STARTUP_BUDGET"; //$NON-NLS-1$
+
+	// List of plugins whose early startup exceeded EARLY_STARTUP_BUDGET.
+	// String of plugin unique ids separated by ";"
+	String EARLY_STARTUP_DEFERRED = "EARLY_STARTUP_DEFERRED"; //$NON-NLS-1$
+
 	// Preference key for default editors
 	String DEFAULT_EDITORS = "defaultEditors"; //$NON-NLS-1$
 
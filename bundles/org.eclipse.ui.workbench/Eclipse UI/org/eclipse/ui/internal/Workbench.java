@@ -47,6 +47,7 @@ import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -258,12 +259,15 @@ import org.eclipse.ui.themes.IThemeManager;
 import org.eclipse.ui.views.IViewDescriptor;
 import org.eclipse.ui.views.IViewRegistry;
 import org.eclipse.ui.wizards.IWizardRegistry;
+import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleEvent;
 import org.osgi.framework.Constants;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.ServiceRegistration;
 import org.osgi.framework.SynchronousBundleListener;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
 import org.osgi.util.tracker.ServiceTracker;
 
 /**
@@ -2622,9 +2626,23 @@ public final class Workbench extends EventManager implements IWorkbench, org.ecl
 		return pref.split(";"); //$NON-NLS-1$
 	}
 
+	/**
+	 * Returns how long the early startup extensions of each plug-in took in
+	 * milliseconds, in the order they completed.
+	 *
+	 * @return the times by plug-in id, empty until all early startup extensions
+	 *         have run
+	 */
+	public Map<String, Long> getEarlyStartupTimes() {
+		return earlyStartupTimes;
+	}
+
 	/*
 	 * Starts all plugins that extend the <code> org.eclipse.ui.startup </code>
 	 * extension point, and that the user has not disabled via the preference page.
+	 * Extensions run in the order of the plug-in dependencies, the ones declared
+	 * parallel in a bounded group of jobs. Plug-ins which exceeded the early
+	 * startup budget last time start after the others.
 	 */
 	private void startPlugins() {
 
@@ -2642,22 +2660,45 @@ public final class Workbench extends EventManager implements IWorkbench, org.ecl
 					return Status.OK_STATUS;
 				}
 				HashSet<String> disabledPlugins = new HashSet<>(Arrays.asList(getDisabledEarlyActivatedPlugins()));
-				SubMonitor subMonitor = SubMonitor.convert(monitor, WorkbenchMessages.Workbench_startingPlugins,
-						extensions.length);
+				IPreferenceStore store = PrefUtil.getInternalPreferenceStore();
+				int budget = store.getInt(IPreferenceConstants.EARLY_STARTUP_BUDGET);
+				String deferred = store.getString(IPreferenceConstants.EARLY_STARTUP_DEFERRED);
+				Set<String> deferredPlugins = new HashSet<>(Arrays.asList(deferred.split(";"))); //$NON-NLS-1$
+				EarlyStartupScheduler scheduler = new EarlyStartupScheduler(EARLY_STARTUP_FAMILY, budget,
+						Workbench.this::isRunning);
+				Map<String, List<EarlyStartupScheduler.Task>> tasks = new HashMap<>();
 				for (IExtension extension : extensions) {
-					if (subMonitor.isCanceled() || !isRunning()) {
-						return Status.CANCEL_STATUS;
-					}
-
 					// if the plugin is not in the set of disabled plugins, then
 					// execute the code to start it
-					if (!disabledPlugins.contains(extension.getContributor().getName())) {
-						subMonitor.setTaskName(extension.getContributor().getName());
-						SafeRunner.run(new EarlyStartupRunnable(extension));
+					String pluginId = extension.getContributor().getName();
+					if (!disabledPlugins.contains(pluginId)) {
+						boolean parallel = EarlyStartupRunnable.isParallel(extension);
+						boolean defer = budget > 0 && deferredPlugins.contains(pluginId);
+						EarlyStartupScheduler.Task task = scheduler.addTask(pluginId,
+								() -> SafeRunner.run(new EarlyStartupRunnable(extension)), parallel, defer);
+						tasks.computeIfAbsent(pluginId, id -> new ArrayList<>()).add(task);
 					}
-					subMonitor.worked(1);
 				}
-				return Status.OK_STATUS;
+				addRequiredPlugins(tasks);
+				IStatus result = scheduler.run(monitor);
+				earlyStartupTimes = Collections.unmodifiableMap(scheduler.getTimes());
+				if (Policy.DEBUG_EARLY_STARTUP) {
+					earlyStartupTimes.forEach((pluginId, time) -> Policy.trace(Policy.EARLY_STARTUP_OPTION,
+							pluginId + " took " + time + "ms")); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				if (budget > 0 && result.isOK()) {
+					Set<String> overBudget = scheduler.getTasksOverBudget();
+					for (String pluginId : overBudget) {
+						if (!deferredPlugins.contains(pluginId)) {
+							String message = "The early startup of '" + pluginId + "' took " //$NON-NLS-1$ //$NON-NLS-2$
+									+ earlyStartupTimes.get(pluginId) + "ms, it will run after the others on the next start."; //$NON-NLS-1$
+							WorkbenchPlugin.log(StatusUtil.newStatus(IStatus.INFO, message, null));
+						}
+					}
+					store.setValue(IPreferenceConstants.EARLY_STARTUP_DEFERRED,
+							String.join(String.valueOf(IPreferenceConstants.SEPARATOR), overBudget));
+				}
+				return result;
 			}
 
 			@Override
@@ -2669,6 +2710,31 @@ public final class Workbench extends EventManager implements IWorkbench, org.ecl
 		job.schedule();
 	}
 
+	/**
+	 * Makes the early startup of each plug-in wait for the early startup of the
+	 * plug-ins it is wired to.
+	 */
+	private static void addRequiredPlugins(Map<String, List<EarlyStartupScheduler.Task>> tasks) {
+		for (Entry<String, List<EarlyStartupScheduler.Task>> entry : tasks.entrySet()) {
+			Bundle bundle = Platform.getBundle(entry.getKey());
+			BundleWiring wiring = bundle == null ? null : bundle.adapt(BundleWiring.class);
+			if (wiring == null) {
+				continue;
+			}
+			for (BundleWire wire : wiring.getRequiredWires(null)) {
+				List<EarlyStartupScheduler.Task> required = tasks.get(wire.getProvider().getSymbolicName());
+				if (required == null) {
+					continue;
+				}
+				for (EarlyStartupScheduler.Task task : entry.getValue()) {
+					for (EarlyStartupScheduler.Task dependency : required) {
+						task.addDependency(dependency);
+					}
+				}
+			}
+		}
+	}
+
 	/**
 	 * Disable the Workbench Auto-Save job on startup during tests.
 	 *
@@ -3191,6 +3257,11 @@ public final class Workbench extends EventManager implements IWorkbench, org.ecl
 	 */
 	private IntroDescriptor introDescriptor;
 
+	/**
+	 * The time taken by the early startup extensions of each plug-in.
+	 */
+	private volatile Map<String, Long> earlyStartupTimes = Collections.emptyMap();
+
 	private IRegistryChangeListener startupRegistryListener = event -> {
 		final IExtensionDelta[] deltas = event.getExtensionDeltas(PlatformUI.PLUGIN_ID,
 				IWorkbenchRegistryConstants.PL_STARTUP);
@@ -823,6 +823,7 @@ public class WorkbenchMessages extends NLS {
 	public static String FilteredTree_FilterMessage;
 	public static String FilteredTree_FilteredDialogTitle;
 	public static String FilteredTree_AccessibleListenerFiltered;
+	public static String FilteredTree_MatchJobName;
 	public static String Workbench_startingPlugins;
 	public static String ScopedPreferenceStore_DefaultAddedError;
 
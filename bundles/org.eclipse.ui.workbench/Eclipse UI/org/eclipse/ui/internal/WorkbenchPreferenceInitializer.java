@@ -63,6 +63,7 @@ public class WorkbenchPreferenceInitializer extends AbstractPreferenceInitialize
 		node.putBoolean(IPreferenceConstants.SELECT_ON_HOVER, false);
 		node.putBoolean(IPreferenceConstants.OPEN_AFTER_DELAY, false);
 		node.putInt(IPreferenceConstants.RECENT_FILES, 20);
+		node.putInt(IPreferenceConstants.EARLY_STARTUP_BUDGET, 0);
 
 		// FIXME this does not actually set the default since it is the wrong
 		// node. It works because the default-default is false.
@@ -15,8 +15,8 @@
 package org.eclipse.ui.internal.dialogs;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.jface.preference.IPreferenceNode;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.TreeViewer;
@@ -39,7 +39,7 @@ public class PreferencePatternFilter extends PatternFilter {
 	 * WorkbenchPreferenceExtensionNode.getKeywordLabels() is expensive. When it
 	 * tracks keyword changes effectively than this cache can be removed.
 	 */
-	private Map<WorkbenchPreferenceExtensionNode, Collection<String>> keywordCache = new HashMap<>();
+	private Map<WorkbenchPreferenceExtensionNode, Collection<String>> keywordCache = new ConcurrentHashMap<>();
 
 	/**
 	 * Create a new instance of a PreferencePatternFilter
@@ -72,6 +72,24 @@ public class PreferencePatternFilter extends PatternFilter {
 		return element instanceof WorkbenchPreferenceExtensionNode;
 	}
 
+	/**
+	 * Preference nodes are matched by their label texts and keywords, which may
+	 * be read in any thread.
+	 */
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
+	/**
+	 * Preference nodes only match by their labels and keywords, so a refined
+	 * pattern never matches a node the previous pattern did not match.
+	 */
+	@Override
+	protected boolean isMonotonic() {
+		return true;
+	}
+
 	@Override
 	public boolean isElementVisible(Viewer viewer, Object element) {
 		if (WorkbenchActivityHelper.restrictUseOf(element))
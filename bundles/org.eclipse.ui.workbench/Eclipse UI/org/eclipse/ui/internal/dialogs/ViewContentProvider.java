@@ -14,11 +14,11 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.dialogs;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
 import org.eclipse.jface.viewers.ITreeContentProvider;
@@ -36,9 +36,10 @@ public class ViewContentProvider implements ITreeContentProvider {
 
 	/**
 	 * Child cache. Map from Object-&gt;Object[]. Our hasChildren() method is expensive
-	 * so it's better to cache the results of getChildren().
+	 * so it's better to cache the results of getChildren(). The filter of the
+	 * show view dialog gets children in the background, too.
 	 */
-	private Map<Object, Object[]> childMap = new HashMap<>();
+	private Map<Object, Object[]> childMap = new ConcurrentHashMap<>();
 
 	private MApplication application;
 	private IViewRegistry viewRegistry;
@@ -33,6 +33,15 @@ public class ViewPatternFilter extends PatternFilter {
 		return element instanceof MPartDescriptor;
 	}
 
+	/**
+	 * Views only match by their labels, so a refined pattern never matches a view
+	 * the previous pattern did not match.
+	 */
+	@Override
+	protected boolean isMonotonic() {
+		return true;
+	}
+
 	@Override
 	protected boolean isLeafMatch(Viewer viewer, Object element) {
 		if (element instanceof String) {
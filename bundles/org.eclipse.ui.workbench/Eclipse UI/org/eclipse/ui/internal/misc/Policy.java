@@ -14,9 +14,12 @@
 package org.eclipse.ui.internal.misc;
 
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.osgi.service.debug.DebugOptions;
+import org.eclipse.osgi.service.debug.DebugTrace;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.ui.ISourceProvider;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.WorkbenchPlugin;
 
 /**
  * A common facility for parsing the <code>org.eclipse.ui/.options</code> file.
@@ -159,6 +162,19 @@ public class Policy {
 	 */
 	public static boolean DEBUG_WORKING_SETS = DEFAULT;
 
+	/**
+	 * Whether or not the time taken by each early startup extension is
+	 * reported.
+	 */
+	public static boolean DEBUG_EARLY_STARTUP = DEFAULT;
+
+	/**
+	 * The debug option for {@link #DEBUG_EARLY_STARTUP}.
+	 */
+	public static final String EARLY_STARTUP_OPTION = "/trace/earlyStartup"; //$NON-NLS-1$
+
+	private static DebugTrace debugTrace;
+
 	static {
 		if (getDebugOption("/debug")) { //$NON-NLS-1$
 			DEBUG_SWT_GRAPHICS = getDebugOption("/trace/graphics"); //$NON-NLS-1$
@@ -191,6 +207,7 @@ public class Policy {
 			EXPERIMENTAL_MENU = getDebugOption("/experimental/menus"); //$NON-NLS-1$
 			DEBUG_MPE = getDebugOption("/trace/multipageeditor"); //$NON-NLS-1$
 			DEBUG_WORKING_SETS = getDebugOption("/debug/workingSets"); //$NON-NLS-1$
+			DEBUG_EARLY_STARTUP = getDebugOption(EARLY_STARTUP_OPTION);
 
 			if (DEBUG_SWT_DEBUG_GLOBAL)
 				Device.DEBUG = true;
@@ -200,4 +217,30 @@ public class Policy {
 	private static boolean getDebugOption(String option) {
 		return "true".equalsIgnoreCase(Platform.getDebugOption(PlatformUI.PLUGIN_ID + option)); //$NON-NLS-1$
 	}
+
+	/**
+	 * Writes the given message to the trace of the workbench.
+	 *
+	 * @param option  the debug option the message belongs to, e.g.
+	 *                {@link #EARLY_STARTUP_OPTION}
+	 * @param message the message
+	 */
+	public static void trace(String option, String message) {
+		DebugTrace trace = getDebugTrace();
+		if (trace != null) {
+			trace.trace(option, message);
+		}
+	}
+
+	private static synchronized DebugTrace getDebugTrace() {
+		if (debugTrace == null) {
+			WorkbenchPlugin plugin = WorkbenchPlugin.getDefault();
+			DebugOptions options = plugin != null ? plugin.getDebugOptions() : null;
+			if (options == null) {
+				return null;
+			}
+			debugTrace = options.newDebugTrace(PlatformUI.PLUGIN_ID);
+		}
+		return debugTrace;
+	}
 }
@@ -39,6 +39,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
@@ -68,6 +69,7 @@ import org.eclipse.ui.ISharedImages;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.WorkbenchException;
 import org.eclipse.ui.XMLMemento;
+import org.eclipse.ui.activities.IWorkbenchActivitySupport;
 import org.eclipse.ui.activities.WorkbenchActivityHelper;
 import org.eclipse.ui.internal.IPreferenceConstants;
 import org.eclipse.ui.internal.IWorkbenchConstants;
@@ -175,6 +177,17 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 	private RelatedRegistry relatedRegistry;
 
+	/**
+	 * The editors found by {@link #findRelatedObjects(IContentType, String)} by
+	 * file name and content type. Cleared whenever the mappings, the content types
+	 * or the enabled activities change.
+	 */
+	private final Map<String, IEditorDescriptor[]> relatedEditors = new ConcurrentHashMap<>();
+
+	private int relatedEditorsGeneration;
+
+	private boolean listeningToActivities;
+
 	private final IContentTypeManager contentTypeManager;
 
 	public static final String EMPTY_EDITOR_ID = "org.eclipse.ui.internal.emptyEditorTab"; //$NON-NLS-1$
@@ -197,6 +210,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 				contentTypeToEditorMappingsFromUser.remove(event.getContentType());
 				saveAssociations();
 			}
+			clearRelatedEditors();
 		});
 	}
 
@@ -275,6 +289,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 		// Update editor map.
 		mapIDtoInternalEditor.put(editor.getId(), editor);
+		clearRelatedEditors();
 	}
 
 	public void addContentTypeBindingFromPlugin(IContentType contentType, IEditorDescriptor editor, boolean bDefault) {
@@ -293,6 +308,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			}
 			contentTypeToEditorMappingsFromPlugins.put(contentType, newArray);
 		}
+		clearRelatedEditors();
 	}
 
 	/**
@@ -1099,6 +1115,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		}
 		extensionImages = new HashMap<>();
 		rebuildEditorMap();
+		clearRelatedEditors();
 		firePropertyChange(PROP_CONTENTS);
 	}
 
@@ -1116,6 +1133,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		if (mapping[1] != null) {
 			mapping[1].setDefaultEditor(desc);
 		}
+		clearRelatedEditors();
 	}
 
 	/**
@@ -1288,6 +1306,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			}
 
 		}
+		clearRelatedEditors();
 	}
 
 	/**
@@ -1374,7 +1393,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 	 */
 	private IEditorDescriptor getEditorForContentType(String filename, IContentType contentType) {
 		IEditorDescriptor desc = null;
-		Object[] contentTypeResults = findRelatedObjects(contentType, filename, relatedRegistry);
+		Object[] contentTypeResults = findRelatedObjects(contentType, filename);
 		if (contentTypeResults != null && contentTypeResults.length > 0) {
 			desc = (IEditorDescriptor) contentTypeResults[0];
 		}
@@ -1383,7 +1402,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 	@Override
 	public IEditorDescriptor[] getEditors(String fileName, IContentType contentType) {
-		return findRelatedObjects(contentType, fileName, relatedRegistry);
+		return findRelatedObjects(contentType, fileName);
 	}
 
 	@Override
@@ -1442,6 +1461,65 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 	}
 
+	/**
+	 * Find the editors related to the content type and the file name. The result
+	 * is computed once and then taken from {@link #relatedEditors} until the
+	 * mappings, the content types or the enabled activities change.
+	 *
+	 * @param type     the content type, may be <code>null</code>
+	 * @param fileName the file name, may be <code>null</code>
+	 * @return the related editors
+	 */
+	private IEditorDescriptor[] findRelatedObjects(IContentType type, String fileName) {
+		// a file name can't contain a slash
+		String key = (fileName == null ? "/" : mappingKeyFor(fileName)) + '/' //$NON-NLS-1$
+				+ (type == null ? "" : type.getId()); //$NON-NLS-1$
+		IEditorDescriptor[] related = relatedEditors.get(key);
+		if (related == null) {
+			int generation;
+			synchronized (relatedEditors) {
+				generation = relatedEditorsGeneration;
+			}
+			related = findRelatedObjects(type, fileName, relatedRegistry);
+			synchronized (relatedEditors) {
+				// don't keep a result computed from stale mappings
+				if (generation == relatedEditorsGeneration && listenToActivities()) {
+					relatedEditors.put(key, related);
+				}
+			}
+		}
+		// callers may modify the returned array
+		return related.clone();
+	}
+
+	/**
+	 * Makes sure that {@link #relatedEditors} is cleared when the enabled
+	 * activities change, because editors of disabled activities are filtered out.
+	 *
+	 * @return whether the related editors may be cached
+	 */
+	private boolean listenToActivities() {
+		if (!listeningToActivities) {
+			IWorkbenchActivitySupport activitySupport = PlatformUI.getWorkbench().getActivitySupport();
+			if (activitySupport == null) {
+				return false;
+			}
+			activitySupport.getActivityManager().addActivityManagerListener(event -> clearRelatedEditors());
+			listeningToActivities = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Clears the cache of related editors.
+	 */
+	private void clearRelatedEditors() {
+		synchronized (relatedEditors) {
+			relatedEditorsGeneration++;
+			relatedEditors.clear();
+		}
+	}
+
 	/**
 	 * Find objects related to the content type.
 	 *
@@ -1650,6 +1728,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		if (this.contentTypeToEditorMappingsFromUser.containsKey(contentType)) {
 			this.contentTypeToEditorMappingsFromUser.get(contentType).remove(editor);
 		}
+		clearRelatedEditors();
 		saveAssociations();
 	}
 
@@ -1665,6 +1744,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			mapIDtoInternalEditor.put(selectedEditor.getId(), selectedEditor);
 		}
 		this.contentTypeToEditorMappingsFromUser.get(contentType).add(selectedEditor);
+		clearRelatedEditors();
 		saveAssociations();
 	}
 
@@ -370,6 +370,12 @@ public interface IWorkbenchRegistryConstants {
 	 */
 	String ATT_OS = "os"; //$NON-NLS-1$
 
+	/**
+	 * Parallel attribute, which appears on startup elements. Value
+	 * <code>parallel</code>.
+	 */
+	String ATT_PARALLEL = "parallel"; //$NON-NLS-1$
+
 	/**
 	 * The name of the deprecated parent attribute, which appears on scheme
 	 * definitions.
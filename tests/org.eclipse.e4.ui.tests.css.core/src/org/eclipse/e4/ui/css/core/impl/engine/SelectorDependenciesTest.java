@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Set;
+
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.tests.css.core.util.TestElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
+
+public class SelectorDependenciesTest {
+
+	private static final Set<String> ACTIVE = Set.of(SelectorDependencies.getClassKey("active"));
+
+	private CSSEngineImpl engine;
+
+	@BeforeEach
+	public void setUp() {
+		engine = new CSSEngineImpl() {
+			@Override
+			public void reapply() {
+				// nothing to reapply
+			}
+		};
+		engine.setElementProvider((element, aEngine) -> element instanceof Element e ? e : null);
+	}
+
+	@Test
+	void testClassOfSubject() throws IOException {
+		SelectorDependencies dependencies = parse("Label.active { color: red; }");
+		assertTrue(dependencies.affectsElement(ACTIVE));
+		assertFalse(dependencies.affectsDescendants(ACTIVE));
+		assertFalse(dependencies.affectsElement(Set.of(SelectorDependencies.getClassKey("other"))));
+	}
+
+	@Test
+	void testClassOfAncestor() throws IOException {
+		SelectorDependencies dependencies = parse(".active > Label { color: red; } .active Button { color: blue; }");
+		assertFalse(dependencies.affectsElement(ACTIVE));
+		assertTrue(dependencies.affectsDescendants(ACTIVE));
+	}
+
+	@Test
+	void testClassOfSibling() throws IOException {
+		SelectorDependencies dependencies = parse("Label.active + Button { color: red; }");
+		assertFalse(dependencies.affectsElement(ACTIVE));
+		assertFalse(dependencies.affectsDescendants(ACTIVE));
+	}
+
+	@Test
+	void testIdAndPseudoClass() throws IOException {
+		SelectorDependencies dependencies = parse("#main Label:focus { color: red; }");
+		assertTrue(dependencies.affectsDescendants(Set.of(SelectorDependencies.ID_KEY)));
+		assertTrue(dependencies.affectsElement(Set.of(SelectorDependencies.getPseudoClassKey("focus"))));
+		assertFalse(dependencies.affectsElement(Set.of(SelectorDependencies.ID_KEY)));
+	}
+
+	@Test
+	void testInheritedValue() throws IOException {
+		SelectorDependencies dependencies = parse(".active { color: red; } Label { color: inherit; }");
+		assertTrue(dependencies.affectsElement(ACTIVE));
+		assertTrue(dependencies.affectsDescendants(ACTIVE));
+	}
+
+	@Test
+	void testClassChanges() {
+		assertEquals(Set.of(SelectorDependencies.getClassKey("active"), SelectorDependencies.getAttributeKey("class")),
+				SelectorDependencies.getClassChanges("MPartStack active", " MPartStack "));
+		assertTrue(SelectorDependencies.getClassChanges("MPart a b", "b a  MPart").isEmpty());
+	}
+
+	@Test
+	void testApplyStylesOnChange() throws IOException {
+		engine.parseStyleSheet(new StringReader(".active Label { color: red; }"));
+		TestElement shell = new WidgetElement("Shell", engine);
+		TestElement composite = new WidgetElement("Composite", shell, engine);
+		new WidgetElement("Label", composite, engine);
+		new WidgetElement("Button", composite, engine);
+
+		engine.applyStylesOnChange(shell, Set.of(SelectorDependencies.getClassKey("other")));
+		assertEquals(0, engine.getRestyledElementCount());
+		assertEquals(2, engine.getSkippedElementCount());
+
+		engine.applyStylesOnChange(shell, ACTIVE);
+		assertEquals(3, engine.getRestyledElementCount());
+		assertEquals(3, engine.getSkippedElementCount());
+	}
+
+	/**
+	 * An element which is its own widget, so that the engine keeps one context
+	 * per element.
+	 */
+	private static class WidgetElement extends TestElement {
+
+		WidgetElement(String type, CSSEngine engine) {
+			super(type, engine);
+		}
+
+		WidgetElement(String type, TestElement parent, CSSEngine engine) {
+			super(type, parent, engine);
+		}
+
+		@Override
+		public Object getNativeWidget() {
+			return this;
+		}
+	}
+
+	private SelectorDependencies parse(String css) throws IOException {
+		engine.parseStyleSheet(new StringReader(css));
+		return engine.getSelectorDependencies();
+	}
+}
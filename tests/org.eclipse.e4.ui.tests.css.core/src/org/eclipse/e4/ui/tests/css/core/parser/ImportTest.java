@@ -17,11 +17,13 @@ package org.eclipse.e4.ui.tests.css.core.parser;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.List;
 
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
 import org.eclipse.e4.ui.css.core.impl.dom.DocumentCSSImpl;
@@ -120,6 +122,10 @@ public class ImportTest {
 		assertStyle(deepNestedCss, cssRules, 0);
 		assertStyle(childStyle, cssRules, 1);
 		assertStyle(rootStyle, cssRules, 2);
+		// both imported files are recorded in the order of their rules
+		List<String> importedURIs = engine.getImportedURIs(result);
+		assertEquals(2, importedURIs.size());
+		assertTrue(importedURIs.get(1).endsWith(importedFile.getName()));
 		// check the full DocumentCSS of the engine
 		StyleSheetList documentStyleSheets = engine.getDocumentCSS().getStyleSheets();
 		assertEquals(1, documentStyleSheets.getLength());
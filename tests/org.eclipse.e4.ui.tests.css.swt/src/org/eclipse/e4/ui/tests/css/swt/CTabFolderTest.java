@@ -26,6 +26,7 @@ import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.ToolBar;
@@ -319,6 +320,26 @@ public class CTabFolderTest extends CSSSWTTestCase {
 		assertEquals(WHITE, barA.getBackground().getRGB());
 	}
 
+	@Test
+	void testSelectionStylesTopRight() {
+		CTabFolder folder = createTestCTabFolder(
+				"CTabFolder ToolBar { background: #00FF00}\n" + "ToolBar { background: #0000FF}");
+		CTabItem tab2 = new CTabItem(folder, SWT.NONE);
+		tab2.setText("ANOTHER TAB ITEM");
+		Composite topRight = new Composite(folder, SWT.NONE);
+		folder.setTopRight(topRight);
+		engine.applyStyles(folder, true);
+
+		// the toolbar of the selected item is shown top right
+		ToolBar toolBar = new ToolBar(topRight, SWT.FLAT | SWT.HORIZONTAL);
+		folder.setSelection(tab2);
+		Event event = new Event();
+		event.item = tab2;
+		folder.notifyListeners(SWT.Selection, event);
+
+		assertEquals(GREEN, toolBar.getBackground().getRGB());
+	}
+
 	@Test
 	void testStyleLabelChildInCTabFolder() {
 		Label labelToTest = createLabelInCTabFolder("Label { background-color: #0000FF; }\n");
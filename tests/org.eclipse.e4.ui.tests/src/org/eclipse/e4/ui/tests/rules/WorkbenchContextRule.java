@@ -46,6 +46,18 @@ public class WorkbenchContextRule implements MethodRule {
 		wb.createAndRunUI(window);
 	}
 
+	/**
+	 * Renders the windows of the application and runs the event loop until none
+	 * of them is rendered anymore.
+	 */
+	public void createAndRunApplication() {
+		MApplication application = context.get(MApplication.class);
+		if (wb == null) {
+			wb = new E4Workbench(application, context);
+		}
+		wb.createAndRunUI(application);
+	}
+
 	public void spinEventLoop() {
 		while (Display.getDefault().readAndDispatch()) {
 		}
@@ -14,12 +14,18 @@
 
 package org.eclipse.e4.ui.tests.workbench;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import org.eclipse.core.expressions.EvaluationResult;
+import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.IEvaluationContext;
 import org.eclipse.e4.core.commands.ExpressionContext;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.ui.internal.workbench.ContributionsAnalyzer;
 import org.eclipse.e4.ui.internal.workbench.swt.E4Application;
+import org.eclipse.e4.ui.model.application.ui.MCoreExpression;
 import org.eclipse.e4.ui.model.application.ui.MImperativeExpression;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
 import org.junit.After;
@@ -53,4 +59,56 @@ public class ContributionsAnalyzerTest {
 
 		assertTrue(ContributionsAnalyzer.isVisible(exp, eContext));
 	}
+
+	@Test
+	public void testCoreExpressionEvaluatedOncePerEvaluationScope() {
+		ExpressionContext eContext = new ExpressionContext(appContext);
+		CountingExpression expression = new CountingExpression(EvaluationResult.TRUE);
+		MCoreExpression first = ems.createModelElement(MCoreExpression.class);
+		first.setCoreExpression(expression);
+		MCoreExpression second = ems.createModelElement(MCoreExpression.class);
+		second.setCoreExpression(expression);
+
+		ContributionsAnalyzer.beginEvaluation(appContext);
+		try {
+			assertTrue(ContributionsAnalyzer.isVisible(first, eContext));
+			assertTrue(ContributionsAnalyzer.isVisible(second, eContext));
+			assertTrue(ContributionsAnalyzer.isVisible(first, new ExpressionContext(appContext)));
+		} finally {
+			ContributionsAnalyzer.endEvaluation(appContext);
+		}
+		assertEquals(1, expression.count);
+
+		// outside of a scope every evaluation sees the current context
+		expression.result = EvaluationResult.FALSE;
+		assertFalse(ContributionsAnalyzer.isVisible(first, eContext));
+		assertFalse(ContributionsAnalyzer.isVisible(first, eContext));
+		assertEquals(3, expression.count);
+	}
+
+	@Test
+	public void testReplacedCoreExpressionIsRecompiled() {
+		ExpressionContext eContext = new ExpressionContext(appContext);
+		MCoreExpression exp = ems.createModelElement(MCoreExpression.class);
+		exp.setCoreExpression(new CountingExpression(EvaluationResult.TRUE));
+		assertTrue(ContributionsAnalyzer.isVisible(exp, eContext));
+
+		exp.setCoreExpression(new CountingExpression(EvaluationResult.FALSE));
+		assertFalse(ContributionsAnalyzer.isVisible(exp, eContext));
+	}
+
+	private static class CountingExpression extends Expression {
+		EvaluationResult result;
+		int count;
+
+		CountingExpression(EvaluationResult result) {
+			this.result = result;
+		}
+
+		@Override
+		public EvaluationResult evaluate(IEvaluationContext context) {
+			count++;
+			return result;
+		}
+	}
 }
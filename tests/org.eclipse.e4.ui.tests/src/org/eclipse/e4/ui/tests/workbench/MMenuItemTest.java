@@ -45,6 +45,7 @@ import org.eclipse.e4.ui.model.application.ui.menu.MDirectMenuItem;
 import org.eclipse.e4.ui.model.application.ui.menu.MHandledMenuItem;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuContribution;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenuElement;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuItem;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuSeparator;
 import org.eclipse.e4.ui.services.ContextServiceAddon;
@@ -585,6 +586,147 @@ public class MMenuItemTest {
 		fileWidget.notifyListeners(SWT.Hide, hide);
 	}
 
+	@Test
+	public void testWithVisibleReshown() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MMenu mainMenu = ems.createModelElement(MMenu.class);
+		mainMenu.setElementId("org.eclipse.ui.main.menu");
+		window.setMainMenu(mainMenu);
+
+		MMenu fileMenu = ems.createModelElement(MMenu.class);
+		fileMenu.setElementId("file");
+		fileMenu.setLabel("File");
+		mainMenu.getChildren().add(fileMenu);
+
+		MMenuItem item1 = ems.createModelElement(MDirectMenuItem.class);
+		item1.setElementId("item1");
+		item1.setLabel("item1");
+		fileMenu.getChildren().add(item1);
+
+		MMenuSeparator sep = ems.createModelElement(MMenuSeparator.class);
+		sep.setElementId("group1");
+		fileMenu.getChildren().add(sep);
+
+		application.getChildren().add(window);
+		application.getMenuContributions().add(createContribution(true));
+		contextRule.createAndRunWorkbench(window);
+
+		MenuManagerRenderer renderer = getRenderer(appContext, mainMenu);
+
+		MenuManager fileManager = renderer.getManager(fileMenu);
+		assertNotNull("No file menu?", fileManager);
+
+		IContributionItem mmcItem = fileManager.getItems()[2];
+		assertEquals("mmc.item1", mmcItem.getId());
+		MMenuElement mmcElement = fileMenu.getChildren().get(2);
+
+		MenuManager manager = renderer.getManager(mainMenu);
+		manager.updateAll(true);
+		Menu fileWidget = fileManager.getMenu();
+		assertNotNull(fileWidget);
+
+		Event show = new Event();
+		show.widget = fileWidget;
+		show.type = SWT.Show;
+
+		Event hide = new Event();
+		hide.widget = fileWidget;
+		hide.type = SWT.Hide;
+
+		fileWidget.notifyListeners(SWT.Show, show);
+		assertFalse(mmcItem.isVisible());
+		fileWidget.notifyListeners(SWT.Hide, hide);
+
+		// nothing changed in between
+		fileWidget.notifyListeners(SWT.Show, show);
+		assertFalse(mmcItem.isVisible());
+		fileWidget.notifyListeners(SWT.Hide, hide);
+
+		// the visibility was changed behind the back of the menu
+		mmcElement.setVisible(true);
+		fileWidget.notifyListeners(SWT.Show, show);
+		assertFalse(mmcElement.isVisible());
+		assertFalse(mmcItem.isVisible());
+		fileWidget.notifyListeners(SWT.Hide, hide);
+
+		appContext.set("mmc1", Boolean.TRUE);
+		fileWidget.notifyListeners(SWT.Show, show);
+		assertTrue(mmcItem.isVisible());
+		fileWidget.notifyListeners(SWT.Hide, hide);
+
+		fileWidget.notifyListeners(SWT.Show, show);
+		assertTrue(mmcItem.isVisible());
+		fileWidget.notifyListeners(SWT.Hide, hide);
+	}
+
+	@Test
+	public void testWithVisibleTwoSubmenusDeep() {
+		MWindow window = ems.createModelElement(MWindow.class);
+		MMenu mainMenu = ems.createModelElement(MMenu.class);
+		mainMenu.setElementId("org.eclipse.ui.main.menu");
+		window.setMainMenu(mainMenu);
+
+		MMenu fileMenu = ems.createModelElement(MMenu.class);
+		fileMenu.setElementId("file");
+		fileMenu.setLabel("File");
+		mainMenu.getChildren().add(fileMenu);
+
+		MMenuItem item1 = ems.createModelElement(MDirectMenuItem.class);
+		item1.setElementId("item1");
+		item1.setLabel("item1");
+		fileMenu.getChildren().add(item1);
+
+		// a submenu which only holds a submenu
+		MMenu outerMenu = ems.createModelElement(MMenu.class);
+		outerMenu.setElementId("outer");
+		outerMenu.setLabel("Outer");
+		fileMenu.getChildren().add(outerMenu);
+
+		MMenu innerMenu = ems.createModelElement(MMenu.class);
+		innerMenu.setElementId("inner");
+		innerMenu.setLabel("Inner");
+		outerMenu.getChildren().add(innerMenu);
+
+		MMenuContribution mmc = createContribution(true);
+		mmc.setParentId("inner");
+
+		application.getChildren().add(window);
+		application.getMenuContributions().add(mmc);
+		contextRule.createAndRunWorkbench(window);
+
+		MenuManagerRenderer renderer = getRenderer(appContext, mainMenu);
+		MenuManager fileManager = renderer.getManager(fileMenu);
+		MenuManager outerManager = renderer.getManager(outerMenu);
+		assertNotNull(outerManager);
+
+		MenuManager manager = renderer.getManager(mainMenu);
+		manager.updateAll(true);
+		Menu fileWidget = fileManager.getMenu();
+		assertNotNull(fileWidget);
+
+		Event show = new Event();
+		show.widget = fileWidget;
+		show.type = SWT.Show;
+
+		Event hide = new Event();
+		hide.widget = fileWidget;
+		hide.type = SWT.Hide;
+
+		fileWidget.notifyListeners(SWT.Show, show);
+		assertFalse("the only item of the inner menu is hidden", outerManager.isVisible());
+		fileWidget.notifyListeners(SWT.Hide, hide);
+
+		appContext.set("mmc1", Boolean.TRUE);
+		fileWidget.notifyListeners(SWT.Show, show);
+		assertTrue(outerManager.isVisible());
+		fileWidget.notifyListeners(SWT.Hide, hide);
+
+		appContext.remove("mmc1");
+		fileWidget.notifyListeners(SWT.Show, show);
+		assertFalse(outerManager.isVisible());
+		fileWidget.notifyListeners(SWT.Hide, hide);
+	}
+
 	@Test
 	public void testVisibilityOfMenuItemChangesBasedOnCoreExpression() {
 		MWindow window = ems.createModelElement(MWindow.class);
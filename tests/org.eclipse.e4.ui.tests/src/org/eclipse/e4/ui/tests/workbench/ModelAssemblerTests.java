@@ -17,15 +17,21 @@
 package org.eclipse.e4.ui.tests.workbench;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import javax.annotation.PostConstruct;
 import org.eclipse.core.internal.registry.ExtensionRegistry;
 import org.eclipse.core.runtime.ContributorFactorySimple;
@@ -394,6 +400,63 @@ public class ModelAssemblerTests {
 		assertEquals(0, logMessages.size());
 	}
 
+	/**
+	 * Tests that assembling the same non-persisted model with the same fragments
+	 * again takes the merged model from the model cache, keeps the elements of
+	 * the model and produces the same result.
+	 *
+	 * @throws Exception
+	 *             if anything went wrong during the test
+	 */
+	@Test
+	public void testModelProcessingOrder_repeatedAssembly() throws Exception {
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		assembler.setExtensionRegistry(registry);
+		String dataFilePath = "org.eclipse.e4.ui.tests/data/ModelAssembler/modelProcessingOrder.xml";
+		registry.addContribution(getContentsAsInputStream(dataFilePath), contributor, false, null, null, null);
+
+		Path cacheLocation = Files.createTempDirectory("modelcache");
+		assembler.setCacheLocation(cacheLocation.toFile());
+		try {
+			for (int i = 0; i < 2; i++) {
+				MApplication app = ApplicationFactoryImpl.eINSTANCE.createApplication();
+				app.setElementId(APPLICATION_ID);
+				app.setContext(appContext);
+				E4XMIResource resource = (E4XMIResource) factory.createResource(URI.createURI("virtualuri" + i));
+				new ResourceSetImpl().getResources().add(resource);
+				resource.getContents().add((EObject) app);
+				assembler.init(app, appContext, new DisplayUISynchronize(Display.getDefault()));
+
+				MTrimmedWindow trimmedWindow = modelService.createModelElement(MTrimmedWindow.class);
+				trimmedWindow.setElementId("testModelProcessingOrder-trimmedWindow");
+				app.getChildren().add(trimmedWindow);
+				MPart part = modelService.createModelElement(MPart.class);
+				part.setElementId("testModelProcessingOrder-part");
+				trimmedWindow.getChildren().add(part);
+				MArea area = modelService.createModelElement(MArea.class);
+				area.setElementId("testModelProcessingOrder-area");
+				trimmedWindow.getChildren().add(area);
+
+				assembler.processModel(true);
+
+				assertEquals(i > 0, assembler.isRestoredFromCache());
+				assertSame(trimmedWindow, app.getChildren().get(0));
+				assertSame(area, modelService.find("testModelProcessingOrder-area", trimmedWindow));
+				assertEquals(1, area.getChildren().size());
+				MPlaceholder placeholder = (MPlaceholder) area.getChildren().get(0);
+				assertEquals("testModelProcessingOrder-placeholder", placeholder.getElementId());
+				assertSame(part, placeholder.getRef());
+			}
+		} finally {
+			assembler.setCacheLocation(null);
+			try (Stream<Path> files = Files.walk(cacheLocation)) {
+				files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+			}
+		}
+		assertEquals(0, logMessages.size());
+	}
+
 	/**
 	 * Tests that pre-processors running from a non-persisted state that are
 	 * marked as "always" are executed.
@@ -24,6 +24,11 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeFalse;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import javax.inject.Inject;
 import org.eclipse.core.runtime.Platform;
@@ -31,8 +36,10 @@ import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.statusreporter.StatusReporter;
 import org.eclipse.e4.ui.internal.workbench.swt.IEventLoopAdvisor;
+import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.descriptor.basic.MPartDescriptor;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
 import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
@@ -41,6 +48,7 @@ import org.eclipse.e4.ui.model.application.ui.basic.MPart;
 import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
 import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimBar;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimElement;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.model.application.ui.menu.MDirectMenuItem;
@@ -3024,6 +3032,177 @@ public class PartRenderingEngineTests {
 		assertEquals(shell, obj.getControl().getShell());
 	}
 
+	@Test
+	public void testStagedRendering() {
+		appContext.set(PartRenderingEngine.STAGED_RENDERING, Boolean.TRUE);
+		MTrimmedWindow window = createWindowWithSecondaryElements();
+		MToolBar trimToolBar = (MToolBar) window.getTrimBars().get(0).getChildren().get(0);
+		MPartStack stack = (MPartStack) window.getChildren().get(0);
+		MToolBar partToolBar = ((MPart) stack.getSelectedElement()).getToolbar();
+		Object[] initialWidgets = new Object[2];
+		appContext.set(PartRenderingEngine.EARLY_STARTUP_HOOK, (Runnable) () -> {
+			initialWidgets[0] = trimToolBar.getWidget();
+			initialWidgets[1] = partToolBar.getWidget();
+		});
+
+		boolean rendered = runApplicationUntil(() -> {
+			if (trimToolBar.getWidget() == null || partToolBar.getWidget() == null) {
+				return false;
+			}
+			// the part toolbar is shown in the top right of its stack
+			Composite topRight = (Composite) ((CTabFolder) stack.getWidget()).getTopRight();
+			Control toolBar = (Control) partToolBar.getWidget();
+			return isAncestor(topRight, toolBar) && topRight.isVisible()
+					&& topRight.getSize().x >= toolBar.computeSize(SWT.DEFAULT, SWT.DEFAULT).x;
+		});
+
+		assertNull(initialWidgets[0]);
+		assertNull(initialWidgets[1]);
+		assertTrue(rendered);
+	}
+
+	@Test
+	public void testRenderingWithoutStages() {
+		MTrimmedWindow window = createWindowWithSecondaryElements();
+		MToolBar trimToolBar = (MToolBar) window.getTrimBars().get(0).getChildren().get(0);
+		MPartStack stack = (MPartStack) window.getChildren().get(0);
+		MToolBar partToolBar = ((MPart) stack.getSelectedElement()).getToolbar();
+		Object[] initialWidgets = new Object[2];
+		appContext.set(PartRenderingEngine.EARLY_STARTUP_HOOK, (Runnable) () -> {
+			initialWidgets[0] = trimToolBar.getWidget();
+			initialWidgets[1] = partToolBar.getWidget();
+		});
+
+		runApplicationUntil(() -> true);
+
+		assertNotNull(initialWidgets[0]);
+		assertNotNull(initialWidgets[1]);
+	}
+
+	@Test
+	public void testStagedRenderingKeepsTrimOrder() {
+		appContext.set(PartRenderingEngine.STAGED_RENDERING, Boolean.TRUE);
+		// a single element per idle slice
+		appContext.set(PartRenderingEngine.STAGED_RENDERING_SLICE, Integer.valueOf(0));
+		MTrimmedWindow window = createWindowWithSecondaryElements();
+		MTrimBar trimBar = window.getTrimBars().get(0);
+		trimBar.getChildren().add(createToolBar("b"));
+		trimBar.getChildren().add(createToolBar("c"));
+		// rendered right away, before the deferred elements around it
+		appContext.set(PartRenderingEngine.EARLY_STARTUP_HOOK,
+				(Runnable) () -> trimBar.getChildren().add(1, createToolBar("inserted")));
+
+		List<MUIElement> order = new ArrayList<>();
+		boolean rendered = runApplicationUntil(() -> {
+			for (MTrimElement element : trimBar.getChildren()) {
+				if (element.getWidget() == null) {
+					return false;
+				}
+			}
+			List<Control> controls = Arrays.asList(((Composite) trimBar.getWidget()).getChildren());
+			order.clear();
+			order.addAll(trimBar.getChildren());
+			order.sort(Comparator.comparingInt(element -> indexOf(controls, (Control) element.getWidget())));
+			return true;
+		});
+
+		assertTrue(rendered);
+		assertEquals(trimBar.getChildren(), order);
+	}
+
+	@Test
+	public void testTimeToFirstPaint() {
+		createWindowWithSecondaryElements();
+
+		boolean painted = runApplicationUntil(() -> appContext.get(PartRenderingEngine.TIME_TO_FIRST_PAINT) != null);
+
+		assertTrue(painted);
+		Object time = appContext.get(PartRenderingEngine.TIME_TO_FIRST_PAINT);
+		assertTrue(time instanceof Long);
+		assertTrue(((Long) time).longValue() >= 0);
+	}
+
+	/**
+	 * Creates a window of the application with a trim toolbar and a stack
+	 * holding a part with a toolbar.
+	 */
+	private MTrimmedWindow createWindowWithSecondaryElements() {
+		MTrimmedWindow window = ems.createModelElement(MTrimmedWindow.class);
+		window.setWidth(400);
+		window.setHeight(300);
+		application.getChildren().add(window);
+		application.setSelectedElement(window);
+
+		MTrimBar trimBar = ems.createModelElement(MTrimBar.class);
+		window.getTrimBars().add(trimBar);
+		trimBar.getChildren().add(createToolBar("a"));
+
+		MPartStack stack = ems.createModelElement(MPartStack.class);
+		window.getChildren().add(stack);
+		window.setSelectedElement(stack);
+		MPart part = ems.createModelElement(MPart.class);
+		part.setContributionURI("bundleclass://org.eclipse.e4.ui.tests/org.eclipse.e4.ui.tests.workbench.SampleView");
+		part.setToolbar(createToolBar("part"));
+		stack.getChildren().add(part);
+		stack.setSelectedElement(part);
+		return window;
+	}
+
+	private MToolBar createToolBar(String label) {
+		MToolBar toolBar = ems.createModelElement(MToolBar.class);
+		toolBar.setElementId(label);
+		MDirectToolItem toolItem = ems.createModelElement(MDirectToolItem.class);
+		toolItem.setLabel(label);
+		toolBar.getChildren().add(toolItem);
+		return toolBar;
+	}
+
+	/**
+	 * Runs the event loop of the application until the given condition holds,
+	 * or for ten seconds at most, and then closes its windows.
+	 *
+	 * @return whether the condition held
+	 */
+	private boolean runApplicationUntil(BooleanSupplier condition) {
+		Display display = Display.getDefault();
+		long end = System.currentTimeMillis() + 10000;
+		boolean[] result = { false };
+		Runnable[] check = new Runnable[1];
+		check[0] = () -> {
+			try {
+				result[0] = condition.getAsBoolean();
+			} finally {
+				if (result[0] || System.currentTimeMillis() > end) {
+					for (MWindow window : application.getChildren()) {
+						window.setToBeRendered(false);
+					}
+				} else {
+					display.timerExec(10, check[0]);
+				}
+			}
+		};
+		display.timerExec(10, check[0]);
+		contextRule.createAndRunApplication();
+		return result[0];
+	}
+
+	private static boolean isAncestor(Composite composite, Control control) {
+		for (Control current = control; current != null; current = current.getParent()) {
+			if (current == composite) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int indexOf(List<Control> controls, Control control) {
+		Control current = control;
+		while (current != null && !controls.contains(current)) {
+			current = current.getParent();
+		}
+		return controls.indexOf(current);
+	}
+
 	private MWindow createWindowWithOneView(String partName) {
 		final MWindow window = ems.createModelElement(MWindow.class);
 		window.setHeight(300);
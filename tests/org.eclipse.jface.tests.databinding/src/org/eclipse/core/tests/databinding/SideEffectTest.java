@@ -22,6 +22,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.sideeffect.ISideEffect;
 import org.eclipse.core.databinding.observable.value.ComputedValue;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
@@ -123,6 +124,67 @@ public class SideEffectTest extends AbstractDefaultRealmTestCase {
 		assertEquals(4, sideEffectInvocations);
 	}
 
+	@Test
+	public void testSideEffectOnlyUpdatesListenersOfChangedDependencies() throws Exception {
+		AtomicInteger added = new AtomicInteger();
+		AtomicInteger removed = new AtomicInteger();
+		WritableValue<String> shared = new WritableValue<String>("", null) {
+			@Override
+			public synchronized void addChangeListener(IChangeListener listener) {
+				added.incrementAndGet();
+				super.addChangeListener(listener);
+			}
+
+			@Override
+			public synchronized void removeChangeListener(IChangeListener listener) {
+				removed.incrementAndGet();
+				super.removeChangeListener(listener);
+			}
+		};
+		ISideEffect.create(() -> {
+			shared.getValue();
+			if (useDefaultDependency.getValue()) {
+				defaultDependency.getValue();
+			} else {
+				alternateDependency.getValue();
+			}
+			sideEffectInvocations++;
+		});
+		assertEquals(1, sideEffectInvocations);
+
+		useDefaultDependency.setValue(false);
+		runAsync();
+		assertEquals(2, sideEffectInvocations);
+		// the listener stays registered with the unchanged dependency
+		assertEquals(1, added.get());
+		assertEquals(0, removed.get());
+
+		// and still reacts to it
+		shared.setValue("foo");
+		runAsync();
+		assertEquals(3, sideEffectInvocations);
+
+		// while the dropped dependency is not listened to anymore
+		defaultDependency.setValue("foo");
+		runAsync();
+		assertEquals(3, sideEffectInvocations);
+	}
+
+	@Test
+	public void testSideEffectIgnoresChangesMadeByItself() throws Exception {
+		ISideEffect.create(() -> {
+			defaultDependency.setValue(defaultDependency.getValue() + "x");
+			sideEffectInvocations++;
+		});
+		runAsync();
+		assertEquals(1, sideEffectInvocations);
+
+		defaultDependency.setValue("");
+		runAsync();
+		assertEquals(2, sideEffectInvocations);
+		assertEquals("x", defaultDependency.getValue());
+	}
+
 	@Test
 	public void testChangingMultipleDependenciesOnlyRunsTheSideEffectOnce() throws Exception {
 		sideEffect.resume();
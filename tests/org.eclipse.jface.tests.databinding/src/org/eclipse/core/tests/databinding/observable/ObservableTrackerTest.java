@@ -47,6 +47,39 @@ public class ObservableTrackerTest extends AbstractDefaultRealmTestCase {
 		assertSame(observable, result[0]);
 	}
 
+	@Test
+	public void testRunAndMonitor_Nested() throws Exception {
+		final IObservable outer = new ObservableStub();
+		final IObservable inner = new ObservableStub();
+		final IObservable[][] innerResult = new IObservable[1][];
+		IObservable[] outerResult = ObservableTracker.runAndMonitor(() -> {
+			ObservableTracker.getterCalled(outer);
+			innerResult[0] = ObservableTracker.runAndMonitor(() -> ObservableTracker.getterCalled(inner), null, null);
+			ObservableTracker.getterCalled(outer);
+		}, null, null);
+		assertEquals(Arrays.asList(outer), Arrays.asList(outerResult));
+		assertEquals(Arrays.asList(inner), Arrays.asList(innerResult[0]));
+	}
+
+	@Test
+	public void testRunAndMonitor_ManyObservables() throws Exception {
+		final IObservable[] observables = new IObservable[2000];
+		for (int i = 0; i < observables.length; i++) {
+			observables[i] = new ObservableStub();
+		}
+		for (int round = 0; round < 2; round++) {
+			IObservable[] result = ObservableTracker.runAndMonitor(() -> {
+				for (IObservable observable : observables) {
+					ObservableTracker.getterCalled(observable);
+					ObservableTracker.getterCalled(observable);
+				}
+			}, null, null);
+			assertEquals(Arrays.asList(observables), Arrays.asList(result));
+		}
+		assertEquals(0, ObservableTracker.runAndMonitor(() -> {
+		}, null, null).length);
+	}
+
 	@Test
 	public void testGetterCalled_ObservableDisposed() throws Exception {
 		IObservable observable = new ObservableStub();
@@ -15,8 +15,27 @@
 package org.eclipse.core.tests.databinding.observable;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.map.MapChangeEvent;
+import org.eclipse.core.databinding.observable.map.WritableMap;
+import org.eclipse.core.databinding.observable.set.SetChangeEvent;
+import org.eclipse.core.databinding.observable.set.WritableSet;
+import org.eclipse.core.databinding.observable.value.ComputedValue;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableValue;
 import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
 import org.eclipse.jface.databinding.conformance.util.RealmTester;
 import org.junit.Test;
@@ -35,4 +54,203 @@ public class RealmTest {
 
 		assertEquals("old realm should have been restored", oldRealm, Realm.getDefault());
 	}
+
+	@Test
+	public void testBatch_ValueNotifiedOnce() {
+		Realm realm = new CurrentRealm(true);
+		WritableValue<String> value = new WritableValue<>(realm, "a", String.class);
+		List<ValueChangeEvent<? extends String>> events = new ArrayList<>();
+		value.addValueChangeListener(events::add);
+
+		realm.batch(() -> {
+			value.setValue("b");
+			value.setValue("c");
+			assertTrue("no events during the batch", events.isEmpty());
+		});
+
+		assertEquals(1, events.size());
+		assertEquals("a", events.get(0).diff.getOldValue());
+		assertEquals("c", events.get(0).diff.getNewValue());
+	}
+
+	@Test
+	public void testBatch_ValueChangeCancelledOut() {
+		Realm realm = new CurrentRealm(true);
+		WritableValue<String> value = new WritableValue<>(realm, "a", String.class);
+		int[] changes = new int[1];
+		value.addChangeListener(event -> changes[0]++);
+		value.addValueChangeListener(event -> fail("net change expected to be empty"));
+
+		realm.batch(() -> {
+			value.setValue("b");
+			value.setValue("a");
+		});
+
+		assertEquals(0, changes[0]);
+	}
+
+	@Test
+	public void testBatch_ListDiffReplaysToFinalState() {
+		Realm realm = new CurrentRealm(true);
+		WritableList<String> list = new WritableList<>(realm, new ArrayList<>(Arrays.asList("a", "b")), String.class);
+		List<String> copy = new ArrayList<>(list);
+		List<ListChangeEvent<? extends String>> events = new ArrayList<>();
+		list.addListChangeListener(events::add);
+
+		realm.batch(() -> {
+			list.add("c");
+			list.remove("a");
+			list.add(0, "d");
+			list.set(1, "e");
+		});
+
+		assertEquals(1, events.size());
+		events.get(0).diff.applyTo(copy);
+		assertEquals(list, copy);
+	}
+
+	@Test
+	public void testBatch_ListChangesCancelledOut() {
+		Realm realm = new CurrentRealm(true);
+		WritableList<String> list = new WritableList<>(realm, new ArrayList<>(Arrays.asList("a", "b")), String.class);
+		int[] changes = new int[1];
+		list.addChangeListener(event -> changes[0]++);
+		list.addListChangeListener(event -> fail("net change expected to be empty"));
+
+		realm.batch(() -> {
+			list.add("c");
+			list.remove("a");
+			list.remove("c");
+			list.add(0, "a");
+		});
+
+		assertEquals(0, changes[0]);
+	}
+
+	@Test
+	public void testBatch_FailingListener() {
+		Realm realm = new CurrentRealm(true);
+		WritableValue<String> first = new WritableValue<>(realm, "a", String.class);
+		WritableValue<String> second = new WritableValue<>(realm, "a", String.class);
+		List<ValueChangeEvent<? extends String>> events = new ArrayList<>();
+		first.addValueChangeListener(event -> {
+			throw new IllegalStateException();
+		});
+		second.addValueChangeListener(events::add);
+
+		try {
+			realm.batch(() -> {
+				first.setValue("b");
+				second.setValue("b");
+			});
+			fail("exception expected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		// the exception did not keep the other observable from notifying
+		assertEquals(1, events.size());
+		assertEquals("b", events.get(0).diff.getNewValue());
+	}
+
+	@Test
+	public void testBatch_SetAndMapNetDiff() {
+		Realm realm = new CurrentRealm(true);
+		WritableSet<String> set = new WritableSet<>(realm, Collections.singleton("a"), String.class);
+		WritableMap<String, String> map = new WritableMap<>(realm);
+		map.put("k1", "v1");
+		List<SetChangeEvent<? extends String>> setEvents = new ArrayList<>();
+		List<MapChangeEvent<? extends String, ? extends String>> mapEvents = new ArrayList<>();
+		set.addSetChangeListener(setEvents::add);
+		map.addMapChangeListener(mapEvents::add);
+
+		realm.batch(() -> {
+			set.add("b");
+			set.remove("a");
+			set.remove("b");
+			map.put("k2", "v2");
+			map.put("k1", "v3");
+			map.remove("k2");
+		});
+
+		assertEquals(1, setEvents.size());
+		assertEquals(Collections.emptySet(), setEvents.get(0).diff.getAdditions());
+		assertEquals(Collections.singleton("a"), setEvents.get(0).diff.getRemovals());
+		assertEquals(1, mapEvents.size());
+		assertEquals(Collections.emptySet(), mapEvents.get(0).diff.getAddedKeys());
+		assertEquals(Collections.emptySet(), mapEvents.get(0).diff.getRemovedKeys());
+		assertEquals(Collections.singleton("k1"), mapEvents.get(0).diff.getChangedKeys());
+		assertEquals("v1", mapEvents.get(0).diff.getOldValue("k1"));
+		assertEquals("v3", mapEvents.get(0).diff.getNewValue("k1"));
+	}
+
+	@Test
+	public void testBatch_ComputedValueRecomputedOnce() {
+		Realm realm = new CurrentRealm(true);
+		RealmTester.setDefault(realm);
+		try {
+			WritableValue<Integer> a = new WritableValue<>(realm, 1, Integer.class);
+			WritableValue<Integer> b = new WritableValue<>(realm, 2, Integer.class);
+			int[] computations = new int[1];
+			IObservableValue<Integer> sum = ComputedValue.create(() -> {
+				computations[0]++;
+				return Integer.valueOf(a.getValue().intValue() + b.getValue().intValue());
+			});
+			List<Integer> seen = new ArrayList<>();
+			sum.addValueChangeListener(event -> seen.add(event.diff.getNewValue()));
+			assertEquals(Integer.valueOf(3), sum.getValue());
+			computations[0] = 0;
+
+			realm.batch(() -> {
+				a.setValue(10);
+				b.setValue(20);
+				a.setValue(100);
+			});
+
+			assertEquals(Arrays.asList(120), seen);
+			assertEquals(1, computations[0]);
+		} finally {
+			RealmTester.setDefault(null);
+		}
+	}
+
+	@Test
+	public void testBatch_NestedAndFailing() {
+		Realm realm = new CurrentRealm(true);
+		WritableValue<String> value = new WritableValue<>(realm, "a", String.class);
+		List<ValueChangeEvent<? extends String>> events = new ArrayList<>();
+		value.addValueChangeListener(events::add);
+
+		try {
+			realm.batch(() -> {
+				realm.batch(() -> value.setValue("b"));
+				assertTrue("no events before the outermost batch completes", events.isEmpty());
+				value.setValue("c");
+				throw new IllegalStateException();
+			});
+			fail("exception expected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		assertEquals(1, events.size());
+		assertEquals("c", events.get(0).diff.getNewValue());
+
+		// no batch left open
+		value.setValue("d");
+		assertEquals(2, events.size());
+	}
+
+	@Test
+	public void testBatch_OutsideRealm() {
+		Realm realm = new CurrentRealm(false);
+		try {
+			realm.batch(() -> fail("must not run"));
+			fail("exception expected");
+		} catch (RuntimeException e) {
+			// expected
+		}
+		assertFalse(realm.isCurrent());
+		assertNull(Realm.getDefault());
+	}
 }
@@ -16,6 +16,8 @@
 package org.eclipse.core.tests.internal.databinding.beans;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 import java.beans.PropertyDescriptor;
 
@@ -54,4 +56,54 @@ public class BeanPropertyHelperTest {
 		assertEquals(IBean.class.getMethod("setValue", String.class), pd.getWriteMethod());
 	}
 
+	@Test
+	public void testGetPropertyDescriptor_Cached() {
+		assertSame(BeanPropertyHelper.getPropertyDescriptor(Bean.class, "value"),
+				BeanPropertyHelper.getPropertyDescriptor(Bean.class, "value"));
+	}
+
+	@Test
+	public void testReadWriteProperty() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(Bean.class, "value");
+		Bean bean = new Bean("old");
+		assertEquals("old", BeanPropertyHelper.readProperty(bean, pd));
+		BeanPropertyHelper.writeProperty(bean, pd, "new");
+		assertEquals("new", bean.getValue());
+		assertEquals("new", BeanPropertyHelper.readProperty(bean, pd));
+	}
+
+	@Test
+	public void testReadWriteProperty_Primitive() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(PrimitiveBean.class, "count");
+		PrimitiveBean bean = new PrimitiveBean();
+		BeanPropertyHelper.writeProperty(bean, pd, 42);
+		assertEquals(42, bean.count);
+		assertEquals(42, BeanPropertyHelper.readProperty(bean, pd));
+	}
+
+	@Test
+	public void testWriteProperty_SetterThrows() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(PrimitiveBean.class, "count");
+		try {
+			BeanPropertyHelper.writeProperty(new PrimitiveBean(), pd, -1);
+			fail("exception of the setter expected");
+		} catch (RuntimeException e) {
+			assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+		}
+	}
+
+	public static class PrimitiveBean {
+		int count;
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			if (count < 0) {
+				throw new IllegalArgumentException();
+			}
+			this.count = count;
+		}
+	}
 }
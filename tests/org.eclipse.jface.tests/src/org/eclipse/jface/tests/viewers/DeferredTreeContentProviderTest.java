@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import java.util.Comparator;
+
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.deferred.DeferredTreeContentProvider;
+import org.eclipse.jface.viewers.deferred.TreeSetModel;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+
+/**
+ * Tests the {@link DeferredTreeContentProvider} with a {@link TreeSetModel}.
+ */
+public class DeferredTreeContentProviderTest extends ViewerTestCase {
+
+	private static final int NUM_ROOTS = 10000;
+
+	private static final int NUM_CHILDREN = 50;
+
+	private static final long TIMEOUT = 10000;
+
+	private TreeSetModel model;
+
+	private DeferredTreeContentProvider contentProvider;
+
+	public DeferredTreeContentProviderTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		Tree tree = new Tree(parent, SWT.VIRTUAL | SWT.MULTI);
+		TreeViewer viewer = new TreeViewer(tree);
+		contentProvider = new DeferredTreeContentProvider(Comparator.comparing(Object::toString));
+		viewer.setContentProvider(contentProvider);
+		return viewer;
+	}
+
+	@Override
+	protected void setInput() {
+		model = new TreeSetModel();
+		// add the roots in reverse order, so that they have to be sorted
+		String[] roots = new String[NUM_ROOTS];
+		for (int i = 0; i < NUM_ROOTS; i++) {
+			roots[i] = root(NUM_ROOTS - 1 - i);
+		}
+		model.addAll(model, roots);
+		String[] children = new String[NUM_CHILDREN];
+		for (int i = 0; i < NUM_CHILDREN; i++) {
+			children[i] = root(0) + "-" + (char) ('z' - i % 26) + i;
+		}
+		model.addAll(root(0), children);
+		fViewer.setInput(model);
+	}
+
+	private static String root(int i) {
+		return String.format("root-%05d", Integer.valueOf(i));
+	}
+
+	private Tree getTree() {
+		return ((TreeViewer) fViewer).getTree();
+	}
+
+	private void waitForText(String message, Runnable reveal, int index, String expected) {
+		boolean found = DisplayHelper.waitForCondition(fShell.getDisplay(), TIMEOUT, () -> {
+			reveal.run();
+			return expected.equals(getTree().getItemCount() > index ? getTree().getItem(index).getText() : null);
+		});
+		assertTrue(message, found);
+	}
+
+	public void testRootsAreSorted() {
+		assertTrue("all roots expected", DisplayHelper.waitForCondition(fShell.getDisplay(), TIMEOUT,
+				() -> getTree().getItemCount() == NUM_ROOTS));
+		waitForText("first root expected", () -> {
+		}, 0, root(0));
+		waitForText("second root expected", () -> {
+		}, 1, root(1));
+	}
+
+	public void testScrollToEnd() {
+		assertTrue("all roots expected", DisplayHelper.waitForCondition(fShell.getDisplay(), TIMEOUT,
+				() -> getTree().getItemCount() == NUM_ROOTS));
+		waitForText("last root expected", () -> getTree().setTopItem(getTree().getItem(NUM_ROOTS - 1)),
+				NUM_ROOTS - 1, root(NUM_ROOTS - 1));
+	}
+
+	public void testChildrenAreSorted() {
+		waitForText("first root expected", () -> {
+		}, 0, root(0));
+		assertTrue("children expected", DisplayHelper.waitForCondition(fShell.getDisplay(), TIMEOUT,
+				() -> getTree().getItem(0).getItemCount() == NUM_CHILDREN));
+		getTree().getItem(0).setExpanded(true);
+		boolean sorted = DisplayHelper.waitForCondition(fShell.getDisplay(), TIMEOUT, () -> {
+			String first = getTree().getItem(0).getItem(0).getText();
+			String second = getTree().getItem(0).getItem(1).getText();
+			return !first.isEmpty() && !second.isEmpty() && first.compareTo(second) < 0;
+		});
+		assertTrue("sorted children expected", sorted);
+		assertEquals("leaf expected", 0, getTree().getItem(1).getItemCount());
+	}
+
+	public void testModelChanges() {
+		waitForText("first root expected", () -> {
+		}, 0, root(0));
+		model.removeAll(model, new Object[] { root(0) });
+		waitForText("second root expected first", () -> {
+		}, 0, root(1));
+		assertEquals(NUM_ROOTS - 1, getTree().getItemCount());
+
+		model.addAll(model, new Object[] { "a" });
+		waitForText("added root expected first", () -> {
+		}, 0, "a");
+		assertEquals(NUM_ROOTS, getTree().getItemCount());
+	}
+
+	public void testFilter() {
+		waitForText("first root expected", () -> {
+		}, 0, root(0));
+		contentProvider.setFilter(element -> element.toString().endsWith("7"));
+		assertTrue("filtered roots expected", DisplayHelper.waitForCondition(fShell.getDisplay(), TIMEOUT,
+				() -> getTree().getItemCount() == NUM_ROOTS / 10));
+		waitForText("first filtered root expected", () -> {
+		}, 0, root(7));
+	}
+
+	public void testLimit() {
+		contentProvider.setLimit(100);
+		assertTrue("limited roots expected", DisplayHelper.waitForCondition(fShell.getDisplay(), TIMEOUT,
+				() -> getTree().getItemCount() == 100));
+		waitForText("first root expected", () -> {
+		}, 0, root(0));
+	}
+}
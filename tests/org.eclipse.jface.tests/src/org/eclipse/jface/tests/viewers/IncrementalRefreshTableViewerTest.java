@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.tests.viewers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.IElementComparer;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
+
+/**
+ * Tests refreshing a {@link TableViewer} with incremental refresh enabled.
+ *
+ * @since 3.29
+ */
+public class IncrementalRefreshTableViewerTest extends ViewerTestCase {
+
+	static class Entry {
+		final String key;
+		final String label;
+
+		Entry(String key, String label) {
+			this.key = key;
+			this.label = label;
+		}
+	}
+
+	private static final IElementComparer KEY_COMPARER = new IElementComparer() {
+		@Override
+		public boolean equals(Object a, Object b) {
+			return ((Entry) a).key.equals(((Entry) b).key);
+		}
+
+		@Override
+		public int hashCode(Object element) {
+			return ((Entry) element).key.hashCode();
+		}
+	};
+
+	private TableViewer tableViewer;
+
+	private List<Object> elements;
+
+	private int labelRequests;
+
+	public IncrementalRefreshTableViewerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		tableViewer = new TableViewer(parent);
+		tableViewer.setIncrementalRefresh(true);
+		tableViewer.setContentProvider(ArrayContentProvider.getInstance());
+		tableViewer.setLabelProvider(new LabelProvider() {
+			@Override
+			public String getText(Object element) {
+				labelRequests++;
+				return element instanceof Entry ? ((Entry) element).label : super.getText(element);
+			}
+		});
+		return tableViewer;
+	}
+
+	@Override
+	protected void setInput() {
+		elements = new ArrayList<>(Arrays.asList("a", "b", "c", "d", "e"));
+		fViewer.setInput(elements);
+	}
+
+	private void assertTexts(String... expected) {
+		Table table = tableViewer.getTable();
+		assertEquals(expected.length, table.getItemCount());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], table.getItem(i).getText());
+		}
+	}
+
+	public void testInsertRetainsItems() {
+		TableItem[] before = tableViewer.getTable().getItems();
+		elements.add(0, "x");
+		labelRequests = 0;
+		tableViewer.refresh(false);
+		assertTexts("x", "a", "b", "c", "d", "e");
+		assertEquals("only the new element should be labelled", 1, labelRequests);
+		TableItem[] after = tableViewer.getTable().getItems();
+		for (int i = 0; i < before.length; i++) {
+			assertSame(before[i], after[i + 1]);
+		}
+	}
+
+	public void testRemoveAndMove() {
+		TableItem[] before = tableViewer.getTable().getItems();
+		elements.clear();
+		elements.addAll(Arrays.asList("b", "e", "c", "d", "f"));
+		tableViewer.refresh();
+		assertTexts("b", "e", "c", "d", "f");
+		TableItem[] after = tableViewer.getTable().getItems();
+		assertSame(before[1], after[0]);
+		assertSame(before[2], after[2]);
+		assertSame(before[3], after[3]);
+		assertTrue(before[0].isDisposed());
+		assertEquals("e", tableViewer.getElementAt(1));
+		assertSame(after[1], tableViewer.testFindItem("e"));
+	}
+
+	public void testSelectionPreserved() {
+		tableViewer.setSelection(new StructuredSelection("c"));
+		elements.add(0, "x");
+		elements.remove("e");
+		tableViewer.refresh();
+		assertEquals(new StructuredSelection("c"), tableViewer.getStructuredSelection());
+
+		// moving the selected element recreates its item
+		elements.remove("c");
+		elements.add(0, "c");
+		tableViewer.refresh();
+		assertEquals(new StructuredSelection("c"), tableViewer.getStructuredSelection());
+	}
+
+	public void testReplacedElementIsRelabelled() {
+		tableViewer.setInput(null);
+		tableViewer.setComparer(KEY_COMPARER);
+		elements = new ArrayList<>(Arrays.asList(new Entry("1", "first"), new Entry("2", "second")));
+		tableViewer.setInput(elements);
+		assertTexts("first", "second");
+
+		Entry renamed = new Entry("2", "renamed");
+		elements.set(1, renamed);
+		TableItem item = tableViewer.getTable().getItem(1);
+		labelRequests = 0;
+		tableViewer.refresh(false);
+		assertTexts("first", "renamed");
+		assertEquals(1, labelRequests);
+		assertSame(item, tableViewer.getTable().getItem(1));
+		assertSame(renamed, item.getData());
+	}
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.tests.viewers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.TreeItem;
+
+/**
+ * Tests refreshing a {@link TreeViewer} with incremental refresh enabled.
+ *
+ * @since 3.29
+ */
+public class IncrementalRefreshTreeViewerTest extends ViewerTestCase {
+
+	private static final String ROOT = "root";
+
+	private TreeViewer treeViewer;
+
+	private Map<Object, List<Object>> children;
+
+	public IncrementalRefreshTreeViewerTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		treeViewer = new TreeViewer(parent);
+		treeViewer.setIncrementalRefresh(true);
+		treeViewer.setContentProvider(new ITreeContentProvider() {
+			@Override
+			public Object[] getElements(Object inputElement) {
+				return getChildren(inputElement);
+			}
+
+			@Override
+			public Object[] getChildren(Object parentElement) {
+				List<Object> list = children.get(parentElement);
+				return list == null ? new Object[0] : list.toArray();
+			}
+
+			@Override
+			public Object getParent(Object element) {
+				for (Map.Entry<Object, List<Object>> entry : children.entrySet()) {
+					if (entry.getValue().contains(element)) {
+						return entry.getKey();
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasChildren(Object element) {
+				List<Object> list = children.get(element);
+				return list != null && !list.isEmpty();
+			}
+		});
+		treeViewer.setLabelProvider(new LabelProvider());
+		return treeViewer;
+	}
+
+	@Override
+	protected void setInput() {
+		children = new HashMap<>();
+		children.put(ROOT, new ArrayList<>(Arrays.asList("a", "b", "c")));
+		children.put("a", new ArrayList<>(Arrays.asList("a1", "a2")));
+		children.put("b", new ArrayList<>(Arrays.asList("b1", "b2")));
+		children.put("c", new ArrayList<>(Arrays.asList("c1")));
+		fViewer.setInput(ROOT);
+	}
+
+	private static void assertTexts(TreeItem[] items, String... expected) {
+		assertEquals(expected.length, items.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], items[i].getText());
+		}
+	}
+
+	public void testInsertRetainsExpandedItems() {
+		treeViewer.expandToLevel("a", 1);
+		TreeItem a = treeViewer.getTree().getItem(0);
+		TreeItem a1 = a.getItem(0);
+
+		children.get(ROOT).add(0, "x");
+		children.get("a").add("a3");
+		treeViewer.refresh();
+
+		TreeItem[] roots = treeViewer.getTree().getItems();
+		assertTexts(roots, "x", "a", "b", "c");
+		assertSame(a, roots[1]);
+		assertTrue(a.getExpanded());
+		assertTexts(a.getItems(), "a1", "a2", "a3");
+		assertSame(a1, a.getItem(0));
+	}
+
+	public void testMovedElementStaysExpanded() {
+		treeViewer.expandToLevel("a", 1);
+		List<Object> roots = children.get(ROOT);
+		roots.remove("a");
+		roots.add("a");
+		treeViewer.refresh();
+
+		TreeItem[] items = treeViewer.getTree().getItems();
+		assertTexts(items, "b", "c", "a");
+		assertTrue(items[2].getExpanded());
+		assertTexts(items[2].getItems(), "a1", "a2");
+		assertSame(items[2].getItem(1), treeViewer.testFindItem("a2"));
+	}
+
+	public void testRemoveDisassociatesChildren() {
+		treeViewer.expandAll();
+		TreeItem b = treeViewer.getTree().getItem(1);
+		children.get(ROOT).remove("b");
+		treeViewer.refresh();
+
+		assertTexts(treeViewer.getTree().getItems(), "a", "c");
+		assertTrue(b.isDisposed());
+		assertNull(treeViewer.testFindItem("b1"));
+	}
+}
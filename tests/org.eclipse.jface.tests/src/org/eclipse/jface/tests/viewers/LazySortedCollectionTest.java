@@ -465,6 +465,47 @@ public class LazySortedCollectionTest extends TestCase {
 		assertContentsValid();
 	}
 
+	/**
+	 * Partitioning every subtree in parallel must produce the same results as
+	 * partitioning in the calling thread.
+	 */
+	public void testSortAllParallel() {
+		collection.setParallelThreshold(1);
+		forceFullSort();
+		assertContentsValid();
+	}
+
+	public void testRemoveRangeParallel() {
+		collection.setParallelThreshold(1);
+		queryRange(3, 5, true);
+		removeRange(2, 10);
+		assertContentsValid();
+		queryRange(0, comparisonCollection.size(), true);
+	}
+
+	@SuppressWarnings("boxing")
+	public void testParallelPartitionOfLargeSet() {
+		LazySortedCollection parallel = new LazySortedCollection(new TestComparator());
+		parallel.setParallelThreshold(16);
+		Object[] values = new Object[20000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = String.format("%05d", (i * 7919) % values.length); //$NON-NLS-1$
+		}
+		parallel.addAll(values);
+
+		Object[] expected = values.clone();
+		Arrays.sort(expected);
+
+		Object[] page = new Object[100];
+		assertEquals(page.length, parallel.getRange(page, 5000, true));
+		assertArrayEquals(Arrays.copyOfRange(expected, 5000, 5100), page);
+
+		Object[] all = new Object[values.length];
+		assertEquals(all.length, parallel.getRange(all, 0, true));
+		assertArrayEquals(expected, all);
+		parallel.testInvariants();
+	}
+
 	//
 //
 //    public static void testAdditions() {
@@ -14,12 +14,20 @@
 
 package org.eclipse.jface.tests.viewers;
 
+import static org.junit.Assert.assertArrayEquals;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Random;
+
 import org.eclipse.jface.viewers.ColumnLayoutData;
 import org.eclipse.jface.viewers.ColumnWeightData;
 import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.TableLayout;
 import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jface.viewers.ViewerSorter;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
@@ -90,6 +98,123 @@ public class TableViewerComparatorTest extends ViewerComparatorTest {
 		assertSortedResult(TEAM1_SORTED_WITH_INSERT);
 	}
 
+	public void testParallelSortBySortKeys() {
+		ViewerComparator comparator = new ViewerComparator(Collator.getInstance()) {
+			@Override
+			public int category(Object element) {
+				return ((TeamMember) element).name.length() % 3;
+			}
+
+			@Override
+			public boolean isSortKeyCacheable() {
+				return true;
+			}
+		};
+		Object[] members = createTeam(5000).members;
+
+		Object[] expected = members.clone();
+		Arrays.sort(expected, (e1, e2) -> comparator.compare(fViewer, e1, e2));
+
+		Object[] actual = members.clone();
+		comparator.sort(fViewer, actual);
+		assertArrayEquals(expected, actual);
+
+		fViewer.setParallelFilterAndSort(true);
+		actual = members.clone();
+		comparator.sort(fViewer, actual);
+		assertArrayEquals(expected, actual);
+	}
+
+	public void testSortKeyCaching() {
+		final int[] categoryCalls = { 0 };
+		ViewerComparator comparator = new ViewerComparator() {
+			@Override
+			public int category(Object element) {
+				categoryCalls[0]++;
+				return 0;
+			}
+
+			@Override
+			public boolean isSortKeyCacheable() {
+				return true;
+			}
+		};
+		comparator.setSortKeyCaching(true);
+		fViewer.setComparator(comparator);
+		assertSortedResult(TEAM1_SORTED);
+		assertEquals(TEAM1.length, categoryCalls[0]);
+
+		fViewer.refresh(false);
+		assertSortedResult(TEAM1_SORTED);
+		assertEquals("refreshing without labels should reuse the sort keys", TEAM1.length, categoryCalls[0]);
+
+		TeamMember changed = team1.members[0];
+		changed.name = "Zoe";
+		fViewer.update(changed, null);
+		fViewer.refresh(false);
+		assertEquals(TEAM1.length + 1, categoryCalls[0]);
+		TableItem[] items = getTableViewer().getTable().getItems();
+		assertEquals("Zoe", items[items.length - 1].getText());
+
+		fViewer.refresh(true);
+		assertEquals("refreshing the labels should discard the sort keys", 2 * TEAM1.length + 1, categoryCalls[0]);
+
+		fViewer.refresh(changed, true);
+		fViewer.refresh(false);
+		assertEquals("refreshing the labels should discard the sort keys", 3 * TEAM1.length + 1, categoryCalls[0]);
+
+		fViewer.setLabelProvider(new TeamModelLabelProvider());
+		assertEquals("a new label provider should discard the sort keys", 4 * TEAM1.length + 1, categoryCalls[0]);
+	}
+
+	public void testParallelFilterAndSort() {
+		ViewerFilter filter = new ViewerFilter() {
+			@Override
+			public boolean select(Viewer viewer, Object parentElement, Object element) {
+				return ((TeamMember) element).name.indexOf('a') != -1;
+			}
+
+			@Override
+			public boolean isThreadSafe() {
+				return true;
+			}
+		};
+		ViewerComparator comparator = new ViewerComparator() {
+			@Override
+			public boolean isSortKeyCacheable() {
+				return true;
+			}
+		};
+		Team team = createTeam(3000);
+		fViewer.setInput(team);
+		fViewer.setFilters(filter);
+		fViewer.setComparator(comparator);
+		TableItem[] expected = getTableViewer().getTable().getItems();
+		String[] expectedTexts = new String[expected.length];
+		for (int i = 0; i < expected.length; i++) {
+			expectedTexts[i] = expected[i].getText();
+		}
+
+		fViewer.setParallelFilterAndSort(true);
+		fViewer.refresh();
+		assertEquals(expectedTexts.length, getTableViewer().getTable().getItemCount());
+		assertSortedResult(expectedTexts);
+	}
+
+	private Team createTeam(int size) {
+		Random random = new Random(0);
+		String letters = "aAbBcCeE\u00e9\u00c9zZ ";
+		String[] names = new String[size];
+		for (int i = 0; i < size; i++) {
+			StringBuilder name = new StringBuilder();
+			for (int j = random.nextInt(8); j >= 0; j--) {
+				name.append(letters.charAt(random.nextInt(letters.length())));
+			}
+			names[i] = name.toString();
+		}
+		return new Team(UI, names);
+	}
+
 	private void assertSortedResult(String[] expected) {
 		TableItem[] items = getTableViewer().getTable().getItems();
 		for (int i = 0; i < items.length; i++) {
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+
+import org.eclipse.core.internal.databinding.beans.BeanPropertyHelper;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures resolving and reading bean properties the way the bean value
+ * properties do for every cell of an observable map column, once through the
+ * {@link BeanPropertyHelper} and once through plain introspection and
+ * reflection for comparison.
+ */
+public class BeanPropertyAccessTest extends BasicPerformanceTest {
+
+	private static final int BEAN_COUNT = 20000;
+
+	private static final String[] PROPERTIES = { "name", "description", "count", "weight", "enabled" };
+
+	private static Row[] beans;
+
+	public BeanPropertyAccessTest(String testName) {
+		super(testName);
+		generateBeans();
+	}
+
+	/**
+	 * Resolve and read every property through the {@link BeanPropertyHelper}.
+	 */
+	public void testHelperAccess() {
+		for (int i = 0; i < 15; i++) {
+			startMeasuring();
+			for (Row bean : beans) {
+				for (String property : PROPERTIES) {
+					PropertyDescriptor descriptor = BeanPropertyHelper.getPropertyDescriptor(Row.class, property);
+					BeanPropertyHelper.readProperty(bean, descriptor);
+				}
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Resolve and read every property through introspection and reflection, as
+	 * a baseline for {@link #testHelperAccess()}.
+	 *
+	 * @throws Exception
+	 */
+	public void testReflectiveAccess() throws Exception {
+		for (int i = 0; i < 15; i++) {
+			startMeasuring();
+			for (Row bean : beans) {
+				for (String property : PROPERTIES) {
+					findDescriptor(property).getReadMethod().invoke(bean);
+				}
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static PropertyDescriptor findDescriptor(String property) throws IntrospectionException {
+		for (PropertyDescriptor descriptor : Introspector.getBeanInfo(Row.class).getPropertyDescriptors()) {
+			if (descriptor.getName().equals(property)) {
+				return descriptor;
+			}
+		}
+		throw new IllegalArgumentException(property);
+	}
+
+	private void generateBeans() {
+		if (beans == null) {
+			beans = new Row[BEAN_COUNT];
+			for (int i = 0; i < BEAN_COUNT; i++) {
+				beans[i] = new Row("Row " + i, "Description " + i, i, i / 3.0, i % 2 == 0);
+			}
+		}
+	}
+
+	/**
+	 * A typical bean shown in a table row.
+	 */
+	public static class Row {
+		private String name;
+		private String description;
+		private int count;
+		private double weight;
+		private boolean enabled;
+
+		public Row(String name, String description, int count, double weight, boolean enabled) {
+			this.name = name;
+			this.description = description;
+			this.count = count;
+			this.weight = weight;
+			this.enabled = enabled;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public void setDescription(String description) {
+			this.description = description;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public double getWeight() {
+			return weight;
+		}
+
+		public void setWeight(double weight) {
+			this.weight = weight;
+		}
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+	}
+}
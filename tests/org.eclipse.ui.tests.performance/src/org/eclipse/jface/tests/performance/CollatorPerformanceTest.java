@@ -19,6 +19,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 
 import org.eclipse.jface.util.Policy;
+import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.ui.tests.performance.BasicPerformanceTest;
 
 /**
@@ -53,6 +54,27 @@ public class CollatorPerformanceTest extends BasicPerformanceTest {
 		assertPerformance();
 	}
 
+	/**
+	 * test a ViewerComparator which computes the collation key of every
+	 * element once and sorts the keys
+	 */
+	public void testViewerComparatorSortKeys() {
+		ViewerComparator comparator = new ViewerComparator(Policy.getComparator()) {
+			@Override
+			public boolean isSortKeyCacheable() {
+				return true;
+			}
+		};
+		for (int i = 0; i < 15; i++) {
+			String[] array = fArray.clone();
+			startMeasuring();
+			comparator.sort(null, array);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
 	/**
 	 * Generate a large sized array for sorting
 	 */
@@ -45,6 +45,8 @@ public class JFacePerformanceSuite extends FilteredTestSuite {
 		addTestSuite(ProgressMonitorDialogPerformanceTest.class);
 		addTestSuite(ShrinkingTreeTest.class);
 		addTestSuite(CollatorPerformanceTest.class);
+		addTestSuite(BeanPropertyAccessTest.class);
+		addTestSuite(LazySortedCollectionPartitionTest.class);
 
 	}
 }
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import org.eclipse.jface.viewers.deferred.LazySortedCollection;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures the time until the first page of a large, unsorted
+ * {@link LazySortedCollection} is available, as it is for a deferred table
+ * showing a freshly set input, once with partitioning in the calling thread
+ * and once with large subtrees partitioned in parallel.
+ */
+public class LazySortedCollectionPartitionTest extends BasicPerformanceTest {
+
+	private static final int ELEMENT_COUNT = 1000000;
+
+	private static final int PAGE_SIZE = 50;
+
+	private static final int PARALLEL_THRESHOLD = 8192;
+
+	private static final Comparator<Object> COMPARATOR = (o1, o2) -> o1.toString()
+			.compareToIgnoreCase(o2.toString());
+
+	private static String[] elements;
+
+	public LazySortedCollectionPartitionTest(String testName) {
+		super(testName);
+		generateElements();
+	}
+
+	/**
+	 * Sort the first and a middle page doing all comparisons in the calling
+	 * thread.
+	 */
+	public void testSequentialPartition() {
+		measure(-1);
+	}
+
+	/**
+	 * Sort the first and a middle page comparing the elements of large
+	 * subtrees in parallel.
+	 */
+	public void testParallelPartition() {
+		measure(PARALLEL_THRESHOLD);
+	}
+
+	private void measure(int threshold) {
+		Object[] page = new Object[PAGE_SIZE];
+		for (int i = 0; i < 10; i++) {
+			LazySortedCollection collection = new LazySortedCollection(COMPARATOR);
+			collection.setParallelThreshold(threshold);
+			collection.addAll(elements);
+			startMeasuring();
+			collection.getFirst(page, true);
+			collection.getRange(page, ELEMENT_COUNT / 2, true);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void generateElements() {
+		if (elements == null) {
+			Random random = new Random(42);
+			elements = new String[ELEMENT_COUNT];
+			for (int i = 0; i < ELEMENT_COUNT; i++) {
+				elements[i] = "Element " + random.nextInt(); //$NON-NLS-1$
+			}
+		}
+	}
+}
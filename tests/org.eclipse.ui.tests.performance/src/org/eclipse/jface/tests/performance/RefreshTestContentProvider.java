@@ -95,4 +95,14 @@ public class RefreshTestContentProvider implements IStructuredContentProvider {
 		currentElements = currentElements.clone();
 	}
 
+	/**
+	 * Move the last element to the front, shifting all
+	 * other elements by one position.
+	 */
+	public void rotateElements() {
+		TestElement last = currentElements[currentElements.length - 1];
+		System.arraycopy(currentElements, 0, currentElements, 1, currentElements.length - 1);
+		currentElements[0] = last;
+	}
+
 }
@@ -32,10 +32,22 @@ public class RefreshTestTreeContentProvider implements ITreeContentProvider {
 
 	}
 
+	TestTreeElement[] currentElements = elements.clone();
+
 	public RefreshTestTreeContentProvider() {
 		super();
 	}
 
+	/**
+	 * Move the last root element to the front, shifting all
+	 * other root elements by one position.
+	 */
+	public void rotateElements() {
+		TestTreeElement last = currentElements[currentElements.length - 1];
+		System.arraycopy(currentElements, 0, currentElements, 1, currentElements.length - 1);
+		currentElements[0] = last;
+	}
+
 	@Override
 	public Object[] getChildren(Object parentElement) {
 		return ((TestTreeElement)parentElement).children;
@@ -53,7 +65,7 @@ public class RefreshTestTreeContentProvider implements ITreeContentProvider {
 
 	@Override
 	public Object[] getElements(Object inputElement) {
-		return elements;
+		return currentElements;
 	}
 
 	@Override
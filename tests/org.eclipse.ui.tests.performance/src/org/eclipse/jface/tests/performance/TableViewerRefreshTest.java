@@ -110,6 +110,34 @@ public class TableViewerRefreshTest extends ViewerTest {
 		assertPerformance();
 	}
 
+	/**
+	 * Test the time for doing a refresh with a comparator whose sort keys are
+	 * computed once per element and sorted in parallel.
+	 *
+	 * @throws Throwable
+	 */
+	public void testRefreshSortedInParallel() throws Throwable {
+		openBrowser();
+		viewer.setParallelFilterAndSort(true);
+		viewer.setComparator(new ViewerComparator() {
+			@Override
+			public boolean isSortKeyCacheable() {
+				return true;
+			}
+		});
+
+		exercise(() -> {
+			startMeasuring();
+			viewer.refresh();
+			processEvents();
+			stopMeasuring();
+		}, MIN_ITERATIONS, slowGTKIterations(),
+				JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
 	/**
 	 * Test the time for doing a refresh.
 	 *
@@ -135,6 +163,43 @@ public class TableViewerRefreshTest extends ViewerTest {
 		assertPerformance();
 	}
 
+	/**
+	 * Test the time for a refresh after an element was inserted at the top,
+	 * which reassigns every item.
+	 *
+	 * @throws Throwable
+	 */
+	public void testRefreshAfterInsert() throws Throwable {
+		measureRefreshAfterInsert(false);
+	}
+
+	/**
+	 * Test the time for an incremental refresh after an element was inserted
+	 * at the top, which only creates one item and removes one item.
+	 *
+	 * @throws Throwable
+	 */
+	public void testIncrementalRefreshAfterInsert() throws Throwable {
+		measureRefreshAfterInsert(true);
+	}
+
+	private void measureRefreshAfterInsert(boolean incremental) throws Throwable {
+		openBrowser();
+		viewer.setIncrementalRefresh(incremental);
+
+		exercise(() -> {
+			contentProvider.rotateElements();
+			startMeasuring();
+			viewer.refresh(false);
+			processEvents();
+			stopMeasuring();
+		}, MIN_ITERATIONS, slowGTKIterations(),
+				JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
 	/**
 	 * Test the time for doing a refresh.
 	 *
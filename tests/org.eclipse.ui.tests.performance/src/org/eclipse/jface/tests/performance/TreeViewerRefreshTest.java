@@ -64,5 +64,37 @@ public class TreeViewerRefreshTest extends ViewerTest {
 		assertPerformance();
 	}
 
+	/**
+	 * Test the time for a refresh after an element was inserted at the top.
+	 * @throws Throwable
+	 */
+	public void testRefreshAfterInsert() throws Throwable {
+		measureRefreshAfterInsert(false);
+	}
+
+	/**
+	 * Test the time for an incremental refresh after an element was
+	 * inserted at the top.
+	 * @throws Throwable
+	 */
+	public void testIncrementalRefreshAfterInsert() throws Throwable {
+		measureRefreshAfterInsert(true);
+	}
+
+	private void measureRefreshAfterInsert(boolean incremental) {
+		openBrowser();
+		viewer.setIncrementalRefresh(incremental);
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			contentProvider.rotateElements();
+			startMeasuring();
+			viewer.refresh(false);
+			processEvents();
+			stopMeasuring();
+		}
+
+		commitMeasurements();
+		assertPerformance();
+	}
 
 }
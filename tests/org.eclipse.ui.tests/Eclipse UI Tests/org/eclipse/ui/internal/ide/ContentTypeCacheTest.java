@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ProjectScope;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeManager;
+import org.eclipse.ui.tests.harness.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.prefs.Preferences;
+
+/**
+ * Tests that {@link ContentTypeCache} only looks at the contents of files that
+ * changed.
+ */
+public class ContentTypeCacheTest {
+
+	private static final String EXTENSION = "contentTypeCacheTest";
+
+	/**
+	 * An XML content type of the test plug-in, recognized by the root element of
+	 * the file.
+	 */
+	private static final String ROOT_ELEMENT_CONTENT_TYPE = "org.eclipse.ui.tests.testObjectStateContentType";
+
+	private static final String ROOT_ELEMENT = "<testObjectStateContentTypeElement/>";
+
+	private IProject project;
+
+	private File cacheFile;
+
+	@Before
+	public void setUp() throws Exception {
+		project = FileUtil.createProject("ContentTypeCacheTest");
+		cacheFile = File.createTempFile("contentTypes", ".cache");
+		cacheFile.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtil.deleteProject(project);
+		cacheFile.delete();
+	}
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		IFile file = FileUtil.createFile("a.txt", project);
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		IContentType text = contentTypeManager.getContentType(IContentTypeManager.CT_TEXT);
+
+		ContentTypeCache cache = new ContentTypeCache(contentTypeManager, cacheFile);
+		assertEquals(text, cache.getContentType(file));
+		cache.dispose();
+		assertTrue(cacheFile.isFile());
+
+		AtomicInteger reads = new AtomicInteger();
+		cache = new ContentTypeCache(contentTypeManager, cacheFile);
+		try {
+			assertEquals(text, cache.getContentType(countReads(file, reads)));
+			assertEquals("The saved content type was not used", 0, reads.get());
+		} finally {
+			cache.dispose();
+		}
+	}
+
+	@Test
+	public void testChangedFile() throws Exception {
+		IFile file = createFile("b.xml", ROOT_ELEMENT);
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		IContentType rootElementType = contentTypeManager.getContentType(ROOT_ELEMENT_CONTENT_TYPE);
+		IContentType xml = contentTypeManager.getContentType("org.eclipse.core.runtime.xml");
+		ContentTypeCache cache = new ContentTypeCache(contentTypeManager, null);
+		try {
+			assertEquals(rootElementType, cache.getContentType(file));
+
+			// same path, other contents
+			file.setContents(new ByteArrayInputStream("<other/>".getBytes(StandardCharsets.UTF_8)), true, false,
+					null);
+			IContentType contentType = cache.getContentType(file);
+			assertNotEquals(rootElementType, contentType);
+			assertEquals(xml, contentType);
+
+			file.move(project.getFullPath().append("b.unknown"), true, null);
+			assertNull(cache.getContentType(project.getFile("b.unknown")));
+		} finally {
+			cache.dispose();
+		}
+		assertFalse(cacheFile.exists());
+	}
+
+	@Test
+	public void testUnchangedFileIsNotReadAgain() throws Exception {
+		IFile file = createFile("d.xml", ROOT_ELEMENT);
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		IContentType rootElementType = contentTypeManager.getContentType(ROOT_ELEMENT_CONTENT_TYPE);
+		AtomicInteger reads = new AtomicInteger();
+		IFile countingFile = countReads(file, reads);
+		ContentTypeCache cache = new ContentTypeCache(contentTypeManager, null);
+		try {
+			assertEquals(rootElementType, cache.getContentType(countingFile));
+			assertEquals(1, reads.get());
+			assertEquals(rootElementType, cache.getContentType(countingFile));
+			assertEquals("An unchanged file was read again", 1, reads.get());
+
+			// a new modification stamp is looked up again, even for the same contents
+			long modificationStamp = file.getModificationStamp();
+			file.touch(null);
+			assertNotEquals(modificationStamp, file.getModificationStamp());
+			assertEquals(rootElementType, cache.getContentType(countingFile));
+			assertEquals(2, reads.get());
+			assertEquals(rootElementType, cache.getContentType(countingFile));
+			assertEquals(2, reads.get());
+		} finally {
+			cache.dispose();
+		}
+	}
+
+	@Test
+	public void testChangedContentTypes() throws Exception {
+		IFile file = FileUtil.createFile("c." + EXTENSION, project);
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		IContentType text = contentTypeManager.getContentType(IContentTypeManager.CT_TEXT);
+
+		ContentTypeCache cache = new ContentTypeCache(contentTypeManager, cacheFile);
+		assertNull(cache.getContentType(file));
+		cache.save();
+		ContentTypeCache savedCache = null;
+		try {
+			text.addFileSpec(EXTENSION, IContentType.FILE_EXTENSION_SPEC);
+			assertEquals(text, cache.getContentType(file));
+			// the saved content types are out of date
+			savedCache = new ContentTypeCache(contentTypeManager, cacheFile);
+			assertEquals(text, savedCache.getContentType(file));
+		} finally {
+			text.removeFileSpec(EXTENSION, IContentType.FILE_EXTENSION_SPEC);
+			cache.dispose();
+			if (savedCache != null) {
+				savedCache.dispose();
+			}
+		}
+	}
+
+	@Test
+	public void testProjectContentTypes() throws Exception {
+		IFile file = FileUtil.createFile("e." + EXTENSION, project);
+		IContentTypeManager contentTypeManager = Platform.getContentTypeManager();
+		IContentType text = contentTypeManager.getContentType(IContentTypeManager.CT_TEXT);
+		ProjectScope projectScope = new ProjectScope(project);
+		Preferences projectSettings = projectScope.getNode(Platform.PI_RUNTIME + "/content-types");
+
+		ContentTypeCache cache = new ContentTypeCache(contentTypeManager, null);
+		try {
+			text.getSettings(projectScope).addFileSpec(EXTENSION, IContentType.FILE_EXTENSION_SPEC);
+			assertNull(cache.getContentType(file));
+
+			// the project settings are not reported as content type changes
+			projectSettings.putBoolean("enabled", true);
+			projectSettings.flush();
+			assertEquals(text, cache.getContentType(file));
+		} finally {
+			projectSettings.putBoolean("enabled", false);
+			projectSettings.flush();
+			cache.dispose();
+		}
+	}
+
+	private IFile createFile(String name, String contents) throws CoreException {
+		IFile file = project.getFile(name);
+		file.create(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), true, null);
+		return file;
+	}
+
+	/**
+	 * Returns a file which counts how often the content description of the given
+	 * file is read.
+	 */
+	private static IFile countReads(IFile file, AtomicInteger reads) {
+		return (IFile) Proxy.newProxyInstance(ContentTypeCacheTest.class.getClassLoader(),
+				new Class<?>[] { IFile.class }, (proxy, method, args) -> {
+					if (method.getName().equals("getContentDescription")) {
+						reads.incrementAndGet();
+					}
+					try {
+						return method.invoke(file, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.ide;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.core.resources.FileInfoMatcherDescription;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceFilterDescription;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.ui.internal.ide.misc.FileInfoAttributesMatcher;
+import org.eclipse.ui.tests.harness.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the resource filters contributed by the IDE.
+ */
+public class ResourceFilterMatcherTest {
+
+	private static final String OR_ID = "org.eclipse.ui.ide.orFilterMatcher";
+
+	private static final String AND_ID = "org.eclipse.ui.ide.andFilterMatcher";
+
+	private static final String NOT_ID = "org.eclipse.ui.ide.notFilterMatcher";
+
+	private IProject project;
+
+	@Before
+	public void setUp() throws CoreException {
+		project = FileUtil.createProject("ResourceFilterMatcherTest");
+	}
+
+	@After
+	public void tearDown() throws CoreException {
+		FileUtil.deleteProject(project);
+	}
+
+	@Test
+	public void testOrFilter() throws Exception {
+		FileInfoMatcherDescription filter = new FileInfoMatcherDescription(OR_ID,
+				new FileInfoMatcherDescription[] { nameFilter("node_modules", false), nameFilter("*.LOG", false),
+						nameFilter("Target", true), nameFilter("out?", false) });
+		project.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FILES
+				| IResourceFilterDescription.FOLDERS, filter, IResource.NONE, null);
+
+		createFolder("Node_Modules");
+		createFile("a.log");
+		createFile("target");
+		createFile("b.txt");
+		createFolder("out1");
+		createFolder("out12");
+		project.refreshLocal(IResource.DEPTH_INFINITE, null);
+
+		assertFalse(project.getFolder("Node_Modules").exists());
+		assertFalse(project.getFile("a.log").exists());
+		assertTrue(project.getFile("target").exists());
+		assertTrue(project.getFile("b.txt").exists());
+		assertFalse(project.getFolder("out1").exists());
+		assertTrue(project.getFolder("out12").exists());
+	}
+
+	@Test
+	public void testAndNotFilter() throws Exception {
+		FileInfoMatcherDescription filter = new FileInfoMatcherDescription(AND_ID,
+				new FileInfoMatcherDescription[] { nameFilter("*.txt", true),
+						new FileInfoMatcherDescription(NOT_ID, nameFilter("keep*", true)) });
+		project.createFilter(IResourceFilterDescription.EXCLUDE_ALL | IResourceFilterDescription.FILES, filter,
+				IResource.NONE, null);
+
+		createFile("a.txt");
+		createFile("keep.txt");
+		createFile("b.log");
+		project.refreshLocal(IResource.DEPTH_INFINITE, null);
+
+		assertFalse(project.getFile("a.txt").exists());
+		assertTrue(project.getFile("keep.txt").exists());
+		assertTrue(project.getFile("b.log").exists());
+	}
+
+	private static FileInfoMatcherDescription nameFilter(String pattern, boolean caseSensitive) {
+		FileInfoAttributesMatcher.Argument argument = new FileInfoAttributesMatcher.Argument();
+		argument.key = FileInfoAttributesMatcher.KEY_NAME;
+		argument.operator = FileInfoAttributesMatcher.OPERATOR_MATCHES;
+		argument.pattern = pattern;
+		argument.caseSensitive = caseSensitive;
+		return new FileInfoMatcherDescription(FileInfoAttributesMatcher.ID,
+				FileInfoAttributesMatcher.encodeArguments(argument));
+	}
+
+	private void createFolder(String name) {
+		assertTrue(new File(project.getLocation().toFile(), name).mkdir());
+	}
+
+	private void createFile(String name) throws IOException {
+		assertTrue(new File(project.getLocation().toFile(), name).createNewFile());
+	}
+}
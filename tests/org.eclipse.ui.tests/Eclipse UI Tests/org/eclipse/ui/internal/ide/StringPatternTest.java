@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.ide;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.text.StringMatcher;
+import org.eclipse.ui.internal.ide.misc.StringPattern;
+import org.junit.Test;
+
+/**
+ * Tests that {@link StringPattern} matches like a {@link StringMatcher}.
+ */
+public class StringPatternTest {
+
+	private static final String[] VALUES = { "", "a", "abc", "ABC", "xabcx", "XaBcX", "ab", "bc", "abcabc",
+			"abc.txt", "a*c", "a.b" };
+
+	@Test
+	public void testLiteral() {
+		StringPattern pattern = StringPattern.compile("abc", false);
+		assertEquals("abc", pattern.getLiteral());
+		assertTrue(pattern.match("abc"));
+		assertFalse(pattern.match("ABC"));
+		assertFalse(pattern.match("abcd"));
+		assertFalse(pattern.match("ab"));
+		assertMatchesLikeStringMatcher("abc");
+	}
+
+	@Test
+	public void testLiteralIgnoringCase() {
+		StringPattern pattern = StringPattern.compile("abc", true);
+		assertTrue(pattern.isIgnoreCase());
+		assertTrue(pattern.match("ABC"));
+		assertTrue(pattern.match("aBc"));
+		assertFalse(pattern.match("ABCD"));
+	}
+
+	@Test
+	public void testPrefix() {
+		StringPattern pattern = StringPattern.compile("abc*", false);
+		assertNull(pattern.getLiteral());
+		assertTrue(pattern.match("abc"));
+		assertTrue(pattern.match("abc.txt"));
+		assertFalse(pattern.match("xabc"));
+		assertFalse(pattern.match("ab"));
+		assertMatchesLikeStringMatcher("abc*");
+	}
+
+	@Test
+	public void testSuffix() {
+		StringPattern pattern = StringPattern.compile("*.txt", false);
+		assertNull(pattern.getLiteral());
+		assertTrue(pattern.match(".txt"));
+		assertTrue(pattern.match("abc.txt"));
+		assertFalse(pattern.match("abc.txt.bak"));
+		assertFalse(pattern.match("abc.TXT"));
+		assertMatchesLikeStringMatcher("*.txt");
+		assertMatchesLikeStringMatcher("*bc");
+	}
+
+	@Test
+	public void testSuffixLongerThanValue() {
+		StringPattern pattern = StringPattern.compile("*.java", false);
+		assertFalse(pattern.match(""));
+		assertFalse(pattern.match("a"));
+		assertFalse(pattern.match("java"));
+		assertFalse(StringPattern.compile("*.java", true).match("JAVA"));
+	}
+
+	@Test
+	public void testInfix() {
+		StringPattern pattern = StringPattern.compile("*bc*", false);
+		assertNull(pattern.getLiteral());
+		assertTrue(pattern.match("bc"));
+		assertTrue(pattern.match("abc"));
+		assertTrue(pattern.match("xabcx"));
+		assertFalse(pattern.match("XaBcX"));
+		assertFalse(pattern.match("b"));
+		assertMatchesLikeStringMatcher("*bc*");
+	}
+
+	@Test
+	public void testInfixIgnoringCase() {
+		StringPattern pattern = StringPattern.compile("*bC*", true);
+		assertTrue(pattern.match("bc"));
+		assertTrue(pattern.match("XaBcX"));
+		assertTrue(pattern.match("xxxBC"));
+		assertFalse(pattern.match("xbxcx"));
+		assertFalse(pattern.match("B"));
+		assertMatchesLikeStringMatcher("*bC*");
+	}
+
+	@Test
+	public void testAny() {
+		for (String wildcards : new String[] { "*", "**", "***" }) {
+			StringPattern pattern = StringPattern.compile(wildcards, false);
+			assertNull(pattern.getLiteral());
+			for (String value : VALUES) {
+				assertTrue(wildcards + " does not match " + value, pattern.match(value));
+			}
+			assertMatchesLikeStringMatcher(wildcards);
+		}
+	}
+
+	@Test
+	public void testOtherPatterns() {
+		for (String other : new String[] { "", "a*c", "a?c", "*a*c*", "a\\*c", "?" }) {
+			assertNull(StringPattern.compile(other, false).getLiteral());
+			assertMatchesLikeStringMatcher(other);
+		}
+	}
+
+	@Test
+	public void testFoldCase() {
+		assertEquals(StringPattern.foldCase("abc"), StringPattern.foldCase("ABC"));
+		// dotless i is equal to I ignoring case
+		assertEquals(StringPattern.foldCase("\u0131"), StringPattern.foldCase("I"));
+		assertFalse(StringPattern.foldCase("abc").equals(StringPattern.foldCase("abd")));
+	}
+
+	private static void assertMatchesLikeStringMatcher(String pattern) {
+		for (boolean ignoreCase : new boolean[] { false, true }) {
+			StringPattern stringPattern = StringPattern.compile(pattern, ignoreCase);
+			StringMatcher matcher = new StringMatcher(pattern, ignoreCase, false);
+			for (String value : VALUES) {
+				assertEquals(pattern + (ignoreCase ? " ignoring case" : "") + " on " + value, matcher.match(value),
+						stringPattern.match(value));
+			}
+		}
+	}
+}
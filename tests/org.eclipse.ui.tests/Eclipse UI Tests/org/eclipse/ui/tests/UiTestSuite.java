@@ -18,6 +18,9 @@
 package org.eclipse.ui.tests;
 
 import org.eclipse.ui.internal.ide.ChooseWorkspaceDialogTests;
+import org.eclipse.ui.internal.ide.ContentTypeCacheTest;
+import org.eclipse.ui.internal.ide.ResourceFilterMatcherTest;
+import org.eclipse.ui.internal.ide.StringPatternTest;
 import org.eclipse.ui.internal.ide.DirectoryProposalContentAssistTestSuite;
 import org.eclipse.ui.tests.activities.ActivitiesTestSuite;
 import org.eclipse.ui.tests.adaptable.AdaptableTestSuite;
@@ -106,6 +109,9 @@ import org.junit.runners.Suite;
 	OpenSystemInPlaceEditorTest.class,
 	WorkbenchDatabindingTest.class,
 	ChooseWorkspaceDialogTests.class,
+	ContentTypeCacheTest.class,
+	ResourceFilterMatcherTest.class,
+	StringPatternTest.class,
 })
 public class UiTestSuite {
 }
@@ -110,6 +110,31 @@ public class IWorkingSetTest extends UITestCase {
 		assertEquals(0, fWorkingSet.getElements().length);
 	}
 
+	@Test
+	public void testResourceWorkingSetUpdater() throws Throwable {
+		IWorkingSetManager workingSetManager = fWorkbench.getWorkingSetManager();
+		IProject p1 = FileUtil.createProject("TP2");
+		IFile f1 = FileUtil.createFile("f1.txt", p1);
+		IFile f2 = FileUtil.createFile("f2.txt", p1);
+		IFile f3 = FileUtil.createFile("f3.txt", p1);
+		IWorkingSet workingSet = workingSetManager.createWorkingSet(WORKING_SET_NAME_2,
+				new IAdaptable[] { p1, f1, f2, f3 });
+		workingSet.setId("org.eclipse.ui.resourceWorkingSetPage");
+		workingSetManager.addWorkingSet(workingSet);
+		try {
+			f1.delete(true, null);
+			IFile moved = p1.getFile("moved.txt");
+			f2.move(moved.getFullPath(), true, null);
+			assertTrue(ArrayUtil.equals(new IAdaptable[] { p1, moved, f3 }, workingSet.getElements()));
+
+			p1.close(null);
+			assertTrue(ArrayUtil.equals(new IAdaptable[] { p1, moved, f3 }, workingSet.getElements()));
+		} finally {
+			workingSetManager.removeWorkingSet(workingSet);
+			FileUtil.deleteProject(p1);
+		}
+	}
+
 	@Test
 	public void testSetId() throws Throwable {
 		assertEquals(null, fWorkingSet.getId());
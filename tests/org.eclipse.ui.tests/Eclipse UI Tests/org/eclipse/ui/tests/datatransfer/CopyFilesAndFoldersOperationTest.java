@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.datatransfer;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.tests.harness.FileSystemHelper;
+import org.eclipse.jface.dialogs.ErrorDialog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.actions.CopyFilesAndFoldersOperation;
+import org.eclipse.ui.internal.ide.IDEWorkbenchMessages;
+import org.eclipse.ui.tests.harness.util.FileUtil;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests copying files and folders of the local file system into the workspace.
+ */
+@RunWith(JUnit4.class)
+public class CopyFilesAndFoldersOperationTest extends UITestCase {
+
+	private IProject project;
+
+	private File directory;
+
+	private boolean automatedMode;
+
+	public CopyFilesAndFoldersOperationTest() {
+		super(CopyFilesAndFoldersOperationTest.class.getSimpleName());
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		project = FileUtil.createProject("CopyFilesAndFoldersOperationTest");
+		directory = Files.createTempDirectory("copyFilesTest").toFile();
+		automatedMode = ErrorDialog.AUTOMATED_MODE;
+		ErrorDialog.AUTOMATED_MODE = true;
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		ErrorDialog.AUTOMATED_MODE = automatedMode;
+		try {
+			FileUtil.deleteProject(project);
+			FileSystemHelper.clear(directory);
+		} finally {
+			project = null;
+			directory = null;
+			super.doTearDown();
+		}
+	}
+
+	@Test
+	public void testCopyFiles() throws Exception {
+		File folder = new File(directory, "folder");
+		File file = createFile(new File(folder, "sub"), "b.txt", "b");
+		createFile(folder, "a.txt", "a");
+		new File(folder, "empty").mkdirs();
+		for (int i = 0; i < 100; i++) {
+			createFile(new File(folder, "many"), i + ".txt", Integer.toString(i));
+		}
+		File single = createFile(directory, "c.txt", "c");
+		assertTrue(file.setLastModified(file.lastModified() - 60000));
+
+		copy(null, folder, single);
+
+		IFolder copiedFolder = project.getFolder("folder");
+		assertTrue(copiedFolder.isSynchronized(IResource.DEPTH_INFINITE));
+		assertEquals("a", read(copiedFolder.getFile("a.txt")));
+		IFile copiedFile = copiedFolder.getFile("sub/b.txt");
+		assertEquals("b", read(copiedFile));
+		assertEquals(file.lastModified(), copiedFile.getLocalTimeStamp());
+		assertTrue(copiedFolder.getFolder("empty").exists());
+		assertEquals(100, copiedFolder.getFolder("many").members().length);
+		assertEquals("42", read(copiedFolder.getFile("many/42.txt")));
+		assertEquals("c", read(project.getFile("c.txt")));
+	}
+
+	@Test
+	public void testCopyFileWithoutContents() throws Exception {
+		File file = createFile(directory, "empty.txt", "");
+
+		copy(null, file);
+
+		IFile copiedFile = project.getFile("empty.txt");
+		assertTrue(copiedFile.exists());
+		try (InputStream contents = copiedFile.getContents()) {
+			assertArrayEquals(new byte[0], contents.readAllBytes());
+		}
+	}
+
+	@Test
+	public void testCanceledCopyLeavesNoIncompleteFile() throws Exception {
+		File folder = new File(directory, "big");
+		folder.mkdirs();
+		byte[] contents = new byte[256 * 1024];
+		Arrays.fill(contents, (byte) 'x');
+		int count = 100;
+		for (int i = 0; i < count; i++) {
+			Files.write(new File(folder, i + ".bin").toPath(), contents);
+		}
+		File copiedDirectory = new File(project.getLocation().toFile(), "big");
+		// cancel as soon as the first file is being copied
+		NullProgressMonitor monitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				String[] copied = copiedDirectory.list();
+				return super.isCanceled() || (copied != null && copied.length > 0);
+			}
+		};
+
+		copy(monitor, folder);
+
+		String[] copied = copiedDirectory.list();
+		assertNotNull(copied);
+		assertTrue("The copy was not canceled", copied.length < count);
+		for (String name : copied) {
+			assertEquals(name, contents.length, new File(copiedDirectory, name).length());
+		}
+		IFolder copiedFolder = project.getFolder("big");
+		assertTrue(copiedFolder.isSynchronized(IResource.DEPTH_INFINITE));
+		assertEquals(copied.length, copiedFolder.members().length);
+	}
+
+	@Test
+	public void testCopyFolderLinkingToItsParent() throws Exception {
+		File folder = new File(directory, "folder");
+		createFile(new File(folder, "sub"), "a.txt", "a");
+		Path link = new File(folder, "sub/parent").toPath();
+		try {
+			Files.createSymbolicLink(link, folder.toPath());
+		} catch (UnsupportedOperationException | IOException e) {
+			Assume.assumeNoException("Symbolic links are not supported", e);
+		}
+		try {
+			copy(null, folder);
+		} finally {
+			// do not follow the link when cleaning up
+			Files.delete(link);
+		}
+
+		IFolder copiedFolder = project.getFolder("folder");
+		assertTrue(copiedFolder.isSynchronized(IResource.DEPTH_INFINITE));
+		assertEquals("a", read(copiedFolder.getFile("sub/a.txt")));
+		assertFalse(copiedFolder.getFolder("sub/parent").exists());
+	}
+
+	@Test
+	public void testCopyOverExistingFolder() throws Exception {
+		IFolder existingFolder = project.getFolder("folder");
+		existingFolder.create(true, true, null);
+		existingFolder.getFile("old.txt").create(new ByteArrayInputStream("old".getBytes(StandardCharsets.UTF_8)),
+				true, null);
+		existingFolder.getFile("kept.txt").create(new ByteArrayInputStream(new byte[0]), true, null);
+		File folder = new File(directory, "folder");
+		createFile(folder, "old.txt", "new");
+		createFile(folder, "added.txt", "added");
+		File single = createFile(directory, "c.txt", "c");
+
+		boolean[] answered = { false };
+		// the name is taken, so the import operation asks whether to overwrite
+		answerOverwriteQuestion(answered);
+		try {
+			copy(null, folder, single);
+		} finally {
+			answered[0] = true;
+		}
+
+		assertTrue(existingFolder.isSynchronized(IResource.DEPTH_INFINITE));
+		assertEquals("new", read(existingFolder.getFile("old.txt")));
+		assertEquals("added", read(existingFolder.getFile("added.txt")));
+		assertTrue(existingFolder.getFile("kept.txt").exists());
+		assertEquals("c", read(project.getFile("c.txt")));
+	}
+
+	/**
+	 * Presses "Yes to All" in the overwrite question once it is shown.
+	 *
+	 * @param done set to <code>true</code> once answered or when waiting is over
+	 */
+	private static void answerOverwriteQuestion(boolean[] done) {
+		Display display = Display.getCurrent();
+		Runnable[] answer = new Runnable[1];
+		answer[0] = () -> {
+			if (done[0]) {
+				return;
+			}
+			for (Shell shell : display.getShells()) {
+				if (IDEWorkbenchMessages.CopyFilesAndFoldersOperation_question.equals(shell.getText())) {
+					Button button = findButton(shell,
+							IDEWorkbenchMessages.CopyFilesAndFoldersOperation_overwriteAllButtonLabel);
+					if (button != null) {
+						done[0] = true;
+						button.notifyListeners(SWT.Selection, new Event());
+						return;
+					}
+				}
+			}
+			display.timerExec(50, answer[0]);
+		};
+		display.timerExec(50, answer[0]);
+	}
+
+	private static Button findButton(Control control, String text) {
+		if (control instanceof Button && text.equals(((Button) control).getText())) {
+			return (Button) control;
+		}
+		if (control instanceof Composite) {
+			for (Control child : ((Composite) control).getChildren()) {
+				Button button = findButton(child, text);
+				if (button != null) {
+					return button;
+				}
+			}
+		}
+		return null;
+	}
+
+	private void copy(IProgressMonitor monitor, File... files) {
+		String[] fileNames = new String[files.length];
+		for (int i = 0; i < files.length; i++) {
+			fileNames[i] = files[i].getAbsolutePath();
+		}
+		CopyFilesAndFoldersOperation operation = new CopyFilesAndFoldersOperation(
+				getWorkbench().getActiveWorkbenchWindow().getShell());
+		operation.copyFilesInCurrentThread(fileNames, project, monitor);
+	}
+
+	private static File createFile(File parent, String name, String contents) throws Exception {
+		parent.mkdirs();
+		File file = new File(parent, name);
+		Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static String read(IFile file) throws Exception {
+		try (InputStream contents = file.getContents()) {
+			return new String(contents.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.ui.tests.datatransfer;
 
+import static org.junit.Assert.assertArrayEquals;
+
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -35,6 +37,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.core.tests.harness.FileSystemHelper;
 import org.eclipse.ui.dialogs.IOverwriteQuery;
 import org.eclipse.ui.internal.wizards.datatransfer.ArchiveFileExportOperation;
@@ -214,6 +217,31 @@ public class ExportArchiveFileOperationTest extends UITestCase implements
 		verifyFolders(directoryNames.length + emptyDirectoryNames.length, ZIP_FILE_EXT);
 	}
 
+	@Test
+	public void testExportContents() throws Exception {
+		// too large to be read ahead, streamed into the archive while exporting
+		byte[] large = new byte[3 * 1024 * 1024];
+		for (int i = 0; i < large.length; i++) {
+			large[i] = (byte) (i % 251 ^ i / 4096);
+		}
+		IFile largeFile = project.getFile("large.bin");
+		largeFile.create(new ByteArrayInputStream(large), true, new NullProgressMonitor());
+		List<IResource> resources = new ArrayList<>();
+		resources.add(project);
+
+		for (String type : new String[] { ZIP_FILE_EXT, TAR_FILE_EXT }) {
+			for (boolean compress : new boolean[] { false, true }) {
+				filePath = localDirectory + "/" + FILE_NAME + compress + "." + type;
+				ArchiveFileExportOperation operation = new ArchiveFileExportOperation(resources, filePath);
+				operation.setUseCompression(compress);
+				operation.setUseTarFormat(TAR_FILE_EXT.equals(type));
+				operation.run(new NullProgressMonitor());
+				assertTrue(operation.getStatus().isOK());
+				verifyContents(type);
+			}
+		}
+	}
+
 	@Test
 	public void testExportTar() throws Exception {
 		filePath = localDirectory + "/" + FILE_NAME + "." + TAR_FILE_EXT;
@@ -452,6 +480,55 @@ public class ExportArchiveFileOperationTest extends UITestCase implements
 		}
 	}
 
+	private void verifyContents(String type) throws Exception {
+		int count = 0;
+		if (ZIP_FILE_EXT.equals(type)) {
+			try (ZipFile zipFile = new ZipFile(filePath)) {
+				Enumeration<? extends ZipEntry> entries = zipFile.entries();
+				while (entries.hasMoreElements()) {
+					ZipEntry entry = entries.nextElement();
+					if (!entry.isDirectory()) {
+						try (InputStream in = zipFile.getInputStream(entry)) {
+							verifyContents(entry.getName(), in);
+						}
+						count++;
+					}
+				}
+			}
+		} else {
+			TarFile tarFile = new TarFile(filePath);
+			try {
+				Enumeration<?> entries = tarFile.entries();
+				while (entries.hasMoreElements()) {
+					TarEntry entry = (TarEntry) entries.nextElement();
+					if (entry.getFileType() != TarEntry.DIRECTORY) {
+						try (InputStream in = tarFile.getInputStream(entry)) {
+							verifyContents(entry.getName(), in);
+						}
+						count++;
+					}
+				}
+			} finally {
+				tarFile.close();
+			}
+		}
+		int[] fileCount = new int[1];
+		project.accept(resource -> {
+			if (resource.getType() == IResource.FILE) {
+				fileCount[0]++;
+			}
+			return true;
+		});
+		assertEquals("Number of files exported", fileCount[0], count);
+	}
+
+	private void verifyContents(String entryName, InputStream in) throws Exception {
+		IFile file = project.getParent().getFile(new Path(entryName));
+		try (InputStream expected = file.getContents()) {
+			assertArrayEquals("Contents of " + entryName, expected.readAllBytes(), in.readAllBytes());
+		}
+	}
+
 	private void verifyArchive(int folderCount, List<String> entries) {
 		int count = 0;
 		Set<String> folderNames = new HashSet<>();
@@ -13,13 +13,18 @@
  *******************************************************************************/
 package org.eclipse.ui.tests.datatransfer;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -199,6 +204,40 @@ public class ImportArchiveOperationTest extends UITestCase implements IOverwrite
 		verifyFiles(directoryNames.length, false);
 	}
 
+	@Test
+	public void testTarGzImportOutOfOrder() throws Exception {
+		setup(ARCHIVE_SOURCE_PROPERTY);
+		project = FileUtil.createProject("ImportTarGzOutOfOrder");
+		File gzFile = File.createTempFile(localDirectory, ".tar.gz");
+		try {
+			try (InputStream in = tarFileURL.openStream();
+					OutputStream out = new GZIPOutputStream(new FileOutputStream(gzFile))) {
+				in.transferTo(out);
+			}
+			TarFile tarFile = new TarFile(gzFile);
+			TarLeveledStructureProvider structureProvider = new TarLeveledStructureProvider(tarFile);
+
+			Enumeration<?> tarEntries = tarFile.entries();
+			List<Object> entries = new ArrayList<>();
+			while (tarEntries.hasMoreElements()) {
+				entries.add(tarEntries.nextElement());
+			}
+			// entries that were passed already can't be read from the stream
+			Collections.reverse(entries);
+			ImportOperation operation = new ImportOperation(
+					new Path(project.getName()), structureProvider.getRoot(),
+					structureProvider, this, entries);
+
+			openTestWindow().run(true, true, operation);
+			tarFile.close();
+
+			assertTrue(operation.getStatus().isOK());
+			verifyFiles(directoryNames.length, false);
+		} finally {
+			gzFile.delete();
+		}
+	}
+
 	@Test
 	public void testTarSetOverwriteResources() throws Exception {
 		setup(ARCHIVE_SOURCE_PROPERTY);
@@ -24,6 +24,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -1212,4 +1213,31 @@ public class ImportExistingProjectsWizardTest extends UITestCase {
 		}
 	}
 
+	@Test
+	public void test24DirectorySearchSkipsOutputFolders() throws IOException {
+		dataLocation = ImportTestUtils.copyDataLocation(WS_NESTED_DATA_LOCATION);
+		IPath wsPath = new Path(dataLocation).append("A");
+		File projectFile = wsPath.append("B/C/.project").toFile();
+		// copies of a description in an output folder and in metadata
+		for (String copy : new String[] { "bin/D", ".metadata/E" }) {
+			File folder = wsPath.append(copy).toFile();
+			assertTrue(folder.mkdirs());
+			Files.copy(projectFile.toPath(), new File(folder, ".project").toPath());
+		}
+
+		WizardProjectsImportPage wpip = getNewWizard();
+		wpip.getProjectFromDirectoryRadio().setSelection(true);
+		wpip.getNestedProjectsCheckbox().setSelection(true);
+		wpip.saveWidgetValues();
+		wpip.restoreWidgetValues();
+		wpip.updateProjectsList(wsPath.toOSString());
+
+		ProjectRecord[] selectedProjects = wpip.getProjectRecords();
+		List<String> projectNames = new ArrayList<>();
+		for (ProjectRecord selectedProject : selectedProjects) {
+			projectNames.add(selectedProject.getProjectName());
+		}
+		assertEquals("Unexpected projects found in directory", List.of("A", "B", "C"), projectNames);
+	}
+
 }
@@ -27,6 +27,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -61,11 +62,14 @@ import org.eclipse.ui.IWorkingSetManager;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.dialogs.FilteredTree;
 import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.wizards.datatransfer.RecursiveImportListener;
+import org.eclipse.ui.internal.wizards.datatransfer.SmartImportJob;
 import org.eclipse.ui.internal.wizards.datatransfer.SmartImportRootWizardPage;
 import org.eclipse.ui.internal.wizards.datatransfer.SmartImportWizard;
 import org.eclipse.ui.tests.TestPlugin;
 import org.eclipse.ui.tests.datatransfer.contributions.ImportMeProjectConfigurator;
 import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.eclipse.ui.wizards.datatransfer.ProjectConfigurator;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -213,6 +217,157 @@ public class SmartImportTests extends UITestCase {
 		assertTrue(implProjectNames.contains("module3_impl"));
 	}
 
+	@Test
+	public void testImportJobReportsConfiguratorTimes() throws Exception {
+		URL url = FileLocator.toFileURL(getClass().getResource("/data/org.eclipse.datatransferArchives/project"));
+		File root = new File(url.getFile());
+		Set<File> directories = new HashSet<>();
+		try (Stream<Path> files = Files.walk(root.toPath())) {
+			files.filter(file -> file.getFileName().toString().equals("importme"))
+					.forEach(file -> directories.add(file.getParent().toFile()));
+		}
+		SmartImportJob job = new SmartImportJob(root, Collections.emptySet(), true, false);
+		job.setDirectoriesToImport(directories);
+		job.schedule();
+		job.join();
+		waitForJobs(100, 5000);
+
+		assertTrue(job.getResult().getMessage(), job.getResult().isOK());
+		assertEquals(10, ResourcesPlugin.getWorkspace().getRoot().getProjects().length);
+		assertEquals(10, ImportMeProjectConfigurator.configuredProjects.size());
+		assertTrue(job.getConfiguratorTimes().containsKey("Example project detector"));
+	}
+
+	@Test
+	public void testImportJobCrawlsNestedProjects() throws Exception {
+		Set<String> expected = new HashSet<>(Arrays.asList("", "a"));
+		for (int i = 0; i < 16; i++) {
+			expected.add("b/m" + i);
+		}
+		File sequentialRoot = createNestedProjects();
+		File parallelRoot = createNestedProjects();
+		try {
+			SmartImportJob job = runCrawlingImport(sequentialRoot, 1, null);
+			assertTrue(job.getResult().getMessage(), job.getResult().isOK());
+			assertEquals(expected, getProjectLocations(sequentialRoot));
+			clearAll();
+
+			job = runCrawlingImport(parallelRoot, 4, null);
+			assertTrue(job.getResult().getMessage(), job.getResult().isOK());
+			assertEquals(expected, getProjectLocations(parallelRoot));
+		} finally {
+			clearAll();
+			deleteDirectory(sequentialRoot);
+			deleteDirectory(parallelRoot);
+		}
+	}
+
+	@Test
+	public void testImportJobOnlyMakesRecognizedFoldersProjects() throws Exception {
+		File root = createNestedProjects();
+		try {
+			SmartImportJob job = runCrawlingImport(root, 1, null);
+			assertTrue(job.getResult().getMessage(), job.getResult().isOK());
+			Set<String> locations = getProjectLocations(root);
+			assertTrue(locations.contains("b/m0"));
+			// crawled folders which no configurator recognizes
+			assertFalse(locations.contains("b"));
+			assertFalse(locations.contains("b/e"));
+		} finally {
+			clearAll();
+			deleteDirectory(root);
+		}
+	}
+
+	@Test
+	public void testImportJobCancelsCrawl() throws Exception {
+		File root = createNestedProjects();
+		try {
+			SmartImportJob[] job = new SmartImportJob[1];
+			RecursiveImportListener cancelOnNestedProject = new RecursiveImportListener() {
+				@Override
+				public void projectCreated(IProject project) {
+					if (!root.equals(project.getLocation().toFile())) {
+						job[0].cancel();
+					}
+				}
+
+				@Override
+				public void projectConfigured(IProject project, ProjectConfigurator configurator) {
+					// nothing
+				}
+
+				@Override
+				public void errorHappened(IPath location, Exception ex) {
+					// nothing
+				}
+			};
+			job[0] = new SmartImportJob(root, Collections.emptySet(), true, true);
+			runCrawlingImport(job[0], 1, cancelOnNestedProject);
+
+			assertEquals(IStatus.CANCEL, job[0].getResult().getSeverity());
+			assertTrue(getProjectLocations(root).size() < 18);
+		} finally {
+			clearAll();
+			deleteDirectory(root);
+		}
+	}
+
+	private SmartImportJob runCrawlingImport(File root, int parallelism, RecursiveImportListener listener)
+			throws InterruptedException {
+		return runCrawlingImport(new SmartImportJob(root, Collections.emptySet(), true, true), parallelism,
+				listener);
+	}
+
+	private SmartImportJob runCrawlingImport(SmartImportJob job, int parallelism, RecursiveImportListener listener)
+			throws InterruptedException {
+		job.setCrawlerParallelism(parallelism);
+		job.setListener(listener);
+		job.schedule();
+		job.join();
+		waitForJobs(100, 5000);
+		return job;
+	}
+
+	/**
+	 * Creates a root project holding a project with a nested folder, which is
+	 * not crawled, and a plain folder with 16 projects and an empty folder.
+	 */
+	private static File createNestedProjects() throws IOException {
+		File root = Files.createTempDirectory("nestedProjects").toFile();
+		createImportMe(root);
+		createImportMe(new File(root, "a"));
+		createImportMe(new File(root, "a/f"));
+		for (int i = 0; i < 16; i++) {
+			createImportMe(new File(root, "b/m" + i));
+		}
+		assertTrue(new File(root, "b/e").mkdirs());
+		return root;
+	}
+
+	private static void createImportMe(File directory) throws IOException {
+		directory.mkdirs();
+		assertTrue(new File(directory, "importme").createNewFile());
+	}
+
+	private static Set<String> getProjectLocations(File root) {
+		Set<String> res = new HashSet<>();
+		Path rootPath = root.toPath();
+		for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+			Path location = project.getLocation().toFile().toPath();
+			if (location.startsWith(rootPath)) {
+				res.add(rootPath.relativize(location).toString().replace(File.separatorChar, '/'));
+			}
+		}
+		return res;
+	}
+
+	private static void deleteDirectory(File directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory.toPath())) {
+			files.sorted(Collections.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
 	@Test
 	public void testImportProjectWithExistingName()
 			throws IOException, OperationCanceledException, InterruptedException {
@@ -33,7 +33,7 @@ import org.eclipse.core.runtime.Path;
 public class ImportMeProjectConfigurator implements org.eclipse.ui.wizards.datatransfer.ProjectConfigurator {
 
 	private static final String IMPORTME_FILENAME = "importme";
-	public static final Set<IProject> configuredProjects = new HashSet<>();
+	public static final Set<IProject> configuredProjects = Collections.synchronizedSet(new HashSet<>());
 
 	@Override
 	public Set<File> findConfigurableLocations(File root, IProgressMonitor monitor) {
@@ -20,6 +20,7 @@ import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.tests.viewers.TestElement;
 import org.eclipse.jface.tests.viewers.TestModelContentProvider;
 import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
@@ -133,6 +134,109 @@ public class FilteredTreeTests extends UITestCase {
 		dialog.close();
 	}
 
+	@Test
+	public void testNarrowAndWidenPattern() {
+		Dialog dialog = createFilteredTreeDialog();
+		narrowAndWidenPattern();
+		dialog.close();
+	}
+
+	@Test
+	public void testNarrowAndWidenPatternOfMonotonicFilter() {
+		Dialog dialog = createFilteredTreeDialog(SWT.SINGLE | SWT.H_SCROLL | SWT.V_SCROLL | SWT.BORDER,
+				new MonotonicPatternFilter());
+		narrowAndWidenPattern();
+		dialog.close();
+	}
+
+	@Test
+	public void testRefinePatternOfFilterMatchingOtherElements() {
+		ExtraElementPatternFilter filter = new ExtraElementPatternFilter();
+		Dialog dialog = createFilteredTreeDialog(SWT.SINGLE | SWT.H_SCROLL | SWT.V_SCROLL | SWT.BORDER, filter);
+
+		applyPattern("0-1");
+		assertNumberOfTopLevelItems(11);
+
+		// 0-5 did not match the previous pattern, but is shown for the refined one
+		filter.extraId = "0-5";
+		applyPattern("0-12");
+		assertNumberOfTopLevelItems(2);
+
+		dialog.close();
+	}
+
+	private void narrowAndWidenPattern() {
+		// 0-1 and 0-10 to 0-19
+		applyPattern("0-1");
+		assertNumberOfTopLevelItems(11);
+
+		applyPattern("0-12");
+		assertNumberOfTopLevelItems(1);
+
+		applyPattern("0-1");
+		assertNumberOfTopLevelItems(11);
+
+		// only the children of 0-1 match
+		applyPattern("0-1-");
+		assertNumberOfTopLevelItems(1);
+	}
+
+	@Test
+	public void testMatchInBackground() {
+		Dialog dialog = createFilteredTreeDialog(SWT.SINGLE | SWT.H_SCROLL | SWT.V_SCROLL | SWT.BORDER,
+				new ThreadSafePatternFilter());
+
+		fTreeViewer.getFilterControl().setText("0-12");
+		Assert.isTrue(processEventsUntil(() -> fTreeViewer.getViewer().getTree().getItemCount() == 1, 10000),
+				"background match did not filter the tree");
+
+		fTreeViewer.getFilterControl().setText("0-1");
+		Assert.isTrue(processEventsUntil(() -> fTreeViewer.getViewer().getTree().getItemCount() == 11, 10000),
+				"background match did not filter the tree");
+
+		dialog.close();
+	}
+
+	/**
+	 * Narrows the elements to check when the pattern is refined.
+	 */
+	private static class MonotonicPatternFilter extends PatternFilter {
+
+		@Override
+		protected boolean isMonotonic() {
+			return true;
+		}
+	}
+
+	/**
+	 * Also shows the element with a given id, whatever the pattern.
+	 */
+	private static class ExtraElementPatternFilter extends PatternFilter {
+
+		String extraId;
+
+		@Override
+		protected boolean isLeafMatch(Viewer viewer, Object element) {
+			return super.isLeafMatch(viewer, element) || ((TestElement) element).getID().equals(extraId);
+		}
+	}
+
+	/**
+	 * Matches the text of the elements without using the label provider.
+	 */
+	private static class ThreadSafePatternFilter extends PatternFilter {
+
+		@Override
+		protected boolean isLeafMatch(Viewer viewer, Object element) {
+			return wordMatches(element.toString());
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return true;
+		}
+	}
+
 	private void runFilteredTreeTest(final int treeStyle){
 		Dialog dialog = createFilteredTreeDialog(treeStyle);
 
@@ -147,12 +251,16 @@ public class FilteredTreeTests extends UITestCase {
 	}
 
 	private Dialog createFilteredTreeDialog(final int treeStyle) {
+		return createFilteredTreeDialog(treeStyle, new PatternFilter());
+	}
+
+	private Dialog createFilteredTreeDialog(final int treeStyle, PatternFilter filter) {
 		fRootElement = TestElement.createModel(DEPTH, NUM_ITEMS);
 
 		Dialog dialog = new FilteredTreeDialog((Shell)null, treeStyle){
 			@Override
 			protected FilteredTree doCreateFilteredTree(Composite comp, int style) {
-				return createFilteredTree(comp, treeStyle);
+				return createFilteredTree(comp, treeStyle, filter);
 			}
 		};
 
@@ -160,10 +268,10 @@ public class FilteredTreeTests extends UITestCase {
 		return dialog;
 	}
 
-	private FilteredTree createFilteredTree(Composite parent, int style){
+	private FilteredTree createFilteredTree(Composite parent, int style, PatternFilter filter){
 		Composite c = new Composite(parent, SWT.NONE);
 		c.setLayout(new GridLayout());
-		FilteredTree fTree = new FilteredTree(c, style, new PatternFilter());
+		FilteredTree fTree = new FilteredTree(c, style, filter);
 
 		GridData gd = new GridData(SWT.FILL, SWT.FILL, true, true);
 		gd.widthHint = 400;
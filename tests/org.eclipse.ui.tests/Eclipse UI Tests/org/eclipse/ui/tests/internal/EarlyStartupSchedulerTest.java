@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2023 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ui.internal.EarlyStartupScheduler;
+import org.eclipse.ui.internal.EarlyStartupScheduler.Task;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the order in which {@link EarlyStartupScheduler} runs early startup
+ * code.
+ */
+public class EarlyStartupSchedulerTest {
+
+	private static final Object FAMILY = new Object();
+
+	private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+	private EarlyStartupScheduler scheduler;
+
+	@Before
+	public void setUp() {
+		scheduler = new EarlyStartupScheduler(FAMILY, 0, () -> true);
+	}
+
+	@Test
+	public void testSerialTasksRunInOrder() {
+		addTask("a", false, false);
+		addTask("b", false, false);
+		addTask("c", false, false);
+		assertTrue(scheduler.run(new NullProgressMonitor()).isOK());
+		assertEquals(Arrays.asList("a", "b", "c"), started);
+	}
+
+	@Test
+	public void testDependenciesRunFirst() {
+		addTask("a", false, false);
+		Task b = addTask("b", false, false);
+		Task c = addTask("c", false, false);
+		b.addDependency(c);
+		scheduler.run(new NullProgressMonitor());
+		assertEquals(Arrays.asList("a", "c", "b"), started);
+	}
+
+	@Test
+	public void testDeferredTasksRunLast() {
+		addTask("a", false, true);
+		addTask("b", false, false);
+		scheduler.run(new NullProgressMonitor());
+		assertEquals(Arrays.asList("b", "a"), started);
+	}
+
+	@Test
+	public void testCyclicDependencies() {
+		Task a = addTask("a", false, false);
+		Task b = addTask("b", true, false);
+		a.addDependency(b);
+		b.addDependency(a);
+		assertTrue(scheduler.run(new NullProgressMonitor()).isOK());
+		assertEquals(Arrays.asList("b", "a"), started);
+	}
+
+	@Test
+	public void testParallelTasksRunAtTheSameTime() {
+		CountDownLatch latch = new CountDownLatch(2);
+		Runnable runnable = () -> {
+			latch.countDown();
+			try {
+				latch.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		scheduler.addTask("a", runnable, true, false);
+		scheduler.addTask("b", runnable, true, false);
+		assertTrue(scheduler.run(new NullProgressMonitor()).isOK());
+		assertEquals(0, latch.getCount());
+		assertEquals(Set.of("a", "b"), scheduler.getTimes().keySet());
+	}
+
+	@Test
+	public void testParallelTaskWaitsForDependency() {
+		Task a = addTask("a", true, false);
+		Task b = addTask("b", false, false);
+		a.addDependency(b);
+		scheduler.run(new NullProgressMonitor());
+		assertEquals(Arrays.asList("b", "a"), started);
+	}
+
+	@Test
+	public void testDeferredParallelTasksRunLast() {
+		addTask("a", true, true);
+		addTask("b", true, false);
+		addTask("c", false, false);
+		assertTrue(scheduler.run(new NullProgressMonitor()).isOK());
+		assertEquals(3, started.size());
+		assertEquals("a", started.get(2));
+	}
+
+	@Test
+	public void testDeferredDependencyRunsEarly() {
+		Task a = addTask("a", false, false);
+		Task b = addTask("b", true, true);
+		a.addDependency(b);
+		addTask("c", false, true);
+		assertTrue(scheduler.run(new NullProgressMonitor()).isOK());
+		assertEquals(Arrays.asList("b", "a", "c"), started);
+	}
+
+	@Test
+	public void testBudget() {
+		AtomicLong clock = new AtomicLong();
+		scheduler = new EarlyStartupScheduler(FAMILY, 10, () -> true, clock::get);
+		scheduler.addTask("slow", () -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100)), false, false);
+		addTask("fast", false, false);
+		assertTrue(scheduler.run(new NullProgressMonitor()).isOK());
+		assertEquals(Set.of("slow"), scheduler.getTasksOverBudget());
+		assertEquals(100, scheduler.getTimes().get("slow").longValue());
+		assertEquals(0, scheduler.getTimes().get("fast").longValue());
+	}
+
+	@Test
+	public void testCancel() {
+		scheduler = new EarlyStartupScheduler(FAMILY, 0, () -> false);
+		addTask("a", false, false);
+		addTask("b", true, false);
+		assertTrue(scheduler.run(new NullProgressMonitor()).matches(IStatus.CANCEL));
+		assertTrue(started.isEmpty());
+	}
+
+	private Task addTask(String name, boolean parallel, boolean deferred) {
+		return scheduler.addTask(name, () -> started.add(name), parallel, deferred);
+	}
+}
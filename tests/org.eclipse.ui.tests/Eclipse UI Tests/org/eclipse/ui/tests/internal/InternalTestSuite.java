@@ -66,5 +66,6 @@ import org.junit.runners.Suite;
 	Bug549139Test.class,
 	LargeFileLimitsPreferenceHandlerTest.class,
 	WorkbookEditorsHandlerTest.class,
+	EarlyStartupSchedulerTest.class,
 })
 public class InternalTestSuite {}
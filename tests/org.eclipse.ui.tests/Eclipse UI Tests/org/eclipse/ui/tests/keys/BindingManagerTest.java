@@ -22,9 +22,12 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -998,4 +1001,179 @@ public final class BindingManagerTest {
 				.getBestActiveBindingFor(console);
 		assertEquals(b3.getTriggerSequence(), bestBinding2);
 	}
+
+	/**
+	 * Tests that activating and deactivating a child context, and adding a
+	 * binding to an inactive context, update the active bindings and the
+	 * partial matches the same way a complete recomputation would.
+	 *
+	 * @throws NotDefinedException
+	 *             If the scheme we try to activate is not defined.
+	 * @throws ParseException
+	 *             If the hard-coded strings aren't constructed properly.
+	 */
+	@Test
+	public void testContextChangesUpdateActiveBindings()
+			throws NotDefinedException, ParseException {
+		final Context parent = contextManager.getContext("parent");
+		parent.define("parent", "description", null);
+		final Context child = contextManager.getContext("child");
+		child.define("child", "description", "parent");
+		final Scheme scheme = bindingManager.getScheme("na");
+		scheme.define("name", "description", null);
+		bindingManager.setActiveScheme(scheme);
+
+		final KeySequence ctrlF = KeySequence.getInstance("CTRL+F");
+		final KeySequence ctrlG = KeySequence.getInstance("CTRL+G");
+		final KeySequence ctrlGH = KeySequence.getInstance("CTRL+G CTRL+H");
+		final Binding parentBinding = new KeyBinding(ctrlF,
+				new ParameterizedCommand(commandManager.getCommand("parentCommand"), null),
+				"na", "parent", null, null, null, Binding.SYSTEM);
+		final Binding childBinding = new KeyBinding(ctrlF,
+				new ParameterizedCommand(commandManager.getCommand("childCommand"), null),
+				"na", "child", null, null, null, Binding.SYSTEM);
+		final Binding sequenceBinding = new KeyBinding(ctrlGH,
+				new ParameterizedCommand(commandManager.getCommand("sequenceCommand"), null),
+				"na", "child", null, null, null, Binding.SYSTEM);
+		bindingManager.setBindings(new Binding[] { parentBinding, childBinding });
+
+		final Set<String> activeContextIds = new HashSet<>();
+		activeContextIds.add("parent");
+		contextManager.setActiveContextIds(activeContextIds);
+		assertSame(parentBinding, bindingManager.getPerfectMatch(ctrlF));
+
+		// Adding a binding to an inactive context changes nothing.
+		bindingManager.addBinding(sequenceBinding);
+		assertFalse(bindingManager.isPartialMatch(ctrlG));
+		assertNull(bindingManager.getPerfectMatch(ctrlGH));
+
+		activeContextIds.add("child");
+		contextManager.setActiveContextIds(new HashSet<>(activeContextIds));
+		assertSame("The child context should win", childBinding,
+				bindingManager.getPerfectMatch(ctrlF));
+		assertTrue(bindingManager.isPartialMatch(ctrlG));
+		assertSame(sequenceBinding, bindingManager.getPerfectMatch(ctrlGH));
+		assertEquals(1, bindingManager.getActiveBindingsFor("childCommand").length);
+		assertEquals(0, bindingManager.getActiveBindingsFor("parentCommand").length);
+
+		activeContextIds.remove("child");
+		contextManager.setActiveContextIds(new HashSet<>(activeContextIds));
+		assertSame(parentBinding, bindingManager.getPerfectMatch(ctrlF));
+		assertFalse(bindingManager.isPartialMatch(ctrlG));
+		assertFalse(bindingManager.getPartialMatches(KeySequence.getInstance())
+				.containsKey(ctrlGH));
+		assertEquals(0, bindingManager.getActiveBindingsFor("childCommand").length);
+		assertEquals(1, bindingManager.getActiveBindingsFor("parentCommand").length);
+	}
+
+	/**
+	 * Tests that the solutions derived from the previous one, when a context
+	 * changes or a binding is added, are the same as the solutions computed
+	 * from scratch.
+	 *
+	 * @throws NotDefinedException
+	 *             If the scheme we try to activate is not defined.
+	 * @throws ParseException
+	 *             If the hard-coded strings aren't constructed properly.
+	 */
+	@Test
+	public void testIncrementalUpdatesMatchFullRecompute()
+			throws NotDefinedException, ParseException {
+		final Context parent = contextManager.getContext("parent");
+		parent.define("parent", "description", null);
+		final Context child = contextManager.getContext("child");
+		child.define("child", "description", "parent");
+		final Scheme scheme = bindingManager.getScheme("na");
+		scheme.define("name", "description", null);
+		bindingManager.setActiveScheme(scheme);
+
+		final KeySequence ctrlF = KeySequence.getInstance("CTRL+F");
+		final KeySequence ctrlGH = KeySequence.getInstance("CTRL+G CTRL+H");
+		final KeySequence ctrlK = KeySequence.getInstance("CTRL+K");
+		final List<TriggerSequence> triggers = new ArrayList<>();
+		final List<Binding> bindings = new ArrayList<>();
+		bindings.add(new KeyBinding(ctrlF,
+				new ParameterizedCommand(commandManager.getCommand("parentCommand"), null),
+				"na", "parent", null, null, null, Binding.SYSTEM));
+		bindings.add(new KeyBinding(ctrlF,
+				new ParameterizedCommand(commandManager.getCommand("childCommand"), null),
+				"na", "child", null, null, null, Binding.SYSTEM));
+		triggers.add(ctrlF);
+		// Unrelated triggers, so that only a few triggers are affected.
+		for (int i = 1; i <= 12; i++) {
+			final KeySequence trigger = KeySequence.getInstance("CTRL+K ALT+F" + i);
+			bindings.add(new KeyBinding(trigger,
+					new ParameterizedCommand(commandManager.getCommand("unrelatedCommand" + i), null),
+					"na", "parent", null, null, null, Binding.SYSTEM));
+			triggers.add(trigger);
+		}
+		bindingManager.setBindings(bindings.toArray(new Binding[bindings.size()]));
+		triggers.add(ctrlGH);
+
+		final Set<String> activeContextIds = new HashSet<>();
+		activeContextIds.add("parent");
+		contextManager.setActiveContextIds(new HashSet<>(activeContextIds));
+		assertSameAsFullRecompute(scheme, triggers);
+		/*
+		 * A solution derived from the previous one shares the completions of
+		 * the prefixes it did not touch, a full recompute builds new ones.
+		 */
+		final Map<?, ?> unrelatedCompletions = bindingManager.getPartialMatches(ctrlK);
+		assertEquals(12, unrelatedCompletions.size());
+
+		activeContextIds.add("child");
+		contextManager.setActiveContextIds(new HashSet<>(activeContextIds));
+		assertSame(unrelatedCompletions, bindingManager.getPartialMatches(ctrlK));
+		assertSameAsFullRecompute(scheme, triggers);
+
+		// A binding added to an active context is applied to the solution.
+		final Binding sequenceBinding = new KeyBinding(ctrlGH,
+				new ParameterizedCommand(commandManager.getCommand("sequenceCommand"), null),
+				"na", "child", null, null, null, Binding.SYSTEM);
+		bindingManager.addBinding(sequenceBinding);
+		assertSame(unrelatedCompletions, bindingManager.getPartialMatches(ctrlK));
+		assertSame(sequenceBinding, bindingManager.getPerfectMatch(ctrlGH));
+		assertSameAsFullRecompute(scheme, triggers);
+
+		activeContextIds.remove("child");
+		contextManager.setActiveContextIds(new HashSet<>(activeContextIds));
+		assertSame(unrelatedCompletions, bindingManager.getPartialMatches(ctrlK));
+		assertNull(bindingManager.getPerfectMatch(ctrlGH));
+		assertSameAsFullRecompute(scheme, triggers);
+	}
+
+	/**
+	 * Asserts that the active bindings and the prefix table of the binding
+	 * manager are the ones of a binding manager computing them from scratch.
+	 */
+	private void assertSameAsFullRecompute(Scheme scheme, List<TriggerSequence> triggers)
+			throws NotDefinedException {
+		final BindingManager reference = new BindingManager(contextManager, commandManager);
+		try {
+			final Scheme referenceScheme = reference.getScheme(scheme.getId());
+			referenceScheme.define(scheme.getName(), scheme.getDescription(), null);
+			reference.setActiveScheme(referenceScheme);
+			reference.setBindings(bindingManager.getBindings());
+
+			for (TriggerSequence trigger : triggers) {
+				assertEquals(trigger.toString(), reference.getPerfectMatch(trigger),
+						bindingManager.getPerfectMatch(trigger));
+				for (TriggerSequence prefix : trigger.getPrefixes()) {
+					assertEquals(prefix.toString(), reference.isPartialMatch(prefix),
+							bindingManager.isPartialMatch(prefix));
+					assertEquals(prefix.toString(), reference.getPartialMatches(prefix),
+							bindingManager.getPartialMatches(prefix));
+				}
+			}
+			for (Binding binding : bindingManager.getBindings()) {
+				final String commandId = binding.getParameterizedCommand().getId();
+				assertEquals(commandId,
+						new HashSet<>(Arrays.asList(reference.getActiveBindingsFor(commandId))),
+						new HashSet<>(Arrays.asList(bindingManager.getActiveBindingsFor(commandId))));
+			}
+			assertEquals(reference.getCurrentConflicts(), bindingManager.getCurrentConflicts());
+		} finally {
+			contextManager.removeContextManagerListener(reference);
+		}
+	}
 }